@@ -1,9 +1,9 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "46947b2e-3254-4ef7-a17e-0a2c73569f7a"
-//   Timestamp: "2025-08-07T10:50:34+08:00"
+//   Action: "Modified"
+//   Task_ID: "4d602efe-3645-4760-be73-4deb3c20f8e1"
+//   Timestamp: "2026-10-17T10:05:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Spring Boot主启动类标准实现"
+//   Principle_Applied: "启用定时任务支持检索索引定期重建"
 //   Quality_Check: "编译通过，注解配置正确。"
 // }}
 // {{START_MODIFICATIONS}}
@@ -13,6 +13,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 诗词交流鉴赏平台主启动类
@@ -23,6 +24,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @SpringBootApplication
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class PoemEducationApplication {
 
     public static void main(String[] args) {
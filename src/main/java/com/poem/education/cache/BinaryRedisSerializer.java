@@ -0,0 +1,159 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "028dffa5-023b-4f64-be5e-027212bb73c6"
+//   Timestamp: "2026-10-20T22:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "类型标签按白名单解析，只允许缓存DTO与java.util集合"
+//   Quality_Check: "非白名单@type不再实例化，现有缓存读写测试通过。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 二进制Redis值序列化器
+ * 格式：魔数(1字节) + 格式版本(1字节) + 标志位(1字节) + 载荷。
+ * 载荷为FastJSON2 JSONB编码（带类型标签、字符串长度前缀、UTF-8），
+ * 超过压缩阈值且压缩后更小时使用Deflate压缩（标志位FLAG_DEFLATE）。
+ * 首字节不是魔数的数据视为FastJson2RedisSerializer写入的旧JSON格式，按原方式解析，
+ * 旧缓存随TTL自然过期，无需迁移脚本。
+ * 两条读取路径都只按白名单解析类型标签（缓存DTO与java.util集合），不开启全局AutoType，
+ * 防止能写入Redis的一方借@type实例化任意类。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 魔数，UTF-8中不会作为首字节出现，可与旧JSON数据区分
+     */
+    static final byte MAGIC = (byte) 0xB1;
+
+    static final byte FORMAT_VERSION = 1;
+
+    static final byte FLAG_DEFLATE = 0x01;
+
+    private static final int HEADER_LENGTH = 3;
+
+    /**
+     * 允许按类型标签实例化的类名前缀
+     */
+    private static final JSONReader.AutoTypeBeforeHandler AUTO_TYPE_FILTER =
+            JSONReader.autoTypeFilter("com.poem.education.dto.", "java.util.");
+
+    /**
+     * 载荷达到该字节数时尝试压缩
+     */
+    private final int compressThreshold;
+
+    public BinaryRedisSerializer(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] payload = JSONB.toBytes(value, JSONWriter.Feature.WriteClassName);
+        byte flags = 0;
+        if (payload.length >= compressThreshold) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = FORMAT_VERSION;
+        bytes[2] = flags;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return deserializeLegacy(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            throw new SerializationException("不支持的缓存值格式版本: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+        if ((bytes[2] & FLAG_DEFLATE) != 0) {
+            payload = inflate(payload);
+        }
+        try {
+            return JSONB.parseObject(payload, Object.class, AUTO_TYPE_FILTER);
+        } catch (JSONException e) {
+            throw new SerializationException("缓存值解析失败", e);
+        }
+    }
+
+    /**
+     * 读取FastJson2RedisSerializer写入的旧JSON数据
+     * 旧序列化器使用平台默认字符集，非UTF-8平台写入时中文已经丢失，这里统一按UTF-8解析
+     */
+    private Object deserializeLegacy(byte[] bytes) {
+        String str = new String(bytes, StandardCharsets.UTF_8);
+        return JSON.parseObject(str, Object.class, AUTO_TYPE_FILTER);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("缓存值压缩数据不完整");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("缓存值解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
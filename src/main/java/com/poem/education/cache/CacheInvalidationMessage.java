@@ -0,0 +1,78 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "c9eefa0d-ee67-4fdd-b6c1-03546cb03d52"
+//   Timestamp: "2026-10-18T14:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "一级缓存失效消息携带来源节点，节点忽略自己发布的消息"
+//   Quality_Check: "编译通过，可由FastJSON2序列化。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+/**
+ * 一级缓存失效消息
+ * 通过Redis发布/订阅在节点间传递。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class CacheInvalidationMessage {
+
+    /**
+     * 发布消息的节点ID
+     */
+    private String nodeId;
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 缓存键，为null表示清空整个缓存
+     */
+    private String key;
+
+    public CacheInvalidationMessage() {
+    }
+
+    public CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+        this.nodeId = nodeId;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationMessage{" +
+                "nodeId='" + nodeId + '\'' +
+                ", cacheName='" + cacheName + '\'' +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,159 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "ac2a6a9d-cf3b-4c64-83a1-4a051aa0550b"
+//   Timestamp: "2026-10-20T18:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "作者、名句语料变化时同样清空对应的详情缓存"
+//   Quality_Check: "编译通过，ETag变化后响应体随之更新。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.poem.education.config.CacheConfig;
+import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import com.poem.education.service.GuwenService;
+import com.poem.education.service.SentenceService;
+import com.poem.education.service.WriterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 语料详情缓存预热与失效
+ * 应用就绪后按ContentStats热度加载前N条古文/名句/作者详情，经由Service代理写入缓存；
+ * 古文语料变化时清空古文详情缓存。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Component
+public class CorpusCacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorpusCacheWarmer.class);
+
+    @Autowired
+    private ContentStatsRepository contentStatsRepository;
+
+    @Autowired
+    private GuwenService guwenService;
+
+    @Autowired
+    private SentenceService sentenceService;
+
+    @Autowired
+    private WriterService writerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.warmup.top-n:500}")
+    private int topN;
+
+    /**
+     * 应用就绪后异步预热
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * 按热度预热详情缓存
+     *
+     * @return 成功加载的条数
+     */
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        List<ContentStats> hotContents;
+        try {
+            hotContents = contentStatsRepository.findTopHotContents(PageRequest.of(0, topN));
+        } catch (Exception e) {
+            logger.warn("缓存预热失败，无法获取热门内容: {}", e.getMessage());
+            return 0;
+        }
+
+        int loaded = 0;
+        for (ContentStats stats : hotContents) {
+            try {
+                if (load(stats.getContentType(), stats.getContentId())) {
+                    loaded++;
+                }
+            } catch (Exception e) {
+                // 统计中的内容可能已被删除，跳过即可
+                logger.debug("预热跳过: type={}, id={}, error={}", stats.getContentType(), stats.getContentId(),
+                             e.getMessage());
+            }
+        }
+        logger.info("缓存预热完成: candidates={}, loaded={}, cost={}ms", hotContents.size(), loaded,
+                   System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     * 语料变化后清空对应的详情缓存，避免ETag已变化而响应仍来自旧的详情缓存
+     *
+     * @param event 语料变更事件
+     */
+    @EventListener
+    public void onCorpusChanged(CorpusChangedEvent event) {
+        String cacheName = detailCacheName(event.getCorpus());
+        if (cacheName == null) {
+            return;
+        }
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        } catch (Exception e) {
+            logger.warn("清空详情缓存失败: cache={}, error={}", cacheName, e.getMessage());
+        }
+    }
+
+    private static String detailCacheName(String corpus) {
+        if (CorpusVersionService.CORPUS_GUWEN.equals(corpus)) {
+            return CacheConfig.GUWEN_CACHE;
+        }
+        if (CorpusVersionService.CORPUS_WRITER.equals(corpus)) {
+            return CacheConfig.WRITER_CACHE;
+        }
+        if (CorpusVersionService.CORPUS_SENTENCE.equals(corpus)) {
+            return CacheConfig.SENTENCE_CACHE;
+        }
+        return null;
+    }
+
+    private boolean load(String contentType, String contentId) {
+        switch (contentType) {
+            case "guwen":
+                guwenService.getGuwenById(contentId);
+                return true;
+            case "sentence":
+                sentenceService.getSentenceById(contentId);
+                return true;
+            case "writer":
+                writerService.getWriterById(contentId);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,46 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "8e3d0d5c-080d-4e1d-a9c1-dd60a3fd0d4c"
+//   Timestamp: "2026-10-18T11:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "语料变更以事件通知，依赖方自行决定刷新策略"
+//   Quality_Check: "编译通过，事件不可变。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+/**
+ * 语料变更事件
+ * 语料版本号递增后发布，字典、检索索引等派生数据可据此刷新。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class CorpusChangedEvent {
+
+    private final String corpus;
+
+    private final long version;
+
+    public CorpusChangedEvent(String corpus, long version) {
+        this.corpus = corpus;
+        this.version = version;
+    }
+
+    public String getCorpus() {
+        return corpus;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "CorpusChangedEvent{" +
+                "corpus='" + corpus + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
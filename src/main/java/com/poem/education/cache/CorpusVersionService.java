@@ -0,0 +1,202 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "f86ad41b-dc17-4c10-bcb4-2be58dd50b1d"
+//   Timestamp: "2026-10-20T23:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "启动时为语料集合创建updatedAt索引，指纹检测不再全表排序"
+//   Quality_Check: "索引创建失败只记录日志，不影响启动与版本检测。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 语料版本服务
+ * 每个语料（guwen/writer/sentence）维护一个单调递增的版本号，查询结果缓存的键和HTTP ETag中包含版本号，
+ * 版本号递增后旧缓存自然失效（随TTL过期），无需逐条删除。
+ * 版本号在本地缓存很短时间，避免每次查询都访问Redis。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Service
+public class CorpusVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorpusVersionService.class);
+
+    public static final String CORPUS_GUWEN = "guwen";
+
+    public static final String CORPUS_WRITER = "writer";
+
+    public static final String CORPUS_SENTENCE = "sentence";
+
+    /**
+     * 定时检测变化的语料及其实体类
+     */
+    private static final Map<String, Class<?>> TRACKED_CORPORA = new LinkedHashMap<>();
+
+    static {
+        TRACKED_CORPORA.put(CORPUS_GUWEN, Guwen.class);
+        TRACKED_CORPORA.put(CORPUS_WRITER, Writer.class);
+        TRACKED_CORPORA.put(CORPUS_SENTENCE, Sentence.class);
+    }
+
+    private static final String VERSION_KEY_PREFIX = "corpus:version:";
+
+    private static final String UPDATED_AT_INDEX = "updatedAt_-1";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${corpus.version.local-ttl-ms:1000}")
+    private long localTtlMs;
+
+    private final Map<String, CachedVersion> localVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 语料名称 -> 上次检查时的集合指纹
+     */
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * 确保指纹查询使用的updatedAt索引存在
+     * 未开启auto-index-creation时实体上的@Indexed不会生效，这里显式创建，
+     * 否则每次检测都要对整个集合按updatedAt排序
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        for (Map.Entry<String, Class<?>> corpus : TRACKED_CORPORA.entrySet()) {
+            try {
+                mongoTemplate.indexOps(corpus.getValue())
+                        .ensureIndex(new Index().on("updatedAt", Sort.Direction.DESC).named(UPDATED_AT_INDEX).background());
+            } catch (Exception e) {
+                logger.warn("创建语料updatedAt索引失败: corpus={}, error={}", corpus.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取语料当前版本号
+     *
+     * @param corpus 语料名称
+     * @return 版本号，从未变更过时为0
+     */
+    public long getVersion(String corpus) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = localVersions.get(corpus);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.version;
+        }
+        long version;
+        try {
+            String value = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + corpus);
+            version = value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            logger.warn("读取语料版本失败，使用本地版本: corpus={}, error={}", corpus, e.getMessage());
+            version = cached == null ? 0L : cached.version;
+        }
+        localVersions.put(corpus, new CachedVersion(version, now + localTtlMs));
+        return version;
+    }
+
+    /**
+     * 递增语料版本号，使该语料相关的查询缓存全部失效
+     * 修改语料数据后调用
+     *
+     * @param corpus 语料名称
+     * @return 新版本号
+     */
+    public long bump(String corpus) {
+        long version;
+        try {
+            Long value = stringRedisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + corpus);
+            version = value == null ? 0L : value;
+        } catch (Exception e) {
+            // Redis不可用时查询缓存本身也不可用，本地递增即可保证本实例不读到旧结果
+            CachedVersion cached = localVersions.get(corpus);
+            version = (cached == null ? 0L : cached.version) + 1;
+            logger.warn("递增语料版本失败，仅更新本地版本: corpus={}, error={}", corpus, e.getMessage());
+        }
+        localVersions.put(corpus, new CachedVersion(version, System.currentTimeMillis() + localTtlMs));
+        logger.info("语料版本已更新: corpus={}, version={}", corpus, version);
+        eventPublisher.publishEvent(new CorpusChangedEvent(corpus, version));
+        return version;
+    }
+
+    /**
+     * 定时检测语料集合是否变化（数据通常由导入脚本直接写入MongoDB，不经过应用）
+     * 指纹由文档数、最大_id和最大updatedAt组成，变化时递增对应语料的版本号
+     */
+    @Scheduled(initialDelayString = "${corpus.version.check-interval-ms:60000}",
+               fixedDelayString = "${corpus.version.check-interval-ms:60000}")
+    public void checkCorpusChanges() {
+        for (Map.Entry<String, Class<?>> corpus : TRACKED_CORPORA.entrySet()) {
+            try {
+                String fingerprint = fingerprint(corpus.getValue());
+                String previous = fingerprints.put(corpus.getKey(), fingerprint);
+                if (previous != null && !previous.equals(fingerprint)) {
+                    logger.info("检测到语料数据变化: corpus={}, {} -> {}", corpus.getKey(), previous, fingerprint);
+                    bump(corpus.getKey());
+                }
+            } catch (Exception e) {
+                logger.warn("检测语料数据变化失败: corpus={}, error={}", corpus.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private String fingerprint(Class<?> entityClass) {
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        long count = mongoTemplate.estimatedCount(collection);
+        Object maxId = maxValue(collection, "_id");
+        Object maxUpdatedAt = maxValue(collection, "updatedAt");
+        return count + "|" + Objects.toString(maxId, "") + "|" + Objects.toString(maxUpdatedAt, "");
+    }
+
+    private Object maxValue(String collection, String field) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, field)).limit(1);
+        query.fields().include(field);
+        Document document = mongoTemplate.findOne(query, Document.class, collection);
+        return document == null ? null : document.get(field);
+    }
+
+    private static final class CachedVersion {
+
+        private final long version;
+
+        private final long expiresAt;
+
+        private CachedVersion(long version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
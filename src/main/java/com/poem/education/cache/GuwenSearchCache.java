@@ -0,0 +1,164 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "8e3d0d5c-080d-4e1d-a9c1-dd60a3fd0d4c"
+//   Timestamp: "2026-10-18T11:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "搜索请求规范化为稳定哈希键，只缓存ID列表与分页信息，语料版本号变更即整体失效"
+//   Quality_Check: "编译通过，缓存读写异常不影响搜索。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.poem.education.config.CacheConfig;
+import com.poem.education.dto.request.CountMode;
+import com.poem.education.dto.request.GuwenSearchRequest;
+import com.poem.education.dto.response.PageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 古文搜索结果缓存
+ * 缓存值为当前页古文ID列表及总数/分面等分页信息（PageResult&lt;String&gt;），命中后按ID回表，
+ * 避免缓存整篇古文内容。缓存键由规范化后的搜索请求和古文语料版本号组成，
+ * 语料变化时CorpusVersionService递增版本号，旧键不再被访问并随TTL过期。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Component
+public class GuwenSearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuwenSearchCache.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CorpusVersionService corpusVersionService;
+
+    @Value("${search.cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 读取缓存的搜索结果
+     *
+     * @param request 搜索请求
+     * @return 当前页ID及分页信息，未命中或缓存不可用时为null
+     */
+    @SuppressWarnings("unchecked")
+    public PageResult<String> get(GuwenSearchRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+            if (cache == null) {
+                return null;
+            }
+            Cache.ValueWrapper wrapper = cache.get(buildKey(request));
+            return wrapper == null ? null : (PageResult<String>) wrapper.get();
+        } catch (Exception e) {
+            logger.warn("读取搜索缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入搜索结果
+     *
+     * @param request 搜索请求
+     * @param ids     当前页ID及分页信息
+     */
+    public void put(GuwenSearchRequest request, PageResult<String> ids) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+            if (cache != null) {
+                cache.put(buildKey(request), ids);
+            }
+        } catch (Exception e) {
+            logger.warn("写入搜索缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 构建缓存键：guwen:v{语料版本}:{规范化请求的MD5}
+     *
+     * @param request 搜索请求
+     * @return 缓存键
+     */
+    String buildKey(GuwenSearchRequest request) {
+        long version = corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN);
+        String digest = DigestUtils.md5DigestAsHex(normalize(request).getBytes(StandardCharsets.UTF_8));
+        return CorpusVersionService.CORPUS_GUWEN + ":v" + version + ":" + digest;
+    }
+
+    /**
+     * 将搜索请求规范化为字符串，语义相同的请求得到相同结果
+     * <ul>
+     *   <li>关键字去除首尾空白；所有搜索类型均忽略大小写，因此不含反斜杠转义时统一转小写
+     *       （\S、\W等转义的大小写含义不同，不能转换）</li>
+     *   <li>搜索类型为空或未知时按smart处理，与GuwenServiceImpl一致</li>
+     *   <li>MongoDB查询不支持相关度排序，relevance按createdAt处理</li>
+     *   <li>分面数量仅在请求分面时参与键计算</li>
+     * </ul>
+     *
+     * @param request 搜索请求
+     * @return 规范化字符串
+     */
+    static String normalize(GuwenSearchRequest request) {
+        boolean withFacets = Boolean.TRUE.equals(request.getWithFacets());
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("k=").append(normalizeKeyword(request.getKeyword()))
+          .append("|t=").append(normalizeSearchType(request.getSearchType()))
+          .append("|w=").append(trimToEmpty(request.getWriter()))
+          .append("|d=").append(trimToEmpty(request.getDynasty()))
+          .append("|y=").append(trimToEmpty(request.getType()))
+          .append("|s=").append(normalizeSortBy(request.getSortBy()))
+          .append("|o=").append("asc".equalsIgnoreCase(request.getSortDir()) ? "asc" : "desc")
+          .append("|p=").append(request.getPage())
+          .append("|n=").append(request.getSize())
+          .append("|c=").append(CountMode.of(request.getCountMode()).name())
+          .append("|f=").append(withFacets);
+        if (withFacets) {
+            sb.append("|fs=").append(request.getFacetSize() == null ? 20 : request.getFacetSize());
+        }
+        return sb.toString();
+    }
+
+    private static String normalizeKeyword(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return "";
+        }
+        String trimmed = keyword.trim();
+        return trimmed.indexOf('\\') >= 0 ? trimmed : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeSearchType(String searchType) {
+        if ("fuzzy".equals(searchType) || "content".equals(searchType) || "exact".equals(searchType)) {
+            return searchType;
+        }
+        return "smart";
+    }
+
+    private static String normalizeSortBy(String sortBy) {
+        return sortBy == null || "relevance".equals(sortBy) ? "createdAt" : sortBy;
+    }
+
+    private static String trimToEmpty(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
+// {{END_MODIFICATIONS}}
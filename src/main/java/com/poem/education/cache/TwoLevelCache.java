@@ -0,0 +1,266 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "e0cafafc-092d-4866-8bdf-fcd0b4b90f69"
+//   Timestamp: "2026-10-20T21:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "写入null时两级缓存都移除旧值，不向Redis写入null"
+//   Quality_Check: "编译通过，不允许null值的Redis缓存不会抛出异常。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.poem.education.util.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * 两级缓存
+ * 读取时先查本地一级缓存，未命中再查Redis二级缓存并回填一级缓存；
+ * 写入、删除、清空同时作用于两级，并通过失效通知使其他节点丢弃本地副本。
+ * 一级缓存以String.valueOf(key)为键，与RedisCache默认的键转换方式一致，便于按消息中的键失效。
+ * <p>
+ * 带加载函数的读取（@Cacheable(sync = true)）：
+ * <ul>
+ *   <li>同一键的并发未命中只执行一次Redis读取与加载，其余线程共享结果</li>
+ *   <li>配置了refreshAfterMs时，本地副本存在超过该时间后仍返回旧值，同时在后台重新加载并写回两级缓存，
+ *       热点条目因此不会因过期而集中回源</li>
+ *   <li>Redis读写失败时只记录警告，直接调用加载函数并写入本地缓存，Redis不可用不影响详情查询</li>
+ * </ul>
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache;
+
+    private final Cache remoteCache;
+
+    /**
+     * 失效通知发布器：(缓存名称, 键)，键为null表示清空整个缓存
+     */
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    /**
+     * 本地副本存在超过该时间后后台刷新，0表示不刷新
+     */
+    private final long refreshAfterMs;
+
+    private final Executor refreshExecutor;
+
+    private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+    private final SingleFlight<String, Object> refreshes = new SingleFlight<>();
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache,
+                         Cache remoteCache, BiConsumer<String, String> invalidationPublisher) {
+        this(name, localCache, remoteCache, invalidationPublisher, 0L, null);
+    }
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache,
+                         Cache remoteCache, BiConsumer<String, String> invalidationPublisher,
+                         long refreshAfterMs, Executor refreshExecutor) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refreshAfterMs = refreshExecutor == null ? 0L : refreshAfterMs;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry != null) {
+            return new SimpleValueWrapper(entry.value);
+        }
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocal(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: 期望" + type.getName() + ", 实际" + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry != null) {
+            if (refreshAfterMs > 0 && System.currentTimeMillis() - entry.loadedAt >= refreshAfterMs) {
+                refreshes.executeAsync(localKey, () -> refresh(key, localKey, valueLoader), refreshExecutor);
+            }
+            return (T) entry.value;
+        }
+        return (T) loads.execute(localKey, () -> {
+            Object value = getRemote(key, localKey);
+            if (value == null) {
+                value = call(key, valueLoader);
+                if (value != null) {
+                    putRemote(key, localKey, value);
+                }
+            }
+            if (value != null) {
+                putLocal(localKey, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        if (value == null) {
+            // 不缓存null：两级都移除旧值
+            remoteCache.evict(key);
+            localCache.invalidate(localKey);
+        } else {
+            remoteCache.put(key, value);
+            putLocal(localKey, value);
+        }
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * 处理其他节点的失效通知，只清理本地一级缓存
+     *
+     * @param key 键，为null时清空
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    /**
+     * 本地一级缓存条目数（近似值）
+     *
+     * @return 条目数
+     */
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    /**
+     * 后台刷新：重新加载并写回两级缓存，失败时保留旧值
+     * 刷新结果与旧值通常一致，不发布失效通知，其他节点的副本各自按时间刷新
+     */
+    private Object refresh(Object key, String localKey, Callable<?> valueLoader) {
+        try {
+            Object value = valueLoader.call();
+            if (value != null) {
+                putRemote(key, localKey, value);
+                putLocal(localKey, value);
+            }
+            return value;
+        } catch (Exception e) {
+            logger.warn("缓存后台刷新失败，继续使用旧值: cache={}, key={}, error={}", name, localKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取二级缓存，Redis异常时按未命中处理
+     */
+    private Object getRemote(Object key, String localKey) {
+        try {
+            ValueWrapper wrapper = remoteCache.get(key);
+            return wrapper == null ? null : wrapper.get();
+        } catch (RuntimeException e) {
+            logger.warn("读取Redis缓存失败，直接加载: cache={}, key={}, error={}", name, localKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入二级缓存，Redis异常时只保留本地副本
+     */
+    private void putRemote(Object key, String localKey, Object value) {
+        try {
+            remoteCache.put(key, value);
+        } catch (RuntimeException e) {
+            logger.warn("写入Redis缓存失败: cache={}, key={}, error={}", name, localKey, e.getMessage());
+        }
+    }
+
+    private void putLocal(String localKey, Object value) {
+        localCache.put(localKey, new LocalEntry(value, System.currentTimeMillis()));
+    }
+
+    private static Object call(Object key, Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * 本地缓存条目：值与加载时间
+     */
+    public static final class LocalEntry {
+
+        private final Object value;
+
+        private final long loadedAt;
+
+        LocalEntry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,165 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "a9d595e2-f2fe-4f09-b8d0-7871d5db6687"
+//   Timestamp: "2026-10-18T19:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "按缓存配置后台刷新时间，刷新在有界专用线程池中执行"
+//   Quality_Check: "编译通过，队列满时放弃刷新。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 两级缓存管理器
+ * 一级为进程内Caffeine缓存（容量有界，W-TinyLFU淘汰），二级为RedisCacheManager提供的Redis缓存。
+ * 任一节点写入或删除缓存时，在INVALIDATION_CHANNEL上发布失效消息，其他节点收到后丢弃本地副本，
+ * 本地副本同时受各自的expireAfterWrite约束，消息丢失时最长在该时间内读到旧值。
+ * 配置了后台刷新时间的缓存在一个小型专用线程池中刷新，队列满时放弃刷新、继续返回旧值。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    /**
+     * 一级缓存失效消息频道
+     */
+    public static final String INVALIDATION_CHANNEL = "cache:local:invalidate";
+
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager remoteCacheManager;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 缓存名称 -> 本地缓存规格（CaffeineSpec格式）
+     */
+    private final Map<String, String> localSpecs;
+
+    private final String defaultLocalSpec;
+
+    /**
+     * 缓存名称 -> 本地副本后台刷新时间（毫秒）
+     */
+    private final Map<String, Long> refreshAfterMs;
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate stringRedisTemplate,
+                                Map<String, String> localSpecs, String defaultLocalSpec,
+                                Map<String, Long> refreshAfterMs) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localSpecs = localSpecs;
+        this.defaultLocalSpec = defaultLocalSpec;
+        this.refreshAfterMs = refreshAfterMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 接收其他节点的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation = JSON.parseObject(
+                    new String(message.getBody(), StandardCharsets.UTF_8), CacheInvalidationMessage.class);
+            handleInvalidation(invalidation);
+        } catch (Exception e) {
+            logger.warn("处理缓存失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理失效消息：忽略本节点发布的消息，只清理本地一级缓存
+     *
+     * @param invalidation 失效消息
+     */
+    void handleInvalidation(CacheInvalidationMessage invalidation) {
+        if (invalidation == null || nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.getKey());
+            logger.debug("本地缓存已失效: {}", invalidation);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            throw new IllegalStateException("无法创建Redis缓存: " + name);
+        }
+        String spec = localSpecs.getOrDefault(name, defaultLocalSpec);
+        long refreshAfter = refreshAfterMs.getOrDefault(name, 0L);
+        logger.info("创建两级缓存: name={}, localSpec={}, refreshAfterMs={}", name, spec, refreshAfter);
+        return new TwoLevelCache(name, Caffeine.from(spec).build(), remoteCache, this::publishInvalidation,
+                                 refreshAfter, refreshExecutor);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    JSON.toJSONString(new CacheInvalidationMessage(nodeId, cacheName, key)));
+        } catch (Exception e) {
+            logger.warn("发布缓存失效消息失败: cacheName={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,267 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "每个用户一个Redis集合保存点赞/收藏/分享成员，一次管道批量判断整页内容的状态"
+//   Quality_Check: "编译通过，写入只在集合已加载时同步，集合过大时不缓存。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户行为/收藏成员缓存
+ * 每个用户一个Redis集合member:user:{userId}，成员为：
+ * <ul>
+ *   <li>{actionType}:{targetType}:{targetId}：user_actions中的点赞、收藏、分享（浏览不缓存）</li>
+ *   <li>fav:{targetType}:{targetId}：user_favorites中的收藏</li>
+ * </ul>
+ * 集合首次使用时从数据库整体加载，并带有!loaded哨兵；成员数超过max-members的用户只写入!overflow哨兵，
+ * 由调用方改用IN查询。写入/取消时只在集合已加载时同步增删，批量删除时整体失效，集合随TTL过期。
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@Component
+public class UserMembershipCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserMembershipCache.class);
+
+    static final String KEY_PREFIX = "member:user:";
+
+    static final String LOADED = "!loaded";
+
+    static final String OVERFLOW = "!overflow";
+
+    private static final String FAVORITE_PREFIX = "fav:";
+
+    /**
+     * 仅在集合不存在时加载：ARGV[1]为TTL毫秒，其后为成员
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+            "redis.call('SADD', KEYS[1], unpack(ARGV, 2))\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 集合已加载时增删成员：ARGV[1]为SADD或SREM，其后为成员
+     */
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end\n" +
+            "return redis.call(ARGV[1], KEYS[1], unpack(ARGV, 2))", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${user-membership.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-membership.ttl-ms:1800000}")
+    private long ttlMs;
+
+    /**
+     * 可缓存的最大成员数，超过时改用IN查询（也受Lua unpack参数个数限制）
+     */
+    @Value("${user-membership.max-members:5000}")
+    private int maxMembers;
+
+    /**
+     * 查询结果
+     */
+    public static final class Lookup {
+
+        /**
+         * 集合未加载
+         */
+        public static final Lookup MISS = new Lookup(false, false, Collections.emptySet());
+
+        /**
+         * 未启用、Redis不可用或成员过多
+         */
+        public static final Lookup UNCACHEABLE = new Lookup(true, true, Collections.emptySet());
+
+        private final boolean loaded;
+
+        private final boolean overflow;
+
+        private final Set<String> present;
+
+        private Lookup(boolean loaded, boolean overflow, Set<String> present) {
+            this.loaded = loaded;
+            this.overflow = overflow;
+            this.present = present;
+        }
+
+        public static Lookup hit(Set<String> present) {
+            return new Lookup(true, false, present);
+        }
+
+        /**
+         * 是否命中：为true时present即为查询成员中存在的部分
+         */
+        public boolean isHit() {
+            return loaded && !overflow;
+        }
+
+        /**
+         * 是否需要从数据库加载集合；为false且未命中时调用方应使用IN查询
+         */
+        public boolean needsLoad() {
+            return !loaded;
+        }
+
+        public Set<String> getPresent() {
+            return present;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxMembers() {
+        return maxMembers;
+    }
+
+    public static String actionMember(String actionType, String targetType, String targetId) {
+        return actionType + ":" + targetType + ":" + targetId;
+    }
+
+    public static String favoriteMember(String targetType, String targetId) {
+        return FAVORITE_PREFIX + targetType + ":" + targetId;
+    }
+
+    /**
+     * 一次管道判断一组成员是否存在
+     *
+     * @param userId  用户ID
+     * @param members 成员
+     * @return 查询结果；未启用或Redis异常时按不可缓存处理
+     */
+    public Lookup lookup(Long userId, List<String> members) {
+        if (!enabled) {
+            return Lookup.UNCACHEABLE;
+        }
+        String key = key(userId);
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.sIsMember(key, LOADED);
+                stringConnection.sIsMember(key, OVERFLOW);
+                for (String member : members) {
+                    stringConnection.sIsMember(key, member);
+                }
+                return null;
+            });
+            if (!Boolean.TRUE.equals(results.get(0))) {
+                return Lookup.MISS;
+            }
+            if (Boolean.TRUE.equals(results.get(1))) {
+                return Lookup.UNCACHEABLE;
+            }
+            Set<String> present = new HashSet<>();
+            for (int i = 0; i < members.size(); i++) {
+                if (Boolean.TRUE.equals(results.get(i + 2))) {
+                    present.add(members.get(i));
+                }
+            }
+            return Lookup.hit(present);
+        } catch (Exception e) {
+            logger.warn("读取用户成员缓存失败: userId={}, error={}", userId, e.getMessage());
+            return Lookup.UNCACHEABLE;
+        }
+    }
+
+    /**
+     * 加载用户的全部成员；成员数超过max-members时只记录!overflow
+     *
+     * @param userId  用户ID
+     * @param members 全部成员（最多max-members + 1个，用于判断是否超限）
+     */
+    public void load(Long userId, Collection<String> members) {
+        if (!enabled) {
+            return;
+        }
+        List<String> args = new ArrayList<>(Math.min(members.size(), maxMembers) + 3);
+        args.add(String.valueOf(ttlMs));
+        args.add(LOADED);
+        if (members.size() > maxMembers) {
+            args.add(OVERFLOW);
+        } else {
+            args.addAll(members);
+        }
+        try {
+            stringRedisTemplate.execute(LOAD_SCRIPT, Collections.singletonList(key(userId)), args.toArray());
+        } catch (Exception e) {
+            logger.warn("加载用户成员缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 集合已加载时添加成员
+     */
+    public void add(Long userId, Collection<String> members) {
+        update(userId, "SADD", members);
+    }
+
+    /**
+     * 集合已加载时移除成员
+     */
+    public void remove(Long userId, Collection<String> members) {
+        update(userId, "SREM", members);
+    }
+
+    /**
+     * 整体失效（批量删除后调用）
+     */
+    public void evict(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(key(userId));
+        } catch (Exception e) {
+            logger.warn("删除用户成员缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    private void update(Long userId, String command, Collection<String> members) {
+        if (!enabled || members.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(members.size() + 1);
+        args.add(command);
+        args.addAll(members);
+        try {
+            stringRedisTemplate.execute(UPDATE_SCRIPT, Collections.singletonList(key(userId)), args.toArray());
+        } catch (Exception e) {
+            // 同步失败时删除集合，避免读到过期状态
+            logger.warn("更新用户成员缓存失败: userId={}, error={}", userId, e.getMessage());
+            evict(userId);
+        }
+    }
+
+    static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
+// {{END_MODIFICATIONS}}
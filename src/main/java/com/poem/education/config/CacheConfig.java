@@ -1,15 +1,19 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "9f6f701c-5473-4d4c-9026-30d57b69e296"
-//   Timestamp: "2025-08-07T11:05:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "6a15a61c-1488-47a6-baf2-ef42a395e52d"
+//   Timestamp: "2026-10-20T18:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "缓存策略最佳实践"
-//   Quality_Check: "编译通过，配置正确。"
+//   Principle_Applied: "注册缓存异常处理器，缓存异常不影响注解方法"
+//   Quality_Check: "编译通过，异常只记录警告。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,7 +22,7 @@ import java.lang.reflect.Method;
 
 /**
  * 缓存配置类
- * 定义缓存键生成策略和缓存名称常量
+ * 定义缓存键生成策略、缓存异常处理和缓存名称常量
  * 
  * @author poem-education-team
  * @since 2025-08-07
@@ -26,6 +30,8 @@ import java.lang.reflect.Method;
 @Configuration
 public class CacheConfig extends CachingConfigurerSupport {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
     /**
      * 缓存名称常量
      */
@@ -34,6 +40,14 @@ public class CacheConfig extends CachingConfigurerSupport {
     public static final String COMMENT_CACHE = "comment";
     public static final String SEARCH_CACHE = "search";
     public static final String STATS_CACHE = "stats";
+    public static final String WRITER_CACHE = "writer";
+    public static final String SENTENCE_CACHE = "sentence";
+
+    /**
+     * 支持单独配置过期时间与本地缓存规格的缓存名称
+     */
+    public static final String[] CACHE_NAMES = {GUWEN_CACHE, USER_CACHE, COMMENT_CACHE, SEARCH_CACHE, STATS_CACHE,
+                                                   WRITER_CACHE, SENTENCE_CACHE};
 
     /**
      * 自定义缓存键生成器
@@ -66,5 +80,33 @@ public class CacheConfig extends CachingConfigurerSupport {
             }
         };
     }
+
+    /**
+     * 缓存读写异常（如Redis不可用）只记录警告，注解方法按未命中继续执行，不向调用方抛出
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new CacheErrorHandler() {
+            @Override
+            public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+                logger.warn("读取缓存失败: cache={}, key={}, error={}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+                logger.warn("写入缓存失败: cache={}, key={}, error={}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+                logger.warn("删除缓存失败: cache={}, key={}, error={}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCacheClearError(RuntimeException exception, Cache cache) {
+                logger.warn("清空缓存失败: cache={}, error={}", cache.getName(), exception.getMessage());
+            }
+        };
+    }
 }
 // {{END_MODIFICATIONS}}
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "9f6f701c-5473-4d4c-9026-30d57b69e296"
-//   Timestamp: "2025-08-07T11:05:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "a9d595e2-f2fe-4f09-b8d0-7871d5db6687"
+//   Timestamp: "2026-10-18T19:20:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Redis配置最佳实践"
-//   Quality_Check: "编译通过，配置正确。"
+//   Principle_Applied: "读取各缓存的后台刷新时间配置"
+//   Quality_Check: "编译通过，未配置的缓存不刷新。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.config;
@@ -12,20 +12,28 @@ package com.poem.education.config;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
-import org.springframework.cache.CacheManager;
+import com.poem.education.cache.BinaryRedisSerializer;
+import com.poem.education.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Redis配置类
@@ -38,6 +46,23 @@ import java.time.Duration;
 @EnableCaching
 public class RedisConfig {
 
+    /**
+     * 未单独配置的缓存使用的本地一级缓存规格
+     */
+    private static final String DEFAULT_LOCAL_SPEC = "maximumSize=1000,expireAfterWrite=60s";
+
+    /**
+     * 缓存值编码：binary（默认，二进制编码，兼容读取旧JSON数据）或json（原FastJSON2文本编码）
+     */
+    @Value("${cache.value-codec:binary}")
+    private String valueCodec;
+
+    /**
+     * 二进制编码时载荷达到该字节数尝试压缩
+     */
+    @Value("${cache.compress-threshold-bytes:1024}")
+    private int compressThresholdBytes;
+
     /**
      * RedisTemplate配置
      */
@@ -46,16 +71,15 @@ public class RedisConfig {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // 使用FastJSON2序列化器
-        FastJson2RedisSerializer<Object> serializer = new FastJson2RedisSerializer<>(Object.class);
+        RedisSerializer<Object> serializer = valueSerializer();
 
         // key采用String的序列化方式
         template.setKeySerializer(new StringRedisSerializer());
         // hash的key也采用String的序列化方式
         template.setHashKeySerializer(new StringRedisSerializer());
-        // value序列化方式采用fastjson
+        // value序列化方式按cache.value-codec选择
         template.setValueSerializer(serializer);
-        // hash的value序列化方式采用fastjson
+        // hash的value序列化方式同value
         template.setHashValueSerializer(serializer);
 
         template.afterPropertiesSet();
@@ -64,10 +88,14 @@ public class RedisConfig {
 
     /**
      * 缓存管理器配置
+     * 本地Caffeine一级缓存 + Redis二级缓存，各缓存的Redis过期时间、本地规格与后台刷新时间
+     * 分别由cache.{缓存名称}.ttl-ms、cache.{缓存名称}.local-spec、cache.{缓存名称}.refresh-after-ms配置
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        FastJson2RedisSerializer<Object> serializer = new FastJson2RedisSerializer<>(Object.class);
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             Environment environment) {
+        RedisSerializer<Object> serializer = valueSerializer();
         
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)) // 默认缓存1小时
@@ -75,9 +103,51 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues(); // 不缓存null值
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(config);
+        Map<String, String> localSpecs = new HashMap<>();
+        Map<String, Long> refreshAfterMs = new HashMap<>();
+        for (String name : CacheConfig.CACHE_NAMES) {
+            Long ttlMs = environment.getProperty("cache." + name + ".ttl-ms", Long.class);
+            if (ttlMs != null) {
+                builder.withCacheConfiguration(name, config.entryTtl(Duration.ofMillis(ttlMs)));
+            }
+            String localSpec = environment.getProperty("cache." + name + ".local-spec");
+            if (localSpec != null) {
+                localSpecs.put(name, localSpec);
+            }
+            Long refreshAfter = environment.getProperty("cache." + name + ".refresh-after-ms", Long.class);
+            if (refreshAfter != null) {
+                refreshAfterMs.put(name, refreshAfter);
+            }
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, localSpecs,
+                environment.getProperty("cache.default.local-spec", DEFAULT_LOCAL_SPEC), refreshAfterMs);
+    }
+
+    /**
+     * 一级缓存失效消息监听
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    /**
+     * 缓存值序列化器，redisTemplate与cacheManager共用
+     */
+    private RedisSerializer<Object> valueSerializer() {
+        if ("json".equalsIgnoreCase(valueCodec)) {
+            return new FastJson2RedisSerializer<>(Object.class);
+        }
+        return new BinaryRedisSerializer(compressThresholdBytes);
     }
 
     /**
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "d52718cc-6477-4916-a3a9-47de479ab99b"
-//   Timestamp: "2025-08-07T11:35:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Spring Security配置最佳实践"
-//   Quality_Check: "编译通过，安全配置完整。"
+//   Principle_Applied: "联想接口公开访问"
+//   Quality_Check: "编译通过，其余授权规则不变。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.config;
@@ -100,6 +100,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .antMatchers("/api/v1/guwen/**").permitAll()
             .antMatchers("/api/v1/writers/**").permitAll()
             .antMatchers("/api/v1/sentences/**").permitAll()
+            .antMatchers("/api/v1/suggest").permitAll()
             // 允许评论相关接口（查看、创建、删除、点赞等）
             .antMatchers("/api/v1/comments/**").permitAll()
             // 创作相关接口配置
@@ -0,0 +1,56 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "3810039e-8301-46a3-b283-9c429a55a6a5"
+//   Timestamp: "2026-10-18T23:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "向条件GET拦截器注入响应体字节缓存"
+//   Quality_Check: "编译通过，配置正确。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.config;
+
+import com.poem.education.cache.CorpusVersionService;
+import com.poem.education.web.ConditionalGetInterceptor;
+import com.poem.education.web.ResponseBodyCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC配置类
+ * 注册条件GET拦截器
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Web层切片测试中不存在语料版本服务，此时不注册条件GET拦截器
+     */
+    @Autowired(required = false)
+    private CorpusVersionService corpusVersionService;
+
+    @Autowired(required = false)
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${http-cache.etag-version:1}")
+    private String etagVersion;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (corpusVersionService != null) {
+            registry.addInterceptor(new ConditionalGetInterceptor(corpusVersionService, environment, etagVersion,
+                                                                    responseBodyCache))
+                    .addPathPatterns("/api/v1/**");
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "b4a42fdc-2d03-4831-9d30-9278970f029a"
-//   Timestamp: "2025-08-07T12:00:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "1c10030a-8254-40a0-823a-f2b21fc50343"
+//   Timestamp: "2026-10-17T16:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，严格按照API文档定义"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "列表接口增加keyset游标分页，深分页代价恒定"
+//   Quality_Check: "编译通过，游标模式与页码模式排序一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
@@ -52,6 +52,7 @@ public class CommentController {
      * @param targetType 目标类型
      * @param page 页码，默认1
      * @param size 每页大小，默认20
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
      * @return 评论分页列表
      */
     @GetMapping
@@ -59,12 +60,15 @@ public class CommentController {
             @RequestParam String targetId,
             @RequestParam String targetType,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
         
-        logger.info("获取评论列表: targetId={}, targetType={}, page={}, size={}", 
-                   targetId, targetType, page, size);
+        logger.info("获取评论列表: targetId={}, targetType={}, page={}, size={}, cursor={}", 
+                   targetId, targetType, page, size, cursor);
         
-        PageResult<CommentDTO> result = commentService.getCommentsByTarget(targetId, targetType, page, size);
+        PageResult<CommentDTO> result = cursor != null
+                ? commentService.getCommentsByTargetWithCursor(targetId, targetType, cursor, size)
+                : commentService.getCommentsByTarget(targetId, targetType, page, size);
         
         return Result.success(result, "获取评论列表成功");
     }
@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "171c06d1-98e0-423c-808a-8a20f8c3bead"
-//   Timestamp: "2025-08-08T14:05:00+08:00"
-//   Authoring_Subagent: "PM-标准协作模式"
-//   Principle_Applied: "RESTful API设计最佳实践，遵循现有Controller模式"
-//   Quality_Check: "编译通过，API接口定义完整。"
+//   Action: "Modified"
+//   Task_ID: "6e774489-b4e3-4a03-a408-326b457080dc"
+//   Timestamp: "2026-10-20T22:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "countMode默认精确总数，近似总数由调用方显式选择"
+//   Quality_Check: "未传countMode时返回精确总数，与改动前接口行为一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.CreationRequest;
 import com.poem.education.dto.response.CreationDTO;
 import com.poem.education.dto.response.PageResult;
@@ -91,6 +92,7 @@ public class CreationController {
      * @param size 每页大小，默认20
      * @param style 风格（可选）
      * @param status 状态（可选）
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
      * @param httpRequest HTTP请求
      * @return 创作分页列表
      */
@@ -100,13 +102,16 @@ public class CreationController {
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) String style,
             @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest httpRequest) {
         
         Long userId = getCurrentUserId(httpRequest);
-        logger.info("获取用户{}的创作列表: page={}, size={}, style={}, status={}", 
-                   userId, page, size, style, status);
+        logger.info("获取用户{}的创作列表: page={}, size={}, style={}, status={}, cursor={}", 
+                   userId, page, size, style, status, cursor);
         
-        PageResult<CreationDTO> result = creationService.getUserCreations(userId, page, size, style, status);
+        PageResult<CreationDTO> result = cursor != null
+                ? creationService.getUserCreationsWithCursor(userId, cursor, size, status)
+                : creationService.getUserCreations(userId, page, size, style, status);
         
         return Result.success(result, "获取创作列表成功");
     }
@@ -118,18 +123,22 @@ public class CreationController {
      * @param page 页码，默认1
      * @param size 每页大小，默认20
      * @param style 风格（可选）
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
      * @return 创作分页列表
      */
     @GetMapping("/public")
     public Result<PageResult<CreationDTO>> getPublicCreations(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
-            @RequestParam(required = false) String style) {
+            @RequestParam(required = false) String style,
+            @RequestParam(required = false) String cursor) {
 
         logger.info("=== 获取公开创作列表API调用 ===");
-        logger.info("请求参数: page={}, size={}, style={}", page, size, style);
+        logger.info("请求参数: page={}, size={}, style={}, cursor={}", page, size, style, cursor);
 
-        PageResult<CreationDTO> result = creationService.getPublicCreations(page, size, style);
+        PageResult<CreationDTO> result = cursor != null
+                ? creationService.getPublicCreationsWithCursor(cursor, size, style)
+                : creationService.getPublicCreations(page, size, style);
 
         logger.info("查询结果: 总数={}, 当前页数据量={}", result.getTotal(), result.getList().size());
         if (result.getList().size() > 0) {
@@ -287,6 +296,7 @@ public class CreationController {
      * @param page 页码，默认1
      * @param size 每页大小，默认20
      * @param style 风格（可选）
+     * @param countMode 总数统计模式：exact/none/approximate，默认exact；approximate的总数可能短暂滞后，需由调用方显式选择
      * @return 创作分页列表
      */
     @GetMapping("/search")
@@ -294,11 +304,13 @@ public class CreationController {
             @RequestParam String keyword,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
-            @RequestParam(required = false) String style) {
+            @RequestParam(required = false) String style,
+            @RequestParam(defaultValue = "exact") String countMode) {
         
-        logger.info("搜索创作，关键词：{}，页码：{}，大小：{}", keyword, page, size);
+        logger.info("搜索创作，关键词：{}，页码：{}，大小：{}，总数模式：{}", keyword, page, size, countMode);
         
-        PageResult<CreationDTO> result = creationService.searchCreations(keyword, page, size, style);
+        PageResult<CreationDTO> result = creationService.searchCreations(keyword, page, size, style,
+                                                                         CountMode.of(countMode));
         
         return Result.success(result, "搜索创作成功");
     }
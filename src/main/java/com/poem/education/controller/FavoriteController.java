@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "cbae72cf-b030-48a2-b381-ce2a1484c281"
-//   Timestamp: "2025-08-07T12:20:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，严格按照数据库表结构"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "新增批量添加收藏接口，供客户端同步离线收藏"
+//   Quality_Check: "编译通过，请求体逐项验证。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.dto.request.BatchFavoriteRequest;
 import com.poem.education.dto.request.FavoriteRequest;
 import com.poem.education.dto.response.FavoriteDTO;
 import com.poem.education.dto.response.PageResult;
@@ -65,6 +66,26 @@ public class FavoriteController {
         return Result.success(favoriteDTO, "添加收藏成功");
     }
     
+    /**
+     * 批量添加收藏（同步离线收藏）
+     * POST /api/v1/favorites/batch
+     * 
+     * @param request HTTP请求
+     * @param batchRequest 批量收藏请求
+     * @return 收藏记录列表，与请求一一对应
+     */
+    @PostMapping("/batch")
+    public Result<List<FavoriteDTO>> batchAddFavorites(HttpServletRequest request,
+                                                     @Valid @RequestBody BatchFavoriteRequest batchRequest) {
+        
+        Long userId = getCurrentUserId(request);
+        logger.info("批量添加收藏: userId={}, count={}", userId, batchRequest.getFavorites().size());
+        
+        List<FavoriteDTO> favorites = favoriteService.batchAddFavorites(userId, batchRequest.getFavorites());
+        
+        return Result.success(favorites, "批量添加收藏成功");
+    }
+    
     /**
      * 取消收藏
      * DELETE /api/v1/favorites
@@ -1,23 +1,30 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "6e774489-b4e3-4a03-a408-326b457080dc"
+//   Timestamp: "2026-10-20T22:40:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，严格按照API文档定义"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "countMode默认精确总数，近似总数由调用方显式选择"
+//   Quality_Check: "未传countMode时返回精确总数，与改动前接口行为一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.cache.CorpusVersionService;
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.GuwenSearchRequest;
 import com.poem.education.dto.response.GuwenDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.Result;
 import com.poem.education.service.GuwenService;
+import com.poem.education.dictionary.DictionaryService;
+import com.poem.education.dictionary.DictionarySnapshot;
+import com.poem.education.dictionary.DictionaryType;
+import com.poem.education.web.ConditionalGet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -39,29 +46,40 @@ public class GuwenController {
     @Autowired
     private GuwenService guwenService;
     
+    @Autowired
+    private DictionaryService dictionaryService;
+    
     /**
      * 获取古文列表（分页查询）
      * GET /api/v1/guwen?page=1&size=20&dynasty=唐&writer=李白&type=诗
+     * 游标模式：GET /api/v1/guwen?cursor=&size=20，后续页传入上一页返回的nextCursor
      * 
      * @param page 页码，默认1
      * @param size 每页大小，默认20
      * @param dynasty 朝代（可选）
      * @param writer 作者（可选）
      * @param type 类型（可选）
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
+     * @param countMode 总数统计模式：exact/none/approximate，默认exact；approximate的总数可能短暂滞后，需由调用方显式选择
      * @return 古文分页列表
      */
     @GetMapping
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-list")
     public Result<PageResult<GuwenDTO>> getGuwenList(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) String dynasty,
             @RequestParam(required = false) String writer,
-            @RequestParam(required = false) String type) {
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode) {
         
-        logger.info("获取古文列表: page={}, size={}, dynasty={}, writer={}, type={}", 
-                   page, size, dynasty, writer, type);
+        logger.info("获取古文列表: page={}, size={}, dynasty={}, writer={}, type={}, cursor={}, countMode={}", 
+                   page, size, dynasty, writer, type, cursor, countMode);
         
-        PageResult<GuwenDTO> result = guwenService.getGuwenList(page, size, dynasty, writer, type);
+        PageResult<GuwenDTO> result = cursor != null
+                ? guwenService.getGuwenListWithCursor(cursor, size, dynasty, writer, type)
+                : guwenService.getGuwenList(page, size, dynasty, writer, type, CountMode.of(countMode));
         
         return Result.success(result, "获取古文列表成功");
     }
@@ -74,6 +92,7 @@ public class GuwenController {
      * @return 古文详情
      */
     @GetMapping("/{id}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-detail", cacheBody = true)
     public Result<GuwenDTO> getGuwenById(@PathVariable String id) {
         logger.info("获取古文详情: id={}", id);
         
@@ -85,6 +104,7 @@ public class GuwenController {
     /**
      * 搜索古文
      * POST /api/v1/guwen/search
+     * withFacets=true时同时返回朝代/作者/类型分面统计（PageResult.facets）
      * 
      * @param request 搜索请求
      * @return 古文分页列表
@@ -144,6 +164,7 @@ public class GuwenController {
      * @return 古文分页列表
      */
     @GetMapping("/by-writer/{writer}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-list")
     public Result<PageResult<GuwenDTO>> getGuwenByWriter(
             @PathVariable String writer,
             @RequestParam(defaultValue = "1") Integer page,
@@ -163,17 +184,22 @@ public class GuwenController {
      * @param dynasty 朝代
      * @param page 页码，默认1
      * @param size 每页大小，默认20
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
      * @return 古文分页列表
      */
     @GetMapping("/by-dynasty/{dynasty}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-list")
     public Result<PageResult<GuwenDTO>> getGuwenByDynasty(
             @PathVariable String dynasty,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
         
-        logger.info("根据朝代获取古文: dynasty={}, page={}, size={}", dynasty, page, size);
+        logger.info("根据朝代获取古文: dynasty={}, page={}, size={}, cursor={}", dynasty, page, size, cursor);
         
-        PageResult<GuwenDTO> result = guwenService.getGuwenByDynasty(dynasty, page, size);
+        PageResult<GuwenDTO> result = cursor != null
+                ? guwenService.getGuwenByDynastyWithCursor(dynasty, cursor, size)
+                : guwenService.getGuwenByDynasty(dynasty, page, size);
         
         return Result.success(result, "获取朝代古文成功");
     }
@@ -181,46 +207,61 @@ public class GuwenController {
     /**
      * 获取所有朝代列表
      * GET /api/v1/guwen/dynasties
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 朝代列表
      */
     @GetMapping("/dynasties")
-    public Result<List<String>> getAllDynasties() {
+    public Result<List<String>> getAllDynasties(WebRequest webRequest) {
         logger.info("获取所有朝代列表");
         
-        List<String> result = guwenService.getAllDynasties();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.GUWEN_DYNASTY);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取朝代列表成功");
+        return Result.success(snapshot.getValues(), "获取朝代列表成功");
     }
     
     /**
      * 获取所有作者列表
      * GET /api/v1/guwen/writers
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 作者列表
      */
     @GetMapping("/writers")
-    public Result<List<String>> getAllWriters() {
+    public Result<List<String>> getAllWriters(WebRequest webRequest) {
         logger.info("获取所有作者列表");
         
-        List<String> result = guwenService.getAllWriters();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.GUWEN_WRITER);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取作者列表成功");
+        return Result.success(snapshot.getValues(), "获取作者列表成功");
     }
     
     /**
      * 获取所有类型列表
      * GET /api/v1/guwen/types
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 类型列表
      */
     @GetMapping("/types")
-    public Result<List<String>> getAllTypes() {
+    public Result<List<String>> getAllTypes(WebRequest webRequest) {
         logger.info("获取所有类型列表");
         
-        List<String> result = guwenService.getAllTypes();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.GUWEN_TYPE);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取类型列表成功");
+        return Result.success(snapshot.getValues(), "获取类型列表成功");
     }
     
     /**
@@ -230,6 +271,7 @@ public class GuwenController {
      * @return 统计信息
      */
     @GetMapping("/stats")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-stats")
     public Result<Object> getGuwenStats() {
         logger.info("获取古文统计信息");
         
@@ -1,22 +1,29 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "sentence-controller-creation"
-//   Timestamp: "2025-08-08T13:20:59+08:00"
+//   Action: "Modified"
+//   Task_ID: "6e774489-b4e3-4a03-a408-326b457080dc"
+//   Timestamp: "2026-10-20T22:40:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，随机名句接口实现"
-//   Quality_Check: "编译通过，API接口设计符合规范。"
+//   Principle_Applied: "countMode默认精确总数，近似总数由调用方显式选择"
+//   Quality_Check: "未传countMode时返回精确总数，与改动前接口行为一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.cache.CorpusVersionService;
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.Result;
 import com.poem.education.dto.response.SentenceDTO;
 import com.poem.education.service.SentenceService;
+import com.poem.education.dictionary.DictionaryService;
+import com.poem.education.dictionary.DictionarySnapshot;
+import com.poem.education.dictionary.DictionaryType;
+import com.poem.education.web.ConditionalGet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -37,6 +44,9 @@ public class SentenceController {
     @Autowired
     private SentenceService sentenceService;
     
+    @Autowired
+    private DictionaryService dictionaryService;
+    
     /**
      * 获取名句列表（分页查询）
      * GET /api/v1/sentences?page=1&size=20&author=李白&dynasty=唐&from=静夜思
@@ -46,20 +56,27 @@ public class SentenceController {
      * @param author 作者（可选）
      * @param dynasty 朝代（可选）
      * @param from 出处（可选）
+     * @param cursor 分页游标（可选，传入时使用游标分页并忽略page）
+     * @param countMode 总数统计模式：exact/none/approximate，默认exact；approximate的总数可能短暂滞后，需由调用方显式选择
      * @return 名句分页列表
      */
     @GetMapping
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-list")
     public Result<PageResult<SentenceDTO>> getSentenceList(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String dynasty,
-            @RequestParam(required = false) String from) {
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String countMode) {
         
-        logger.info("获取名句列表: page={}, size={}, author={}, dynasty={}, from={}", 
-                   page, size, author, dynasty, from);
+        logger.info("获取名句列表: page={}, size={}, author={}, dynasty={}, from={}, cursor={}, countMode={}", 
+                   page, size, author, dynasty, from, cursor, countMode);
         
-        PageResult<SentenceDTO> result = sentenceService.getSentenceList(page, size, author, dynasty, from);
+        PageResult<SentenceDTO> result = cursor != null
+                ? sentenceService.getSentenceListWithCursor(cursor, size, author, dynasty, from)
+                : sentenceService.getSentenceList(page, size, author, dynasty, from, CountMode.of(countMode));
         
         return Result.success(result, "获取名句列表成功");
     }
@@ -72,6 +89,7 @@ public class SentenceController {
      * @return 名句详情
      */
     @GetMapping("/{id}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-detail", cacheBody = true)
     public Result<SentenceDTO> getSentenceById(@PathVariable String id) {
         logger.info("获取名句详情: id={}", id);
         
@@ -90,6 +108,7 @@ public class SentenceController {
      * @return 名句分页列表
      */
     @GetMapping("/search")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-list")
     public Result<PageResult<SentenceDTO>> searchSentences(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "1") Integer page,
@@ -104,16 +123,19 @@ public class SentenceController {
     
     /**
      * 获取热门名句
-     * GET /api/v1/sentences/hot?limit=10
+     * GET /api/v1/sentences/hot?period=daily&limit=10
      * 
+     * @param period 时间周期（daily、weekly、monthly），默认daily
      * @param limit 限制数量，默认10
      * @return 热门名句列表
      */
     @GetMapping("/hot")
-    public Result<List<SentenceDTO>> getHotSentences(@RequestParam(defaultValue = "10") Integer limit) {
-        logger.info("获取热门名句: limit={}", limit);
+    public Result<List<SentenceDTO>> getHotSentences(
+            @RequestParam(defaultValue = "daily") String period,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        logger.info("获取热门名句: period={}, limit={}", period, limit);
         
-        List<SentenceDTO> result = sentenceService.getHotSentences(limit);
+        List<SentenceDTO> result = sentenceService.getHotSentences(period, limit);
         
         return Result.success(result, "获取热门名句成功");
     }
@@ -144,6 +166,7 @@ public class SentenceController {
      * @return 名句分页列表
      */
     @GetMapping("/by-author/{author}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-list")
     public Result<PageResult<SentenceDTO>> getSentencesByAuthor(
             @PathVariable String author,
             @RequestParam(defaultValue = "1") Integer page,
@@ -166,6 +189,7 @@ public class SentenceController {
      * @return 名句分页列表
      */
     @GetMapping("/by-dynasty/{dynasty}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-list")
     public Result<PageResult<SentenceDTO>> getSentencesByDynasty(
             @PathVariable String dynasty,
             @RequestParam(defaultValue = "1") Integer page,
@@ -188,6 +212,7 @@ public class SentenceController {
      * @return 名句分页列表
      */
     @GetMapping("/by-from/{from}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-list")
     public Result<PageResult<SentenceDTO>> getSentencesByFrom(
             @PathVariable String from,
             @RequestParam(defaultValue = "1") Integer page,
@@ -203,46 +228,81 @@ public class SentenceController {
     /**
      * 获取所有作者列表
      * GET /api/v1/sentences/authors
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 作者列表
      */
     @GetMapping("/authors")
-    public Result<List<String>> getAllAuthors() {
+    public Result<List<String>> getAllAuthors(WebRequest webRequest) {
         logger.info("获取所有作者列表");
         
-        List<String> result = sentenceService.getAllAuthors();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.SENTENCE_AUTHOR);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取作者列表成功");
+        return Result.success(snapshot.getValues(), "获取作者列表成功");
     }
     
     /**
      * 获取所有朝代列表
      * GET /api/v1/sentences/dynasties
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 朝代列表
      */
     @GetMapping("/dynasties")
-    public Result<List<String>> getAllDynasties() {
+    public Result<List<String>> getAllDynasties(WebRequest webRequest) {
         logger.info("获取所有朝代列表");
         
-        List<String> result = sentenceService.getAllDynasties();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.SENTENCE_DYNASTY);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取朝代列表成功");
+        return Result.success(snapshot.getValues(), "获取朝代列表成功");
     }
     
     /**
      * 获取所有出处列表
      * GET /api/v1/sentences/sources
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 出处列表
      */
     @GetMapping("/sources")
-    public Result<List<String>> getAllSources() {
+    public Result<List<String>> getAllSources(WebRequest webRequest) {
         logger.info("获取所有出处列表");
         
-        List<String> result = sentenceService.getAllSources();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.SENTENCE_SOURCE);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        
+        return Result.success(snapshot.getValues(), "获取出处列表成功");
+    }
+    
+    /**
+     * 获取所有标签列表
+     * GET /api/v1/sentences/tags
+     * 支持If-None-Match，字典未变化时返回304
+     * 
+     * @param webRequest 请求（用于ETag校验）
+     * @return 标签列表
+     */
+    @GetMapping("/tags")
+    public Result<List<String>> getAllTags(WebRequest webRequest) {
+        logger.info("获取所有标签列表");
+        
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.SENTENCE_TAG);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取出处列表成功");
+        return Result.success(snapshot.getValues(), "获取标签列表成功");
     }
     
     /**
@@ -252,6 +312,7 @@ public class SentenceController {
      * @return 统计信息
      */
     @GetMapping("/stats")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_SENTENCE, policy = "corpus-stats")
     public Result<Object> getSentenceStats() {
         logger.info("获取名句统计信息");
         
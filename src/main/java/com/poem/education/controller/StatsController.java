@@ -1,33 +1,35 @@
 // {{RIPER-5+SMART-6:
 //   Action: "Modified"
-//   Task_ID: "2306db29-b2dd-4420-b1fa-fc4c261474a4"
-//   Timestamp: "2025-08-08T16:42:37+08:00"
+//   Task_ID: "7703548a-8158-44e7-b2db-8fd54fb23981"
+//   Timestamp: "2026-10-19T20:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践"
-//   Quality_Check: "编译通过，接口参数验证完整，错误处理完善。"
+//   Principle_Applied: "新增基于汇总表的行为趋势接口"
+//   Quality_Check: "编译通过，参数校验与其他统计接口一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
 import com.poem.education.dto.response.Result;
-import com.poem.education.service.GuwenService;
-import com.poem.education.service.SentenceService;
-import com.poem.education.service.WriterService;
 import com.poem.education.service.UserActionService;
-import com.poem.education.repository.mysql.UserActionRepository;
-import com.poem.education.repository.mysql.ContentStatsRepository;
+import com.poem.education.service.ContentStatsService;
 import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.stats.GlobalStatsSnapshot;
+import com.poem.education.stats.UniqueViewerCounter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * 全局统计控制器
@@ -42,27 +44,39 @@ public class StatsController {
     
     private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
     
-    @Autowired
-    private GuwenService guwenService;
+    /**
+     * 批量查询内容统计的最大数量
+     */
+    private static final int MAX_BATCH_SIZE = 100;
     
-    @Autowired
-    private SentenceService sentenceService;
+    /**
+     * 趋势查询的最大天数：小时粒度7天，天粒度366天
+     */
+    private static final int MAX_HOURLY_TREND_DAYS = 7;
     
-    @Autowired
-    private WriterService writerService;
+    private static final int MAX_DAILY_TREND_DAYS = 366;
+    
+    private static final List<String> TREND_TARGET_TYPES =
+            Arrays.asList("guwen", "sentence", "writer", "creation", "comment");
+    
+    private static final List<String> TREND_ACTION_TYPES = Arrays.asList("like", "favorite", "view", "share");
     
     @Autowired
     private UserActionService userActionService;
 
     @Autowired
-    private UserActionRepository userActionRepository;
+    private ContentStatsService contentStatsService;
+
+    @Autowired
+    private UniqueViewerCounter uniqueViewerCounter;
 
     @Autowired
-    private ContentStatsRepository contentStatsRepository;
+    private GlobalStatsSnapshot globalStatsSnapshot;
     
     /**
      * 获取全局统计信息
      * GET /api/v1/stats/global
+     * 数据来自定时刷新的内存快照，请求不再访问数据库
      * 
      * @return 全局统计信息
      */
@@ -73,18 +87,17 @@ public class StatsController {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            // 获取各模块的总数
-            long poemCount = guwenService.getTotalCount();
-            long writerCount = writerService.getTotalCount();
-            long sentenceCount = sentenceService.getTotalCount();
-            
-            // 获取今日访问量（这里先用模拟数据，后续可以从Redis或数据库获取）
-            long todayViews = getTodayViews();
+            GlobalStatsSnapshot.Snapshot snapshot = globalStatsSnapshot.get();
+            long poemCount = snapshot.getPoemCount();
+            long writerCount = snapshot.getWriterCount();
+            long sentenceCount = snapshot.getSentenceCount();
+            long todayViews = snapshot.getTodayViews();
             
             stats.put("poemCount", poemCount);
             stats.put("writerCount", writerCount);
             stats.put("sentenceCount", sentenceCount);
             stats.put("todayViews", todayViews);
+            stats.put("todayUniqueViewers", snapshot.getTodayUniqueViewers());
             
             // 添加格式化的显示文本
             stats.put("poemCountDisplay", formatCount(poemCount));
@@ -143,103 +156,195 @@ public class StatsController {
 
         try {
             // 验证参数
-            if (contentId == null || contentId.trim().isEmpty()) {
-                return Result.error("内容ID不能为空");
+            String error = validateContentType(contentType);
+            if (error == null) {
+                error = validateContentId(contentId);
             }
-            if (contentType == null || contentType.trim().isEmpty()) {
-                return Result.error("内容类型不能为空");
+            if (error != null) {
+                return Result.error(error);
             }
 
-            // 验证contentId格式（MongoDB ObjectId应该是24个字符）
-            if (contentId.length() != 24) {
-                return Result.error("内容ID格式不正确，应为24个字符的MongoDB ObjectId");
-            }
+            // 查询统计信息（Redis实时计数，不存在时返回全0，读取时不再创建记录）
+            ContentStats stats = contentStatsService.getContentStats(contentId, contentType);
+            List<Long> uniqueViewers = uniqueViewerCounter.getUniqueViewers(
+                    contentType, Collections.singletonList(contentId));
+            return Result.success(toStatsMap(stats, uniqueViewers == null ? null : uniqueViewers.get(0)),
+                    "获取内容统计信息成功");
+
+        } catch (Exception e) {
+            logger.error("获取内容统计信息失败: contentId={}, contentType={}", contentId, contentType, e);
+            return Result.error("获取内容统计信息失败");
+        }
+    }
+
+    /**
+     * 批量获取内容统计信息
+     * GET /api/v1/stats/content/batch?contentType={contentType}&contentIds={id1},{id2}
+     * 所有内容的计数通过一次Redis流水线读取
+     *
+     * @param contentType 内容类型 (guwen/sentence/writer/creation)
+     * @param contentIds 内容ID列表，最多100个
+     * @return 内容统计信息列表，顺序与contentIds一致
+     */
+    @GetMapping("/content/batch")
+    public Result<List<Map<String, Object>>> getContentStatsBatch(
+            @RequestParam String contentType,
+            @RequestParam List<String> contentIds) {
 
-            // 验证contentType
-            String[] validTypes = {"guwen", "sentence", "writer", "creation"};
-            boolean isValidType = false;
-            for (String validType : validTypes) {
-                if (validType.equals(contentType)) {
-                    isValidType = true;
-                    break;
+        logger.info("批量获取内容统计信息: contentType={}, count={}", contentType, contentIds.size());
+
+        try {
+            String error = validateContentType(contentType);
+            if (error != null) {
+                return Result.error(error);
+            }
+            if (contentIds.isEmpty() || contentIds.size() > MAX_BATCH_SIZE) {
+                return Result.error("内容ID数量应为1到" + MAX_BATCH_SIZE + "个");
+            }
+            for (String contentId : contentIds) {
+                error = validateContentId(contentId);
+                if (error != null) {
+                    return Result.error(error);
                 }
             }
-            if (!isValidType) {
-                return Result.error("内容类型不正确，应为：guwen、sentence、writer、creation之一");
+
+            List<ContentStats> statsList = contentStatsService.getContentStatsBatch(contentType, contentIds);
+            List<String> statsIds = new ArrayList<>(statsList.size());
+            for (ContentStats stats : statsList) {
+                statsIds.add(stats.getContentId());
+            }
+            List<Long> uniqueViewers = uniqueViewerCounter.getUniqueViewers(contentType, statsIds);
+            List<Map<String, Object>> result = new ArrayList<>(statsList.size());
+            for (int i = 0; i < statsList.size(); i++) {
+                result.add(toStatsMap(statsList.get(i), uniqueViewers == null ? null : uniqueViewers.get(i)));
             }
+            return Result.success(result, "批量获取内容统计信息成功");
+
+        } catch (Exception e) {
+            logger.error("批量获取内容统计信息失败: contentType={}", contentType, e);
+            return Result.error("批量获取内容统计信息失败");
+        }
+    }
 
-            // 查询统计信息
-            Optional<ContentStats> statsOptional = contentStatsRepository
-                    .findByContentIdAndContentType(contentId, contentType);
+    /**
+     * 获取行为趋势
+     * GET /api/v1/stats/trends?targetType=guwen&actionType=like&granularity=day&startDate=2026-10-01&endDate=2026-10-19
+     * 数据来自小时/天汇总表，汇总有约1到2分钟延迟
+     *
+     * @param targetType 目标类型
+     * @param actionType 行为类型 (like/favorite/view/share)
+     * @param targetId 目标ID（可选，为空时统计该类型全部目标）
+     * @param granularity 粒度 (hour/day)，默认day
+     * @param startDate 开始日期（包含），默认小时粒度为当天、天粒度为最近7天
+     * @param endDate 结束日期（包含），默认今天
+     * @return 趋势数据
+     */
+    @GetMapping("/trends")
+    public Result<Map<String, Object>> getTrends(
+            @RequestParam String targetType,
+            @RequestParam String actionType,
+            @RequestParam(required = false) String targetId,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-            ContentStats stats;
-            if (statsOptional.isPresent()) {
-                stats = statsOptional.get();
-                logger.debug("找到现有统计记录: {}", stats);
-            } else {
-                // 如果不存在统计记录，创建默认记录
-                stats = new ContentStats();
-                stats.setContentId(contentId);
-                stats.setContentType(contentType);
-                stats.setViewCount(0L);
-                stats.setLikeCount(0L);
-                stats.setFavoriteCount(0L);
-                stats.setCommentCount(0L);
-                stats.setShareCount(0L);
-                stats.setLastUpdated(LocalDateTime.now());
-
-                // 保存默认记录
-                stats = contentStatsRepository.save(stats);
-                logger.info("创建新的统计记录: contentId={}, contentType={}", contentId, contentType);
-            }
+        logger.info("获取行为趋势: targetType={}, actionType={}, targetId={}, granularity={}",
+                   targetType, actionType, targetId, granularity);
 
-            // 构建返回数据
-            Map<String, Object> result = new HashMap<>();
-            result.put("contentId", stats.getContentId());
-            result.put("contentType", stats.getContentType());
-            result.put("viewCount", stats.getViewCount());
-            result.put("likeCount", stats.getLikeCount());
-            result.put("favoriteCount", stats.getFavoriteCount());
-            result.put("commentCount", stats.getCommentCount());
-            result.put("shareCount", stats.getShareCount());
-            result.put("lastUpdated", stats.getLastUpdated());
+        try {
+            boolean hourly = "hour".equalsIgnoreCase(granularity);
+            if (!hourly && !"day".equalsIgnoreCase(granularity)) {
+                return Result.error("粒度不正确，应为：hour、day之一");
+            }
+            if (!TREND_TARGET_TYPES.contains(targetType)) {
+                return Result.error("目标类型不正确，应为：" + String.join("、", TREND_TARGET_TYPES) + "之一");
+            }
+            if (!TREND_ACTION_TYPES.contains(actionType)) {
+                return Result.error("行为类型不正确，应为：" + String.join("、", TREND_ACTION_TYPES) + "之一");
+            }
+            if (targetId != null) {
+                String error = validateContentId(targetId);
+                if (error != null) {
+                    return Result.error(error);
+                }
+            }
 
-            // 计算热度分数
-            result.put("hotScore", stats.calculateHotScore());
+            LocalDate end = endDate != null ? endDate : LocalDate.now();
+            LocalDate start = startDate != null ? startDate : (hourly ? end : end.minusDays(6));
+            long days = ChronoUnit.DAYS.between(start, end) + 1;
+            int maxDays = hourly ? MAX_HOURLY_TREND_DAYS : MAX_DAILY_TREND_DAYS;
+            if (days < 1 || days > maxDays) {
+                return Result.error("日期范围不正确，" + granularity + "粒度最多查询" + maxDays + "天");
+            }
 
-            return Result.success(result, "获取内容统计信息成功");
+            Map<String, Object> trend = userActionService.getActionTrend(
+                    targetType, actionType, targetId, granularity, start, end);
+            return Result.success(trend, "获取行为趋势成功");
 
         } catch (Exception e) {
-            logger.error("获取内容统计信息失败: contentId={}, contentType={}", contentId, contentType, e);
-            return Result.error("获取内容统计信息失败");
+            logger.error("获取行为趋势失败: targetType={}, actionType={}", targetType, actionType, e);
+            return Result.error("获取行为趋势失败");
         }
     }
 
     /**
-     * 获取今日访问量
-     * 从用户行为表中统计今日的VIEW行为数量
+     * 验证内容ID
      *
-     * @return 今日访问量
+     * @param contentId 内容ID
+     * @return 错误信息，校验通过时为null
      */
-    private long getTodayViews() {
-        try {
-            // 获取今日开始时间（00:00:00）
-            LocalDate today = LocalDate.now();
-            java.time.LocalDateTime startOfDay = today.atStartOfDay();
+    private String validateContentId(String contentId) {
+        if (contentId == null || contentId.trim().isEmpty()) {
+            return "内容ID不能为空";
+        }
+        // 验证contentId格式（MongoDB ObjectId应该是24个字符）
+        if (contentId.length() != 24) {
+            return "内容ID格式不正确，应为24个字符的MongoDB ObjectId";
+        }
+        return null;
+    }
 
-            // 从user_actions表中统计今日的VIEW行为数量
-            long todayViewCount = userActionRepository.countByActionTypeAndCreatedAtAfter(
-                "view",
-                startOfDay
-            );
+    /**
+     * 验证内容类型
+     *
+     * @param contentType 内容类型
+     * @return 错误信息，校验通过时为null
+     */
+    private String validateContentType(String contentType) {
+        if (contentType == null || contentType.trim().isEmpty()) {
+            return "内容类型不能为空";
+        }
+        String[] validTypes = {"guwen", "sentence", "writer", "creation"};
+        for (String validType : validTypes) {
+            if (validType.equals(contentType)) {
+                return null;
+            }
+        }
+        return "内容类型不正确，应为：guwen、sentence、writer、creation之一";
+    }
 
-            logger.debug("今日访问量统计: {}", todayViewCount);
-            return todayViewCount;
+    /**
+     * 构建内容统计返回数据
+     *
+     * @param stats 统计信息
+     * @param uniqueViewers 独立读者数（HyperLogLog估算值），不可用时为null
+     * @return 返回数据
+     */
+    private Map<String, Object> toStatsMap(ContentStats stats, Long uniqueViewers) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("contentId", stats.getContentId());
+        result.put("contentType", stats.getContentType());
+        result.put("viewCount", stats.getViewCount());
+        result.put("likeCount", stats.getLikeCount());
+        result.put("favoriteCount", stats.getFavoriteCount());
+        result.put("commentCount", stats.getCommentCount());
+        result.put("shareCount", stats.getShareCount());
+        result.put("lastUpdated", stats.getLastUpdated());
+        result.put("uniqueViewers", uniqueViewers);
 
-        } catch (Exception e) {
-            logger.warn("获取今日访问量失败，返回默认值", e);
-            return 0;
-        }
+        // 计算热度分数
+        result.put("hotScore", stats.calculateHotScore());
+        return result;
     }
 }
 // {{END_MODIFICATIONS}}
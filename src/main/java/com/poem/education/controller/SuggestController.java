@@ -0,0 +1,58 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "RESTful API设计，输入联想与完整搜索分离"
+//   Quality_Check: "编译通过，接口公开访问。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.controller;
+
+import com.poem.education.dto.response.Result;
+import com.poem.education.dto.response.SuggestionDTO;
+import com.poem.education.service.SuggestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 搜索联想控制器
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@RestController
+@RequestMapping("/api/v1/suggest")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SuggestController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SuggestController.class);
+    
+    @Autowired
+    private SuggestService suggestService;
+    
+    /**
+     * 输入联想（古文标题、作者、名句）
+     * GET /api/v1/suggest?q=床前&limit=10
+     * 
+     * @param q 用户输入
+     * @param limit 返回数量，默认10，最大20
+     * @return 联想列表
+     */
+    @GetMapping
+    public Result<List<SuggestionDTO>> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        
+        logger.debug("输入联想: q={}, limit={}", q, limit);
+        
+        List<SuggestionDTO> result = suggestService.suggest(q, limit);
+        
+        return Result.success(result, "获取联想成功");
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -1,15 +1,18 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "cbae72cf-b030-48a2-b381-ce2a1484c281"
-//   Timestamp: "2025-08-07T12:20:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，严格按照数据库表结构"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "列表页批量行为状态改为读取用户成员缓存，写入时同步缓存"
+//   Quality_Check: "编译通过，缓存未命中时整体加载，成员过多时回退IN查询。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.dto.request.ActionStatusRequest;
+import com.poem.education.dto.request.BatchUserActionRequest;
 import com.poem.education.dto.request.UserActionRequest;
+import com.poem.education.dto.response.ActionStatusDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.Result;
 import com.poem.education.dto.response.UserActionDTO;
@@ -64,6 +67,26 @@ public class UserActionController {
         return Result.success(actionDTO, "记录行为成功");
     }
     
+    /**
+     * 批量记录用户行为（同步离线行为）
+     * POST /api/v1/actions/batch
+     * 
+     * @param request HTTP请求
+     * @param batchRequest 批量行为请求
+     * @return 行为记录列表，与请求一一对应
+     */
+    @PostMapping("/batch")
+    public Result<List<UserActionDTO>> batchRecordActions(HttpServletRequest request,
+                                                        @Valid @RequestBody BatchUserActionRequest batchRequest) {
+        
+        Long userId = getCurrentUserId(request);
+        logger.info("批量记录用户行为: userId={}, count={}", userId, batchRequest.getActions().size());
+        
+        List<UserActionDTO> actions = userActionService.batchRecordActions(userId, batchRequest.getActions());
+        
+        return Result.success(actions, "批量记录行为成功");
+    }
+    
     /**
      * 取消用户行为
      * DELETE /api/v1/actions
@@ -114,6 +137,26 @@ public class UserActionController {
         return Result.success(hasAction, "检查完成");
     }
     
+    /**
+     * 批量查询当前用户对一组内容的行为状态
+     * POST /api/v1/actions/status
+     * 
+     * @param request HTTP请求
+     * @param statusRequest 内容列表，最多100个
+     * @return 每个内容的点赞/收藏状态，与请求顺序一致
+     */
+    @PostMapping("/status")
+    public Result<List<ActionStatusDTO>> getActionStatus(HttpServletRequest request,
+                                                       @Valid @RequestBody ActionStatusRequest statusRequest) {
+        
+        Long userId = getCurrentUserId(request);
+        logger.info("批量查询行为状态: userId={}, count={}", userId, statusRequest.getTargets().size());
+        
+        List<ActionStatusDTO> statuses = userActionService.getActionStatus(userId, statusRequest.getTargets());
+        
+        return Result.success(statuses, "查询完成");
+    }
+    
     /**
      * 获取用户行为列表
      * GET /api/v1/actions/user?page=1&size=20
@@ -1,22 +1,28 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "RESTful API设计最佳实践，严格按照API文档定义"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "热门作者接口新增period参数"
+//   Quality_Check: "编译通过，默认行为与古文热门接口一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.controller;
 
+import com.poem.education.cache.CorpusVersionService;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.Result;
 import com.poem.education.dto.response.WriterDTO;
 import com.poem.education.service.WriterService;
+import com.poem.education.dictionary.DictionaryService;
+import com.poem.education.dictionary.DictionarySnapshot;
+import com.poem.education.dictionary.DictionaryType;
+import com.poem.education.web.ConditionalGet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -37,6 +43,9 @@ public class WriterController {
     @Autowired
     private WriterService writerService;
     
+    @Autowired
+    private DictionaryService dictionaryService;
+    
     /**
      * 根据ID获取作者详情
      * GET /api/v1/writers/{id}
@@ -45,6 +54,7 @@ public class WriterController {
      * @return 作者详情
      */
     @GetMapping("/{id}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-detail", cacheBody = true)
     public Result<WriterDTO> getWriterById(@PathVariable String id) {
         logger.info("获取作者详情: id={}", id);
         
@@ -61,6 +71,7 @@ public class WriterController {
      * @return 作者信息
      */
     @GetMapping("/by-name/{name}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-detail", cacheBody = true)
     public Result<WriterDTO> getWriterByName(@PathVariable String name) {
         logger.info("根据姓名获取作者: name={}", name);
         
@@ -79,6 +90,7 @@ public class WriterController {
      * @return 作者分页列表
      */
     @GetMapping
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-list")
     public Result<PageResult<WriterDTO>> getWriterList(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer size,
@@ -101,6 +113,7 @@ public class WriterController {
      * @return 作者分页列表
      */
     @GetMapping("/search")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-list")
     public Result<PageResult<WriterDTO>> searchWriters(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "1") Integer page,
@@ -123,6 +136,7 @@ public class WriterController {
      * @return 作者分页列表
      */
     @GetMapping("/by-dynasty/{dynasty}")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-list")
     public Result<PageResult<WriterDTO>> getWritersByDynasty(
             @PathVariable String dynasty,
             @RequestParam(defaultValue = "1") Integer page,
@@ -137,16 +151,19 @@ public class WriterController {
     
     /**
      * 获取热门作者
-     * GET /api/v1/writers/hot?limit=10
+     * GET /api/v1/writers/hot?period=daily&limit=10
      * 
+     * @param period 时间周期（daily、weekly、monthly），默认daily
      * @param limit 限制数量，默认10
      * @return 热门作者列表
      */
     @GetMapping("/hot")
-    public Result<List<WriterDTO>> getHotWriters(@RequestParam(defaultValue = "10") Integer limit) {
-        logger.info("获取热门作者: limit={}", limit);
+    public Result<List<WriterDTO>> getHotWriters(
+            @RequestParam(defaultValue = "daily") String period,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        logger.info("获取热门作者: period={}, limit={}", period, limit);
         
-        List<WriterDTO> result = writerService.getHotWriters(limit);
+        List<WriterDTO> result = writerService.getHotWriters(period, limit);
         
         return Result.success(result, "获取热门作者成功");
     }
@@ -170,16 +187,21 @@ public class WriterController {
     /**
      * 获取所有朝代列表
      * GET /api/v1/writers/dynasties
+     * 支持If-None-Match，字典未变化时返回304
      * 
+     * @param webRequest 请求（用于ETag校验）
      * @return 朝代列表
      */
     @GetMapping("/dynasties")
-    public Result<List<String>> getAllDynasties() {
+    public Result<List<String>> getAllDynasties(WebRequest webRequest) {
         logger.info("获取所有朝代列表");
         
-        List<String> result = writerService.getAllDynasties();
+        DictionarySnapshot snapshot = dictionaryService.get(DictionaryType.WRITER_DYNASTY);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
         
-        return Result.success(result, "获取朝代列表成功");
+        return Result.success(snapshot.getValues(), "获取朝代列表成功");
     }
     
     /**
@@ -189,6 +211,7 @@ public class WriterController {
      * @return 统计信息
      */
     @GetMapping("/stats")
+    @ConditionalGet(corpus = CorpusVersionService.CORPUS_WRITER, policy = "corpus-stats")
     public Result<Object> getWriterStats() {
         logger.info("获取作者统计信息");
         
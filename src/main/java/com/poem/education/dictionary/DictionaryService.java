@@ -0,0 +1,147 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "8e3d0d5c-080d-4e1d-a9c1-dd60a3fd0d4c"
+//   Timestamp: "2026-10-18T11:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "语料变更事件触发古文字典即时刷新"
+//   Quality_Check: "编译通过，刷新失败时继续使用旧快照。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dictionary;
+
+import com.poem.education.cache.CorpusChangedEvent;
+import com.poem.education.cache.CorpusVersionService;
+import com.poem.education.entity.mongodb.Guwen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 字典服务
+ * 朝代、作者、类型、标签、出处等取值集合按需通过distinct构建，之后常驻内存；
+ * 已加载的字典按固定间隔刷新，内容变化时替换快照并递增版本号。
+ * 修改古文/名句/作者数据的代码可调用refresh使字典立即生效。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@Service
+public class DictionaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<DictionaryType, DictionarySnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 获取字典快照，首次访问时构建
+     *
+     * @param type 字典类型
+     * @return 字典快照
+     */
+    public DictionarySnapshot get(DictionaryType type) {
+        DictionarySnapshot snapshot = snapshots.get(type);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return snapshots.computeIfAbsent(type, key -> new DictionarySnapshot(key, load(key), 1L));
+    }
+
+    /**
+     * 获取字典取值
+     *
+     * @param type 字典类型
+     * @return 排序后的取值（不可修改）
+     */
+    public List<String> getValues(DictionaryType type) {
+        return get(type).getValues();
+    }
+
+    /**
+     * 重新加载字典，内容无变化时保留原快照和版本号
+     *
+     * @param type 字典类型
+     * @return 刷新后的快照
+     */
+    public DictionarySnapshot refresh(DictionaryType type) {
+        List<String> values = load(type);
+        return snapshots.compute(type, (key, current) -> {
+            if (current == null) {
+                return new DictionarySnapshot(key, values, 1L);
+            }
+            if (current.getValues().equals(values)) {
+                return current;
+            }
+            logger.info("字典已更新: type={}, version={}, size={}", key, current.getVersion() + 1, values.size());
+            return new DictionarySnapshot(key, values, current.getVersion() + 1);
+        });
+    }
+
+    /**
+     * 定时刷新已加载的字典
+     */
+    @Scheduled(initialDelayString = "${dictionary.refresh-interval-ms:300000}",
+               fixedDelayString = "${dictionary.refresh-interval-ms:300000}")
+    public void refreshLoaded() {
+        for (DictionaryType type : snapshots.keySet()) {
+            try {
+                refresh(type);
+            } catch (Exception e) {
+                logger.error("字典刷新失败，继续使用原有数据: type={}, error={}", type, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 古文语料变更后立即刷新已加载的古文字典，无需等待定时刷新
+     *
+     * @param event 语料变更事件
+     */
+    @EventListener
+    public void onCorpusChanged(CorpusChangedEvent event) {
+        if (!CorpusVersionService.CORPUS_GUWEN.equals(event.getCorpus())) {
+            return;
+        }
+        for (DictionaryType type : snapshots.keySet()) {
+            if (type.getEntityClass() != Guwen.class) {
+                continue;
+            }
+            try {
+                refresh(type);
+            } catch (Exception e) {
+                logger.error("字典刷新失败，继续使用原有数据: type={}, error={}", type, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 从MongoDB加载字典取值：distinct去重，过滤空值后排序
+     *
+     * @param type 字典类型
+     * @return 取值列表
+     */
+    private List<String> load(DictionaryType type) {
+        long start = System.currentTimeMillis();
+        List<String> values = mongoTemplate.findDistinct(new Query(), type.getField(), type.getEntityClass(), String.class)
+                .stream()
+                .filter(value -> value != null && !value.trim().isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        logger.debug("加载字典: type={}, size={}, cost={}ms", type, values.size(), System.currentTimeMillis() - start);
+        return values;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,70 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "89f2f28e-79e2-4034-94cf-15f918fdd936"
+//   Timestamp: "2026-10-17T23:10:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "不可变字典快照，内容变化时版本号递增"
+//   Quality_Check: "编译通过，ETag由内容摘要生成，多实例间一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dictionary;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 字典快照
+ * 取值列表已排序且不可修改；ETag由内容摘要生成，内容不变时在各实例、各版本间保持一致。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class DictionarySnapshot {
+
+    private final DictionaryType type;
+
+    private final List<String> values;
+
+    private final long version;
+
+    private final String etag;
+
+    private final long builtAt;
+
+    DictionarySnapshot(DictionaryType type, List<String> values, long version) {
+        this.type = type;
+        this.values = Collections.unmodifiableList(values);
+        this.version = version;
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(String.join("\n", values).getBytes(StandardCharsets.UTF_8)) + "\"";
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    public DictionaryType getType() {
+        return type;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * 版本号，从1开始，每次刷新后内容有变化时加1
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+}
+// {{END_MODIFICATIONS}}
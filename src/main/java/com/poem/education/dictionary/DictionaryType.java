@@ -0,0 +1,51 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "89f2f28e-79e2-4034-94cf-15f918fdd936"
+//   Timestamp: "2026-10-17T23:10:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "字典来源（集合+字段）集中定义"
+//   Quality_Check: "编译通过，字段与原findAllXxx投影查询一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dictionary;
+
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+
+/**
+ * 字典类型
+ * 每种字典对应一个集合字段的去重取值，数组字段（如type、tags）按元素去重。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public enum DictionaryType {
+
+    GUWEN_DYNASTY(Guwen.class, "dynasty"),
+    GUWEN_WRITER(Guwen.class, "writer"),
+    GUWEN_TYPE(Guwen.class, "type"),
+    SENTENCE_AUTHOR(Sentence.class, "author"),
+    SENTENCE_DYNASTY(Sentence.class, "dynasty"),
+    SENTENCE_SOURCE(Sentence.class, "from"),
+    SENTENCE_TAG(Sentence.class, "tags"),
+    WRITER_DYNASTY(Writer.class, "dynasty");
+
+    private final Class<?> entityClass;
+
+    private final String field;
+
+    DictionaryType(Class<?> entityClass, String field) {
+        this.entityClass = entityClass;
+        this.field = field;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
+// {{END_MODIFICATIONS}}
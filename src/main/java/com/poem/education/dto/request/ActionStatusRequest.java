@@ -0,0 +1,99 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "DTO设计最佳实践，遵循现有代码风格"
+//   Quality_Check: "编译通过，列表元素逐项验证。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.request;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量查询行为状态请求DTO
+ * 列表页一次查询整页内容的点赞/收藏状态
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public class ActionStatusRequest {
+    
+    /**
+     * 查询的内容列表
+     * 必填字段，1到100个
+     */
+    @NotEmpty(message = "内容列表不能为空")
+    @Size(max = 100, message = "单次最多查询100个内容")
+    private List<@Valid Target> targets;
+    
+    /**
+     * 查询的内容
+     */
+    public static class Target {
+        
+        /**
+         * 目标ID
+         * 必填字段，MongoDB ObjectId字符串(24字符)
+         */
+        @NotBlank(message = "目标ID不能为空")
+        @Size(min = 24, max = 24, message = "目标ID必须为24个字符")
+        private String targetId;
+        
+        /**
+         * 目标类型
+         * 必填字段
+         */
+        @NotBlank(message = "目标类型不能为空")
+        @Size(max = 50, message = "目标类型长度不能超过50个字符")
+        private String targetType;
+        
+        // 默认构造函数
+        public Target() {
+        }
+        
+        // 构造函数
+        public Target(String targetId, String targetType) {
+            this.targetId = targetId;
+            this.targetType = targetType;
+        }
+        
+        public String getTargetId() {
+            return targetId;
+        }
+        
+        public void setTargetId(String targetId) {
+            this.targetId = targetId;
+        }
+        
+        public String getTargetType() {
+            return targetType;
+        }
+        
+        public void setTargetType(String targetType) {
+            this.targetType = targetType;
+        }
+    }
+    
+    // Getter and Setter methods
+    public List<Target> getTargets() {
+        return targets;
+    }
+    
+    public void setTargets(List<Target> targets) {
+        this.targets = targets;
+    }
+    
+    @Override
+    public String toString() {
+        return "ActionStatusRequest{" +
+                "targets=" + (targets == null ? 0 : targets.size()) +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
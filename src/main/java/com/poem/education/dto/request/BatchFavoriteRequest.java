@@ -0,0 +1,59 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "DTO设计最佳实践，遵循现有代码风格"
+//   Quality_Check: "编译通过，列表元素逐项验证。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.request;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量收藏请求DTO
+ * 用于客户端同步离线收藏
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public class BatchFavoriteRequest {
+    
+    /**
+     * 单次最多提交的条数
+     */
+    public static final int MAX_SIZE = 200;
+    
+    /**
+     * 收藏列表
+     * 必填字段，1到200条
+     */
+    @NotEmpty(message = "收藏列表不能为空")
+    @Size(max = MAX_SIZE, message = "单次最多提交200条")
+    private List<@Valid FavoriteRequest> favorites;
+    
+    // 默认构造函数
+    public BatchFavoriteRequest() {
+    }
+    
+    // Getter and Setter methods
+    public List<FavoriteRequest> getFavorites() {
+        return favorites;
+    }
+    
+    public void setFavorites(List<FavoriteRequest> favorites) {
+        this.favorites = favorites;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchFavoriteRequest{" +
+                "favorites=" + (favorites == null ? 0 : favorites.size()) +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,58 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "6806e871-6ba8-41c0-869d-7cd9186a530b"
+//   Timestamp: "2026-10-17T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "分页总数策略可按接口选择"
+//   Quality_Check: "编译通过，非法取值返回400。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.request;
+
+import com.poem.education.constant.ErrorCode;
+import com.poem.education.exception.BusinessException;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * 分页总数统计模式
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public enum CountMode {
+    
+    /**
+     * 精确总数：每次请求执行count
+     */
+    EXACT,
+    
+    /**
+     * 不统计总数：多查一条判断是否有下一页
+     */
+    NONE,
+    
+    /**
+     * 近似总数：count结果按过滤条件短期缓存，是否有下一页以实际查询为准
+     */
+    APPROXIMATE;
+    
+    /**
+     * 解析请求参数（忽略大小写）
+     * 
+     * @param value 参数值，为空时返回EXACT
+     * @return 统计模式
+     */
+    public static CountMode of(String value) {
+        if (!StringUtils.hasText(value)) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "countMode取值必须为exact、none或approximate");
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "f5e32648-66a5-4ac2-ad2d-4b265ace6350"
+//   Timestamp: "2026-10-17T21:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "DTO设计最佳实践，严格按照API文档定义"
-//   Quality_Check: "编译通过，字段验证完整。"
+//   Principle_Applied: "新增分面统计开关"
+//   Quality_Check: "编译通过，默认不返回分面保持原有行为。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.dto.request;
@@ -66,9 +66,9 @@ public class GuwenSearchRequest {
     
     /**
      * 排序字段
-     * 可选值：createdAt、title、writer、dynasty
+     * 可选值：relevance(相关度，仅关键字搜索有效，其余情况按createdAt)、createdAt、title、writer、dynasty
      */
-    private String sortBy = "createdAt";
+    private String sortBy = "relevance";
     
     /**
      * 排序方向
@@ -82,6 +82,24 @@ public class GuwenSearchRequest {
      */
     private String searchType = "smart";
     
+    /**
+     * 分页总数统计模式
+     * 可选值：exact(精确总数)、none(不统计总数)、approximate(近似总数)
+     */
+    private String countMode = "exact";
+    
+    /**
+     * 是否返回朝代/作者/类型分面统计
+     */
+    private Boolean withFacets = false;
+    
+    /**
+     * 每个分面返回的取值数量上限
+     */
+    @Min(value = 1, message = "分面数量必须大于0")
+    @Max(value = 100, message = "分面数量不能超过100")
+    private Integer facetSize = 20;
+    
     // 默认构造函数
     public GuwenSearchRequest() {
     }
@@ -166,6 +184,30 @@ public class GuwenSearchRequest {
         this.searchType = searchType;
     }
     
+    public String getCountMode() {
+        return countMode;
+    }
+    
+    public void setCountMode(String countMode) {
+        this.countMode = countMode;
+    }
+    
+    public Boolean getWithFacets() {
+        return withFacets;
+    }
+    
+    public void setWithFacets(Boolean withFacets) {
+        this.withFacets = withFacets;
+    }
+    
+    public Integer getFacetSize() {
+        return facetSize;
+    }
+    
+    public void setFacetSize(Integer facetSize) {
+        this.facetSize = facetSize;
+    }
+    
     @Override
     public String toString() {
         return "GuwenSearchRequest{" +
@@ -177,6 +219,8 @@ public class GuwenSearchRequest {
                 ", size=" + size +
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDir='" + sortDir + '\'' +
+                ", countMode='" + countMode + '\'' +
+                ", withFacets=" + withFacets +
                 '}';
     }
 }
@@ -0,0 +1,113 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "DTO设计最佳实践，遵循现有代码风格"
+//   Quality_Check: "编译通过，字段映射完整，JSON序列化兼容。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.response;
+
+import java.util.List;
+
+/**
+ * 当前用户对某内容的行为状态DTO
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public class ActionStatusDTO {
+    
+    /**
+     * 目标ID
+     */
+    private String targetId;
+    
+    /**
+     * 目标类型
+     */
+    private String targetType;
+    
+    /**
+     * 是否已点赞
+     */
+    private Boolean liked;
+    
+    /**
+     * 是否已收藏（收藏夹）
+     */
+    private Boolean favorited;
+    
+    /**
+     * 已执行的行为类型（like/favorite/share，不含浏览）
+     */
+    private List<String> actionTypes;
+    
+    // 默认构造函数
+    public ActionStatusDTO() {
+    }
+    
+    // 构造函数
+    public ActionStatusDTO(String targetId, String targetType, Boolean liked, Boolean favorited,
+                           List<String> actionTypes) {
+        this.targetId = targetId;
+        this.targetType = targetType;
+        this.liked = liked;
+        this.favorited = favorited;
+        this.actionTypes = actionTypes;
+    }
+    
+    // Getter and Setter methods
+    public String getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+    
+    public String getTargetType() {
+        return targetType;
+    }
+    
+    public void setTargetType(String targetType) {
+        this.targetType = targetType;
+    }
+    
+    public Boolean getLiked() {
+        return liked;
+    }
+    
+    public void setLiked(Boolean liked) {
+        this.liked = liked;
+    }
+    
+    public Boolean getFavorited() {
+        return favorited;
+    }
+    
+    public void setFavorited(Boolean favorited) {
+        this.favorited = favorited;
+    }
+    
+    public List<String> getActionTypes() {
+        return actionTypes;
+    }
+    
+    public void setActionTypes(List<String> actionTypes) {
+        this.actionTypes = actionTypes;
+    }
+    
+    @Override
+    public String toString() {
+        return "ActionStatusDTO{" +
+                "targetId='" + targetId + '\'' +
+                ", targetType='" + targetType + '\'' +
+                ", liked=" + liked +
+                ", favorited=" + favorited +
+                ", actionTypes=" + actionTypes +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
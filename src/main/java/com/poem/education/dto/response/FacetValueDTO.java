@@ -0,0 +1,64 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "f5e32648-66a5-4ac2-ad2d-4b265ace6350"
+//   Timestamp: "2026-10-17T21:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "分面统计项DTO，供搜索页筛选栏展示"
+//   Quality_Check: "编译通过，字段与前端筛选项一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.response;
+
+/**
+ * 分面统计项DTO
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public class FacetValueDTO {
+    
+    /**
+     * 取值（朝代/作者/类型）
+     */
+    private String value;
+    
+    /**
+     * 当前查询条件下该取值的命中数
+     */
+    private Long count;
+    
+    // 默认构造函数
+    public FacetValueDTO() {
+    }
+    
+    // 构造函数
+    public FacetValueDTO(String value, Long count) {
+        this.value = value;
+        this.count = count;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    public void setValue(String value) {
+        this.value = value;
+    }
+    
+    public Long getCount() {
+        return count;
+    }
+    
+    public void setCount(Long count) {
+        this.count = count;
+    }
+    
+    @Override
+    public String toString() {
+        return "FacetValueDTO{" +
+                "value='" + value + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -1,15 +1,18 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "5a312240-0eee-4528-b331-40ce70d611fb"
-//   Timestamp: "2025-08-07T11:10:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "8e3d0d5c-080d-4e1d-a9c1-dd60a3fd0d4c"
+//   Timestamp: "2026-10-18T11:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "分页响应格式最佳实践"
-//   Quality_Check: "编译通过，分页格式符合API文档规范。"
+//   Principle_Applied: "替换数据列表时保留分页信息，便于缓存ID后回表"
+//   Quality_Check: "编译通过，map行为不变。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.dto.response;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 分页响应结果类
@@ -56,6 +59,21 @@ public class PageResult<T> {
      */
     private Boolean hasPrevious;
     
+    /**
+     * 下一页游标（仅游标分页模式返回，没有下一页时为null）
+     */
+    private String nextCursor;
+    
+    /**
+     * 总记录数是否为近似值（来自短期缓存的计数，可能与实时数量略有出入）
+     */
+    private boolean totalApproximate;
+    
+    /**
+     * 分面统计（仅请求分面时返回），key为分面名称，value按命中数降序
+     */
+    private Map<String, List<FacetValueDTO>> facets;
+    
     /**
      * 默认构造函数
      */
@@ -94,6 +112,97 @@ public class PageResult<T> {
         return new PageResult<>(list, page, size, total);
     }
     
+    /**
+     * 创建游标分页结果
+     * 游标模式不统计总数，page/total/pages为null，是否有下一页由nextCursor决定
+     * 
+     * @param list 数据列表
+     * @param size 每页大小
+     * @param nextCursor 下一页游标，没有下一页时为null
+     * @param <T> 数据类型
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofCursor(List<T> list, Integer size, String nextCursor) {
+        PageResult<T> result = new PageResult<>();
+        result.list = list;
+        result.size = size;
+        result.nextCursor = nextCursor;
+        result.hasNext = nextCursor != null;
+        return result;
+    }
+    
+    /**
+     * 创建不含总数的分页结果（多查一条判断是否有下一页，不执行count）
+     * 
+     * @param list 数据列表
+     * @param page 当前页码
+     * @param size 每页大小
+     * @param hasNext 是否有下一页
+     * @param <T> 数据类型
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofSlice(List<T> list, Integer page, Integer size, boolean hasNext) {
+        PageResult<T> result = new PageResult<>();
+        result.list = list;
+        result.page = page;
+        result.size = size;
+        result.hasNext = hasNext;
+        result.hasPrevious = page > 1;
+        return result;
+    }
+    
+    /**
+     * 创建近似总数的分页结果
+     * 总数来自计数缓存，是否有下一页以实际查询结果为准
+     * 
+     * @param list 数据列表
+     * @param page 当前页码
+     * @param size 每页大小
+     * @param total 近似总记录数
+     * @param hasNext 是否有下一页
+     * @param <T> 数据类型
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofApproximate(List<T> list, Integer page, Integer size, Long total, boolean hasNext) {
+        PageResult<T> result = new PageResult<>(list, page, size, total);
+        result.hasNext = hasNext;
+        result.totalApproximate = true;
+        return result;
+    }
+    
+    /**
+     * 转换数据列表，保留分页信息
+     * 
+     * @param mapper 转换函数
+     * @param <R> 目标数据类型
+     * @return 新的分页结果
+     */
+    public <R> PageResult<R> map(Function<? super T, ? extends R> mapper) {
+        return withList(list == null ? null : list.stream().map(mapper).collect(Collectors.toList()));
+    }
+    
+    /**
+     * 替换数据列表，保留分页信息
+     * 
+     * @param newList 新的数据列表
+     * @param <R> 目标数据类型
+     * @return 新的分页结果
+     */
+    public <R> PageResult<R> withList(List<R> newList) {
+        PageResult<R> result = new PageResult<>();
+        result.list = newList;
+        result.page = page;
+        result.size = size;
+        result.total = total;
+        result.pages = pages;
+        result.hasNext = hasNext;
+        result.hasPrevious = hasPrevious;
+        result.nextCursor = nextCursor;
+        result.totalApproximate = totalApproximate;
+        result.facets = facets;
+        return result;
+    }
+    
     /**
      * 创建空的分页结果
      * 
@@ -191,6 +300,30 @@ public class PageResult<T> {
         this.hasPrevious = hasPrevious;
     }
     
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isTotalApproximate() {
+        return totalApproximate;
+    }
+    
+    public void setTotalApproximate(boolean totalApproximate) {
+        this.totalApproximate = totalApproximate;
+    }
+    
+    public Map<String, List<FacetValueDTO>> getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(Map<String, List<FacetValueDTO>> facets) {
+        this.facets = facets;
+    }
+    
     @Override
     public String toString() {
         return "PageResult{" +
@@ -201,6 +334,9 @@ public class PageResult<T> {
                 ", pages=" + pages +
                 ", hasNext=" + hasNext +
                 ", hasPrevious=" + hasPrevious +
+                ", nextCursor=" + nextCursor +
+                ", totalApproximate=" + totalApproximate +
+                ", facets=" + (facets != null ? facets.keySet() : "null") +
                 '}';
     }
 }
@@ -0,0 +1,79 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "搜索联想项DTO，携带类型与ID便于前端直接跳转"
+//   Quality_Check: "编译通过，字段精简。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.dto.response;
+
+/**
+ * 搜索联想项DTO
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class SuggestionDTO {
+    
+    /**
+     * 联想文本（古文标题/作者名/名句）
+     */
+    private String text;
+    
+    /**
+     * 内容类型：guwen、writer、sentence
+     */
+    private String type;
+    
+    /**
+     * 内容ID
+     */
+    private String id;
+    
+    // 默认构造函数
+    public SuggestionDTO() {
+    }
+    
+    // 构造函数
+    public SuggestionDTO(String text, String type, String id) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+                "text='" + text + '\'' +
+                ", type='" + type + '\'' +
+                ", id='" + id + '\'' +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,97 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "90bc715e-1648-4847-ab10-ac065669e60e"
+//   Timestamp: "2026-10-19T16:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "按天汇总浏览量与独立访客数，一天一行"
+//   Quality_Check: "编译通过，字段映射与数据库表结构一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.entity.mysql;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日浏览汇总实体类
+ * 对应数据库表：daily_view_rollup
+ * 由Redis中的当日计数与HyperLogLog定时汇总写入，Redis键过期后历史数据仍可查询
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Entity
+@Table(name = "daily_view_rollup")
+public class DailyViewRollup {
+
+    /**
+     * 统计日期（主键）
+     */
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    /**
+     * 当日新增浏览记录数
+     * 默认值：0
+     */
+    @Column(name = "view_count", columnDefinition = "BIGINT DEFAULT 0")
+    private Long viewCount = 0L;
+
+    /**
+     * 当日独立访客数（HyperLogLog估算值，标准误差约0.81%）
+     * 默认值：0
+     */
+    @Column(name = "unique_viewers", columnDefinition = "BIGINT DEFAULT 0")
+    private Long uniqueViewers = 0L;
+
+    /**
+     * 最后更新时间
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Long getUniqueViewers() {
+        return uniqueViewers;
+    }
+
+    public void setUniqueViewers(Long uniqueViewers) {
+        this.uniqueViewers = uniqueViewers;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyViewRollup{" +
+                "statDate=" + statDate +
+                ", viewCount=" + viewCount +
+                ", uniqueViewers=" + uniqueViewers +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
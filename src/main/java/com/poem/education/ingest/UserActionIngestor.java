@@ -0,0 +1,324 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "30b22a56-bbc1-42d1-bb86-7a75ab47c291"
+//   Timestamp: "2026-10-20T23:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "异步写入默认关闭，文档与日志写明启用所需配置"
+//   Quality_Check: "默认配置下不启动写入线程，启用条件在注释、配置与日志中一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.ingest;
+
+import com.poem.education.entity.mysql.UserAction;
+import com.poem.education.repository.mysql.UserActionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户行为异步写入
+ * UserAction使用IDENTITY主键，Hibernate无法批量插入，每次记录行为都要一次查询加一次INSERT。
+ * 对配置的行为类型（默认只有view），请求线程只把行为放入有界队列即返回；单个写入线程把队列中的行为
+ * 合并为多行INSERT IGNORE（依赖uk_user_target_action唯一索引去重）批量写入，写入后发布UserActionsIngestedEvent。
+ * <p>
+ * 背压：队列满时offer最多等待offer-timeout-ms，仍放不进去则返回false，由调用方同步写入。
+ * 点赞、收藏等需要立即读到自身写入（hasAction/cancelAction）的行为不走异步写入。
+ * <p>
+ * 默认关闭，批量写入与onActionsIngested在默认配置下都不会执行：浏览跟踪（view-tracking.enabled）开启时
+ * 浏览不写入user_actions，view不会进入队列；配置的行为类型在排除这种情况后为空时不启动写入线程。
+ * 启用需要同时满足：
+ * <ul>
+ *   <li>user-action.ingest.enabled=true（USER_ACTION_INGEST_ENABLED）</li>
+ *   <li>view-tracking.enabled=false（VIEW_TRACKING_ENABLED），使浏览重新写入user_actions；
+ *       或在user-action.ingest.action-types（USER_ACTION_INGEST_ACTION_TYPES）中加入share
+ *       （仅当客户端不会在写入后立即hasAction/cancelAction时）</li>
+ * </ul>
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class UserActionIngestor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActionIngestor.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserActionRepository userActionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-action.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${view-tracking.enabled:true}")
+    private boolean viewTrackingEnabled;
+
+    /**
+     * 异步写入的行为类型
+     */
+    @Value("${user-action.ingest.action-types:view}")
+    private Set<String> actionTypes;
+
+    @Value("${user-action.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /**
+     * 单条INSERT包含的最大行数
+     */
+    @Value("${user-action.ingest.max-batch-size:500}")
+    private int maxBatchSize;
+
+    /**
+     * 队列满时的最长等待时间
+     */
+    @Value("${user-action.ingest.offer-timeout-ms:20}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<UserAction> queue;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    private DistributionSummary batchSizes;
+
+    private Timer flushTimer;
+
+    private Timer ingestLag;
+
+    private Counter insertedRows;
+
+    private Counter rejected;
+
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("user_action.ingest.queue_depth", queue, BlockingQueue::size)
+                .description("等待写入的行为数")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("user_action.ingest.batch_size")
+                .description("每批写入的行为数")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("user_action.ingest.flush")
+                .description("每批写入耗时")
+                .register(meterRegistry);
+        ingestLag = Timer.builder("user_action.ingest.lag")
+                .description("行为从入队到写入数据库的时间")
+                .register(meterRegistry);
+        insertedRows = Counter.builder("user_action.ingest.inserted")
+                .description("新写入的行为数")
+                .register(meterRegistry);
+        rejected = Counter.builder("user_action.ingest.rejected")
+                .description("队列已满、回退为同步写入的次数")
+                .register(meterRegistry);
+        dropped = Counter.builder("user_action.ingest.dropped")
+                .description("重试后仍写入失败而丢弃的行为数")
+                .register(meterRegistry);
+        if (enabled && viewTrackingEnabled && actionTypes.contains(UserAction.ActionType.VIEW)) {
+            // 浏览由浏览跟踪计数，不会写入user_actions
+            actionTypes = new HashSet<>(actionTypes);
+            actionTypes.remove(UserAction.ActionType.VIEW);
+        }
+        if (enabled && actionTypes.isEmpty()) {
+            logger.warn("用户行为异步写入没有可接收的行为类型（浏览跟踪已开启），不启动写入线程；"
+                    + "需关闭view-tracking.enabled或在user-action.ingest.action-types中加入其他行为类型");
+        } else if (enabled) {
+            running = true;
+            writer = new Thread(this::runWriter, "user-action-ingest");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * 该行为类型是否走异步写入
+     *
+     * @param actionType 行为类型
+     * @return 是否异步写入
+     */
+    public boolean accepts(String actionType) {
+        return running && actionType != null && actionTypes.contains(actionType);
+    }
+
+    /**
+     * 放入写入队列
+     *
+     * @param action 行为记录（createdAt已设置）
+     * @return 是否已入队；返回false时调用方应同步写入
+     */
+    public boolean offer(UserAction action) {
+        if (!running) {
+            return false;
+        }
+        try {
+            if (queue.offer(action, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * 等待写入的行为数
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * 停机：停止接收，写完队列中剩余的行为
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        logger.info("用户行为写入线程已停止: remaining={}", queue.size());
+    }
+
+    private void runWriter() {
+        List<UserAction> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                UserAction first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                logger.error("用户行为写入线程异常: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 写入一批行为，失败时重试，仍失败则丢弃并计数
+     *
+     * @param batch 行为列表
+     */
+    void writeBatch(List<UserAction> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        // 同一批内重复的行为只写一次
+        Map<String, UserAction> unique = new LinkedHashMap<>();
+        List<UserAction> batchDuplicates = new ArrayList<>();
+        for (UserAction action : batch) {
+            if (unique.putIfAbsent(key(action), action) != null) {
+                batchDuplicates.add(action);
+            }
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                Set<String> existing = findExistingKeys(unique.values());
+                List<UserAction> duplicates = new ArrayList<>(batchDuplicates);
+                List<UserAction> fresh = new ArrayList<>(unique.size());
+                for (UserAction action : unique.values()) {
+                    if (existing.contains(key(action))) {
+                        duplicates.add(action);
+                    } else {
+                        fresh.add(action);
+                    }
+                }
+                userActionRepository.insertIgnoreAll(fresh);
+
+                LocalDateTime now = LocalDateTime.now();
+                for (UserAction action : batch) {
+                    ingestLag.record(Duration.between(action.getCreatedAt(), now));
+                }
+                batchSizes.record(batch.size());
+                insertedRows.increment(fresh.size());
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                eventPublisher.publishEvent(new UserActionsIngestedEvent(fresh, duplicates));
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("用户行为批量写入失败: rows={}, attempt={}, error={}", unique.size(), attempt, e.getMessage());
+                if (attempt < MAX_ATTEMPTS) {
+                    Thread.sleep(100L * attempt);
+                }
+            }
+        }
+        dropped.increment(unique.size());
+        logger.error("用户行为批量写入重试后仍失败，丢弃: rows={}", unique.size());
+    }
+
+    /**
+     * 查询已存在的行为（唯一键）
+     */
+    private Set<String> findExistingKeys(Collection<UserAction> actions) {
+        StringBuilder sql = new StringBuilder("SELECT user_id, target_id, target_type, action_type FROM user_actions "
+                + "WHERE (user_id, target_id, target_type, action_type) IN (");
+        List<Object> args = new ArrayList<>(actions.size() * 4);
+        int i = 0;
+        for (UserAction action : actions) {
+            sql.append(i++ == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            args.add(action.getUserId());
+            args.add(action.getTargetId());
+            args.add(action.getTargetType());
+            args.add(action.getActionType());
+        }
+        sql.append(")");
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            existing.add(key(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+        }, args.toArray());
+        return existing;
+    }
+
+    private static String key(UserAction action) {
+        return key(action.getUserId(), action.getTargetId(), action.getTargetType(), action.getActionType());
+    }
+
+    private static String key(Long userId, String targetId, String targetType, String actionType) {
+        return userId + "|" + targetId + "|" + targetType + "|" + actionType;
+    }
+}
+// {{END_MODIFICATIONS}}
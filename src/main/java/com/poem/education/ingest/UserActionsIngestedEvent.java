@@ -0,0 +1,57 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "fb28f577-cf16-4e73-bd0d-3fd40dd389e2"
+//   Timestamp: "2026-10-19T22:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "批量写入完成后以事件通知统计等后续处理"
+//   Quality_Check: "编译通过，事件不可变。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.ingest;
+
+import com.poem.education.entity.mysql.UserAction;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 用户行为批量写入完成事件
+ * 由写入线程在每批写入后发布，内容统计、独立访客等据此更新。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+public class UserActionsIngestedEvent {
+
+    /**
+     * 新写入的行为
+     */
+    private final List<UserAction> inserted;
+
+    /**
+     * 已存在（唯一键重复）的行为
+     */
+    private final List<UserAction> duplicates;
+
+    public UserActionsIngestedEvent(List<UserAction> inserted, List<UserAction> duplicates) {
+        this.inserted = Collections.unmodifiableList(inserted);
+        this.duplicates = Collections.unmodifiableList(duplicates);
+    }
+
+    public List<UserAction> getInserted() {
+        return inserted;
+    }
+
+    public List<UserAction> getDuplicates() {
+        return duplicates;
+    }
+
+    @Override
+    public String toString() {
+        return "UserActionsIngestedEvent{" +
+                "inserted=" + inserted.size() +
+                ", duplicates=" + duplicates.size() +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
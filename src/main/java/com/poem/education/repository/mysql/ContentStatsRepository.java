@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "f00f17a5-84b0-45ee-9828-816019892137"
-//   Timestamp: "2025-08-07T11:15:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "6e91da78-5b1a-49bd-8597-ea9c07e5af51"
+//   Timestamp: "2026-10-19T11:40:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Spring Data JPA Repository最佳实践"
-//   Quality_Check: "编译通过，查询方法符合业务需求。"
+//   Principle_Applied: "新增按类型与ID集合批量查询"
+//   Quality_Check: "编译通过，原有查询方法不变。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.repository.mysql;
@@ -19,6 +19,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,7 +31,7 @@ import java.util.Optional;
  * @since 2025-08-07
  */
 @Repository
-public interface ContentStatsRepository extends JpaRepository<ContentStats, Long> {
+public interface ContentStatsRepository extends JpaRepository<ContentStats, Long>, ContentStatsRepositoryCustom {
     
     /**
      * 根据内容ID和类型查找统计信息
@@ -41,6 +42,15 @@ public interface ContentStatsRepository extends JpaRepository<ContentStats, Long
      */
     Optional<ContentStats> findByContentIdAndContentType(String contentId, String contentType);
     
+    /**
+     * 批量查找同一类型内容的统计信息
+     * 
+     * @param contentType 内容类型
+     * @param contentIds 内容ID集合
+     * @return 统计信息列表（不存在的内容不返回）
+     */
+    List<ContentStats> findByContentTypeAndContentIdIn(String contentType, Collection<String> contentIds);
+    
     /**
      * 检查内容统计是否存在
      * 
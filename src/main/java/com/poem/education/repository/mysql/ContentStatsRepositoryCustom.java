@@ -0,0 +1,34 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "e49e9051-b70c-43e2-a9fc-d867678cf0af"
+//   Timestamp: "2026-10-20T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "说明负增量的截断规则"
+//   Quality_Check: "编译通过，接口职责单一。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.stats.ContentStatsDelta;
+
+import java.util.List;
+
+/**
+ * 内容统计Repository自定义方法
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+public interface ContentStatsRepositoryCustom {
+
+    /**
+     * 批量累加内容统计，记录不存在时创建
+     * 使用单条多行INSERT ... ON DUPLICATE KEY UPDATE（依赖uk_content唯一索引）。
+     * 增量可以为负数（如删除评论）：含负增量的内容逐行upsert，记录不存在时插入值按0截断，不会写入负计数。
+     *
+     * @param deltas 统计增量
+     * @return 影响行数
+     */
+    int batchUpsertIncrements(List<ContentStatsDelta> deltas);
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,121 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "e49e9051-b70c-43e2-a9fc-d867678cf0af"
+//   Timestamp: "2026-10-20T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "含负增量的内容逐行upsert，插入值按0截断，更新按原增量累加"
+//   Quality_Check: "编译通过，不存在的内容不会写入负计数。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.stats.ContentStatsDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 内容统计Repository自定义方法实现
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+public class ContentStatsRepositoryImpl implements ContentStatsRepositoryCustom {
+
+    private static final String INSERT_PREFIX = "INSERT INTO content_stats "
+            + "(content_id, content_type, view_count, like_count, favorite_count, comment_count, share_count, "
+            + "last_updated) VALUES ";
+
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, NOW())";
+
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE "
+            + "view_count = view_count + VALUES(view_count), "
+            + "like_count = like_count + VALUES(like_count), "
+            + "favorite_count = favorite_count + VALUES(favorite_count), "
+            + "comment_count = comment_count + VALUES(comment_count), "
+            + "share_count = share_count + VALUES(share_count), "
+            + "last_updated = VALUES(last_updated)";
+
+    /**
+     * 含负增量的单行upsert：插入值不小于0，更新时按原增量累加
+     */
+    private static final String CLAMPED_UPSERT_SQL = INSERT_PREFIX
+            + "(?, ?, GREATEST(0, ?), GREATEST(0, ?), GREATEST(0, ?), GREATEST(0, ?), GREATEST(0, ?), NOW())"
+            + " ON DUPLICATE KEY UPDATE "
+            + "view_count = view_count + ?, "
+            + "like_count = like_count + ?, "
+            + "favorite_count = favorite_count + ?, "
+            + "comment_count = comment_count + ?, "
+            + "share_count = share_count + ?, "
+            + "last_updated = VALUES(last_updated)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int batchUpsertIncrements(List<ContentStatsDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return 0;
+        }
+        List<ContentStatsDelta> increments = new ArrayList<>(deltas.size());
+        List<Object[]> clamped = new ArrayList<>();
+        for (ContentStatsDelta delta : deltas) {
+            long[] counts = counts(delta);
+            if (Arrays.stream(counts).anyMatch(count -> count < 0)) {
+                Object[] args = new Object[2 + counts.length * 2];
+                args[0] = delta.getContentId();
+                args[1] = delta.getContentType();
+                for (int i = 0; i < counts.length; i++) {
+                    args[2 + i] = counts[i];
+                    args[2 + counts.length + i] = counts[i];
+                }
+                clamped.add(args);
+            } else {
+                increments.add(delta);
+            }
+        }
+        int affected = upsertIncrements(increments);
+        if (!clamped.isEmpty()) {
+            affected += IntStream.of(jdbcTemplate.batchUpdate(CLAMPED_UPSERT_SQL, clamped)).sum();
+        }
+        return affected;
+    }
+
+    /**
+     * 非负增量以一条多行upsert写入
+     */
+    private int upsertIncrements(List<ContentStatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + deltas.size() * 32 + UPSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(deltas.size() * 7);
+        for (int i = 0; i < deltas.size(); i++) {
+            ContentStatsDelta delta = deltas.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args.add(delta.getContentId());
+            args.add(delta.getContentType());
+            args.add(delta.getViewCount());
+            args.add(delta.getLikeCount());
+            args.add(delta.getFavoriteCount());
+            args.add(delta.getCommentCount());
+            args.add(delta.getShareCount());
+        }
+        sql.append(UPSERT_SUFFIX);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static long[] counts(ContentStatsDelta delta) {
+        return new long[]{delta.getViewCount(), delta.getLikeCount(), delta.getFavoriteCount(),
+                delta.getCommentCount(), delta.getShareCount()};
+    }
+}
+// {{END_MODIFICATIONS}}
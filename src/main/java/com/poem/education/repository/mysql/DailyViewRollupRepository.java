@@ -0,0 +1,52 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "90bc715e-1648-4847-ab10-ac065669e60e"
+//   Timestamp: "2026-10-19T16:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "单条upsert写入每日汇总，多实例并发写入不冲突"
+//   Quality_Check: "编译通过，汇总值只增不减。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.entity.mysql.DailyViewRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * 每日浏览汇总Repository接口
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Repository
+public interface DailyViewRollupRepository extends JpaRepository<DailyViewRollup, LocalDate> {
+
+    /**
+     * 写入某日汇总，记录已存在时取较大值
+     * Redis重启导致当日计数从0重新累计时，已写入的汇总不会被较小的值覆盖
+     *
+     * @param statDate 统计日期
+     * @param viewCount 浏览记录数
+     * @param uniqueViewers 独立访客数
+     * @return 影响行数
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO daily_view_rollup (stat_date, view_count, unique_viewers, updated_at) " +
+                   "VALUES (:statDate, :viewCount, :uniqueViewers, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE view_count = GREATEST(view_count, VALUES(view_count)), " +
+                   "unique_viewers = GREATEST(unique_viewers, VALUES(unique_viewers)), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int upsertMax(@Param("statDate") LocalDate statDate,
+                  @Param("viewCount") long viewCount,
+                  @Param("uniqueViewers") long uniqueViewers);
+}
+// {{END_MODIFICATIONS}}
@@ -1,9 +1,9 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "f00f17a5-84b0-45ee-9828-816019892137"
-//   Timestamp: "2025-08-07T11:15:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Spring Data JPA Repository最佳实践"
+//   Principle_Applied: "新增按用户加载成员缓存的投影查询"
 //   Quality_Check: "编译通过，查询方法符合业务需求。"
 // }}
 // {{START_MODIFICATIONS}}
@@ -18,6 +18,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,7 +30,7 @@ import java.util.Optional;
  * @since 2025-08-07
  */
 @Repository
-public interface UserActionRepository extends JpaRepository<UserAction, Long> {
+public interface UserActionRepository extends JpaRepository<UserAction, Long>, UserActionRepositoryCustom {
     
     /**
      * 查找用户对特定目标的特定行为
@@ -55,6 +56,26 @@ public interface UserActionRepository extends JpaRepository<UserAction, Long> {
     boolean existsByUserIdAndTargetIdAndTargetTypeAndActionType(
             Long userId, String targetId, String targetType, String actionType);
     
+    /**
+     * 查找用户对一组目标的所有行为（走uk_user_target_action前缀）
+     * 
+     * @param userId 用户ID
+     * @param targetIds 目标ID列表
+     * @return 用户行为记录
+     */
+    List<UserAction> findByUserIdAndTargetIdIn(Long userId, Collection<String> targetIds);
+    
+    /**
+     * 查询用户的点赞、收藏、分享（不含浏览），用于加载用户成员缓存
+     * 
+     * @param userId 用户ID
+     * @param pageable 限制条数
+     * @return [targetType, targetId, actionType]
+     */
+    @Query("SELECT ua.targetType, ua.targetId, ua.actionType FROM UserAction ua " +
+           "WHERE ua.userId = :userId AND ua.actionType <> 'view'")
+    List<Object[]> findMembershipByUserId(@Param("userId") Long userId, Pageable pageable);
+    
     /**
      * 查找用户的所有行为记录
      * 
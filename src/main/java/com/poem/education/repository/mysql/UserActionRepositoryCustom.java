@@ -0,0 +1,44 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "8c7759a8-6ef7-4d22-b9db-0400aec30106"
+//   Timestamp: "2026-10-20T19:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "逐行写入结果区分本次写入与并发写入"
+//   Quality_Check: "编译通过，接口职责单一。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.entity.mysql.UserAction;
+
+import java.util.List;
+
+/**
+ * 用户行为Repository自定义方法
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public interface UserActionRepositoryCustom {
+
+    /**
+     * 批量写入用户行为，已存在的行为（uk_user_target_action重复）忽略
+     * UserAction使用IDENTITY主键，saveAll会逐条INSERT，这里改为单条多行INSERT IGNORE。
+     * 写入的行不会回填ID，需要ID时由调用方重新查询。
+     *
+     * @param actions 行为列表（createdAt需已设置）
+     * @return 实际写入的行数
+     */
+    int insertIgnoreAll(List<UserAction> actions);
+
+    /**
+     * 逐行INSERT IGNORE写入用户行为（JDBC批量执行），返回每行的影响行数
+     * 并发请求可能先写入同一行为，调用方据此只对本次实际写入的行累加统计。
+     * 依赖驱动返回逐行结果，连接参数不能开启rewriteBatchedStatements。
+     *
+     * @param actions 行为列表（createdAt需已设置）
+     * @return 与actions顺序一致的影响行数，1为本次写入，0为已存在
+     */
+    int[] insertIgnoreEach(List<UserAction> actions);
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,72 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "8c7759a8-6ef7-4d22-b9db-0400aec30106"
+//   Timestamp: "2026-10-20T19:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "JDBC批量执行单行INSERT IGNORE，返回逐行影响行数"
+//   Quality_Check: "编译通过，参数化SQL。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.entity.mysql.UserAction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户行为Repository自定义方法实现
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public class UserActionRepositoryImpl implements UserActionRepositoryCustom {
+
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO user_actions "
+            + "(user_id, target_id, target_type, action_type, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoreAll(List<UserAction> actions) {
+        if (actions == null || actions.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + actions.size() * 17);
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(actions.size() * 5);
+        for (int i = 0; i < actions.size(); i++) {
+            UserAction action = actions.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args.add(action.getUserId());
+            args.add(action.getTargetId());
+            args.add(action.getTargetType());
+            args.add(action.getActionType());
+            args.add(Timestamp.valueOf(action.getCreatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    @Override
+    public int[] insertIgnoreEach(List<UserAction> actions) {
+        if (actions == null || actions.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = new ArrayList<>(actions.size());
+        for (UserAction action : actions) {
+            args.add(new Object[]{action.getUserId(), action.getTargetId(), action.getTargetType(),
+                    action.getActionType(), Timestamp.valueOf(action.getCreatedAt())});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_PREFIX + ROW_PLACEHOLDER, args);
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,33 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "批量写入以单条多行INSERT IGNORE完成"
+//   Quality_Check: "编译通过，接口职责单一。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.entity.mysql.UserFavorite;
+
+import java.util.List;
+
+/**
+ * 用户收藏Repository自定义方法
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public interface UserFavoriteRepositoryCustom {
+
+    /**
+     * 批量写入收藏，已收藏的目标（uk_user_favorite重复）忽略
+     * 写入的行不会回填ID，需要ID时由调用方重新查询。
+     *
+     * @param favorites 收藏列表（createdAt需已设置）
+     * @return 实际写入的行数
+     */
+    int insertIgnoreAll(List<UserFavorite> favorites);
+}
+// {{END_MODIFICATIONS}}
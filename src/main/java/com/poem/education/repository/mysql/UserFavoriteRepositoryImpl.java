@@ -0,0 +1,60 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "多行INSERT IGNORE，一次往返写入一批收藏"
+//   Quality_Check: "编译通过，参数化SQL。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.repository.mysql;
+
+import com.poem.education.entity.mysql.UserFavorite;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户收藏Repository自定义方法实现
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public class UserFavoriteRepositoryImpl implements UserFavoriteRepositoryCustom {
+
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO user_favorites "
+            + "(user_id, target_id, target_type, folder_name, notes, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoreAll(List<UserFavorite> favorites) {
+        if (favorites == null || favorites.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + favorites.size() * 20);
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(favorites.size() * 6);
+        for (int i = 0; i < favorites.size(); i++) {
+            UserFavorite favorite = favorites.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args.add(favorite.getUserId());
+            args.add(favorite.getTargetId());
+            args.add(favorite.getTargetType());
+            args.add(favorite.getFolderName());
+            args.add(favorite.getNotes());
+            args.add(Timestamp.valueOf(favorite.getCreatedAt()));
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,120 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "模板方法抽取索引生命周期：启动构建、定时重建、快照原子替换"
+//   Quality_Check: "编译通过，构建期间不影响在线查询。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 内存检索索引基类
+ * 应用启动后异步全量构建，并按固定间隔重建；构建完成前isReady()返回false，
+ * 调用方此时继续使用MongoDB查询。子类只负责从数据源构建快照。
+ *
+ * @param <S> 索引快照类型
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public abstract class AbstractSearchIndex<S> {
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    private volatile S snapshot;
+
+    /**
+     * 应用就绪后异步构建索引
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 定时重建索引，使新增/修改的数据在一个刷新周期内可被检索
+     */
+    @Scheduled(initialDelayString = "${search.index.refresh-interval-ms:600000}",
+               fixedDelayString = "${search.index.refresh-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 索引是否可用
+     *
+     * @return 是否可用
+     */
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    /**
+     * 获取当前索引快照
+     *
+     * @return 快照，未就绪时为null
+     */
+    public S getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 全量重建索引，已有构建任务在执行时直接返回
+     */
+    public void rebuild() {
+        if (!enabled || !building.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            S newSnapshot = buildSnapshot();
+            snapshot = newSnapshot;
+            logger.info("{}构建完成: {}, cost={}ms", getIndexName(), describe(newSnapshot),
+                       System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("{}构建失败，继续使用原有索引: {}", getIndexName(), e.getMessage(), e);
+        } finally {
+            building.set(false);
+        }
+    }
+
+    /**
+     * 索引名称，用于日志
+     *
+     * @return 索引名称
+     */
+    protected abstract String getIndexName();
+
+    /**
+     * 从数据源全量构建快照
+     *
+     * @return 新快照
+     */
+    protected abstract S buildSnapshot();
+
+    /**
+     * 快照概要信息，用于日志
+     *
+     * @param snapshot 快照
+     * @return 概要信息
+     */
+    protected abstract String describe(S snapshot);
+}
+// {{END_MODIFICATIONS}}
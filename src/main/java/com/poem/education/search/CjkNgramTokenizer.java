@@ -0,0 +1,128 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "4d602efe-3645-4760-be73-4deb3c20f8e1"
+//   Timestamp: "2026-10-17T10:05:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "中文N-gram分词，索引与查询使用同一套归一化规则"
+//   Quality_Check: "编译通过，单字/双字切分与归一化规则一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 中文N-gram分词器
+ * 索引阶段对汉字片段同时产出单字(unigram)和双字(bigram)词项，
+ * 查询阶段对长度≥2的汉字片段只产出双字词项，长度为1时产出单字词项；
+ * 字母数字片段整体作为一个词项。标点、空白作为片段分隔符。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class CjkNgramTokenizer {
+
+    private CjkNgramTokenizer() {
+    }
+
+    /**
+     * 归一化文本：NFKC（全角转半角）+ 小写
+     *
+     * @param text 原始文本
+     * @return 归一化后的文本
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引分词，逐个回调词项（同一文本中的重复词项会重复回调，用于词频统计）
+     *
+     * @param text 原始文本
+     * @param sink 词项回调
+     */
+    public static void indexTokens(String text, Consumer<String> sink) {
+        for (String segment : segments(normalize(text))) {
+            if (isHan(segment.codePointAt(0))) {
+                int[] codePoints = segment.codePoints().toArray();
+                for (int i = 0; i < codePoints.length; i++) {
+                    sink.accept(new String(codePoints, i, 1));
+                    if (i + 1 < codePoints.length) {
+                        sink.accept(new String(codePoints, i, 2));
+                    }
+                }
+            } else {
+                sink.accept(segment);
+            }
+        }
+    }
+
+    /**
+     * 查询分词，返回去重后的词项列表
+     *
+     * @param keyword 查询关键字
+     * @return 词项列表，关键字中没有可检索字符时返回空列表
+     */
+    public static List<String> queryTokens(String keyword) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String segment : segments(normalize(keyword))) {
+            if (isHan(segment.codePointAt(0))) {
+                int[] codePoints = segment.codePoints().toArray();
+                if (codePoints.length == 1) {
+                    terms.add(segment);
+                } else {
+                    for (int i = 0; i + 1 < codePoints.length; i++) {
+                        terms.add(new String(codePoints, i, 2));
+                    }
+                }
+            } else {
+                terms.add(segment);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * 按字符类别切分片段：连续汉字为一段，连续字母数字为一段，其余字符丢弃
+     *
+     * @param normalized 归一化后的文本
+     * @return 片段列表
+     */
+    private static List<String> segments(String normalized) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentKind = 0;
+
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            int kind = isHan(codePoint) ? 1 : (Character.isLetterOrDigit(codePoint) ? 2 : 0);
+            if (kind != currentKind && current.length() > 0) {
+                segments.add(current.toString());
+                current.setLength(0);
+            }
+            if (kind != 0) {
+                current.appendCodePoint(codePoint);
+            }
+            currentKind = kind;
+            i += Character.charCount(codePoint);
+        }
+        if (current.length() > 0) {
+            segments.add(current.toString());
+        }
+        return segments;
+    }
+
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,160 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "f5e32648-66a5-4ac2-ad2d-4b265ace6350"
+//   Timestamp: "2026-10-17T21:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "分面字段字典编码为正排列，计数只做整数数组累加"
+//   Quality_Check: "编译通过，支持单值与多值字段。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.dto.response.FacetValueDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 分面字段正排列
+ * 每个取值编码为字典序号，文档保存其取值序号数组；
+ * 过滤条件先在字典上求值得到允许的序号集合，再按文档逐个判断，正则等条件每个取值只计算一次。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+final class FacetColumn {
+
+    private static final int[] NO_VALUES = new int[0];
+
+    /**
+     * 字典：序号 -> 取值
+     */
+    private final String[] values;
+
+    /**
+     * 文档 -> 取值序号
+     */
+    private final int[][] docValues;
+
+    private FacetColumn(String[] values, int[][] docValues) {
+        this.values = values;
+        this.docValues = docValues;
+    }
+
+    /**
+     * 由每个文档的取值构建，空白取值忽略
+     *
+     * @param perDocValues 按文档序号排列的取值
+     * @return 分面列
+     */
+    static FacetColumn of(List<? extends Collection<String>> perDocValues) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[][] docValues = new int[perDocValues.size()][];
+        for (int doc = 0; doc < docValues.length; doc++) {
+            Collection<String> docValueList = perDocValues.get(doc);
+            if (docValueList == null || docValueList.isEmpty()) {
+                docValues[doc] = NO_VALUES;
+                continue;
+            }
+            int[] ords = new int[docValueList.size()];
+            int count = 0;
+            for (String value : docValueList) {
+                if (value == null || value.trim().isEmpty()) {
+                    continue;
+                }
+                Integer ord = dictionary.get(value);
+                if (ord == null) {
+                    ord = values.size();
+                    dictionary.put(value, ord);
+                    values.add(value);
+                }
+                ords[count++] = ord;
+            }
+            docValues[doc] = count == 0 ? NO_VALUES : Arrays.copyOf(ords, count);
+        }
+        return new FacetColumn(values.toArray(new String[0]), docValues);
+    }
+
+    /**
+     * 计算满足条件的取值序号集合
+     *
+     * @param predicate 取值条件
+     * @return 允许的序号集合
+     */
+    BitSet allowed(Predicate<String> predicate) {
+        BitSet allowed = new BitSet(values.length);
+        for (int ord = 0; ord < values.length; ord++) {
+            if (predicate.test(values[ord])) {
+                allowed.set(ord);
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * 文档是否满足过滤条件（多值字段任一取值满足即可）
+     *
+     * @param doc     文档序号
+     * @param allowed 允许的序号集合，null表示不过滤
+     * @return 是否满足
+     */
+    boolean matches(int doc, BitSet allowed) {
+        if (allowed == null) {
+            return true;
+        }
+        for (int ord : docValues[doc]) {
+            if (allowed.get(ord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 累加文档取值计数
+     *
+     * @param doc    文档序号
+     * @param counts 按序号排列的计数
+     */
+    void count(int doc, long[] counts) {
+        for (int ord : docValues[doc]) {
+            counts[ord]++;
+        }
+    }
+
+    long[] newCounts() {
+        return new long[values.length];
+    }
+
+    /**
+     * 取计数最高的若干取值，计数相同按取值排序
+     *
+     * @param counts 计数
+     * @param limit  数量上限
+     * @return 分面统计项
+     */
+    List<FacetValueDTO> top(long[] counts, int limit) {
+        List<Integer> ords = new ArrayList<>();
+        for (int ord = 0; ord < counts.length; ord++) {
+            if (counts[ord] > 0) {
+                ords.add(ord);
+            }
+        }
+        ords.sort((a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : values[a].compareTo(values[b]));
+
+        List<FacetValueDTO> result = new ArrayList<>(Math.min(limit, ords.size()));
+        for (int i = 0; i < ords.size() && i < limit; i++) {
+            int ord = ords.get(i);
+            result.add(new FacetValueDTO(values[ord], counts[ord]));
+        }
+        return result;
+    }
+}
+// {{END_MODIFICATIONS}}
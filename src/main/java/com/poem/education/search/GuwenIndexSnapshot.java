@@ -0,0 +1,292 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "56f35c84-bff5-4fc8-abcf-468264e92923"
+//   Timestamp: "2026-10-20T20:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "关键字检索改用短语匹配"
+//   Quality_Check: "编译通过，命中结果与MongoDB正则查询一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.dto.response.FacetValueDTO;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * 古文索引快照
+ * 包含倒排索引、分面正排列以及按文档序号排列的排序/回表所需元数据，构建完成后不再修改。
+ * 文档序号按MongoDB _id升序分配，因此序号顺序即_id顺序。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class GuwenIndexSnapshot {
+
+    public static final String FACET_DYNASTY = "dynasty";
+
+    public static final String FACET_WRITER = "writer";
+
+    public static final String FACET_TYPE = "type";
+
+    private final InvertedIndex index;
+
+    private final String[] ids;
+
+    private final String[] titles;
+
+    private final String[] writers;
+
+    private final String[] dynasties;
+
+    /**
+     * 创建时间（epoch毫秒），缺失时为Long.MIN_VALUE
+     */
+    private final long[] createdAt;
+
+    private final FacetColumn dynastyFacet;
+
+    private final FacetColumn writerFacet;
+
+    private final FacetColumn typeFacet;
+
+    private final long builtAt;
+
+    public GuwenIndexSnapshot(InvertedIndex index, String[] ids, String[] titles, String[] writers,
+                              String[] dynasties, List<List<String>> types, long[] createdAt) {
+        this.index = index;
+        this.ids = ids;
+        this.titles = titles;
+        this.writers = writers;
+        this.dynasties = dynasties;
+        this.createdAt = createdAt;
+        this.dynastyFacet = FacetColumn.of(Arrays.stream(dynasties).map(Collections::singletonList).collect(Collectors.toList()));
+        this.writerFacet = FacetColumn.of(Arrays.stream(writers).map(Collections::singletonList).collect(Collectors.toList()));
+        this.typeFacet = FacetColumn.of(types);
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 关键字检索
+     *
+     * @param keyword    关键字
+     * @param searchType 搜索类型：smart/fuzzy/content
+     * @return 命中的文档序号（按_id升序）
+     */
+    public int[] search(String keyword, String searchType) {
+        return index.matchPhrase(keyword, GuwenSearchField.fieldsFor(searchType));
+    }
+
+    /**
+     * 全部文档（无关键字时作为命中集合）
+     *
+     * @return 全部文档序号（按_id升序）
+     */
+    public int[] allDocs() {
+        int[] docs = new int[ids.length];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = i;
+        }
+        return docs;
+    }
+
+    /**
+     * 按朝代/作者/类型过滤命中结果，语义与GuwenServiceImpl.buildGuwenFilter一致
+     *
+     * @param docs    命中文档
+     * @param dynasty 朝代（精确匹配，可为空）
+     * @param writer  作者（正则匹配，忽略大小写，可为空）
+     * @param type    类型（包含，可为空）
+     * @return 过滤后的文档序号，无过滤条件时返回原数组
+     */
+    public int[] filter(int[] docs, String dynasty, String writer, String type) {
+        BitSet dynastyAllowed = dynastyAllowed(dynasty);
+        BitSet writerAllowed = writerAllowed(writer);
+        BitSet typeAllowed = typeAllowed(type);
+        if (dynastyAllowed == null && writerAllowed == null && typeAllowed == null) {
+            return docs;
+        }
+        int[] filtered = new int[docs.length];
+        int count = 0;
+        for (int doc : docs) {
+            if (dynastyFacet.matches(doc, dynastyAllowed) && writerFacet.matches(doc, writerAllowed)
+                    && typeFacet.matches(doc, typeAllowed)) {
+                filtered[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(filtered, count);
+    }
+
+    /**
+     * 统计朝代/作者/类型分面
+     * 每个分面的计数应用其余分面的过滤条件、不应用自身条件，
+     * 这样选中某个朝代后仍能看到其他朝代的命中数，便于切换。
+     *
+     * @param docs    关键字命中文档（未经过朝代/作者/类型过滤）
+     * @param dynasty 朝代（可为空）
+     * @param writer  作者（可为空）
+     * @param type    类型（可为空）
+     * @param limit   每个分面返回的取值数量上限
+     * @return 分面名称 -> 按命中数降序的统计项
+     */
+    public Map<String, List<FacetValueDTO>> facets(int[] docs, String dynasty, String writer, String type, int limit) {
+        BitSet dynastyAllowed = dynastyAllowed(dynasty);
+        BitSet writerAllowed = writerAllowed(writer);
+        BitSet typeAllowed = typeAllowed(type);
+
+        long[] dynastyCounts = dynastyFacet.newCounts();
+        long[] writerCounts = writerFacet.newCounts();
+        long[] typeCounts = typeFacet.newCounts();
+        for (int doc : docs) {
+            boolean dynastyMatched = dynastyFacet.matches(doc, dynastyAllowed);
+            boolean writerMatched = writerFacet.matches(doc, writerAllowed);
+            boolean typeMatched = typeFacet.matches(doc, typeAllowed);
+            if (writerMatched && typeMatched) {
+                dynastyFacet.count(doc, dynastyCounts);
+            }
+            if (dynastyMatched && typeMatched) {
+                writerFacet.count(doc, writerCounts);
+            }
+            if (dynastyMatched && writerMatched) {
+                typeFacet.count(doc, typeCounts);
+            }
+        }
+
+        Map<String, List<FacetValueDTO>> facets = new LinkedHashMap<>();
+        facets.put(FACET_DYNASTY, dynastyFacet.top(dynastyCounts, limit));
+        facets.put(FACET_WRITER, writerFacet.top(writerCounts, limit));
+        facets.put(FACET_TYPE, typeFacet.top(typeCounts, limit));
+        return facets;
+    }
+
+    /**
+     * 按BM25相关度选取前K个命中文档
+     *
+     * @param keyword    关键字
+     * @param searchType 搜索类型：smart/fuzzy/content
+     * @param hits       search()返回的命中文档
+     * @param k          需要的数量（通常为page*size）
+     * @return 按相关度降序排列的文档序号
+     */
+    public int[] rank(String keyword, String searchType, int[] hits, int k) {
+        List<String> terms = CjkNgramTokenizer.queryTokens(keyword);
+        float[] scores = index.score(terms, hits, GuwenSearchField.weightsFor(searchType));
+        return TopKCollector.topK(hits, scores, k);
+    }
+
+    /**
+     * 是否支持按指定字段在内存中排序
+     *
+     * @param sortBy 排序字段
+     * @return 是否支持
+     */
+    public static boolean supportsSort(String sortBy) {
+        return sortBy == null || "relevance".equals(sortBy) || "createdAt".equals(sortBy) || "id".equals(sortBy)
+                || "title".equals(sortBy) || "writer".equals(sortBy) || "dynasty".equals(sortBy);
+    }
+
+    /**
+     * 对命中结果排序，排序值相同时按_id升序保证分页稳定
+     *
+     * @param docs   文档序号（会被原地排序）
+     * @param sortBy 排序字段
+     * @param asc    是否升序
+     * @return 排序后的文档序号
+     */
+    public int[] sort(int[] docs, String sortBy, boolean asc) {
+        if (sortBy == null || "id".equals(sortBy)) {
+            if (!asc) {
+                reverse(docs);
+            }
+            return docs;
+        }
+
+        Comparator<Integer> comparator;
+        switch (sortBy) {
+            case "title":
+                comparator = Comparator.comparing(doc -> titles[doc], Comparator.nullsFirst(Comparator.naturalOrder()));
+                break;
+            case "writer":
+                comparator = Comparator.comparing(doc -> writers[doc], Comparator.nullsFirst(Comparator.naturalOrder()));
+                break;
+            case "dynasty":
+                comparator = Comparator.comparing(doc -> dynasties[doc], Comparator.nullsFirst(Comparator.naturalOrder()));
+                break;
+            case "createdAt":
+            default:
+                comparator = Comparator.comparingLong(doc -> createdAt[doc]);
+                break;
+        }
+        if (!asc) {
+            comparator = comparator.reversed();
+        }
+        comparator = comparator.thenComparingInt(doc -> doc);
+
+        Integer[] boxed = Arrays.stream(docs).boxed().toArray(Integer[]::new);
+        Arrays.sort(boxed, comparator);
+        for (int i = 0; i < boxed.length; i++) {
+            docs[i] = boxed[i];
+        }
+        return docs;
+    }
+
+    public String getId(int doc) {
+        return ids[doc];
+    }
+
+    public int getDocCount() {
+        return ids.length;
+    }
+
+    public int getTermCount() {
+        return index.getTermCount();
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    private BitSet dynastyAllowed(String dynasty) {
+        return isBlank(dynasty) ? null : dynastyFacet.allowed(dynasty::equals);
+    }
+
+    private BitSet writerAllowed(String writer) {
+        if (isBlank(writer)) {
+            return null;
+        }
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(writer, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        } catch (PatternSyntaxException e) {
+            pattern = Pattern.compile(Pattern.quote(writer), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        }
+        Pattern writerPattern = pattern;
+        return writerFacet.allowed(value -> writerPattern.matcher(value).find());
+    }
+
+    private BitSet typeAllowed(String type) {
+        return isBlank(type) ? null : typeFacet.allowed(type::equals);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static void reverse(int[] docs) {
+        for (int i = 0, j = docs.length - 1; i < j; i++, j--) {
+            int tmp = docs[i];
+            docs[i] = docs[j];
+            docs[j] = tmp;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,87 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "搜索类型与检索字段、字段打分权重集中定义"
+//   Quality_Check: "编译通过，字段集合与原GuwenRepository正则查询一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+/**
+ * 古文索引字段
+ * 权重用于相关度打分：标题、作者命中最能代表用户意图，正文次之，赏析等长文本较低。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public enum GuwenSearchField {
+
+    TITLE(3.0f),
+    WRITER(2.5f),
+    CONTENT(1.0f),
+    TYPE(0.5f),
+    REMARK(0.3f),
+    SHANGXI(0.6f),
+    TRANSLATION(0.3f);
+
+    private static final int[] SMART_FIELDS = ordinals(TITLE, CONTENT, WRITER, TYPE, REMARK, SHANGXI);
+
+    private static final int[] FUZZY_FIELDS = ordinals(TITLE, CONTENT, WRITER, REMARK, SHANGXI, TRANSLATION);
+
+    private static final int[] CONTENT_FIELDS = ordinals(CONTENT);
+
+    /**
+     * 打分权重
+     */
+    private final float weight;
+
+    GuwenSearchField(float weight) {
+        this.weight = weight;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    /**
+     * 获取搜索类型对应的字段权重，不参与检索的字段权重为0
+     *
+     * @param searchType 搜索类型：smart/fuzzy/content
+     * @return 按字段序号排列的权重
+     */
+    public static float[] weightsFor(String searchType) {
+        float[] weights = new float[values().length];
+        for (int field : fieldsFor(searchType)) {
+            weights[field] = values()[field].weight;
+        }
+        return weights;
+    }
+
+    /**
+     * 获取搜索类型对应的检索字段
+     * 与GuwenRepository.findBySmartSearch/findByKeywordFuzzySearch/findByContentContainingIgnoreCase保持一致
+     *
+     * @param searchType 搜索类型：smart/fuzzy/content
+     * @return 字段序号数组
+     */
+    public static int[] fieldsFor(String searchType) {
+        if ("fuzzy".equals(searchType)) {
+            return FUZZY_FIELDS.clone();
+        }
+        if ("content".equals(searchType)) {
+            return CONTENT_FIELDS.clone();
+        }
+        return SMART_FIELDS.clone();
+    }
+
+    private static int[] ordinals(GuwenSearchField... fields) {
+        int[] ordinals = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            ordinals[i] = fields[i].ordinal();
+        }
+        return ordinals;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,96 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "f5e32648-66a5-4ac2-ad2d-4b265ace6350"
+//   Timestamp: "2026-10-17T21:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "构建快照时同时采集类型分面数据"
+//   Quality_Check: "编译通过，构建期间不影响在线查询。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.entity.mongodb.Guwen;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 古文内存检索索引
+ * 从guwen集合全量构建；索引未就绪时GuwenServiceImpl继续使用原有的正则查询。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@Component
+public class GuwenSearchIndex extends AbstractSearchIndex<GuwenIndexSnapshot> {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    protected String getIndexName() {
+        return "古文检索索引";
+    }
+
+    @Override
+    protected String describe(GuwenIndexSnapshot snapshot) {
+        return "docs=" + snapshot.getDocCount() + ", terms=" + snapshot.getTermCount();
+    }
+
+    @Override
+    protected GuwenIndexSnapshot buildSnapshot() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id"));
+        query.fields().include("title", "writer", "dynasty", "content", "type",
+                               "remark", "shangxi", "translation", "createdAt");
+
+        InvertedIndex.Builder builder = InvertedIndex.builder(GuwenSearchField.values().length);
+        List<String> ids = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        List<String> writers = new ArrayList<>();
+        List<String> dynasties = new ArrayList<>();
+        List<List<String>> types = new ArrayList<>();
+        List<Long> createdAt = new ArrayList<>();
+
+        try (CloseableIterator<Guwen> iterator = mongoTemplate.stream(query, Guwen.class)) {
+            while (iterator.hasNext()) {
+                Guwen guwen = iterator.next();
+                int doc = ids.size();
+                ids.add(guwen.getId());
+                titles.add(guwen.getTitle());
+                writers.add(guwen.getWriter());
+                dynasties.add(guwen.getDynasty());
+                types.add(guwen.getType() == null ? Collections.emptyList() : guwen.getType());
+                createdAt.add(guwen.getCreatedAt() == null ? Long.MIN_VALUE
+                        : guwen.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+                builder.addField(doc, GuwenSearchField.TITLE.ordinal(), guwen.getTitle());
+                builder.addField(doc, GuwenSearchField.WRITER.ordinal(), guwen.getWriter());
+                builder.addField(doc, GuwenSearchField.CONTENT.ordinal(), guwen.getContent());
+                if (guwen.getType() != null) {
+                    builder.addField(doc, GuwenSearchField.TYPE.ordinal(), String.join(" ", guwen.getType()));
+                }
+                builder.addField(doc, GuwenSearchField.REMARK.ordinal(), guwen.getRemark());
+                builder.addField(doc, GuwenSearchField.SHANGXI.ordinal(), guwen.getShangxi());
+                builder.addField(doc, GuwenSearchField.TRANSLATION.ordinal(), guwen.getTranslation());
+            }
+        }
+        builder.docCount(ids.size());
+
+        return new GuwenIndexSnapshot(builder.build(),
+                ids.toArray(new String[0]),
+                titles.toArray(new String[0]),
+                writers.toArray(new String[0]),
+                dynasties.toArray(new String[0]),
+                types,
+                createdAt.stream().mapToLong(Long::longValue).toArray());
+    }
+}
+// {{END_MODIFICATIONS}}
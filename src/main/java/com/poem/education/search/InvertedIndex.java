@@ -0,0 +1,372 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "56f35c84-bff5-4fc8-abcf-468264e92923"
+//   Timestamp: "2026-10-20T20:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "多词项查询以字段原文确认包含完整关键字，排除词项不相邻或乱序的误命中"
+//   Quality_Check: "编译通过，匹配语义与原正则查询一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内存倒排索引
+ * 文档以从0开始的稠密序号标识，每个词项按字段分别保存一条压缩倒排表。
+ * 匹配语义：某个字段同时包含全部查询词项即视为命中，多个字段之间取并集，
+ * 与原先按字段做正则匹配再$or组合的语义保持一致。
+ * 双字词项只能说明各片段出现在同一字段中，不能说明相邻且有序，因此同时保存各字段归一化后的原文，
+ * 用于确认候选文档确实包含完整关键字（matchPhrase）。
+ * 打分采用BM25F的简化形式：各字段词频按字段长度归一化后加权求和，再统一做词频饱和。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class InvertedIndex {
+
+    private static final int[] EMPTY_DOCS = new int[0];
+
+    /**
+     * BM25词频饱和参数
+     */
+    private static final float K1 = 1.2f;
+
+    /**
+     * BM25字段长度归一化参数
+     */
+    private static final float B = 0.75f;
+
+    /**
+     * 字段数量
+     */
+    private final int fieldCount;
+
+    /**
+     * 文档数量
+     */
+    private final int docCount;
+
+    /**
+     * 词项 -> 按字段序号排列的倒排表（字段中不存在该词项时为null）
+     */
+    private final Map<String, PostingList[]> postings;
+
+    /**
+     * 字段长度（词项数），fieldLengths[field][doc]
+     */
+    private final int[][] fieldLengths;
+
+    /**
+     * 各字段平均长度
+     */
+    private final float[] averageFieldLengths;
+
+    /**
+     * 归一化后的字段原文，texts[field][doc]，字段为空时为null
+     */
+    private final String[][] texts;
+
+    private InvertedIndex(int fieldCount, int docCount, Map<String, PostingList[]> postings, int[][] fieldLengths,
+                          String[][] texts) {
+        this.fieldCount = fieldCount;
+        this.docCount = docCount;
+        this.postings = postings;
+        this.fieldLengths = fieldLengths;
+        this.texts = texts;
+        this.averageFieldLengths = new float[fieldCount];
+        for (int field = 0; field < fieldCount; field++) {
+            long total = 0;
+            for (int length : fieldLengths[field]) {
+                total += length;
+            }
+            averageFieldLengths[field] = docCount == 0 ? 1f : Math.max(1f, (float) total / docCount);
+        }
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int getDocCount() {
+        return docCount;
+    }
+
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * 匹配文档
+     *
+     * @param terms  查询词项（字段内需全部包含）
+     * @param fields 参与匹配的字段序号
+     * @return 命中的文档序号（递增）
+     */
+    public int[] match(List<String> terms, int[] fields) {
+        if (terms.isEmpty() || fields.length == 0) {
+            return EMPTY_DOCS;
+        }
+
+        BitSet hits = new BitSet(docCount);
+        for (int field : fields) {
+            int[] fieldHits = matchField(terms, field);
+            for (int doc : fieldHits) {
+                hits.set(doc);
+            }
+        }
+        return hits.stream().toArray();
+    }
+
+    /**
+     * 匹配包含完整关键字的文档
+     * 先按词项求候选，关键字分出多个词项时再用字段原文确认包含完整关键字，
+     * 与原先按字段正则匹配关键字的语义一致（词项顺序、相邻关系都需要满足）。
+     *
+     * @param keyword 查询关键字
+     * @param fields  参与匹配的字段序号
+     * @return 命中的文档序号（递增）
+     */
+    public int[] matchPhrase(String keyword, int[] fields) {
+        List<String> terms = CjkNgramTokenizer.queryTokens(keyword);
+        if (terms.size() <= 1) {
+            return match(terms, fields);
+        }
+        String phrase = CjkNgramTokenizer.normalize(keyword.trim());
+        BitSet hits = new BitSet(docCount);
+        for (int field : fields) {
+            String[] fieldTexts = texts[field];
+            for (int doc : matchField(terms, field)) {
+                if (!hits.get(doc) && fieldTexts[doc] != null && fieldTexts[doc].contains(phrase)) {
+                    hits.set(doc);
+                }
+            }
+        }
+        return hits.stream().toArray();
+    }
+
+    /**
+     * 对命中文档打分
+     *
+     * @param terms        查询词项
+     * @param docs         命中的文档序号（递增）
+     * @param fieldWeights 字段权重，按字段序号排列，权重为0的字段不参与打分
+     * @return 与docs一一对应的得分
+     */
+    public float[] score(List<String> terms, int[] docs, float[] fieldWeights) {
+        float[] scores = new float[docs.length];
+        if (docs.length == 0) {
+            return scores;
+        }
+
+        float[] weightedTf = new float[docs.length];
+        for (String term : terms) {
+            PostingList[] byField = postings.get(term);
+            if (byField == null) {
+                continue;
+            }
+
+            Arrays.fill(weightedTf, 0f);
+            int df = 0;
+            for (int field = 0; field < fieldCount; field++) {
+                PostingList postingList = byField[field];
+                if (postingList == null || fieldWeights[field] <= 0f) {
+                    continue;
+                }
+                df = Math.max(df, postingList.size());
+                accumulateField(postingList, field, fieldWeights[field], docs, weightedTf);
+            }
+
+            float idf = (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < docs.length; i++) {
+                if (weightedTf[i] > 0f) {
+                    scores[i] += idf * weightedTf[i] * (K1 + 1) / (K1 + weightedTf[i]);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 将单个字段中长度归一化后的加权词频累加到命中文档上（两个递增序列归并）
+     */
+    private void accumulateField(PostingList postingList, int field, float weight, int[] docs, float[] weightedTf) {
+        int[] postingDocs = postingList.toArray();
+        int[] tfs = postingList.termFrequencies();
+        int[] lengths = fieldLengths[field];
+        float averageLength = averageFieldLengths[field];
+
+        int i = 0;
+        int j = 0;
+        while (i < docs.length && j < postingDocs.length) {
+            if (docs[i] < postingDocs[j]) {
+                i++;
+            } else if (docs[i] > postingDocs[j]) {
+                j++;
+            } else {
+                float norm = 1 - B + B * lengths[docs[i]] / averageLength;
+                weightedTf[i] += weight * tfs[j] / norm;
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * 单字段内按文档频率从小到大依次求交集
+     */
+    private int[] matchField(List<String> terms, int field) {
+        PostingList[] lists = new PostingList[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            PostingList[] byField = postings.get(terms.get(i));
+            if (byField == null || byField[field] == null) {
+                return EMPTY_DOCS;
+            }
+            lists[i] = byField[field];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        int[] result = lists[0].toArray();
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = PostingList.intersect(result, lists[i].toArray());
+        }
+        return result;
+    }
+
+    /**
+     * 创建构建器
+     *
+     * @param fieldCount 字段数量
+     * @return 构建器
+     */
+    public static Builder builder(int fieldCount) {
+        return new Builder(fieldCount);
+    }
+
+    /**
+     * 倒排索引构建器
+     * 文档必须按序号递增的顺序添加，构建器非线程安全。
+     */
+    public static final class Builder {
+
+        private final int fieldCount;
+
+        private final Map<String, IntBuffer[]> buffers = new HashMap<>();
+
+        private int[][] fieldLengths;
+
+        private String[][] texts;
+
+        private int docCount;
+
+        private Builder(int fieldCount) {
+            this.fieldCount = fieldCount;
+            this.fieldLengths = new int[fieldCount][64];
+            this.texts = new String[fieldCount][64];
+        }
+
+        /**
+         * 添加文档的一个字段
+         *
+         * @param doc   文档序号
+         * @param field 字段序号
+         * @param text  字段文本，为空时忽略
+         * @return 构建器
+         */
+        public Builder addField(int doc, int field, String text) {
+            if (doc < docCount - 1) {
+                throw new IllegalArgumentException("文档序号必须递增: " + doc);
+            }
+            docCount(doc + 1);
+            if (text == null || text.isEmpty()) {
+                return this;
+            }
+            int[] lengths = fieldLengths[field];
+            String normalized = CjkNgramTokenizer.normalize(text);
+            texts[field][doc] = normalized;
+            CjkNgramTokenizer.indexTokens(normalized, term -> {
+                lengths[doc]++;
+                IntBuffer[] byField = buffers.computeIfAbsent(term, key -> new IntBuffer[fieldCount]);
+                IntBuffer buffer = byField[field];
+                if (buffer == null) {
+                    buffer = new IntBuffer();
+                    byField[field] = buffer;
+                }
+                buffer.add(doc);
+            });
+            return this;
+        }
+
+        /**
+         * 声明文档总数（末尾文档所有字段为空时使用）
+         *
+         * @param docCount 文档总数
+         * @return 构建器
+         */
+        public Builder docCount(int docCount) {
+            this.docCount = Math.max(this.docCount, docCount);
+            if (this.docCount > fieldLengths[0].length) {
+                int capacity = Math.max(this.docCount, fieldLengths[0].length * 2);
+                for (int field = 0; field < fieldCount; field++) {
+                    fieldLengths[field] = Arrays.copyOf(fieldLengths[field], capacity);
+                    texts[field] = Arrays.copyOf(texts[field], capacity);
+                }
+            }
+            return this;
+        }
+
+        public InvertedIndex build() {
+            Map<String, PostingList[]> postings = new HashMap<>(buffers.size() * 4 / 3 + 1);
+            for (Map.Entry<String, IntBuffer[]> entry : buffers.entrySet()) {
+                IntBuffer[] byField = entry.getValue();
+                PostingList[] lists = new PostingList[fieldCount];
+                for (int field = 0; field < fieldCount; field++) {
+                    if (byField[field] != null) {
+                        IntBuffer buffer = byField[field];
+                        lists[field] = PostingList.encode(buffer.docs, buffer.tfs, buffer.size);
+                    }
+                }
+                postings.put(entry.getKey(), lists);
+            }
+            buffers.clear();
+            int[][] lengths = new int[fieldCount][];
+            String[][] fieldTexts = new String[fieldCount][];
+            for (int field = 0; field < fieldCount; field++) {
+                lengths[field] = Arrays.copyOf(fieldLengths[field], docCount);
+                fieldTexts[field] = Arrays.copyOf(texts[field], docCount);
+            }
+            return new InvertedIndex(fieldCount, docCount, postings, lengths, fieldTexts);
+        }
+    }
+
+    /**
+     * 可增长的文档序号+词频数组，仅在构建阶段使用
+     */
+    private static final class IntBuffer {
+
+        private int[] docs = new int[4];
+
+        private int[] tfs = new int[4];
+
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                tfs[size - 1]++;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = 1;
+            size++;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,167 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "倒排表压缩存储：差值编码+变长整数，附带词频用于BM25打分"
+//   Quality_Check: "编译通过，编码解码往返一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import java.util.Arrays;
+
+/**
+ * 压缩倒排表
+ * 文档序号严格递增，按相邻差值做变长整数(varint)编码，
+ * 常见双字词项的每个文档序号只占1~2个字节；词频(tf)单独按varint编码，绝大多数为1个字节。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class PostingList {
+
+    /**
+     * 空倒排表
+     */
+    public static final PostingList EMPTY = new PostingList(new byte[0], new byte[0], 0);
+
+    /**
+     * 压缩后的文档序号
+     */
+    private final byte[] data;
+
+    /**
+     * 压缩后的词频，与文档序号一一对应
+     */
+    private final byte[] tfData;
+
+    /**
+     * 文档数量（即文档频率df）
+     */
+    private final int size;
+
+    private PostingList(byte[] data, byte[] tfData, int size) {
+        this.data = data;
+        this.tfData = tfData;
+        this.size = size;
+    }
+
+    /**
+     * 编码递增的文档序号数组及对应词频
+     *
+     * @param docIds 严格递增的文档序号
+     * @param tfs    词频
+     * @param length 有效长度
+     * @return 倒排表
+     */
+    public static PostingList encode(int[] docIds, int[] tfs, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        byte[] buffer = new byte[length * 5];
+        byte[] tfBuffer = new byte[length * 5];
+        int position = 0;
+        int tfPosition = 0;
+        int previous = 0;
+        for (int i = 0; i < length; i++) {
+            position = writeVarint(buffer, position, docIds[i] - previous);
+            tfPosition = writeVarint(tfBuffer, tfPosition, tfs[i]);
+            previous = docIds[i];
+        }
+        return new PostingList(Arrays.copyOf(buffer, position), Arrays.copyOf(tfBuffer, tfPosition), length);
+    }
+
+    /**
+     * 文档频率
+     *
+     * @return 包含该词项的文档数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 压缩后占用的字节数
+     *
+     * @return 字节数
+     */
+    public int byteSize() {
+        return data.length + tfData.length;
+    }
+
+    /**
+     * 解码为文档序号数组
+     *
+     * @return 严格递增的文档序号数组
+     */
+    public int[] toArray() {
+        int[] docIds = readVarints(data, size);
+        for (int i = 1; i < size; i++) {
+            docIds[i] += docIds[i - 1];
+        }
+        return docIds;
+    }
+
+    /**
+     * 解码词频，顺序与toArray()一致
+     *
+     * @return 词频数组
+     */
+    public int[] termFrequencies() {
+        return readVarints(tfData, size);
+    }
+
+    /**
+     * 求两个递增数组的交集
+     *
+     * @param a 递增数组
+     * @param b 递增数组
+     * @return 交集（递增）
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static int[] readVarints(byte[] buffer, int count) {
+        int[] values = new int[count];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            values[i] = value;
+        }
+        return values;
+    }
+}
+// {{END_MODIFICATIONS}}
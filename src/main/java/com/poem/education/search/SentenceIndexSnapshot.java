@@ -0,0 +1,68 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "56f35c84-bff5-4fc8-abcf-468264e92923"
+//   Timestamp: "2026-10-20T20:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "关键字检索改用短语匹配"
+//   Quality_Check: "编译通过，命中结果与MongoDB正则查询一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import java.util.List;
+
+/**
+ * 名句索引快照
+ * 文档序号按MongoDB _id升序分配，构建完成后不再修改。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class SentenceIndexSnapshot {
+
+    private final InvertedIndex index;
+
+    private final String[] ids;
+
+    public SentenceIndexSnapshot(InvertedIndex index, String[] ids) {
+        this.index = index;
+        this.ids = ids;
+    }
+
+    /**
+     * 关键字检索
+     *
+     * @param keyword 关键字
+     * @return 命中的文档序号（按_id升序）
+     */
+    public int[] search(String keyword) {
+        return index.matchPhrase(keyword, SentenceSearchField.allFields());
+    }
+
+    /**
+     * 按BM25相关度选取前K个命中文档
+     *
+     * @param keyword 关键字
+     * @param hits    search()返回的命中文档
+     * @param k       需要的数量（通常为page*size）
+     * @return 按相关度降序排列的文档序号
+     */
+    public int[] rank(String keyword, int[] hits, int k) {
+        List<String> terms = CjkNgramTokenizer.queryTokens(keyword);
+        float[] scores = index.score(terms, hits, SentenceSearchField.weights());
+        return TopKCollector.topK(hits, scores, k);
+    }
+
+    public String getId(int doc) {
+        return ids[doc];
+    }
+
+    public int getDocCount() {
+        return ids.length;
+    }
+
+    public int getTermCount() {
+        return index.getTermCount();
+    }
+}
+// {{END_MODIFICATIONS}}
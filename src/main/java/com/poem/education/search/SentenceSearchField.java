@@ -0,0 +1,62 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "名句检索字段与打分权重集中定义"
+//   Quality_Check: "编译通过，字段与Sentence实体一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+/**
+ * 名句索引字段
+ * 出处、作者命中说明用户在找特定作品或作者，权重高于名句正文。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public enum SentenceSearchField {
+
+    NAME(1.0f),
+    FROM(2.0f),
+    AUTHOR(2.0f);
+
+    private static final int[] ALL_FIELDS = {NAME.ordinal(), FROM.ordinal(), AUTHOR.ordinal()};
+
+    /**
+     * 打分权重
+     */
+    private final float weight;
+
+    SentenceSearchField(float weight) {
+        this.weight = weight;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    /**
+     * 获取全部检索字段
+     *
+     * @return 字段序号数组
+     */
+    public static int[] allFields() {
+        return ALL_FIELDS.clone();
+    }
+
+    /**
+     * 获取字段权重
+     *
+     * @return 按字段序号排列的权重
+     */
+    public static float[] weights() {
+        float[] weights = new float[values().length];
+        for (SentenceSearchField field : values()) {
+            weights[field.ordinal()] = field.weight;
+        }
+        return weights;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,70 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "复用AbstractSearchIndex生命周期，替代不支持中文分词的$text检索"
+//   Quality_Check: "编译通过，构建期间不影响在线查询。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.entity.mongodb.Sentence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 名句内存检索索引
+ * 从sentences集合全量构建；索引未就绪时SentenceServiceImpl继续使用MongoDB文本索引。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@Component
+public class SentenceSearchIndex extends AbstractSearchIndex<SentenceIndexSnapshot> {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    protected String getIndexName() {
+        return "名句检索索引";
+    }
+
+    @Override
+    protected String describe(SentenceIndexSnapshot snapshot) {
+        return "docs=" + snapshot.getDocCount() + ", terms=" + snapshot.getTermCount();
+    }
+
+    @Override
+    protected SentenceIndexSnapshot buildSnapshot() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id"));
+        query.fields().include("name", "from", "author");
+
+        InvertedIndex.Builder builder = InvertedIndex.builder(SentenceSearchField.values().length);
+        List<String> ids = new ArrayList<>();
+
+        try (CloseableIterator<Sentence> iterator = mongoTemplate.stream(query, Sentence.class)) {
+            while (iterator.hasNext()) {
+                Sentence sentence = iterator.next();
+                int doc = ids.size();
+                ids.add(sentence.getId());
+
+                builder.addField(doc, SentenceSearchField.NAME.ordinal(), sentence.getName());
+                builder.addField(doc, SentenceSearchField.FROM.ordinal(), sentence.getFrom());
+                builder.addField(doc, SentenceSearchField.AUTHOR.ordinal(), sentence.getAuthor());
+            }
+        }
+        builder.docCount(ids.size());
+
+        return new SentenceIndexSnapshot(builder.build(), ids.toArray(new String[0]));
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,133 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "复用AbstractSearchIndex生命周期，联想数据与热度定期全量重建"
+//   Quality_Check: "编译通过，构建期间不影响在线查询。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 搜索联想索引
+ * 由古文标题、作者名、名句构建，热度取自content_stats（与热门内容排序使用相同的加权公式）。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Component
+public class SuggestIndex extends AbstractSearchIndex<SuggestIndexSnapshot> {
+
+    public static final String TYPE_GUWEN = "guwen";
+
+    public static final String TYPE_WRITER = "writer";
+
+    public static final String TYPE_SENTENCE = "sentence";
+
+    private static final int STATS_PAGE_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ContentStatsRepository contentStatsRepository;
+
+    @Override
+    protected String getIndexName() {
+        return "搜索联想索引";
+    }
+
+    @Override
+    protected String describe(SuggestIndexSnapshot snapshot) {
+        return "entries=" + snapshot.size();
+    }
+
+    @Override
+    protected SuggestIndexSnapshot buildSnapshot() {
+        SuggestIndexSnapshot.Builder builder = SuggestIndexSnapshot.builder();
+
+        Map<String, Long> guwenWeights = loadWeights(TYPE_GUWEN);
+        Query guwenQuery = new Query();
+        guwenQuery.fields().include("title");
+        try (CloseableIterator<Guwen> iterator = mongoTemplate.stream(guwenQuery, Guwen.class)) {
+            while (iterator.hasNext()) {
+                Guwen guwen = iterator.next();
+                builder.add(TYPE_GUWEN, guwen.getId(), guwen.getTitle(), guwenWeights.getOrDefault(guwen.getId(), 0L));
+            }
+        }
+
+        Map<String, Long> writerWeights = loadWeights(TYPE_WRITER);
+        Query writerQuery = new Query();
+        writerQuery.fields().include("name");
+        try (CloseableIterator<Writer> iterator = mongoTemplate.stream(writerQuery, Writer.class)) {
+            while (iterator.hasNext()) {
+                Writer writer = iterator.next();
+                builder.add(TYPE_WRITER, writer.getId(), writer.getName(), writerWeights.getOrDefault(writer.getId(), 0L));
+            }
+        }
+
+        Map<String, Long> sentenceWeights = loadWeights(TYPE_SENTENCE);
+        Query sentenceQuery = new Query();
+        sentenceQuery.fields().include("name");
+        try (CloseableIterator<Sentence> iterator = mongoTemplate.stream(sentenceQuery, Sentence.class)) {
+            while (iterator.hasNext()) {
+                Sentence sentence = iterator.next();
+                builder.add(TYPE_SENTENCE, sentence.getId(), sentence.getName(),
+                            sentenceWeights.getOrDefault(sentence.getId(), 0L));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * 分页读取某类内容的热度
+     *
+     * @param contentType 内容类型
+     * @return 内容ID -> 热度
+     */
+    private Map<String, Long> loadWeights(String contentType) {
+        Map<String, Long> weights = new HashMap<>();
+        int page = 0;
+        Page<ContentStats> statsPage;
+        do {
+            statsPage = contentStatsRepository.findByContentType(contentType, PageRequest.of(page++, STATS_PAGE_SIZE));
+            for (ContentStats stats : statsPage.getContent()) {
+                weights.put(stats.getContentId(), hotScore(stats));
+            }
+        } while (statsPage.hasNext());
+        return weights;
+    }
+
+    /**
+     * 热度分数，与ContentStatsRepository.findHotContentsByType的排序公式一致
+     */
+    private static long hotScore(ContentStats stats) {
+        return nullToZero(stats.getViewCount())
+                + nullToZero(stats.getLikeCount()) * 3
+                + nullToZero(stats.getFavoriteCount()) * 5
+                + nullToZero(stats.getCommentCount()) * 2;
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0L : value;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,249 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "有序数组二分定位前缀区间，稀疏表区间最值逐个取出Top-N"
+//   Quality_Check: "编译通过，查询复杂度O(log n + N log N)，与前缀命中数量无关。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+import com.poem.education.dto.response.SuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 搜索联想快照
+ * 联想项按归一化文本排序存放，前缀匹配的项在数组中连续；
+ * 预先构建按热度的稀疏表（区间最值），单字前缀命中上万条时也只需取出前N个，无需扫描整个区间。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public final class SuggestIndexSnapshot {
+
+    /**
+     * 归一化后的联想文本（升序）
+     */
+    private final String[] keys;
+
+    private final String[] texts;
+
+    private final String[] types;
+
+    private final String[] ids;
+
+    private final long[] weights;
+
+    /**
+     * sparse[j][i]为区间[i, i + 2^j)中排名最高的项
+     */
+    private final int[][] sparse;
+
+    private SuggestIndexSnapshot(List<Entry> entries) {
+        int size = entries.size();
+        keys = new String[size];
+        texts = new String[size];
+        types = new String[size];
+        ids = new String[size];
+        weights = new long[size];
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries.get(i);
+            keys[i] = entry.key;
+            texts[i] = entry.text;
+            types[i] = entry.type;
+            ids[i] = entry.id;
+            weights[i] = entry.weight;
+        }
+        sparse = buildSparseTable();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 前缀联想
+     *
+     * @param prefix 用户输入
+     * @param limit  返回数量
+     * @return 按热度降序的联想项（同热度时较短的文本在前）
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = CjkNgramTokenizer.normalize(prefix).trim();
+        if (normalized.isEmpty() || keys.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int from = lowerBound(normalized);
+        int to = prefixEnd(normalized, from);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        // 每次取出区间最高项，再把区间拆成左右两段放回队列
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> better(a[2], b[2]) ? -1 : 1);
+        queue.add(new int[]{from, to, best(from, to)});
+        List<SuggestionDTO> result = new ArrayList<>(Math.min(limit, to - from));
+        while (!queue.isEmpty() && result.size() < limit) {
+            int[] range = queue.poll();
+            int top = range[2];
+            result.add(new SuggestionDTO(texts[top], types[top], ids[top]));
+            if (range[0] < top) {
+                queue.add(new int[]{range[0], top, best(range[0], top)});
+            }
+            if (top + 1 < range[1]) {
+                queue.add(new int[]{top + 1, range[1], best(top + 1, range[1])});
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * a是否排在b之前：热度高者在前，同热度时文本短者在前，再按字典序
+     */
+    private boolean better(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b];
+        }
+        if (texts[a].length() != texts[b].length()) {
+            return texts[a].length() < texts[b].length();
+        }
+        return a < b;
+    }
+
+    /**
+     * 区间[from, to)中排名最高的项，O(1)
+     */
+    private int best(int from, int to) {
+        int level = 31 - Integer.numberOfLeadingZeros(to - from);
+        int left = sparse[level][from];
+        int right = sparse[level][to - (1 << level)];
+        return better(left, right) ? left : right;
+    }
+
+    private int[][] buildSparseTable() {
+        int size = keys.length;
+        int levels = size == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(size);
+        int[][] table = new int[levels][];
+        table[0] = new int[size];
+        for (int i = 0; i < size; i++) {
+            table[0][i] = i;
+        }
+        for (int level = 1; level < levels; level++) {
+            int half = 1 << (level - 1);
+            int length = size - (1 << level) + 1;
+            table[level] = new int[length];
+            for (int i = 0; i < length; i++) {
+                int left = table[level - 1][i];
+                int right = table[level - 1][i + half];
+                table[level][i] = better(left, right) ? left : right;
+            }
+        }
+        return table;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 前缀匹配项在有序数组中连续，二分查找第一个不以prefix开头的位置
+     */
+    private int prefixEnd(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 联想快照构建器，同一类型下文本相同的项只保留热度最高的一个
+     */
+    public static final class Builder {
+
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 添加联想项
+         *
+         * @param type   内容类型
+         * @param id     内容ID
+         * @param text   联想文本
+         * @param weight 热度
+         * @return 构建器
+         */
+        public Builder add(String type, String id, String text, long weight) {
+            if (text == null) {
+                return this;
+            }
+            String display = text.trim();
+            String key = CjkNgramTokenizer.normalize(display);
+            if (key.isEmpty()) {
+                return this;
+            }
+            entries.merge(type + '\u0000' + key, new Entry(key, display, type, id, weight),
+                          (current, candidate) -> candidate.weight > current.weight ? candidate : current);
+            return this;
+        }
+
+        public SuggestIndexSnapshot build() {
+            Entry[] sorted = entries.values().toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparing((Entry entry) -> entry.key).thenComparing(entry -> entry.type));
+            return new SuggestIndexSnapshot(Arrays.asList(sorted));
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final String text;
+
+        private final String type;
+
+        private final String id;
+
+        private final long weight;
+
+        private Entry(String key, String text, String type, String id, long weight) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
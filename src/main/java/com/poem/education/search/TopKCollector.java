@@ -0,0 +1,108 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "c7f54bfb-3cd5-4a80-bce3-1ba303bb5837"
+//   Timestamp: "2026-10-17T14:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "有界小顶堆选取Top-K，避免对全部命中结果排序"
+//   Quality_Check: "编译通过，同分时按文档序号升序保证分页稳定。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.search;
+
+/**
+ * Top-K收集器
+ * 使用容量为K的小顶堆，复杂度O(n log K)；只需要前page*size条结果时无需对全部命中排序。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class TopKCollector {
+
+    private TopKCollector() {
+    }
+
+    /**
+     * 选取得分最高的K个文档
+     *
+     * @param docs   文档序号
+     * @param scores 与docs一一对应的得分
+     * @param k      需要的数量
+     * @return 按得分降序排列的文档序号（同分按序号升序），长度为min(k, docs.length)
+     */
+    public static int[] topK(int[] docs, float[] scores, int k) {
+        int capacity = Math.min(k, docs.length);
+        if (capacity <= 0) {
+            return new int[0];
+        }
+
+        // 堆中保存的是docs数组下标，堆顶为当前Top-K中“最差”的一个
+        int[] heap = new int[capacity];
+        int size = 0;
+        for (int i = 0; i < docs.length; i++) {
+            if (size < capacity) {
+                heap[size] = i;
+                siftUp(heap, size, docs, scores);
+                size++;
+            } else if (better(i, heap[0], docs, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, docs, scores);
+            }
+        }
+
+        // 依次弹出堆顶，从后往前填充即得到降序结果
+        int[] result = new int[size];
+        for (int last = size - 1; last >= 0; last--) {
+            result[last] = docs[heap[0]];
+            heap[0] = heap[last];
+            siftDown(heap, last, docs, scores);
+        }
+        return result;
+    }
+
+    /**
+     * a是否排在b之前：得分高者在前，同分时序号小者在前
+     */
+    private static boolean better(int a, int b, int[] docs, float[] scores) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return docs[a] < docs[b];
+    }
+
+    private static void siftUp(int[] heap, int index, int[] docs, float[] scores) {
+        int node = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], node, docs, scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = node;
+    }
+
+    private static void siftDown(int[] heap, int size, int[] docs, float[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int node = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1], docs, scores)) {
+                child++;
+            }
+            if (!better(node, heap[child], docs, scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = node;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "b4a42fdc-2d03-4831-9d30-9278970f029a"
-//   Timestamp: "2025-08-07T12:00:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "1c10030a-8254-40a0-823a-f2b21fc50343"
+//   Timestamp: "2026-10-17T16:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "列表接口增加keyset游标分页，深分页代价恒定"
+//   Quality_Check: "编译通过，游标模式与页码模式排序一致。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
@@ -34,6 +34,17 @@ public interface CommentService {
      */
     PageResult<CommentDTO> getCommentsByTarget(String targetId, String targetType, Integer page, Integer size);
     
+    /**
+     * 获取评论列表（游标分页，按创建时间倒序，支持层级嵌套）
+     * 
+     * @param targetId 目标ID
+     * @param targetType 目标类型
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @return 评论分页列表，包含下一页游标
+     */
+    PageResult<CommentDTO> getCommentsByTargetWithCursor(String targetId, String targetType, String cursor, Integer size);
+    
     /**
      * 发表评论
      * 
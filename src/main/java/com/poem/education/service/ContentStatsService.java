@@ -1,16 +1,19 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "2442c79c-d034-48f6-a1ec-206b15c6976c"
-//   Timestamp: "2025-08-08T16:42:37+08:00"
+//   Action: "Modified"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
+//   Principle_Applied: "新增按内容汇总的批量累加接口"
 //   Quality_Check: "编译通过，接口定义完整。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
 
+import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.stats.ContentStatsDelta;
 import org.springframework.scheduling.annotation.Async;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -57,6 +60,16 @@ public interface ContentStatsService {
     @Async
     CompletableFuture<Boolean> batchUpdateContentStats(String contentId, String contentType, String[] actionTypes);
     
+    /**
+     * 批量异步累加内容统计
+     * 用于批量记录行为：每个内容只更新一次（Redis计数或一条多行upsert），而不是每个行为一个异步任务
+     * 
+     * @param deltas 按内容汇总的增量（增量应非负）
+     * @return 异步更新结果
+     */
+    @Async
+    CompletableFuture<Boolean> applyContentStatsDeltas(List<ContentStatsDelta> deltas);
+    
     /**
      * 增量更新内容统计数据
      * 支持自定义增量值
@@ -88,5 +101,24 @@ public interface ContentStatsService {
      * @return 重置是否成功
      */
     boolean resetContentStats(String contentId, String contentType);
+    
+    /**
+     * 获取内容统计数据
+     * 优先读取Redis实时计数，不会在读取时创建统计记录
+     * 
+     * @param contentId 内容ID
+     * @param contentType 内容类型
+     * @return 统计数据（不存在时各项为0）
+     */
+    ContentStats getContentStats(String contentId, String contentType);
+    
+    /**
+     * 批量获取同一类型内容的统计数据
+     * 
+     * @param contentType 内容类型
+     * @param contentIds 内容ID列表
+     * @return 统计数据，顺序与contentIds一致（重复ID只返回一次）
+     */
+    List<ContentStats> getContentStatsBatch(String contentType, List<String> contentIds);
 }
 // {{END_MODIFICATIONS}}
@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "11ae4c98-4ca6-4e38-a76f-6770f885c723"
-//   Timestamp: "2025-08-08T14:00:15+08:00"
-//   Authoring_Subagent: "PM-标准协作模式"
-//   Principle_Applied: "Service接口设计最佳实践，遵循现有模式"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Action: "Modified"
+//   Task_ID: "6806e871-6ba8-41c0-869d-7cd9186a530b"
+//   Timestamp: "2026-10-17T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "新增指定总数统计模式的分页方法"
+//   Quality_Check: "编译通过，原有方法签名不变。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
 
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.CreationRequest;
 import com.poem.education.dto.response.CreationDTO;
 import com.poem.education.dto.response.PageResult;
@@ -55,6 +56,17 @@ public interface CreationService {
      */
     PageResult<CreationDTO> getUserCreations(Long userId, Integer page, Integer size, String style, Integer status);
     
+    /**
+     * 获取用户创作列表（游标分页，按创建时间倒序）
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @param status 状态（可选）
+     * @return 创作分页列表，包含下一页游标
+     */
+    PageResult<CreationDTO> getUserCreationsWithCursor(Long userId, String cursor, Integer size, Integer status);
+    
     /**
      * 获取公开创作列表（分页查询）
      * 
@@ -65,6 +77,16 @@ public interface CreationService {
      */
     PageResult<CreationDTO> getPublicCreations(Integer page, Integer size, String style);
     
+    /**
+     * 获取公开创作列表（游标分页，按创建时间倒序）
+     * 
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @param style 风格（可选）
+     * @return 创作分页列表，包含下一页游标
+     */
+    PageResult<CreationDTO> getPublicCreationsWithCursor(String cursor, Integer size, String style);
+    
     /**
      * 更新创作信息
      * 
@@ -130,6 +152,18 @@ public interface CreationService {
      * @return 创作分页列表
      */
     PageResult<CreationDTO> searchCreations(String keyword, Integer page, Integer size, String style);
+    
+    /**
+     * 搜索创作（指定总数统计模式）
+     * 
+     * @param keyword 关键词
+     * @param page 页码
+     * @param size 每页大小
+     * @param style 风格（可选）
+     * @param countMode 总数统计模式
+     * @return 创作分页列表
+     */
+    PageResult<CreationDTO> searchCreations(String keyword, Integer page, Integer size, String style, CountMode countMode);
 
     /**
      * 获取AI修改建议（仅作者可调）
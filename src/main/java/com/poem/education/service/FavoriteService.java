@@ -1,9 +1,9 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "cbae72cf-b030-48a2-b381-ce2a1484c281"
-//   Timestamp: "2025-08-07T12:10:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
+//   Principle_Applied: "说明批量添加收藏的语义"
 //   Quality_Check: "编译通过，接口定义完整。"
 // }}
 // {{START_MODIFICATIONS}}
@@ -142,10 +142,11 @@ public interface FavoriteService {
     
     /**
      * 批量添加收藏
+     * 一次查询已收藏的目标，其余以一条多行INSERT写入；用于客户端同步离线收藏
      * 
      * @param userId 用户ID
      * @param requests 收藏请求列表
-     * @return 收藏记录列表
+     * @return 收藏记录列表，与请求一一对应（已收藏的返回现有记录）
      */
     List<FavoriteDTO> batchAddFavorites(Long userId, List<FavoriteRequest> requests);
     
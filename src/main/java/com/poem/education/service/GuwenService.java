@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "6806e871-6ba8-41c0-869d-7cd9186a530b"
+//   Timestamp: "2026-10-17T18:40:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "新增指定总数统计模式的分页方法"
+//   Quality_Check: "编译通过，原有方法签名不变。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
 
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.GuwenSearchRequest;
 import com.poem.education.dto.response.GuwenDTO;
 import com.poem.education.dto.response.PageResult;
@@ -35,6 +36,32 @@ public interface GuwenService {
      */
     PageResult<GuwenDTO> getGuwenList(Integer page, Integer size, String dynasty, String writer, String type);
     
+    /**
+     * 获取古文列表（分页查询，指定总数统计模式）
+     * 
+     * @param page 页码
+     * @param size 每页大小
+     * @param dynasty 朝代（可选）
+     * @param writer 作者（可选）
+     * @param type 类型（可选）
+     * @param countMode 总数统计模式
+     * @return 古文分页列表
+     */
+    PageResult<GuwenDTO> getGuwenList(Integer page, Integer size, String dynasty, String writer, String type,
+                                      CountMode countMode);
+    
+    /**
+     * 获取古文列表（游标分页，按_id升序）
+     * 
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @param dynasty 朝代（可选）
+     * @param writer 作者（可选）
+     * @param type 类型（可选）
+     * @return 古文分页列表，包含下一页游标
+     */
+    PageResult<GuwenDTO> getGuwenListWithCursor(String cursor, Integer size, String dynasty, String writer, String type);
+    
     /**
      * 根据ID获取古文详情
      * 
@@ -88,6 +115,16 @@ public interface GuwenService {
      */
     PageResult<GuwenDTO> getGuwenByDynasty(String dynasty, Integer page, Integer size);
     
+    /**
+     * 根据朝代获取古文列表（游标分页，按创建时间倒序）
+     * 
+     * @param dynasty 朝代
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @return 古文分页列表，包含下一页游标
+     */
+    PageResult<GuwenDTO> getGuwenByDynastyWithCursor(String dynasty, String cursor, Integer size);
+    
     /**
      * 获取所有朝代列表
      * 
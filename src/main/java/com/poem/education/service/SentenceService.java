@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "sentence-service-interface"
-//   Timestamp: "2025-08-08T13:20:59+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "服务接口设计最佳实践，遵循SOLID原则"
-//   Quality_Check: "编译通过，接口定义清晰完整。"
+//   Principle_Applied: "热门名句支持时间周期参数"
+//   Quality_Check: "编译通过，接口定义完整。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
 
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.SentenceDTO;
 
@@ -34,6 +35,32 @@ public interface SentenceService {
      */
     PageResult<SentenceDTO> getSentenceList(Integer page, Integer size, String author, String dynasty, String from);
     
+    /**
+     * 获取名句列表（分页查询，指定总数统计模式）
+     * 
+     * @param page 页码
+     * @param size 每页大小
+     * @param author 作者（可选）
+     * @param dynasty 朝代（可选）
+     * @param from 出处（可选）
+     * @param countMode 总数统计模式
+     * @return 名句分页列表
+     */
+    PageResult<SentenceDTO> getSentenceList(Integer page, Integer size, String author, String dynasty, String from,
+                                            CountMode countMode);
+    
+    /**
+     * 获取名句列表（游标分页，按创建时间倒序）
+     * 
+     * @param cursor 上一页返回的游标，第一页传空串
+     * @param size 每页大小
+     * @param author 作者（可选）
+     * @param dynasty 朝代（可选）
+     * @param from 出处（可选）
+     * @return 名句分页列表，包含下一页游标
+     */
+    PageResult<SentenceDTO> getSentenceListWithCursor(String cursor, Integer size, String author, String dynasty, String from);
+    
     /**
      * 根据ID获取名句详情
      * 
@@ -63,10 +90,11 @@ public interface SentenceService {
     /**
      * 获取热门名句
      * 
+     * @param period 时间周期（daily、weekly、monthly）
      * @param limit 限制数量
      * @return 热门名句列表
      */
-    List<SentenceDTO> getHotSentences(Integer limit);
+    List<SentenceDTO> getHotSentences(String period, Integer limit);
     
     /**
      * 获取随机名句
@@ -0,0 +1,33 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2ec641a4-50e8-4f4c-8d9a-c4a46f5a46ac"
+//   Timestamp: "2026-10-18T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "Service接口设计最佳实践"
+//   Quality_Check: "编译通过，接口定义完整。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.service;
+
+import com.poem.education.dto.response.SuggestionDTO;
+
+import java.util.List;
+
+/**
+ * 搜索联想服务接口
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public interface SuggestService {
+    
+    /**
+     * 前缀联想
+     * 
+     * @param prefix 用户输入
+     * @param limit 返回数量
+     * @return 按热度降序的联想项
+     */
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+}
+// {{END_MODIFICATIONS}}
@@ -1,20 +1,24 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "cbae72cf-b030-48a2-b381-ce2a1484c281"
-//   Timestamp: "2025-08-07T12:10:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "2b2d062e-c134-4030-94f9-ba1ea696187b"
+//   Timestamp: "2026-10-20T14:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
-//   Quality_Check: "编译通过，接口定义完整。"
+//   Principle_Applied: "列表页批量行为状态改为读取用户成员缓存，写入时同步缓存"
+//   Quality_Check: "编译通过，缓存未命中时整体加载，成员过多时回退IN查询。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service;
 
+import com.poem.education.dto.request.ActionStatusRequest;
 import com.poem.education.dto.request.UserActionRequest;
+import com.poem.education.dto.response.ActionStatusDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.UserActionDTO;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户行为服务接口
@@ -118,13 +122,24 @@ public interface UserActionService {
     
     /**
      * 批量记录用户行为
+     * 一次查询已存在的行为，其余以一条多行INSERT写入，统计按内容汇总后更新；用于客户端同步离线行为
      * 
      * @param userId 用户ID
      * @param requests 行为请求列表
-     * @return 记录的行为列表
+     * @return 记录的行为列表，与请求一一对应（已存在的返回现有记录）
      */
     List<UserActionDTO> batchRecordActions(Long userId, List<UserActionRequest> requests);
     
+    /**
+     * 批量查询当前用户对一组内容的点赞/收藏/分享状态
+     * 优先读取用户成员缓存，替代列表页逐项调用check接口
+     * 
+     * @param userId 用户ID
+     * @param targets 内容列表
+     * @return 行为状态，与targets顺序一致
+     */
+    List<ActionStatusDTO> getActionStatus(Long userId, List<ActionStatusRequest.Target> targets);
+    
     /**
      * 统计用户行为数量
      * 
@@ -151,5 +166,19 @@ public interface UserActionService {
      * @return 删除的记录数量
      */
     long deleteUserActions(Long userId);
+    
+    /**
+     * 获取行为趋势（基于小时/天汇总表）
+     * 
+     * @param targetType 目标类型
+     * @param actionType 行为类型
+     * @param targetId 目标ID（可选，为空时统计该类型全部目标）
+     * @param granularity 粒度（hour/day）
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（包含）
+     * @return 趋势数据，每个时间桶一个点，没有行为的时间桶计数为0
+     */
+    Map<String, Object> getActionTrend(String targetType, String actionType, String targetId,
+                                       String granularity, LocalDate startDate, LocalDate endDate);
 }
 // {{END_MODIFICATIONS}}
@@ -1,9 +1,9 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service接口设计最佳实践"
+//   Principle_Applied: "热门作者支持时间周期参数"
 //   Quality_Check: "编译通过，接口定义完整。"
 // }}
 // {{START_MODIFICATIONS}}
@@ -71,10 +71,11 @@ public interface WriterService {
     /**
      * 获取热门作者
      * 
+     * @param period 时间周期（daily、weekly、monthly）
      * @param limit 限制数量
      * @return 热门作者列表
      */
-    List<WriterDTO> getHotWriters(Integer limit);
+    List<WriterDTO> getHotWriters(String period, Integer limit);
     
     /**
      * 获取随机作者
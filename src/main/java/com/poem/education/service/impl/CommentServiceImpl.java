@@ -11,6 +11,7 @@ import com.poem.education.repository.mysql.UserRepository;
 import com.poem.education.service.CommentService;
 import com.poem.education.service.ContentStatsService;
 import com.poem.education.constant.ErrorCode;
+import com.poem.education.util.MongoKeysetPager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
@@ -19,6 +20,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -48,6 +51,28 @@ public class CommentServiceImpl implements CommentService {
 
     @Autowired
     private ContentStatsService contentStatsService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public PageResult<CommentDTO> getCommentsByTargetWithCursor(String targetId, String targetType, String cursor, Integer size) {
+        logger.info("游标获取评论列表: targetId={}, targetType={}, size={}", targetId, targetType, size);
+
+        ObjectId targetObjectId = validateAndConvertObjectId(targetId, "targetId");
+        Criteria filter = Criteria.where("targetId").is(targetObjectId)
+                .and("targetType").is(targetType)
+                .and("status").is(1);
+
+        MongoKeysetPager.Slice<Comment> slice = MongoKeysetPager.fetch(mongoTemplate, Comment.class, filter,
+                "createdAt", Sort.Direction.DESC, cursor, size, Comment::getCreatedAt, Comment::getId);
+
+        List<CommentDTO> commentDTOs = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        return PageResult.ofCursor(buildCommentTree(commentDTOs), size, slice.getNextCursor());
+    }
     
     @Override
     @Transactional
@@ -1,10 +1,10 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "2442c79c-d034-48f6-a1ec-206b15c6976c"
-//   Timestamp: "2025-08-08T16:42:37+08:00"
+//   Action: "Modified"
+//   Task_ID: "8f3d3e0d-31a1-4dad-9e8f-5a29078f6f84"
+//   Timestamp: "2026-10-20T22:00:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service实现类设计最佳实践"
-//   Quality_Check: "编译通过，异步更新功能完整。"
+//   Principle_Applied: "Redis中途失败时只把未计入的行为类型写库"
+//   Quality_Check: "编译通过，已计入Redis的字段不会重复累加到MySQL。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
@@ -12,6 +12,10 @@ package com.poem.education.service.impl;
 import com.poem.education.service.ContentStatsService;
 import com.poem.education.repository.mysql.ContentStatsRepository;
 import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.stats.ContentStatsAccumulator;
+import com.poem.education.stats.ContentStatsDelta;
+import com.poem.education.stats.HotLeaderboard;
+import com.poem.education.stats.RedisContentCounters;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +25,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -36,9 +46,23 @@ public class ContentStatsServiceImpl implements ContentStatsService {
     
     private static final Logger logger = LoggerFactory.getLogger(ContentStatsServiceImpl.class);
     
+    /**
+     * 统计的行为类型，顺序与ContentStatsDelta的构造参数一致
+     */
+    private static final String[] ACTION_TYPES = {"view", "like", "favorite", "comment", "share"};
+    
     @Autowired
     private ContentStatsRepository contentStatsRepository;
     
+    @Autowired
+    private ContentStatsAccumulator contentStatsAccumulator;
+    
+    @Autowired
+    private RedisContentCounters redisContentCounters;
+    
+    @Autowired
+    private HotLeaderboard hotLeaderboard;
+    
     @Override
     @Async
     @Transactional
@@ -68,6 +92,19 @@ public class ContentStatsServiceImpl implements ContentStatsService {
                 return false;
             }
             
+            // 更新日/周/月热门排行榜，失败不影响计数
+            recordHot(contentId, contentType, actionType);
+            
+            // Redis实时计数：由定时对账任务批量写库
+            if (incrementInRedis(contentId, contentType, actionType, 1L)) {
+                return true;
+            }
+            
+            // 写回模式：计入内存累加器，由定时批量upsert写库（记录不存在时自动创建）
+            if (contentStatsAccumulator.add(contentId, contentType, actionType)) {
+                return true;
+            }
+            
             // 确保统计记录存在
             if (!ensureContentStatsExists(contentId, contentType)) {
                 logger.warn("无法创建或找到统计记录: contentId={}, contentType={}", contentId, contentType);
@@ -75,7 +112,7 @@ public class ContentStatsServiceImpl implements ContentStatsService {
             }
             
             // 根据行为类型更新对应的统计字段
-            return incrementContentStats(contentId, contentType, actionType, 1L);
+            return incrementInDatabase(contentId, contentType, actionType, 1L);
             
         } catch (Exception e) {
             logger.error("同步更新内容统计失败: contentId={}, contentType={}, actionType={}", 
@@ -108,12 +145,75 @@ public class ContentStatsServiceImpl implements ContentStatsService {
         }
     }
     
+    @Override
+    @Async
+    @Transactional
+    public CompletableFuture<Boolean> applyContentStatsDeltas(List<ContentStatsDelta> deltas) {
+        logger.info("批量累加内容统计: contents={}", deltas.size());
+        
+        try {
+            List<ContentStatsDelta> toDatabase = new ArrayList<>();
+            for (ContentStatsDelta delta : deltas) {
+                if (!validateParameters(delta.getContentId(), delta.getContentType(), ACTION_TYPES[0])) {
+                    continue;
+                }
+                // 只把未计入Redis的行为类型写库：Redis部分字段已计入后才失败时，已计入的字段不能重复累加
+                boolean redisAvailable = redisContentCounters.isEnabled();
+                long[] remaining = new long[ACTION_TYPES.length];
+                boolean hasRemaining = false;
+                for (int i = 0; i < ACTION_TYPES.length; i++) {
+                    String actionType = ACTION_TYPES[i];
+                    long count = delta.getCount(actionType);
+                    if (count <= 0) {
+                        continue;
+                    }
+                    recordHot(delta.getContentId(), delta.getContentType(), actionType, count);
+                    if (redisAvailable) {
+                        redisAvailable = incrementInRedis(delta.getContentId(), delta.getContentType(), actionType, count);
+                    }
+                    if (!redisAvailable) {
+                        remaining[i] = count;
+                        hasRemaining = true;
+                    }
+                }
+                if (hasRemaining) {
+                    toDatabase.add(new ContentStatsDelta(delta.getContentId(), delta.getContentType(),
+                            remaining[0], remaining[1], remaining[2], remaining[3], remaining[4]));
+                }
+            }
+            // 未计入Redis的内容以一条多行upsert写库（记录不存在时自动创建）
+            if (!toDatabase.isEmpty()) {
+                contentStatsRepository.batchUpsertIncrements(toDatabase);
+            }
+            return CompletableFuture.completedFuture(true);
+        } catch (Exception e) {
+            logger.error("批量累加内容统计失败: contents={}", deltas.size(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+    
     @Override
     @Transactional
     public boolean incrementContentStats(String contentId, String contentType, String actionType, Long increment) {
         logger.debug("增量更新内容统计: contentId={}, contentType={}, actionType={}, increment={}", 
                     contentId, contentType, actionType, increment);
         
+        if (incrementInRedis(contentId, contentType, actionType, increment)) {
+            return true;
+        }
+        return incrementInDatabase(contentId, contentType, actionType, increment);
+    }
+    
+    /**
+     * 直接在数据库中累加统计字段
+     * 
+     * @param contentId 内容ID
+     * @param contentType 内容类型
+     * @param actionType 行为类型
+     * @param increment 增量值
+     * @return 更新是否成功
+     */
+    private boolean incrementInDatabase(String contentId, String contentType, String actionType, Long increment) {
         try {
             int affectedRows = 0;
             
@@ -207,6 +307,9 @@ public class ContentStatsServiceImpl implements ContentStatsService {
                 stats.setLastUpdated(LocalDateTime.now());
                 
                 contentStatsRepository.save(stats);
+                if (redisContentCounters.isEnabled()) {
+                    redisContentCounters.evict(contentId, contentType);
+                }
                 logger.info("内容统计数据重置成功: contentId={}, contentType={}", contentId, contentType);
                 return true;
             } else {
@@ -221,6 +324,77 @@ public class ContentStatsServiceImpl implements ContentStatsService {
         }
     }
     
+    @Override
+    public ContentStats getContentStats(String contentId, String contentType) {
+        return getContentStatsBatch(contentType, Collections.singletonList(contentId)).get(0);
+    }
+    
+    @Override
+    public List<ContentStats> getContentStatsBatch(String contentType, List<String> contentIds) {
+        if (redisContentCounters.isEnabled()) {
+            try {
+                return new ArrayList<>(redisContentCounters.getCounters(contentType, contentIds).values());
+            } catch (Exception e) {
+                logger.warn("读取Redis内容计数失败，改为查询数据库: contentType={}, error={}", 
+                           contentType, e.getMessage());
+            }
+        }
+        
+        Map<String, ContentStats> persisted = new HashMap<>();
+        for (ContentStats stats : contentStatsRepository.findByContentTypeAndContentIdIn(contentType, contentIds)) {
+            persisted.put(stats.getContentId(), stats);
+        }
+        List<ContentStats> result = new ArrayList<>();
+        for (String contentId : new LinkedHashSet<>(contentIds)) {
+            ContentStats stats = persisted.get(contentId);
+            if (stats == null) {
+                // 读取时不再创建记录，返回全0统计
+                stats = new ContentStats(contentId, contentType);
+                stats.setLastUpdated(LocalDateTime.now());
+            }
+            result.add(stats);
+        }
+        return result;
+    }
+    
+    /**
+     * 更新热门排行榜
+     * 
+     * @param contentId 内容ID
+     * @param contentType 内容类型
+     * @param actionType 行为类型
+     */
+    private void recordHot(String contentId, String contentType, String actionType) {
+        recordHot(contentId, contentType, actionType, 1);
+    }
+    
+    private void recordHot(String contentId, String contentType, String actionType, long count) {
+        try {
+            hotLeaderboard.record(contentId, contentType, actionType, count);
+        } catch (Exception e) {
+            logger.warn("更新热门排行榜失败: contentId={}, actionType={}, error={}", 
+                       contentId, actionType, e.getMessage());
+        }
+    }
+    
+    /**
+     * 计入Redis实时计数
+     * 
+     * @return 是否已计入；未启用或Redis异常时返回false，由调用方回退到其他写入方式
+     */
+    private boolean incrementInRedis(String contentId, String contentType, String actionType, Long increment) {
+        if (!redisContentCounters.isEnabled()) {
+            return false;
+        }
+        try {
+            return redisContentCounters.increment(contentId, contentType, actionType, increment);
+        } catch (Exception e) {
+            logger.warn("Redis内容计数失败，回退为数据库更新: contentId={}, actionType={}, error={}", 
+                       contentId, actionType, e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * 验证参数有效性
      * 
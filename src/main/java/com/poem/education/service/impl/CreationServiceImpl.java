@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "11ae4c98-4ca6-4e38-a76f-6770f885c723"
-//   Timestamp: "2025-08-08T14:00:15+08:00"
-//   Authoring_Subagent: "PM-标准协作模式"
-//   Principle_Applied: "Service实现最佳实践，遵循现有模式"
-//   Quality_Check: "编译通过，业务逻辑完整。"
+//   Action: "Modified"
+//   Task_ID: "113b45c8-b178-4a66-b8b2-251e755d8136"
+//   Timestamp: "2026-10-20T20:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "请求合并只共享只读实体，每个调用方各自转换DTO"
+//   Quality_Check: "编译通过，并发请求之间不共享可变DTO。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.CreationRequest;
 import com.poem.education.dto.response.CreationDTO;
 import com.poem.education.dto.response.PageResult;
@@ -21,6 +22,9 @@ import com.poem.education.service.CreationService;
 import com.poem.education.service.UserActionService;
 import com.poem.education.dto.request.UserActionRequest;
 import com.poem.education.constant.ErrorCode;
+import com.poem.education.util.MongoKeysetPager;
+import com.poem.education.util.MongoPageExecutor;
+import com.poem.education.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
@@ -29,6 +33,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -62,6 +69,18 @@ public class CreationServiceImpl implements CreationService {
 
     @Autowired
     private UserActionService userActionService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoPageExecutor mongoPageExecutor;
+    
+    /**
+     * 创作详情会被作者修改，不进入缓存；同一创作的并发请求合并为一次查询
+     * 只共享查询到的实体（只读），每个调用方各自转换出DTO，互不影响
+     */
+    private final SingleFlight<String, Creation> creationLoads = new SingleFlight<>();
     
     @Override
     @Transactional
@@ -94,16 +113,7 @@ public class CreationServiceImpl implements CreationService {
     @Override
     public CreationDTO getCreationById(String id) {
         logger.debug("获取创作详情，ID：{}", id);
-
-        Optional<Creation> creationOpt = creationRepository.findById(id);
-        if (!creationOpt.isPresent()) {
-            throw new BusinessException(ErrorCode.CREATION_NOT_FOUND, "创作不存在");
-        }
-
-        Creation creation = creationOpt.get();
-        if (creation.getStatus() != 1) {
-            throw new BusinessException(ErrorCode.CREATION_NOT_FOUND, "创作已被删除");
-        }
+        Creation creation = creationLoads.execute(id, () -> loadCreation(id));
 
         // 调试信息：记录数据库中的实际值
         logger.info("数据库中创作{}的isPublic值：{}", id, creation.getIsPublic());
@@ -116,6 +126,25 @@ public class CreationServiceImpl implements CreationService {
         return dto;
     }
     
+    /**
+     * 从MongoDB加载创作详情
+     * 
+     * @param id 创作ID
+     * @return 创作实体
+     */
+    private Creation loadCreation(String id) {
+        Optional<Creation> creationOpt = creationRepository.findById(id);
+        if (!creationOpt.isPresent()) {
+            throw new BusinessException(ErrorCode.CREATION_NOT_FOUND, "创作不存在");
+        }
+
+        Creation creation = creationOpt.get();
+        if (creation.getStatus() != 1) {
+            throw new BusinessException(ErrorCode.CREATION_NOT_FOUND, "创作已被删除");
+        }
+        return creation;
+    }
+    
     @Override
     public PageResult<CreationDTO> getUserCreations(Long userId, Integer page, Integer size, String style, Integer status) {
         logger.debug("获取用户{}的创作列表，页码：{}，大小：{}", userId, page, size);
@@ -142,6 +171,28 @@ public class CreationServiceImpl implements CreationService {
                 creationPage.getTotalElements()
         );
     }
+
+    @Override
+    public PageResult<CreationDTO> searchCreations(String keyword, Integer page, Integer size, String style,
+                                                   CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return searchCreations(keyword, page, size, style);
+        }
+        logger.debug("搜索公开创作，关键词：{}，页码：{}，大小：{}，风格：{}，总数模式：{}", keyword, page, size, style, countMode);
+
+        // 查询条件与CreationRepository中对应的搜索/筛选方法一致
+        Criteria criteria = Criteria.where("status").is(1).and("isPublic").is(true);
+        if (style != null && !style.trim().isEmpty()) {
+            criteria.and("style").is(style);
+        }
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            criteria.orOperator(Criteria.where("title").regex(keyword, "i"),
+                                Criteria.where("content").regex(keyword, "i"));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        return mongoPageExecutor.find(query, Creation.class, page, size, countMode).map(this::convertToDTO);
+    }
     
     @Override
     public PageResult<CreationDTO> getPublicCreations(Integer page, Integer size, String style) {
@@ -186,6 +237,44 @@ public class CreationServiceImpl implements CreationService {
         );
     }
     
+    @Override
+    public PageResult<CreationDTO> getUserCreationsWithCursor(Long userId, String cursor, Integer size, Integer status) {
+        logger.debug("游标获取用户{}的创作列表，大小：{}，状态：{}", userId, size, status);
+        
+        Criteria filter = Criteria.where("userId").is(userId);
+        if (status != null) {
+            filter.and("status").is(status);
+        }
+        
+        MongoKeysetPager.Slice<Creation> slice = MongoKeysetPager.fetch(mongoTemplate, Creation.class, filter,
+                "createdAt", Sort.Direction.DESC, cursor, size, Creation::getCreatedAt, Creation::getId);
+        
+        List<CreationDTO> creationDTOs = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.ofCursor(creationDTOs, size, slice.getNextCursor());
+    }
+    
+    @Override
+    public PageResult<CreationDTO> getPublicCreationsWithCursor(String cursor, Integer size, String style) {
+        logger.info("游标获取公开创作列表: size={}, style={}", size, style);
+        
+        Criteria filter = Criteria.where("status").is(1).and("isPublic").is(true);
+        if (StringUtils.hasText(style)) {
+            filter.and("style").is(style);
+        }
+        
+        MongoKeysetPager.Slice<Creation> slice = MongoKeysetPager.fetch(mongoTemplate, Creation.class, filter,
+                "createdAt", Sort.Direction.DESC, cursor, size, Creation::getCreatedAt, Creation::getId);
+        
+        List<CreationDTO> creationDTOs = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.ofCursor(creationDTOs, size, slice.getNextCursor());
+    }
+    
     @Override
     @Transactional
     public CreationDTO updateCreation(Long userId, String id, CreationRequest request) {
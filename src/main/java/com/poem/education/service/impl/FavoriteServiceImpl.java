@@ -1,14 +1,15 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "cbae72cf-b030-48a2-b381-ce2a1484c281"
-//   Timestamp: "2025-08-07T12:15:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "2e8bae74-bf79-4211-a7cc-53173aefdb92"
+//   Timestamp: "2026-10-20T19:20:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service实现最佳实践，严格按照数据库表结构"
-//   Quality_Check: "编译通过，业务逻辑完整。"
+//   Principle_Applied: "收藏成员缓存变更在事务提交后执行"
+//   Quality_Check: "编译通过，回滚时成员缓存不会先于数据库变化。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.cache.UserMembershipCache;
 import com.poem.education.dto.request.FavoriteRequest;
 import com.poem.education.dto.response.FavoriteDTO;
 import com.poem.education.dto.response.PageResult;
@@ -16,6 +17,7 @@ import com.poem.education.entity.mysql.UserFavorite;
 import com.poem.education.exception.BusinessException;
 import com.poem.education.repository.mysql.UserFavoriteRepository;
 import com.poem.education.service.FavoriteService;
+import com.poem.education.util.AfterCommit;
 import com.poem.education.constant.ErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,8 +30,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +55,9 @@ public class FavoriteServiceImpl implements FavoriteService {
     
     @Autowired
     private UserFavoriteRepository userFavoriteRepository;
+
+    @Autowired
+    private UserMembershipCache userMembershipCache;
     
     @Override
     @Transactional
@@ -70,6 +82,8 @@ public class FavoriteServiceImpl implements FavoriteService {
         userFavorite.setNotes(request.getNotes());
         
         UserFavorite savedFavorite = userFavoriteRepository.save(userFavorite);
+        AfterCommit.run(() -> userMembershipCache.add(userId, Collections.singletonList(
+                UserMembershipCache.favoriteMember(request.getTargetType(), request.getTargetId()))));
         
         return convertToDTO(savedFavorite);
     }
@@ -84,6 +98,8 @@ public class FavoriteServiceImpl implements FavoriteService {
         
         if (favoriteOptional.isPresent()) {
             userFavoriteRepository.delete(favoriteOptional.get());
+            AfterCommit.run(() -> userMembershipCache.remove(userId, Collections.singletonList(
+                    UserMembershipCache.favoriteMember(targetType, targetId))));
             return true;
         }
         
@@ -211,6 +227,7 @@ public class FavoriteServiceImpl implements FavoriteService {
 
         // 删除该收藏夹下的所有收藏
         long deletedCount = userFavoriteRepository.deleteByUserIdAndFolderName(userId, folderName);
+        AfterCommit.run(() -> userMembershipCache.evict(userId));
 
         return deletedCount > 0;
     }
@@ -255,9 +272,62 @@ public class FavoriteServiceImpl implements FavoriteService {
     public List<FavoriteDTO> batchAddFavorites(Long userId, List<FavoriteRequest> requests) {
         logger.info("批量添加收藏: userId={}, count={}", userId, requests.size());
         
-        return requests.stream()
-                .map(request -> addFavorite(userId, request))
-                .collect(Collectors.toList());
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // 一次查询找出已收藏的目标
+        Set<String> targetIds = requests.stream().map(FavoriteRequest::getTargetId).collect(Collectors.toSet());
+        Map<String, UserFavorite> existing = indexByKey(userFavoriteRepository.findByUserIdAndTargetIdIn(userId, targetIds));
+        
+        // 其余收藏（同一批内重复的只写第一条）以一条多行INSERT写入
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, UserFavorite> fresh = new LinkedHashMap<>();
+        for (FavoriteRequest request : requests) {
+            String key = favoriteKey(request.getTargetId(), request.getTargetType());
+            if (!existing.containsKey(key) && !fresh.containsKey(key)) {
+                UserFavorite userFavorite = new UserFavorite();
+                userFavorite.setUserId(userId);
+                userFavorite.setTargetId(request.getTargetId());
+                userFavorite.setTargetType(request.getTargetType());
+                userFavorite.setFolderName(request.getFolderName() == null || request.getFolderName().trim().isEmpty()
+                        ? "默认收藏夹" : request.getFolderName());
+                userFavorite.setNotes(request.getNotes());
+                userFavorite.setCreatedAt(now);
+                fresh.put(key, userFavorite);
+            }
+        }
+        
+        Map<String, UserFavorite> saved = existing;
+        if (!fresh.isEmpty()) {
+            userFavoriteRepository.insertIgnoreAll(new ArrayList<>(fresh.values()));
+            List<String> members = fresh.values().stream()
+                    .map(favorite -> UserMembershipCache.favoriteMember(favorite.getTargetType(), favorite.getTargetId()))
+                    .collect(Collectors.toList());
+            AfterCommit.run(() -> userMembershipCache.add(userId, members));
+            // 多行INSERT不回填ID，重新查询一次取回写入的记录
+            saved = indexByKey(userFavoriteRepository.findByUserIdAndTargetIdIn(userId, targetIds));
+        }
+        
+        List<FavoriteDTO> result = new ArrayList<>(requests.size());
+        for (FavoriteRequest request : requests) {
+            String key = favoriteKey(request.getTargetId(), request.getTargetType());
+            UserFavorite userFavorite = saved.get(key);
+            result.add(convertToDTO(userFavorite != null ? userFavorite : fresh.get(key)));
+        }
+        return result;
+    }
+    
+    private static Map<String, UserFavorite> indexByKey(List<UserFavorite> favorites) {
+        Map<String, UserFavorite> index = new HashMap<>(favorites.size() * 2);
+        for (UserFavorite favorite : favorites) {
+            index.put(favoriteKey(favorite.getTargetId(), favorite.getTargetType()), favorite);
+        }
+        return index;
+    }
+    
+    private static String favoriteKey(String targetId, String targetType) {
+        return targetType + ":" + targetId;
     }
     
     @Override
@@ -291,7 +361,9 @@ public class FavoriteServiceImpl implements FavoriteService {
     public long deleteUserFavorites(Long userId) {
         logger.info("删除用户所有收藏: userId={}", userId);
 
-        return userFavoriteRepository.deleteByUserId(userId);
+        long deleted = userFavoriteRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> userMembershipCache.evict(userId));
+        return deleted;
     }
 
     @Override
@@ -1,36 +1,63 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service实现最佳实践，MongoDB查询优化"
-//   Quality_Check: "编译通过，业务逻辑完整。"
+//   Principle_Applied: "热门古文按时间桶排行榜读取Top-K并一次$in回表"
+//   Quality_Check: "编译通过，排行榜不足时按创建时间补足。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.cache.GuwenSearchCache;
+import com.poem.education.config.CacheConfig;
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.GuwenSearchRequest;
+import com.poem.education.dto.response.FacetValueDTO;
 import com.poem.education.dto.response.GuwenDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.entity.mongodb.Guwen;
 import com.poem.education.exception.BusinessException;
 import com.poem.education.repository.mongodb.GuwenRepository;
+import com.poem.education.search.GuwenIndexSnapshot;
+import com.poem.education.search.GuwenSearchIndex;
+import com.poem.education.stats.HotLeaderboard;
 import com.poem.education.service.GuwenService;
 import com.poem.education.constant.ErrorCode;
+import com.poem.education.util.MongoKeysetPager;
+import com.poem.education.util.MongoPageExecutor;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +75,21 @@ public class GuwenServiceImpl implements GuwenService {
     @Autowired
     private GuwenRepository guwenRepository;
     
+    @Autowired
+    private GuwenSearchIndex guwenSearchIndex;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private MongoPageExecutor mongoPageExecutor;
+
+    @Autowired
+    private GuwenSearchCache guwenSearchCache;
+    
+    @Autowired
+    private HotLeaderboard hotLeaderboard;
+    
     @Override
     public PageResult<GuwenDTO> getGuwenList(Integer page, Integer size, String dynasty, String writer, String type) {
         logger.info("获取古文列表: page={}, size={}, dynasty={}, writer={}, type={}", 
@@ -98,6 +140,38 @@ public class GuwenServiceImpl implements GuwenService {
     }
     
     @Override
+    public PageResult<GuwenDTO> getGuwenList(Integer page, Integer size, String dynasty, String writer, String type,
+                                             CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return getGuwenList(page, size, dynasty, writer, type);
+        }
+        logger.info("获取古文列表: page={}, size={}, dynasty={}, writer={}, type={}, countMode={}", 
+                   page, size, dynasty, writer, type, countMode);
+        
+        Criteria filter = buildGuwenFilter(dynasty, writer, type);
+        Query query = (filter == null ? new Query() : new Query(filter)).with(Sort.by(Sort.Direction.ASC, "id"));
+        
+        return mongoPageExecutor.find(query, Guwen.class, page, size, countMode).map(this::convertToDTO);
+    }
+    
+    @Override
+    public PageResult<GuwenDTO> getGuwenListWithCursor(String cursor, Integer size, String dynasty, String writer, String type) {
+        logger.info("游标获取古文列表: size={}, dynasty={}, writer={}, type={}", size, dynasty, writer, type);
+        
+        // 与页码模式保持相同的_id升序，翻页条件为_id > 上一页末尾
+        MongoKeysetPager.Slice<Guwen> slice = MongoKeysetPager.fetch(mongoTemplate, Guwen.class,
+                buildGuwenFilter(dynasty, writer, type), "id", Sort.Direction.ASC, cursor, size,
+                Guwen::getCreatedAt, Guwen::getId);
+        
+        List<GuwenDTO> guwenDTOList = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.ofCursor(guwenDTOList, size, slice.getNextCursor());
+    }
+    
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GUWEN_CACHE, key = "#p0", sync = true)
     public GuwenDTO getGuwenById(String id) {
         logger.info("获取古文详情: id={}", id);
         
@@ -112,12 +186,54 @@ public class GuwenServiceImpl implements GuwenService {
     @Override
     public PageResult<GuwenDTO> searchGuwen(GuwenSearchRequest request) {
         logger.info("搜索古文: {}", request);
+        if (request.getKeyword() != null) {
+            request.setKeyword(request.getKeyword().trim());
+        }
+        
+        // 非精确搜索（以及无关键字的分面请求）优先走内存索引，Mongo只负责按ID取回当前页
+        boolean withFacets = Boolean.TRUE.equals(request.getWithFacets());
+        boolean indexable = StringUtils.hasText(request.getKeyword())
+                ? !"exact".equals(request.getSearchType()) : withFacets;
+        if (indexable && guwenSearchIndex.isReady() && GuwenIndexSnapshot.supportsSort(request.getSortBy())) {
+            return searchGuwenByIndex(request, guwenSearchIndex.getSnapshot());
+        }
+        
+        // MongoDB查询结果按规范化请求缓存当前页ID，热门搜索不再重复扫描集合
+        PageResult<String> cached = guwenSearchCache.get(request);
+        if (cached != null) {
+            return cached.withList(findAllByIdInOrder(cached.getList()));
+        }
+        PageResult<GuwenDTO> pageResult = searchGuwenByMongo(request);
+        guwenSearchCache.put(request, pageResult.map(GuwenDTO::getId));
+        return pageResult;
+    }
+    
+    /**
+     * 基于MongoDB的搜索（内存索引不可用或不适用时使用）
+     * 
+     * @param request 搜索请求
+     * @return 分页结果
+     */
+    private PageResult<GuwenDTO> searchGuwenByMongo(GuwenSearchRequest request) {
+        boolean withFacets = Boolean.TRUE.equals(request.getWithFacets());
+        
+        // 分页结果、总数和分面在一次$facet聚合中返回
+        if (withFacets) {
+            return searchGuwenByFacetAggregation(request);
+        }
         
-        // 创建分页对象
+        // 不需要精确总数时跳过repository的count查询
+        CountMode countMode = CountMode.of(request.getCountMode());
+        if (countMode != CountMode.EXACT) {
+            return searchGuwenByQuery(request, countMode);
+        }
+        
+        // 创建分页对象（MongoDB查询无法按相关度排序，relevance退化为按创建时间排序）
         Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir()) 
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String sortBy = "relevance".equals(request.getSortBy()) ? "createdAt" : request.getSortBy();
         Pageable pageable = PageRequest.of(request.getPage() - 1, request.getSize(), 
-                                         Sort.by(direction, request.getSortBy()));
+                                         Sort.by(direction, sortBy));
         
         Page<Guwen> guwenPage;
         
@@ -197,14 +313,25 @@ public class GuwenServiceImpl implements GuwenService {
     public List<GuwenDTO> getHotGuwen(String period, Integer limit) {
         logger.info("获取热门古文: period={}, limit={}", period, limit);
         
-        // 创建分页对象（按创建时间倒序，模拟热门）
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        
-        Page<Guwen> guwenPage = guwenRepository.findAll(pageable);
+        // 按排行榜顺序批量回表
+        List<GuwenDTO> result = new ArrayList<>(
+                findAllByIdInOrder(hotLeaderboard.topIds("guwen", period, limit)));
+        if (result.size() >= limit) {
+            return result;
+        }
         
-        return guwenPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // 排行榜不足（冷启动或Redis不可用）时按创建时间倒序补足
+        Set<String> selected = result.stream().map(GuwenDTO::getId).collect(Collectors.toSet());
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
+        for (Guwen guwen : guwenRepository.findAll(pageable).getContent()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (selected.add(guwen.getId())) {
+                result.add(convertToDTO(guwen));
+            }
+        }
+        return result;
     }
     
     @Override
@@ -246,6 +373,21 @@ public class GuwenServiceImpl implements GuwenService {
         return PageResult.of(guwenDTOList, page, size, guwenPage.getTotalElements());
     }
     
+    @Override
+    public PageResult<GuwenDTO> getGuwenByDynastyWithCursor(String dynasty, String cursor, Integer size) {
+        logger.info("游标根据朝代获取古文: dynasty={}, size={}", dynasty, size);
+        
+        MongoKeysetPager.Slice<Guwen> slice = MongoKeysetPager.fetch(mongoTemplate, Guwen.class,
+                Criteria.where("dynasty").is(dynasty), "createdAt", Sort.Direction.DESC, cursor, size,
+                Guwen::getCreatedAt, Guwen::getId);
+        
+        List<GuwenDTO> guwenDTOList = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.ofCursor(guwenDTOList, size, slice.getNextCursor());
+    }
+    
     @Override
     public List<String> getAllDynasties() {
         logger.info("获取所有朝代列表");
@@ -305,6 +447,272 @@ public class GuwenServiceImpl implements GuwenService {
         return guwenRepository.countByDynasty(dynasty);
     }
     
+    /**
+     * 构建古文列表过滤条件，语义与GuwenRepository中按作者/朝代/类型组合的查询方法一致
+     * 
+     * @param dynasty 朝代（精确匹配）
+     * @param writer 作者（正则匹配，忽略大小写）
+     * @param type 类型（数组包含）
+     * @return 过滤条件，无条件时返回null
+     */
+    private Criteria buildGuwenFilter(String dynasty, String writer, String type) {
+        List<Criteria> conditions = new ArrayList<>(3);
+        if (StringUtils.hasText(writer)) {
+            conditions.add(Criteria.where("writer").regex(writer, "i"));
+        }
+        if (StringUtils.hasText(dynasty)) {
+            conditions.add(Criteria.where("dynasty").is(dynasty));
+        }
+        if (StringUtils.hasText(type)) {
+            conditions.add(Criteria.where("type").in(type));
+        }
+        if (conditions.isEmpty()) {
+            return null;
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new Criteria().andOperator(conditions.toArray(new Criteria[0]));
+    }
+    
+    /**
+     * 基于MongoTemplate的搜索，查询条件与GuwenRepository中对应的搜索方法一致，总数按countMode获取
+     * 
+     * @param request 搜索请求
+     * @param countMode 总数统计模式（非EXACT）
+     * @return 分页结果
+     */
+    private PageResult<GuwenDTO> searchGuwenByQuery(GuwenSearchRequest request, CountMode countMode) {
+        Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir()) 
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String sortBy = "relevance".equals(request.getSortBy()) ? "createdAt" : request.getSortBy();
+        
+        Query query;
+        if (StringUtils.hasText(request.getKeyword())) {
+            query = new Query(buildKeywordCriteria(request.getKeyword(), request.getSearchType()));
+        } else {
+            Criteria filter = buildGuwenFilter(request.getDynasty(), request.getWriter(), request.getType());
+            query = filter == null ? new Query() : new Query(filter);
+        }
+        query.with(Sort.by(direction, sortBy));
+        
+        return mongoPageExecutor.find(query, Guwen.class, request.getPage(), request.getSize(), countMode)
+                .map(this::convertToDTO);
+    }
+    
+    /**
+     * 基于$facet聚合的分面搜索（索引不可用时使用）
+     * 一次聚合同时返回当前页、总数以及朝代/作者/类型分面，分面计数规则与内存索引一致：
+     * 每个分面应用其余筛选条件、不应用自身条件。
+     * 
+     * @param request 搜索请求
+     * @return 分页结果，包含分面统计
+     */
+    private PageResult<GuwenDTO> searchGuwenByFacetAggregation(GuwenSearchRequest request) {
+        Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir()) 
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String sortBy = "relevance".equals(request.getSortBy()) ? "createdAt" : request.getSortBy();
+        if ("id".equals(sortBy)) {
+            sortBy = "_id";
+        }
+        
+        String dynasty = request.getDynasty();
+        String writer = request.getWriter();
+        String type = request.getType();
+        int facetSize = request.getFacetSize() == null ? 20 : request.getFacetSize();
+        
+        List<AggregationOperation> pipeline = new ArrayList<>(2);
+        if (StringUtils.hasText(request.getKeyword())) {
+            pipeline.add(Aggregation.match(buildKeywordCriteria(request.getKeyword(), request.getSearchType())));
+        }
+        Criteria allFilters = buildGuwenFilter(dynasty, writer, type);
+        pipeline.add(Aggregation
+                .facet(filtered(allFilters,
+                        Aggregation.sort(direction, sortBy),
+                        Aggregation.skip((long) (request.getPage() - 1) * request.getSize()),
+                        Aggregation.limit(request.getSize()))).as("items")
+                .and(filtered(allFilters, Aggregation.count().as("total"))).as("total")
+                .and(facetPipeline(buildGuwenFilter(null, writer, type), "dynasty", false, facetSize))
+                        .as(GuwenIndexSnapshot.FACET_DYNASTY)
+                .and(facetPipeline(buildGuwenFilter(dynasty, null, type), "writer", false, facetSize))
+                        .as(GuwenIndexSnapshot.FACET_WRITER)
+                .and(facetPipeline(buildGuwenFilter(dynasty, writer, null), "type", true, facetSize))
+                        .as(GuwenIndexSnapshot.FACET_TYPE));
+        
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(pipeline),
+                mongoTemplate.getCollectionName(Guwen.class), Document.class).getUniqueMappedResult();
+        if (result == null) {
+            PageResult<GuwenDTO> empty = PageResult.empty(request.getPage(), request.getSize());
+            empty.setFacets(new LinkedHashMap<>());
+            return empty;
+        }
+        
+        List<GuwenDTO> guwenDTOList = result.getList("items", Document.class, Collections.emptyList()).stream()
+                .map(document -> mongoTemplate.getConverter().read(Guwen.class, document))
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        List<Document> totalDocs = result.getList("total", Document.class, Collections.emptyList());
+        long total = totalDocs.isEmpty() ? 0L : ((Number) totalDocs.get(0).get("total")).longValue();
+        
+        Map<String, List<FacetValueDTO>> facets = new LinkedHashMap<>();
+        for (String facet : Arrays.asList(GuwenIndexSnapshot.FACET_DYNASTY, GuwenIndexSnapshot.FACET_WRITER,
+                                          GuwenIndexSnapshot.FACET_TYPE)) {
+            facets.put(facet, result.getList(facet, Document.class, Collections.emptyList()).stream()
+                    .filter(document -> document.get("_id") != null)
+                    .map(document -> new FacetValueDTO(document.get("_id").toString(),
+                                                       ((Number) document.get("count")).longValue()))
+                    .collect(Collectors.toList()));
+        }
+        
+        PageResult<GuwenDTO> pageResult = PageResult.of(guwenDTOList, request.getPage(), request.getSize(), total);
+        pageResult.setFacets(facets);
+        return pageResult;
+    }
+    
+    /**
+     * 构建单个分面的聚合子管道：过滤 -> (展开数组) -> 分组计数 -> 取前N
+     * 
+     * @param filter 其余分面的筛选条件，可为null
+     * @param field 分面字段
+     * @param array 字段是否为数组
+     * @param limit 取值数量上限
+     * @return 子管道
+     */
+    private AggregationOperation[] facetPipeline(Criteria filter, String field, boolean array, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>(4);
+        if (array) {
+            operations.add(Aggregation.unwind(field));
+        }
+        operations.add(Aggregation.group(field).count().as("count"));
+        operations.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by(Sort.Direction.ASC, "_id"))));
+        operations.add(Aggregation.limit(limit));
+        return filtered(filter, operations.toArray(new AggregationOperation[0]));
+    }
+    
+    /**
+     * 在子管道前追加筛选条件
+     * 
+     * @param filter 筛选条件，可为null
+     * @param operations 子管道
+     * @return 追加筛选后的子管道
+     */
+    private AggregationOperation[] filtered(Criteria filter, AggregationOperation... operations) {
+        if (filter == null) {
+            return operations;
+        }
+        AggregationOperation[] result = new AggregationOperation[operations.length + 1];
+        result[0] = Aggregation.match(filter);
+        System.arraycopy(operations, 0, result, 1, operations.length);
+        return result;
+    }
+    
+    /**
+     * 构建关键字查询条件，与GuwenRepository中各搜索类型对应的查询方法一致
+     * 
+     * @param keyword 关键字
+     * @param searchType 搜索类型：smart/fuzzy/content/exact
+     * @return 查询条件
+     */
+    private CriteriaDefinition buildKeywordCriteria(String keyword, String searchType) {
+        switch (searchType == null ? "smart" : searchType) {
+            case "fuzzy":
+                return anyFieldMatches(keyword, "title", "content", "writer", "remark", "shangxi", "translation");
+            case "content":
+                return Criteria.where("content").regex(Pattern.quote(keyword), "i");
+            case "exact":
+                return TextCriteria.forDefaultLanguage().matching(keyword);
+            case "smart":
+            default:
+                return anyFieldMatches(keyword, "title", "content", "writer", "type", "remark", "shangxi");
+        }
+    }
+    
+    /**
+     * 构建多字段正则或查询（忽略大小写）
+     * 
+     * @param keyword 关键字（按正则处理，与repository中的$regex查询一致）
+     * @param fields 字段
+     * @return 查询条件
+     */
+    private Criteria anyFieldMatches(String keyword, String... fields) {
+        Criteria[] conditions = new Criteria[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            conditions[i] = Criteria.where(fields[i]).regex(keyword, "i");
+        }
+        return new Criteria().orOperator(conditions);
+    }
+    
+    /**
+     * 基于内存倒排索引的关键字搜索，按需附带分面统计
+     * 
+     * @param request 搜索请求
+     * @param snapshot 索引快照
+     * @return 分页结果
+     */
+    private PageResult<GuwenDTO> searchGuwenByIndex(GuwenSearchRequest request, GuwenIndexSnapshot snapshot) {
+        String searchType = request.getSearchType() == null ? "smart" : request.getSearchType();
+        boolean hasKeyword = StringUtils.hasText(request.getKeyword());
+        int[] matched = hasKeyword ? snapshot.search(request.getKeyword(), searchType) : snapshot.allDocs();
+        
+        // 分面基于筛选前的命中集合统计，之后再应用朝代/作者/类型筛选
+        Map<String, List<FacetValueDTO>> facets = null;
+        if (Boolean.TRUE.equals(request.getWithFacets())) {
+            int facetSize = request.getFacetSize() == null ? 20 : request.getFacetSize();
+            facets = snapshot.facets(matched, request.getDynasty(), request.getWriter(), request.getType(), facetSize);
+        }
+        int[] hits = snapshot.filter(matched, request.getDynasty(), request.getWriter(), request.getType());
+        
+        int from = (int) Math.min((long) (request.getPage() - 1) * request.getSize(), hits.length);
+        int to = (int) Math.min((long) from + request.getSize(), hits.length);
+        if (from >= to) {
+            PageResult<GuwenDTO> empty = PageResult.of(Collections.emptyList(), request.getPage(), request.getSize(),
+                                                       (long) hits.length);
+            empty.setFacets(facets);
+            return empty;
+        }
+        
+        // 相关度排序只用有界堆取前to条，其余排序方式对全部命中排序；无关键字时相关度退化为按创建时间排序
+        int[] ordered;
+        if ("relevance".equals(request.getSortBy()) && hasKeyword) {
+            ordered = snapshot.rank(request.getKeyword(), searchType, hits, to);
+        } else {
+            String sortBy = "relevance".equals(request.getSortBy()) ? "createdAt" : request.getSortBy();
+            ordered = snapshot.sort(hits, sortBy, "asc".equalsIgnoreCase(request.getSortDir()));
+        }
+        
+        List<String> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(snapshot.getId(ordered[i]));
+        }
+        
+        List<GuwenDTO> guwenDTOList = findAllByIdInOrder(pageIds);
+        
+        logger.debug("索引搜索命中: keyword={}, searchType={}, total={}", request.getKeyword(), searchType, hits.length);
+        PageResult<GuwenDTO> pageResult = PageResult.of(guwenDTOList, request.getPage(), request.getSize(),
+                                                        (long) hits.length);
+        pageResult.setFacets(facets);
+        return pageResult;
+    }
+    
+    /**
+     * 按ID批量回表并保持给定顺序
+     * findAllById不保证顺序，按ID顺序重排；索引构建或结果缓存后被删除的文档直接跳过
+     * 
+     * @param ids 古文ID
+     * @return 古文DTO列表
+     */
+    private List<GuwenDTO> findAllByIdInOrder(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Guwen> guwenMap = new HashMap<>();
+        for (Guwen guwen : guwenRepository.findAllById(ids)) {
+            guwenMap.put(guwen.getId(), guwen);
+        }
+        return ids.stream()
+                .map(guwenMap::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * 将Guwen实体转换为GuwenDTO
      * 
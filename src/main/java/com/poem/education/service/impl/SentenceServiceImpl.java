@@ -1,24 +1,32 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "sentence-service-implementation"
-//   Timestamp: "2025-08-08T13:20:59+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "服务实现最佳实践，MongoDB随机查询优化"
-//   Quality_Check: "编译通过，随机查询使用$sample聚合管道。"
+//   Principle_Applied: "热门名句按时间桶排行榜读取Top-K并一次$in回表"
+//   Quality_Check: "编译通过，排行榜不足时按创建时间补足。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.config.CacheConfig;
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.SentenceDTO;
 import com.poem.education.entity.mongodb.Sentence;
 import com.poem.education.exception.BusinessException;
 import com.poem.education.constant.ErrorCode;
 import com.poem.education.repository.mongodb.SentenceRepository;
+import com.poem.education.search.SentenceIndexSnapshot;
+import com.poem.education.search.SentenceSearchIndex;
+import com.poem.education.stats.HotLeaderboard;
 import com.poem.education.service.SentenceService;
+import com.poem.education.util.MongoKeysetPager;
+import com.poem.education.util.MongoPageExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,11 +34,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.SampleOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -51,6 +66,15 @@ public class SentenceServiceImpl implements SentenceService {
 
     @Autowired
     private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SentenceSearchIndex sentenceSearchIndex;
+    
+    @Autowired
+    private MongoPageExecutor mongoPageExecutor;
+    
+    @Autowired
+    private HotLeaderboard hotLeaderboard;
     
     @Override
     public PageResult<SentenceDTO> getSentenceList(Integer page, Integer size, String author, String dynasty, String from) {
@@ -81,6 +105,37 @@ public class SentenceServiceImpl implements SentenceService {
     }
     
     @Override
+    public PageResult<SentenceDTO> getSentenceList(Integer page, Integer size, String author, String dynasty, String from,
+                                                   CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return getSentenceList(page, size, author, dynasty, from);
+        }
+        logger.info("获取名句列表: page={}, size={}, author={}, dynasty={}, from={}, countMode={}",
+                   page, size, author, dynasty, from, countMode);
+        
+        Criteria filter = buildSentenceFilter(author, dynasty, from);
+        Query query = (filter == null ? new Query() : new Query(filter)).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        
+        return mongoPageExecutor.find(query, Sentence.class, page, size, countMode).map(this::convertToDTO);
+    }
+    
+    @Override
+    public PageResult<SentenceDTO> getSentenceListWithCursor(String cursor, Integer size, String author, String dynasty, String from) {
+        logger.info("游标获取名句列表: size={}, author={}, dynasty={}, from={}", size, author, dynasty, from);
+        
+        MongoKeysetPager.Slice<Sentence> slice = MongoKeysetPager.fetch(mongoTemplate, Sentence.class,
+                buildSentenceFilter(author, dynasty, from),
+                "createdAt", Sort.Direction.DESC, cursor, size, Sentence::getCreatedAt, Sentence::getId);
+        
+        List<SentenceDTO> sentenceDTOList = slice.getContent().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.ofCursor(sentenceDTOList, size, slice.getNextCursor());
+    }
+    
+    @Override
+    @Cacheable(cacheNames = CacheConfig.SENTENCE_CACHE, key = "#p0", sync = true)
     public SentenceDTO getSentenceById(String id) {
         logger.info("获取名句详情: id={}", id);
         
@@ -108,6 +163,11 @@ public class SentenceServiceImpl implements SentenceService {
     public PageResult<SentenceDTO> searchSentences(String keyword, Integer page, Integer size) {
         logger.info("搜索名句: keyword={}, page={}, size={}", keyword, page, size);
         
+        // $text不做中文分词，优先使用内存索引按BM25相关度排序
+        if (StringUtils.hasText(keyword) && sentenceSearchIndex.isReady()) {
+            return searchSentencesByIndex(keyword, page, size, sentenceSearchIndex.getSnapshot());
+        }
+        
         // 创建分页对象
         Pageable pageable = PageRequest.of(page - 1, size);
         
@@ -130,17 +190,36 @@ public class SentenceServiceImpl implements SentenceService {
     }
     
     @Override
-    public List<SentenceDTO> getHotSentences(Integer limit) {
-        logger.info("获取热门名句: limit={}", limit);
-        
-        // 创建分页对象（按创建时间倒序，模拟热门）
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        
-        Page<Sentence> sentencePage = sentenceRepository.findAll(pageable);
-        
-        return sentencePage.getContent().stream()
+    public List<SentenceDTO> getHotSentences(String period, Integer limit) {
+        logger.info("获取热门名句: period={}, limit={}", period, limit);
+        
+        // 按排行榜顺序批量回表
+        List<String> hotIds = hotLeaderboard.topIds("sentence", period, limit);
+        Map<String, Sentence> sentenceMap = new HashMap<>();
+        for (Sentence sentence : sentenceRepository.findAllById(hotIds)) {
+            sentenceMap.put(sentence.getId(), sentence);
+        }
+        List<SentenceDTO> result = hotIds.stream()
+                .map(sentenceMap::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        if (result.size() >= limit) {
+            return result;
+        }
+        
+        // 排行榜不足（冷启动或Redis不可用）时按创建时间倒序补足
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
+        for (Sentence sentence : sentenceRepository.findAll(pageable).getContent()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!sentenceMap.containsKey(sentence.getId())) {
+                sentenceMap.put(sentence.getId(), sentence);
+                result.add(convertToDTO(sentence));
+            }
+        }
+        return result;
     }
     
     @Override
@@ -263,6 +342,44 @@ public class SentenceServiceImpl implements SentenceService {
         return sentenceRepository.countByFrom(from);
     }
     
+    /**
+     * 基于内存倒排索引的名句搜索
+     * 
+     * @param keyword 关键字
+     * @param page 页码
+     * @param size 每页大小
+     * @param snapshot 索引快照
+     * @return 按相关度排序的分页结果
+     */
+    private PageResult<SentenceDTO> searchSentencesByIndex(String keyword, Integer page, Integer size,
+                                                           SentenceIndexSnapshot snapshot) {
+        int[] hits = snapshot.search(keyword);
+        int from = (int) Math.min((long) (page - 1) * size, hits.length);
+        int to = (int) Math.min((long) from + size, hits.length);
+        if (from >= to) {
+            return PageResult.of(Collections.emptyList(), page, size, (long) hits.length);
+        }
+        
+        int[] ranked = snapshot.rank(keyword, hits, to);
+        List<String> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(snapshot.getId(ranked[i]));
+        }
+        
+        // findAllById不保证顺序，按相关度顺序重排
+        Map<String, Sentence> sentenceMap = new HashMap<>();
+        for (Sentence sentence : sentenceRepository.findAllById(pageIds)) {
+            sentenceMap.put(sentence.getId(), sentence);
+        }
+        List<SentenceDTO> sentenceDTOList = pageIds.stream()
+                .map(sentenceMap::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return PageResult.of(sentenceDTOList, page, size, (long) hits.length);
+    }
+    
     /**
      * 将Sentence实体转换为SentenceDTO
      * 
@@ -288,5 +405,26 @@ public class SentenceServiceImpl implements SentenceService {
         
         return dto;
     }
+    
+    /**
+     * 构建名句列表过滤条件，优先级与页码模式一致：作者 > 朝代 > 出处
+     * 
+     * @param author 作者
+     * @param dynasty 朝代
+     * @param from 出处
+     * @return 过滤条件，无条件时返回null
+     */
+    private Criteria buildSentenceFilter(String author, String dynasty, String from) {
+        if (StringUtils.hasText(author)) {
+            return Criteria.where("author").is(author);
+        }
+        if (StringUtils.hasText(dynasty)) {
+            return Criteria.where("dynasty").is(dynasty);
+        }
+        if (StringUtils.hasText(from)) {
+            return Criteria.where("from").is(from);
+        }
+        return null;
+    }
 }
 // {{END_MODIFICATIONS}}
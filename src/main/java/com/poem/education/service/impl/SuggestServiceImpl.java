@@ -0,0 +1,88 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "4873dde0-6ee8-4250-99f4-73fe2863a688"
+//   Timestamp: "2026-10-20T21:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "前缀正则逐个转义元字符，不使用Pattern.quote，锚定前缀可用作title索引边界"
+//   Quality_Check: "编译通过，特殊字符按字面匹配。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.service.impl;
+
+import com.poem.education.dto.response.SuggestionDTO;
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.search.SuggestIndex;
+import com.poem.education.service.SuggestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索联想服务实现类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Service
+public class SuggestServiceImpl implements SuggestService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SuggestServiceImpl.class);
+    
+    /**
+     * 单次联想最大返回数量
+     */
+    private static final int MAX_LIMIT = 20;
+    
+    /**
+     * 正则元字符
+     */
+    private static final Pattern REGEX_META = Pattern.compile("[.*+?^${}()|\\[\\]\\\\]");
+    
+    @Autowired
+    private SuggestIndex suggestIndex;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (!StringUtils.hasText(prefix)) {
+            return Collections.emptyList();
+        }
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_LIMIT));
+        
+        if (suggestIndex.isReady()) {
+            return suggestIndex.getSnapshot().suggest(prefix, size);
+        }
+        
+        // 索引未就绪时只按古文标题前缀查询（锚定前缀可使用title索引）
+        // 元字符逐个转义：Pattern.quote生成的\Q...\E无法被MongoDB用作索引边界
+        logger.debug("联想索引未就绪，使用标题前缀查询: prefix={}", prefix);
+        Query query = new Query(Criteria.where("title").regex("^" + escapeRegex(prefix.trim()))).limit(size);
+        query.fields().include("title");
+        return mongoTemplate.find(query, Guwen.class).stream()
+                .map(guwen -> new SuggestionDTO(guwen.getTitle(), SuggestIndex.TYPE_GUWEN, guwen.getId()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 转义正则元字符
+     * 
+     * @param text 原始文本
+     * @return 可作为正则字面量的文本
+     */
+    static String escapeRegex(String text) {
+        return REGEX_META.matcher(text).replaceAll("\\\\$0");
+    }
+}
+// {{END_MODIFICATIONS}}
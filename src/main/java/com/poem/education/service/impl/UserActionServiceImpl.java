@@ -1,39 +1,63 @@
 // {{RIPER-5+SMART-6:
 //   Action: "Modified"
-//   Task_ID: "ac87f049-a00a-4545-bd4b-e0f7068693dd"
-//   Timestamp: "2025-08-08T16:42:37+08:00"
+//   Task_ID: "2e8bae74-bf79-4211-a7cc-53173aefdb92"
+//   Timestamp: "2026-10-20T19:20:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service集成最佳实践，异步统计更新"
-//   Quality_Check: "编译通过，集成ContentStatsService，向后兼容。"
+//   Principle_Applied: "行为成员缓存变更在事务提交后执行"
+//   Quality_Check: "编译通过，回滚时成员缓存不会先于数据库变化。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.cache.UserMembershipCache;
+import com.poem.education.dto.request.ActionStatusRequest;
 import com.poem.education.dto.request.UserActionRequest;
+import com.poem.education.dto.response.ActionStatusDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.UserActionDTO;
 import com.poem.education.entity.mysql.UserAction;
+import com.poem.education.entity.mysql.UserFavorite;
 import com.poem.education.exception.BusinessException;
+import com.poem.education.ingest.UserActionIngestor;
+import com.poem.education.ingest.UserActionsIngestedEvent;
 import com.poem.education.repository.mysql.UserActionRepository;
+import com.poem.education.repository.mysql.UserFavoriteRepository;
 import com.poem.education.service.UserActionService;
 import com.poem.education.service.ContentStatsService;
 import com.poem.education.constant.ErrorCode;
+import com.poem.education.stats.ActionRollups;
+import com.poem.education.stats.ContentStatsDelta;
+import com.poem.education.stats.UniqueViewerCounter;
+import com.poem.education.stats.ViewTracker;
+import com.poem.education.util.AfterCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -48,54 +72,108 @@ public class UserActionServiceImpl implements UserActionService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserActionServiceImpl.class);
     
+    /**
+     * 行为状态中返回的行为类型（浏览不返回）
+     */
+    private static final List<String> STATUS_ACTION_TYPES = Arrays.asList(
+            UserAction.ActionType.LIKE, UserAction.ActionType.FAVORITE, UserAction.ActionType.SHARE);
+    
     @Autowired
     private UserActionRepository userActionRepository;
 
     @Autowired
     private ContentStatsService contentStatsService;
+
+    @Autowired
+    private UniqueViewerCounter uniqueViewerCounter;
+
+    @Autowired
+    private ActionRollups actionRollups;
+
+    @Autowired
+    private UserActionIngestor userActionIngestor;
+
+    @Autowired
+    private ViewTracker viewTracker;
+
+    @Autowired
+    private UserFavoriteRepository userFavoriteRepository;
+
+    @Autowired
+    private UserMembershipCache userMembershipCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserActionDTO recordAction(Long userId, UserActionRequest request) {
         logger.info("记录用户行为: userId={}, request={}", userId, request);
         
+        if (isTrackedView(request)) {
+            return trackView(userId, request);
+        }
+        
+        // 浏览等只追加的行为放入写入队列后立即返回，由写入线程批量写入（返回结果中没有记录ID）
+        if (userActionIngestor.accepts(request.getActionType())) {
+            UserAction userAction = newUserAction(userId, request);
+            userAction.setCreatedAt(LocalDateTime.now());
+            if (userActionIngestor.offer(userAction)) {
+                return convertToDTO(userAction);
+            }
+        }
+        
+        // 同步写入：已在事务中时加入该事务，否则开启新事务
+        return new TransactionTemplate(transactionManager).execute(status -> recordActionSync(userId, request));
+    }
+    
+    /**
+     * 同步记录用户行为
+     * 
+     * @param userId 用户ID
+     * @param request 行为请求
+     * @return 行为记录
+     */
+    private UserActionDTO recordActionSync(Long userId, UserActionRequest request) {
         // 检查是否已存在相同的行为记录
         Optional<UserAction> existingAction = userActionRepository
                 .findByUserIdAndTargetIdAndTargetTypeAndActionType(
                         userId, request.getTargetId(), request.getTargetType(), request.getActionType());
         
         if (existingAction.isPresent()) {
-            // 如果已存在，返回现有记录
+            // 如果已存在，返回现有记录；重复浏览仍计入当日独立访客
+            recordUniqueView(userId, request, false);
             return convertToDTO(existingAction.get());
         }
         
         // 创建新的行为记录
-        UserAction userAction = new UserAction();
-        userAction.setUserId(userId);
-        userAction.setTargetId(request.getTargetId());
-        userAction.setTargetType(request.getTargetType());
-        userAction.setActionType(request.getActionType());
-        
-        UserAction savedAction = userActionRepository.save(userAction);
-
-        // 异步更新内容统计数据
-        try {
-            contentStatsService.updateContentStats(
-                request.getTargetId(),
-                request.getTargetType(),
-                request.getActionType()
-            );
-            logger.debug("已触发内容统计更新: targetId={}, targetType={}, actionType={}",
-                        request.getTargetId(), request.getTargetType(), request.getActionType());
-        } catch (Exception e) {
-            // 统计更新失败不影响主要业务流程
-            logger.warn("内容统计更新失败，但用户行为记录成功: targetId={}, targetType={}, actionType={}",
-                       request.getTargetId(), request.getTargetType(), request.getActionType(), e);
-        }
+        UserAction savedAction = userActionRepository.save(newUserAction(userId, request));
+        addMembership(userId, Collections.singletonList(savedAction));
+        recordUniqueView(userId, request, true);
+        triggerContentStatsUpdate(request.getTargetId(), request.getTargetType(), request.getActionType());
 
         return convertToDTO(savedAction);
     }
     
+    /**
+     * 异步写入的行为批量落库后更新统计
+     * 
+     * @param event 批量写入完成事件
+     */
+    @EventListener
+    public void onActionsIngested(UserActionsIngestedEvent event) {
+        for (UserAction action : event.getInserted()) {
+            recordUniqueView(action.getUserId(), action.getTargetId(), action.getTargetType(),
+                             action.getActionType(), true);
+            addMembership(action.getUserId(), Collections.singletonList(action));
+        }
+        applyContentStatsDeltas(event.getInserted());
+        for (UserAction action : event.getDuplicates()) {
+            recordUniqueView(action.getUserId(), action.getTargetId(), action.getTargetType(),
+                             action.getActionType(), false);
+        }
+    }
+    
     @Override
     @Transactional
     public boolean cancelAction(Long userId, String targetId, String targetType, String actionType) {
@@ -106,7 +184,11 @@ public class UserActionServiceImpl implements UserActionService {
                 .findByUserIdAndTargetIdAndTargetTypeAndActionType(userId, targetId, targetType, actionType);
         
         if (actionOptional.isPresent()) {
+            // 已汇总的行为从汇总表中扣减，与删除在同一事务内
+            actionRollups.retract(actionOptional.get());
             userActionRepository.delete(actionOptional.get());
+            AfterCommit.run(() -> userMembershipCache.remove(userId, Collections.singletonList(
+                    UserMembershipCache.actionMember(actionType, targetType, targetId))));
             return true;
         }
         
@@ -157,8 +239,11 @@ public class UserActionServiceImpl implements UserActionService {
                 targetId, targetType, UserAction.ActionType.LIKE);
         long favoriteCount = userActionRepository.countByTargetIdAndTargetTypeAndActionType(
                 targetId, targetType, UserAction.ActionType.FAVORITE);
-        long viewCount = userActionRepository.countByTargetIdAndTargetTypeAndActionType(
-                targetId, targetType, UserAction.ActionType.VIEW);
+        // 启用浏览跟踪后浏览不再写入user_actions，取内容统计中的浏览量
+        long viewCount = viewTracker.isEnabled()
+                ? valueOf(contentStatsService.getContentStats(targetId, targetType).getViewCount())
+                : userActionRepository.countByTargetIdAndTargetTypeAndActionType(
+                        targetId, targetType, UserAction.ActionType.VIEW);
         long shareCount = userActionRepository.countByTargetIdAndTargetTypeAndActionType(
                 targetId, targetType, UserAction.ActionType.SHARE);
         
@@ -195,13 +280,19 @@ public class UserActionServiceImpl implements UserActionService {
     public List<Object> getHotContentByLikes(String targetType, Integer limit) {
         logger.info("获取热门内容: targetType={}, limit={}", targetType, limit);
 
-        // 使用Repository中的方法获取热门内容
         LocalDateTime endTime = LocalDateTime.now();
         LocalDateTime startTime = endTime.minusDays(30); // 最近30天
 
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = userActionRepository.findHotContentsByAction(
-                targetType, UserAction.ActionType.LIKE, startTime, endTime, pageable);
+        List<Object[]> results;
+        if (actionRollups.isEnabled()) {
+            // 从天汇总表读取，查询成本与原始行为量无关
+            results = actionRollups.topTargets(ActionRollups.Granularity.DAY, targetType,
+                    UserAction.ActionType.LIKE, startTime.toLocalDate().atStartOfDay(), endTime, limit);
+        } else {
+            Pageable pageable = PageRequest.of(0, limit);
+            results = userActionRepository.findHotContentsByAction(
+                    targetType, UserAction.ActionType.LIKE, startTime, endTime, pageable);
+        }
 
         return results.stream()
                 .map(result -> {
@@ -230,9 +321,61 @@ public class UserActionServiceImpl implements UserActionService {
     public List<UserActionDTO> batchRecordActions(Long userId, List<UserActionRequest> requests) {
         logger.info("批量记录用户行为: userId={}, count={}", userId, requests.size());
         
-        return requests.stream()
-                .map(request -> recordAction(userId, request))
+        // 浏览由浏览跟踪去重计数，不写入user_actions
+        List<UserActionRequest> persisted = requests.stream()
+                .filter(request -> !isTrackedView(request))
                 .collect(Collectors.toList());
+        
+        // 一次查询找出已存在的行为
+        Set<String> targetIds = persisted.stream().map(UserActionRequest::getTargetId).collect(Collectors.toSet());
+        Map<String, UserAction> existing = targetIds.isEmpty() ? new HashMap<>()
+                : indexByKey(userActionRepository.findByUserIdAndTargetIdIn(userId, targetIds));
+        
+        // 其余行为（同一批内重复的只写一次）以一条多行INSERT写入
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, UserAction> fresh = new LinkedHashMap<>();
+        for (UserActionRequest request : persisted) {
+            String key = actionKey(request.getTargetId(), request.getTargetType(), request.getActionType());
+            if (!existing.containsKey(key) && !fresh.containsKey(key)) {
+                UserAction userAction = newUserAction(userId, request);
+                userAction.setCreatedAt(now);
+                fresh.put(key, userAction);
+            }
+        }
+        
+        Map<String, UserAction> saved = existing;
+        Map<String, UserAction> inserted = new LinkedHashMap<>();
+        if (!fresh.isEmpty()) {
+            // 并发请求可能已写入同一行为，统计与成员缓存只计本次实际写入的行
+            List<UserAction> candidates = new ArrayList<>(fresh.values());
+            int[] results = userActionRepository.insertIgnoreEach(candidates);
+            for (int i = 0; i < candidates.size() && i < results.length; i++) {
+                if (results[i] > 0) {
+                    UserAction userAction = candidates.get(i);
+                    inserted.put(actionKey(userAction.getTargetId(), userAction.getTargetType(),
+                            userAction.getActionType()), userAction);
+                }
+            }
+            addMembership(userId, inserted.values());
+            // 批量INSERT不回填ID，重新查询一次取回写入的记录
+            saved = indexByKey(userActionRepository.findByUserIdAndTargetIdIn(userId, targetIds));
+            applyContentStatsDeltas(inserted.values());
+        }
+        
+        List<UserActionDTO> result = new ArrayList<>(requests.size());
+        Set<String> viewed = new HashSet<>();
+        for (UserActionRequest request : requests) {
+            if (isTrackedView(request)) {
+                result.add(trackView(userId, request));
+                continue;
+            }
+            String key = actionKey(request.getTargetId(), request.getTargetType(), request.getActionType());
+            // 同一批内重复的浏览只计一次新增浏览
+            recordUniqueView(userId, request, inserted.containsKey(key) && viewed.add(key));
+            UserAction userAction = saved.get(key);
+            result.add(convertToDTO(userAction != null ? userAction : fresh.get(key)));
+        }
+        return result;
     }
     
     @Override
@@ -254,7 +397,225 @@ public class UserActionServiceImpl implements UserActionService {
     public long deleteUserActions(Long userId) {
         logger.info("删除用户所有行为记录: userId={}", userId);
         
-        return userActionRepository.deleteByUserId(userId);
+        long deleted = userActionRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> userMembershipCache.evict(userId));
+        return deleted;
+    }
+    
+    @Override
+    public List<ActionStatusDTO> getActionStatus(Long userId, List<ActionStatusRequest.Target> targets) {
+        logger.info("批量查询行为状态: userId={}, count={}", userId, targets.size());
+        
+        List<String> members = new ArrayList<>(targets.size() * (STATUS_ACTION_TYPES.size() + 1));
+        for (ActionStatusRequest.Target target : targets) {
+            for (String actionType : STATUS_ACTION_TYPES) {
+                members.add(UserMembershipCache.actionMember(actionType, target.getTargetType(), target.getTargetId()));
+            }
+            members.add(UserMembershipCache.favoriteMember(target.getTargetType(), target.getTargetId()));
+        }
+        Set<String> present = resolveMembership(userId, targets, members);
+        
+        List<ActionStatusDTO> result = new ArrayList<>(targets.size());
+        for (ActionStatusRequest.Target target : targets) {
+            List<String> actionTypes = new ArrayList<>(STATUS_ACTION_TYPES.size());
+            for (String actionType : STATUS_ACTION_TYPES) {
+                if (present.contains(UserMembershipCache.actionMember(
+                        actionType, target.getTargetType(), target.getTargetId()))) {
+                    actionTypes.add(actionType);
+                }
+            }
+            boolean favorited = present.contains(
+                    UserMembershipCache.favoriteMember(target.getTargetType(), target.getTargetId()));
+            result.add(new ActionStatusDTO(target.getTargetId(), target.getTargetType(),
+                    actionTypes.contains(UserAction.ActionType.LIKE), favorited, actionTypes));
+        }
+        return result;
+    }
+    
+    /**
+     * 判断成员是否存在：优先读用户成员缓存，未加载时整体加载，用户成员过多或缓存不可用时用一次IN查询
+     * 
+     * @return 存在的成员
+     */
+    private Set<String> resolveMembership(Long userId, List<ActionStatusRequest.Target> targets, List<String> members) {
+        UserMembershipCache.Lookup lookup = userMembershipCache.lookup(userId, members);
+        if (lookup.isHit()) {
+            return lookup.getPresent();
+        }
+        if (lookup.needsLoad()) {
+            Pageable limit = PageRequest.of(0, userMembershipCache.getMaxMembers() + 1);
+            Set<String> all = new HashSet<>();
+            for (Object[] row : userActionRepository.findMembershipByUserId(userId, limit)) {
+                all.add(UserMembershipCache.actionMember((String) row[2], (String) row[0], (String) row[1]));
+            }
+            for (Object[] row : userFavoriteRepository.findMembershipByUserId(userId, limit)) {
+                all.add(UserMembershipCache.favoriteMember((String) row[0], (String) row[1]));
+            }
+            userMembershipCache.load(userId, all);
+            if (all.size() <= userMembershipCache.getMaxMembers()) {
+                return all;
+            }
+        }
+        
+        Set<String> targetIds = targets.stream().map(ActionStatusRequest.Target::getTargetId).collect(Collectors.toSet());
+        Set<String> present = new HashSet<>();
+        for (UserAction action : userActionRepository.findByUserIdAndTargetIdIn(userId, targetIds)) {
+            present.add(UserMembershipCache.actionMember(
+                    action.getActionType(), action.getTargetType(), action.getTargetId()));
+        }
+        for (UserFavorite favorite : userFavoriteRepository.findByUserIdAndTargetIdIn(userId, targetIds)) {
+            present.add(UserMembershipCache.favoriteMember(favorite.getTargetType(), favorite.getTargetId()));
+        }
+        return present;
+    }
+    
+    @Override
+    public Map<String, Object> getActionTrend(String targetType, String actionType, String targetId,
+                                              String granularity, LocalDate startDate, LocalDate endDate) {
+        logger.info("获取行为趋势: targetType={}, actionType={}, targetId={}, granularity={}, {} ~ {}",
+                   targetType, actionType, targetId, granularity, startDate, endDate);
+        
+        ActionRollups.Granularity resolved = ActionRollups.Granularity.of(granularity);
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        Map<LocalDateTime, Long> counts = actionRollups.series(resolved, targetType, actionType, targetId, from, to);
+        
+        // 补齐没有行为的时间桶
+        List<Map<String, Object>> points = new ArrayList<>();
+        long total = 0;
+        for (LocalDateTime bucket = from; bucket.isBefore(to); bucket = resolved.nextBucket(bucket)) {
+            long count = counts.getOrDefault(bucket, 0L);
+            Map<String, Object> point = new HashMap<>();
+            point.put("bucketStart", bucket);
+            point.put("count", count);
+            points.add(point);
+            total += count;
+        }
+        
+        Map<String, Object> trend = new HashMap<>();
+        trend.put("targetType", targetType);
+        trend.put("actionType", actionType);
+        trend.put("targetId", targetId);
+        trend.put("granularity", resolved.getCode());
+        trend.put("startDate", startDate);
+        trend.put("endDate", endDate);
+        trend.put("total", total);
+        trend.put("points", points);
+        return trend;
+    }
+    
+    /**
+     * 新写入的行为同步到用户成员缓存（浏览不缓存）
+     */
+    private void addMembership(Long userId, Collection<UserAction> actions) {
+        List<String> members = new ArrayList<>(actions.size());
+        for (UserAction action : actions) {
+            if (!UserAction.ActionType.VIEW.equals(action.getActionType())) {
+                members.add(UserMembershipCache.actionMember(
+                        action.getActionType(), action.getTargetType(), action.getTargetId()));
+            }
+        }
+        AfterCommit.run(() -> userMembershipCache.add(userId, members));
+    }
+    
+    private boolean isTrackedView(UserActionRequest request) {
+        return UserAction.ActionType.VIEW.equals(request.getActionType()) && viewTracker.isEnabled();
+    }
+    
+    /**
+     * 跟踪浏览：不写入user_actions，去重窗口内首次浏览才累加计数
+     * 
+     * @param userId 用户ID
+     * @param request 行为请求
+     * @return 浏览记录（没有记录ID）
+     */
+    private UserActionDTO trackView(Long userId, UserActionRequest request) {
+        boolean counted = viewTracker.track(userId, request.getTargetId(), request.getTargetType());
+        recordUniqueView(userId, request, counted);
+        if (counted) {
+            triggerContentStatsUpdate(request.getTargetId(), request.getTargetType(), request.getActionType());
+        }
+        UserAction userAction = newUserAction(userId, request);
+        userAction.setCreatedAt(LocalDateTime.now());
+        return convertToDTO(userAction);
+    }
+    
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+    
+    private UserAction newUserAction(Long userId, UserActionRequest request) {
+        UserAction userAction = new UserAction();
+        userAction.setUserId(userId);
+        userAction.setTargetId(request.getTargetId());
+        userAction.setTargetType(request.getTargetType());
+        userAction.setActionType(request.getActionType());
+        return userAction;
+    }
+    
+    /**
+     * 异步更新内容统计数据
+     */
+    private void triggerContentStatsUpdate(String targetId, String targetType, String actionType) {
+        try {
+            contentStatsService.updateContentStats(targetId, targetType, actionType);
+            logger.debug("已触发内容统计更新: targetId={}, targetType={}, actionType={}",
+                        targetId, targetType, actionType);
+        } catch (Exception e) {
+            // 统计更新失败不影响主要业务流程
+            logger.warn("内容统计更新失败，但用户行为记录成功: targetId={}, targetType={}, actionType={}",
+                       targetId, targetType, actionType, e);
+        }
+    }
+    
+    /**
+     * 批量写入的行为按内容汇总后更新统计，每个内容只更新一次
+     */
+    private void applyContentStatsDeltas(Collection<UserAction> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        try {
+            contentStatsService.applyContentStatsDeltas(ContentStatsDelta.countActions(actions));
+        } catch (Exception e) {
+            // 统计更新失败不影响主要业务流程
+            logger.warn("批量内容统计更新失败，但用户行为记录成功: count={}", actions.size(), e);
+        }
+    }
+    
+    private static Map<String, UserAction> indexByKey(List<UserAction> actions) {
+        Map<String, UserAction> index = new HashMap<>(actions.size() * 2);
+        for (UserAction action : actions) {
+            index.put(actionKey(action.getTargetId(), action.getTargetType(), action.getActionType()), action);
+        }
+        return index;
+    }
+    
+    private static String actionKey(String targetId, String targetType, String actionType) {
+        return targetType + ":" + targetId + ":" + actionType;
+    }
+    
+    private void recordUniqueView(Long userId, UserActionRequest request, boolean newRecord) {
+        recordUniqueView(userId, request.getTargetId(), request.getTargetType(), request.getActionType(), newRecord);
+    }
+    
+    /**
+     * 浏览行为计入独立访客HyperLogLog
+     * 
+     * @param newRecord 是否新增了浏览记录
+     */
+    private void recordUniqueView(Long userId, String targetId, String targetType, String actionType,
+                                  boolean newRecord) {
+        if (!UserAction.ActionType.VIEW.equals(actionType)) {
+            return;
+        }
+        try {
+            uniqueViewerCounter.recordView(userId, targetId, targetType, newRecord);
+        } catch (Exception e) {
+            // 独立访客统计失败不影响主要业务流程
+            logger.warn("独立访客统计失败: targetId={}, targetType={}, error={}",
+                       targetId, targetType, e.getMessage());
+        }
     }
     
     /**
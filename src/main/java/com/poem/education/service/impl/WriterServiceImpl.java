@@ -1,25 +1,28 @@
 // {{RIPER-5+SMART-6:
-//   Action: "Parallel-Added"
-//   Task_ID: "6fbd2d10-468b-4ef3-ac5b-ddd4dddcf277"
-//   Timestamp: "2025-08-07T11:50:00+08:00"
+//   Action: "Modified"
+//   Task_ID: "c1925e38-32bf-483e-9e0c-4acedd07c247"
+//   Timestamp: "2026-10-19T14:30:00+08:00"
 //   Authoring_Subagent: "PM-快速模式"
-//   Principle_Applied: "Service实现最佳实践，MongoDB查询优化"
-//   Quality_Check: "编译通过，业务逻辑完整。"
+//   Principle_Applied: "热门作者按时间桶排行榜读取Top-K并一次$in回表"
+//   Quality_Check: "编译通过，排行榜不足时按创建时间补足。"
 // }}
 // {{START_MODIFICATIONS}}
 package com.poem.education.service.impl;
 
+import com.poem.education.config.CacheConfig;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.WriterDTO;
 import com.poem.education.entity.mongodb.Writer;
 import com.poem.education.exception.BusinessException;
 import com.poem.education.repository.mongodb.WriterRepository;
 import com.poem.education.service.WriterService;
+import com.poem.education.stats.HotLeaderboard;
 import com.poem.education.constant.ErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,8 +35,11 @@ import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.data.mongodb.core.query.Criteria;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -56,7 +62,11 @@ public class WriterServiceImpl implements WriterService {
     @Autowired
     private MongoTemplate mongoTemplate;
     
+    @Autowired
+    private HotLeaderboard hotLeaderboard;
+    
     @Override
+    @Cacheable(cacheNames = CacheConfig.WRITER_CACHE, key = "'id:' + #p0", sync = true)
     public WriterDTO getWriterById(String id) {
         logger.info("获取作者详情: id={}", id);
         
@@ -69,6 +79,7 @@ public class WriterServiceImpl implements WriterService {
     }
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.WRITER_CACHE, key = "'name:' + #p0", sync = true)
     public WriterDTO getWriterByName(String name) {
         logger.info("根据姓名获取作者: name={}", name);
         
@@ -122,17 +133,36 @@ public class WriterServiceImpl implements WriterService {
     }
     
     @Override
-    public List<WriterDTO> getHotWriters(Integer limit) {
-        logger.info("获取热门作者: limit={}", limit);
-        
-        // 创建分页对象（按创建时间倒序，模拟热门）
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
+    public List<WriterDTO> getHotWriters(String period, Integer limit) {
+        logger.info("获取热门作者: period={}, limit={}", period, limit);
         
-        Page<Writer> writerPage = writerRepository.findAll(pageable);
-        
-        return writerPage.getContent().stream()
+        // 按排行榜顺序批量回表
+        List<String> hotIds = hotLeaderboard.topIds("writer", period, limit);
+        Map<String, Writer> writerMap = new HashMap<>();
+        for (Writer writer : writerRepository.findAllById(hotIds)) {
+            writerMap.put(writer.getId(), writer);
+        }
+        List<WriterDTO> result = hotIds.stream()
+                .map(writerMap::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        if (result.size() >= limit) {
+            return result;
+        }
+        
+        // 排行榜不足（冷启动或Redis不可用）时按创建时间倒序补足
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
+        for (Writer writer : writerRepository.findAll(pageable).getContent()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!writerMap.containsKey(writer.getId())) {
+                writerMap.put(writer.getId(), writer);
+                result.add(convertToDTO(writer));
+            }
+        }
+        return result;
     }
     
     @Override
@@ -0,0 +1,422 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "a85698c8-b894-4ddc-b6c8-d3a0a7e6a4b1"
+//   Timestamp: "2026-10-20T16:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "按月RANGE分区行为汇总表，定时预建分区、过期分区导出为gzip后整区删除"
+//   Quality_Check: "编译通过，表未分区时跳过，导出完成后才删除数据。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.UserAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 行为历史分区维护
+ * user_actions保存的是每个用户对每个内容的点赞/收藏/分享状态（uk_user_target_action去重），行数随用户与内容增长，
+ * 而不是随时间增长的流水；MySQL要求分区表的每个唯一键都包含分区列且不支持外键，按created_at分区会失去去重，因此不分区。
+ * 随时间增长的是行为汇总表，按bucket_start每月一个RANGE COLUMNS分区（分区名p{yyyyMM}，最后为p_future）：
+ * <ul>
+ *   <li>每次执行从p_future拆分出未来months-ahead个月的分区，写入始终落在已建好的分区</li>
+ *   <li>action_rollup_hourly中整月早于保留期的分区先导出为gzip CSV，再DROP PARTITION，代替逐行DELETE</li>
+ *   <li>趋势、热门查询都带bucket_start范围条件，只扫描命中的分区</li>
+ * </ul>
+ * 表未分区（未执行迁移，或测试环境的H2）时跳过，小时汇总仍由ActionRollups逐行清理。
+ * <p>
+ * 配置view-retention-months后，user_actions中早于保留期且已汇总的浏览记录每次按一个月导出后分批删除
+ * （启用浏览跟踪后新浏览不再写入该表，这里清理的是历史浏览）。
+ * 导出文件为逗号分隔、首行为列名、NULL写为\N，可直接用LOAD DATA恢复。
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@Component
+public class ActionPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionPartitions.class);
+
+    static final String FUTURE_PARTITION = "p_future";
+
+    static final String USER_ACTIONS_TABLE = "user_actions";
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${action-partitions.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 提前建好的月分区数
+     */
+    @Value("${action-partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${action-rollup.hourly-retention-days:35}")
+    private int hourlyRetentionDays;
+
+    @Value("${action-rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    /**
+     * 删除前是否导出
+     */
+    @Value("${action-partitions.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${action-partitions.archive-dir:archive}")
+    private String archiveDir;
+
+    /**
+     * user_actions中浏览记录的保留月数，0为不清理
+     */
+    @Value("${action-partitions.view-retention-months:0}")
+    private int viewRetentionMonths;
+
+    @Value("${action-partitions.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    /**
+     * 表名 -> 是否已分区
+     */
+    private final Map<String, Boolean> partitioned = new ConcurrentHashMap<>();
+
+    private Counter createdPartitions;
+
+    private Counter droppedPartitions;
+
+    private Counter archivedRows;
+
+    private Counter deletedViews;
+
+    /**
+     * 月分区
+     */
+    static final class Partition {
+
+        final String name;
+
+        /**
+         * 分区上界（不包含），p_future为null
+         */
+        final LocalDateTime upperBound;
+
+        Partition(String name, LocalDateTime upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        createdPartitions = Counter.builder("action_partitions.created")
+                .description("新建的月分区数")
+                .register(meterRegistry);
+        droppedPartitions = Counter.builder("action_partitions.dropped")
+                .description("删除的过期月分区数")
+                .register(meterRegistry);
+        archivedRows = Counter.builder("action_partitions.archived_rows")
+                .description("导出到归档文件的行数")
+                .register(meterRegistry);
+        deletedViews = Counter.builder("action_partitions.deleted_views")
+                .description("从user_actions删除的过期浏览记录数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 表是否已按月分区并由本任务管理保留期
+     *
+     * @param table 表名
+     * @return 是否已分区
+     */
+    public boolean isPartitioned(String table) {
+        return enabled && partitioned.computeIfAbsent(table, t -> !listPartitions(t).isEmpty());
+    }
+
+    /**
+     * 定时维护分区
+     */
+    @Scheduled(initialDelayString = "${action-partitions.initial-delay-ms:60000}",
+               fixedDelayString = "${action-partitions.interval-ms:3600000}")
+    public void scheduledMaintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintain(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.warn("行为历史分区维护失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 预建分区、删除过期分区、清理过期浏览记录
+     *
+     * @param now 当前时间
+     */
+    void maintain(LocalDateTime now) throws IOException {
+        for (ActionRollups.Granularity granularity : ActionRollups.Granularity.values()) {
+            String table = granularity.table();
+            List<Partition> partitions = listPartitions(table);
+            partitioned.put(table, !partitions.isEmpty());
+            if (partitions.isEmpty()) {
+                continue;
+            }
+            addFuturePartitions(table, partitions, now);
+            if (granularity == ActionRollups.Granularity.HOUR) {
+                dropExpired(table, partitions, now.minusDays(hourlyRetentionDays));
+            }
+        }
+        purgeViews(now);
+    }
+
+    /**
+     * 查询表的分区，按分区顺序排列
+     *
+     * @param table 表名
+     * @return 分区列表，未分区或不支持时为空
+     */
+    List<Partition> listPartitions(String table) {
+        try {
+            return jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                            + "ORDER BY PARTITION_ORDINAL_POSITION",
+                    (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))), table);
+        } catch (DataAccessException e) {
+            logger.debug("读取分区信息失败，按未分区处理: table={}, error={}", table, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 从p_future拆分出到now之后months-ahead个月为止的月分区
+     */
+    void addFuturePartitions(String table, List<Partition> partitions, LocalDateTime now) {
+        Partition last = partitions.get(partitions.size() - 1);
+        if (last.upperBound != null || !FUTURE_PARTITION.equals(last.name)) {
+            logger.warn("分区表最后一个分区不是{}，跳过新建分区: table={}", FUTURE_PARTITION, table);
+            return;
+        }
+        LocalDateTime monthStart = now.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime target = monthStart.plusMonths(monthsAhead + 1L);
+        LocalDateTime bound = partitions.size() > 1 ? partitions.get(partitions.size() - 2).upperBound : monthStart;
+
+        StringBuilder ddl = new StringBuilder("ALTER TABLE ").append(table)
+                .append(" REORGANIZE PARTITION ").append(FUTURE_PARTITION).append(" INTO (");
+        int added = 0;
+        while (bound.isBefore(target)) {
+            LocalDateTime next = bound.plusMonths(1);
+            ddl.append("PARTITION p").append(bound.format(MONTH))
+                    .append(" VALUES LESS THAN ('").append(next.format(BOUND)).append("'), ");
+            bound = next;
+            added++;
+        }
+        if (added == 0) {
+            return;
+        }
+        ddl.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+        jdbcTemplate.execute(ddl.toString());
+        createdPartitions.increment(added);
+        logger.info("新建月分区: table={}, count={}, until={}", table, added, bound);
+    }
+
+    /**
+     * 导出并删除上界不晚于cutoff的分区
+     */
+    void dropExpired(String table, List<Partition> partitions, LocalDateTime cutoff) throws IOException {
+        for (Partition partition : partitions) {
+            if (partition.upperBound == null || partition.upperBound.isAfter(cutoff)) {
+                break;
+            }
+            if (archiveEnabled) {
+                long rows = export(archiveFile(table, partition.name),
+                        "SELECT * FROM " + table + " PARTITION (" + partition.name + ")");
+                logger.info("导出过期分区: table={}, partition={}, rows={}", table, partition.name, rows);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition.name);
+            droppedPartitions.increment();
+            logger.info("删除过期分区: table={}, partition={}", table, partition.name);
+        }
+    }
+
+    /**
+     * 导出并删除user_actions中最早一个过期月份的浏览记录；只处理已汇总（ID不超过汇总水位）的行
+     */
+    void purgeViews(LocalDateTime now) throws IOException {
+        if (viewRetentionMonths <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = now.toLocalDate().withDayOfMonth(1).minusMonths(viewRetentionMonths).atStartOfDay();
+        long maxId = Long.MAX_VALUE;
+        if (rollupEnabled) {
+            List<Long> watermark = jdbcTemplate.queryForList(
+                    "SELECT last_id FROM action_rollup_watermark WHERE name = ?", Long.class, ActionRollups.WATERMARK_NAME);
+            if (watermark.isEmpty()) {
+                return;
+            }
+            maxId = watermark.get(0);
+        }
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+                "SELECT created_at FROM user_actions WHERE action_type = ? AND created_at < ? ORDER BY created_at LIMIT 1",
+                Timestamp.class, UserAction.ActionType.VIEW, Timestamp.valueOf(cutoff));
+        if (oldest.isEmpty()) {
+            return;
+        }
+        LocalDateTime from = oldest.get(0).toLocalDateTime().toLocalDate().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime to = from.plusMonths(1);
+        String where = " WHERE action_type = ? AND created_at >= ? AND created_at < ? AND id <= ?";
+        Object[] args = {UserAction.ActionType.VIEW, Timestamp.valueOf(from), Timestamp.valueOf(to), maxId};
+
+        if (archiveEnabled) {
+            export(archiveFile(USER_ACTIONS_TABLE, "view-" + from.format(MONTH)),
+                    "SELECT id, user_id, target_id, target_type, action_type, created_at FROM user_actions" + where, args);
+        }
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM user_actions" + where + " LIMIT " + deleteBatchSize, args);
+            total += deleted;
+        } while (deleted >= deleteBatchSize);
+        deletedViews.increment(total);
+        logger.info("清理过期浏览记录: month={}, rows={}", from.format(MONTH), total);
+    }
+
+    /**
+     * 把查询结果流式写入gzip CSV，写完后原子改名；没有数据时不生成文件
+     *
+     * @return 导出的行数
+     */
+    long export(Path file, String sql, Object... args) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+            Long count = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                // MySQL驱动按行流式读取，不把整个分区读入内存
+                ps.setFetchSize(Integer.MIN_VALUE);
+                new ArgumentPreparedStatementSetter(args).setValues(ps);
+                return ps;
+            }, rs -> {
+                try {
+                    return writeCsv(rs, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rows = count == null ? 0 : count;
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(tmp);
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        if (rows == 0) {
+            Files.deleteIfExists(tmp);
+            return 0;
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        archivedRows.increment(rows);
+        return rows;
+    }
+
+    static long writeCsv(ResultSet rs, Writer writer) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            writer.write(i == 1 ? "" : ",");
+            writer.write(csv(meta.getColumnLabel(i)));
+        }
+        writer.write('\n');
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                writer.write(i == 1 ? "" : ",");
+                writer.write(csv(rs.getString(i)));
+            }
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0 || value.indexOf('\\') >= 0) {
+            return '"' + value.replace("\\", "\\\\").replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * 归档文件路径；同名文件已存在（上次导出后删除失败）时追加序号，不覆盖已有归档
+     */
+    Path archiveFile(String table, String name) {
+        Path dir = Paths.get(archiveDir, table);
+        Path file = dir.resolve(name + ".csv.gz");
+        for (int i = 1; Files.exists(file); i++) {
+            file = dir.resolve(name + "-" + i + ".csv.gz");
+        }
+        return file;
+    }
+
+    static LocalDateTime parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description.trim())) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value, BOUND);
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,463 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "a85698c8-b894-4ddc-b6c8-d3a0a7e6a4b1"
+//   Timestamp: "2026-10-20T16:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "小时汇总表已按月分区时改由分区维护整区删除"
+//   Quality_Check: "编译通过，未分区时仍逐行清理。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.UserAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 用户行为汇总
+ * 定时把user_actions中新增的行为按(bucket_start, target_type, target_id, action_type)计数，
+ * 累加到action_rollup_hourly与action_rollup_daily两张汇总表，趋势与热门分析只查询汇总表，
+ * 查询成本与原始行为量无关。
+ * <p>
+ * 增量依据user_actions的自增ID：action_rollup_watermark记录已汇总的最大ID，每批汇总与水位更新在同一事务内提交，
+ * 并对水位行加排他锁，多实例同时执行时只有一个实例在汇总。只汇总创建时间早于safety-lag-ms的行，
+ * 避免仍未提交的较小ID在水位越过后被漏掉。
+ * <p>
+ * 取消行为删除记录时，已汇总的行为从对应时间桶中扣减（读取水位时加共享锁，与汇总事务互斥）。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class ActionRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionRollups.class);
+
+    static final String WATERMARK_NAME = "user_actions";
+
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    /**
+     * 汇总粒度
+     */
+    public enum Granularity {
+
+        HOUR("hour", "action_rollup_hourly", ChronoUnit.HOURS),
+        DAY("day", "action_rollup_daily", ChronoUnit.DAYS);
+
+        private final String code;
+
+        private final String table;
+
+        private final ChronoUnit unit;
+
+        Granularity(String code, String table, ChronoUnit unit) {
+            this.code = code;
+            this.table = table;
+            this.unit = unit;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        String table() {
+            return table;
+        }
+
+        /**
+         * 解析粒度参数
+         *
+         * @param code hour/day
+         * @return 粒度，无法识别时返回null
+         */
+        public static Granularity of(String code) {
+            for (Granularity granularity : values()) {
+                if (granularity.code.equalsIgnoreCase(code)) {
+                    return granularity;
+                }
+            }
+            return null;
+        }
+
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public LocalDateTime nextBucket(LocalDateTime bucketStart) {
+            return bucketStart.plus(1, unit);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ActionPartitions actionPartitions;
+
+    @Value("${action-rollup.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每批读取的行为数
+     */
+    @Value("${action-rollup.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * 每次定时任务最多处理的批数，积压时分多个周期追平
+     */
+    @Value("${action-rollup.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    /**
+     * 只汇总创建时间早于该毫秒数的行为
+     */
+    @Value("${action-rollup.safety-lag-ms:60000}")
+    private long safetyLagMs;
+
+    /**
+     * 小时汇总保留天数
+     */
+    @Value("${action-rollup.hourly-retention-days:35}")
+    private int hourlyRetentionDays;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 定时汇总新增行为
+     */
+    @Scheduled(initialDelayString = "${action-rollup.interval-ms:60000}",
+               fixedDelayString = "${action-rollup.interval-ms:60000}")
+    public void scheduledFold() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            fold();
+        } catch (Exception e) {
+            logger.warn("用户行为汇总失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 汇总积压的行为，直到追平或达到单次批数上限
+     *
+     * @return 汇总的行为数
+     */
+    public int fold() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer folded = transactionTemplate.execute(status -> foldBatch());
+            int count = folded == null ? 0 : folded;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.debug("用户行为汇总完成: rows={}", total);
+        }
+        return total;
+    }
+
+    /**
+     * 扣减已汇总的行为（取消行为时调用，需在删除记录的同一事务内）
+     *
+     * @param action 被删除的行为记录
+     */
+    public void retract(UserAction action) {
+        if (!enabled || action.getId() == null || action.getCreatedAt() == null) {
+            return;
+        }
+        List<Long> watermark = jdbcTemplate.queryForList(
+                "SELECT last_id FROM action_rollup_watermark WHERE name = ? LOCK IN SHARE MODE",
+                Long.class, WATERMARK_NAME);
+        if (watermark.isEmpty() || action.getId() > watermark.get(0)) {
+            // 尚未汇总，记录删除后不会再被汇总
+            return;
+        }
+        ActionRow row = new ActionRow(action.getId(), action.getTargetType(), action.getTargetId(),
+                                      action.getActionType(), action.getCreatedAt());
+        for (Granularity granularity : Granularity.values()) {
+            upsert(granularity, aggregate(Collections.singletonList(row), granularity, -1));
+        }
+    }
+
+    /**
+     * 查询某类行为的时间序列
+     *
+     * @param granularity 粒度
+     * @param targetType  目标类型
+     * @param actionType  行为类型
+     * @param targetId    目标ID，为null时统计该类型全部目标
+     * @param from        起始时间（包含）
+     * @param to          结束时间（不包含）
+     * @return 时间桶起点 -> 行为数，没有行为的时间桶不返回
+     */
+    public Map<LocalDateTime, Long> series(Granularity granularity, String targetType, String actionType,
+                                           String targetId, LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("SELECT bucket_start, SUM(action_count) FROM ")
+                .append(granularity.table)
+                .append(" WHERE target_type = ? AND action_type = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(targetType);
+        args.add(actionType);
+        if (targetId != null) {
+            sql.append(" AND target_id = ?");
+            args.add(targetId);
+        }
+        sql.append(" AND bucket_start >= ? AND bucket_start < ? GROUP BY bucket_start ORDER BY bucket_start");
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+
+        Map<LocalDateTime, Long> result = new LinkedHashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            result.put(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2));
+        }, args.toArray());
+        return result;
+    }
+
+    /**
+     * 查询时间范围内行为数最多的目标
+     *
+     * @param granularity 粒度
+     * @param targetType  目标类型
+     * @param actionType  行为类型
+     * @param from        起始时间（包含）
+     * @param to          结束时间（不包含）
+     * @param limit       数量
+     * @return [targetId, 行为数]列表，按行为数降序
+     */
+    public List<Object[]> topTargets(Granularity granularity, String targetType, String actionType,
+                                     LocalDateTime from, LocalDateTime to, int limit) {
+        String sql = "SELECT target_id, SUM(action_count) AS total FROM " + granularity.table
+                + " WHERE target_type = ? AND action_type = ? AND bucket_start >= ? AND bucket_start < ?"
+                + " GROUP BY target_id HAVING total > 0 ORDER BY total DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                targetType, actionType, Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    /**
+     * 定时清理过期的小时汇总（天汇总长期保留）；表已按月分区时由ActionPartitions整区删除
+     */
+    @Scheduled(initialDelayString = "${action-rollup.purge-interval-ms:3600000}",
+               fixedDelayString = "${action-rollup.purge-interval-ms:3600000}")
+    public void purgeHourly() {
+        if (!enabled || actionPartitions.isPartitioned(Granularity.HOUR.table)) {
+            return;
+        }
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM action_rollup_hourly WHERE bucket_start < ? LIMIT 10000",
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(hourlyRetentionDays)));
+            if (deleted > 0) {
+                logger.info("清理过期小时汇总: rows={}", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("清理过期小时汇总失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 直接累加不写入user_actions表的行为计数（浏览），同时更新小时与天汇总
+     *
+     * @param hourlyCounts 按小时桶汇总的计数
+     */
+    void add(Map<RollupKey, Long> hourlyCounts) {
+        if (!enabled || hourlyCounts.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Long> dailyCounts = new HashMap<>();
+        for (Map.Entry<RollupKey, Long> entry : hourlyCounts.entrySet()) {
+            RollupKey key = entry.getKey();
+            dailyCounts.merge(new RollupKey(Granularity.DAY.bucketStart(key.bucketStart), key.targetType,
+                    key.targetId, key.actionType), entry.getValue(), Long::sum);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            upsert(Granularity.HOUR, hourlyCounts);
+            upsert(Granularity.DAY, dailyCounts);
+        });
+    }
+
+    /**
+     * 汇总一批新增行为，在事务内执行
+     *
+     * @return 本批汇总的行为数
+     */
+    private int foldBatch() {
+        long lastId = lockWatermark();
+        List<ActionRow> rows = jdbcTemplate.query(
+                "SELECT id, target_type, target_id, action_type, created_at FROM user_actions "
+                        + "WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new ActionRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                lastId, batchSize);
+        List<ActionRow> settled = settledPrefix(rows, LocalDateTime.now().minus(safetyLagMs, ChronoUnit.MILLIS));
+        if (settled.isEmpty()) {
+            return 0;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            upsert(granularity, aggregate(settled, granularity, 1));
+        }
+        jdbcTemplate.update("UPDATE action_rollup_watermark SET last_id = ?, updated_at = NOW() WHERE name = ?",
+                settled.get(settled.size() - 1).id, WATERMARK_NAME);
+        // 因安全延迟截断的批次小于batchSize，本次执行随即结束，剩余行等待下一周期
+        return settled.size();
+    }
+
+    /**
+     * 读取并锁定水位行，不存在时创建
+     */
+    private long lockWatermark() {
+        String select = "SELECT last_id FROM action_rollup_watermark WHERE name = ? FOR UPDATE";
+        List<Long> lastId = jdbcTemplate.queryForList(select, Long.class, WATERMARK_NAME);
+        if (lastId.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO action_rollup_watermark (name, last_id, updated_at) VALUES (?, 0, NOW()) "
+                    + "ON DUPLICATE KEY UPDATE name = name", WATERMARK_NAME);
+            lastId = jdbcTemplate.queryForList(select, Long.class, WATERMARK_NAME);
+        }
+        return lastId.get(0);
+    }
+
+    private void upsert(Granularity granularity, Map<RollupKey, Long> counts) {
+        List<Map.Entry<RollupKey, Long>> entries = new ArrayList<>(counts.entrySet());
+        for (int from = 0; from < entries.size(); from += UPSERT_CHUNK_SIZE) {
+            List<Map.Entry<RollupKey, Long>> chunk = entries.subList(from,
+                    Math.min(from + UPSERT_CHUNK_SIZE, entries.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(granularity.table)
+                    .append(" (bucket_start, target_type, target_id, action_type, action_count) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 5);
+            for (int i = 0; i < chunk.size(); i++) {
+                RollupKey key = chunk.get(i).getKey();
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+                args.add(Timestamp.valueOf(key.bucketStart));
+                args.add(key.targetType);
+                args.add(key.targetId);
+                args.add(key.actionType);
+                args.add(chunk.get(i).getValue());
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE action_count = action_count + VALUES(action_count)");
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    /**
+     * 取创建时间早于截止时间的连续前缀，遇到较新的行即停止，保证水位之前不留空洞
+     */
+    static List<ActionRow> settledPrefix(List<ActionRow> rows, LocalDateTime cutoff) {
+        int end = 0;
+        while (end < rows.size() && rows.get(end).createdAt.isBefore(cutoff)) {
+            end++;
+        }
+        return rows.subList(0, end);
+    }
+
+    /**
+     * 按时间桶、目标与行为类型计数
+     */
+    static Map<RollupKey, Long> aggregate(List<ActionRow> rows, Granularity granularity, long sign) {
+        Map<RollupKey, Long> counts = new LinkedHashMap<>();
+        for (ActionRow row : rows) {
+            RollupKey key = new RollupKey(granularity.bucketStart(row.createdAt), row.targetType,
+                                          row.targetId, row.actionType);
+            counts.merge(key, sign, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 一条待汇总的行为
+     */
+    static final class ActionRow {
+
+        private final long id;
+
+        private final String targetType;
+
+        private final String targetId;
+
+        private final String actionType;
+
+        private final LocalDateTime createdAt;
+
+        ActionRow(long id, String targetType, String targetId, String actionType, LocalDateTime createdAt) {
+            this.id = id;
+            this.targetType = targetType;
+            this.targetId = targetId;
+            this.actionType = actionType;
+            this.createdAt = createdAt;
+        }
+    }
+
+    static final class RollupKey {
+
+        private final LocalDateTime bucketStart;
+
+        private final String targetType;
+
+        private final String targetId;
+
+        private final String actionType;
+
+        RollupKey(LocalDateTime bucketStart, String targetType, String targetId, String actionType) {
+            this.bucketStart = bucketStart;
+            this.targetType = targetType;
+            this.targetId = targetId;
+            this.actionType = actionType;
+        }
+
+        LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return bucketStart.equals(other.bucketStart) && targetType.equals(other.targetType)
+                    && targetId.equals(other.targetId) && actionType.equals(other.actionType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, targetType, targetId, actionType);
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,380 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "5fdba3c6-541f-446a-b50f-c72f4ba2d9b5"
+//   Timestamp: "2026-10-19T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "内存分段累加统计增量，定时合并为多行upsert批量写入，降低热点行锁竞争"
+//   Quality_Check: "编译通过，内存有上限，停机前刷写，失败增量回填重试。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内容统计写回累加器
+ * 浏览/点赞/收藏/评论/分享的+1不再各自执行一次UPDATE，而是累加到内存中按(contentId, contentType)
+ * 分组的LongAdder，定时把整批增量合并为多行INSERT ... ON DUPLICATE KEY UPDATE写入content_stats。
+ * <p>
+ * 并发模型：当前累加区（Generation）通过AtomicReference发布，刷写时先换上新的累加区，
+ * 再等待仍在旧累加区上写入的线程退出后读取旧累加区，保证增量既不丢失也不重复计入。
+ * 累加区中的内容数达到上限时，add返回false，由调用方回退到直接更新数据库，内存占用因此有上界。
+ * 写入失败的增量回填到当前累加区，在下一周期重试。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class ContentStatsAccumulator implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStatsAccumulator.class);
+
+    /**
+     * 支持累加的行为类型，顺序即计数数组下标
+     */
+    static final String[] ACTIONS = {"view", "like", "favorite", "comment", "share"};
+
+    @Autowired
+    private ContentStatsRepository contentStatsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${content-stats.write-behind.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 单个累加区最多容纳的内容数，超过后新内容回退为直接写库
+     */
+    @Value("${content-stats.write-behind.max-pending-keys:50000}")
+    private int maxPendingKeys;
+
+    /**
+     * 单条upsert语句包含的最大行数
+     */
+    @Value("${content-stats.write-behind.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicReference<Generation> current = new AtomicReference<>(new Generation());
+
+    /**
+     * 保证同一时刻只有一个刷写在执行（定时任务与停机刷写可能重叠）
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong lastFlushLagMs = new AtomicLong();
+
+    private Timer flushTimer;
+
+    private Counter flushedRows;
+
+    private Counter failedFlushes;
+
+    private Counter overflows;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("content.stats.write_behind.pending", this, ContentStatsAccumulator::pendingKeys)
+                .description("尚未刷写的内容数")
+                .register(meterRegistry);
+        Gauge.builder("content.stats.write_behind.lag", this, ContentStatsAccumulator::currentLagMs)
+                .description("最早一条未刷写增量距今的毫秒数")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("content.stats.write_behind.last_flush_lag", lastFlushLagMs, AtomicLong::get)
+                .description("上一次刷写时最早增量的等待毫秒数")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("content.stats.write_behind.flush")
+                .description("刷写耗时")
+                .register(meterRegistry);
+        flushedRows = Counter.builder("content.stats.write_behind.flushed_rows")
+                .description("已刷写的内容行数")
+                .register(meterRegistry);
+        failedFlushes = Counter.builder("content.stats.write_behind.failed_flushes")
+                .description("刷写失败次数")
+                .register(meterRegistry);
+        overflows = Counter.builder("content.stats.write_behind.overflow")
+                .description("累加区已满、回退为直接写库的次数")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 累加一次行为计数
+     *
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @param actionType  行为类型（view/like/favorite/comment/share）
+     * @return 是否已累加；返回false时调用方应直接更新数据库
+     */
+    public boolean add(String contentId, String contentType, String actionType) {
+        int action = actionIndex(actionType);
+        if (!enabled || action < 0) {
+            return false;
+        }
+        StatsKey key = new StatsKey(contentId, contentType);
+        while (true) {
+            Generation generation = current.get();
+            generation.writers.increment();
+            try {
+                if (generation.closed) {
+                    // 刷写已换上新累加区，重新读取
+                    continue;
+                }
+                Counters counters = generation.counters.get(key);
+                if (counters == null) {
+                    if (generation.counters.size() >= maxPendingKeys) {
+                        overflows.increment();
+                        return false;
+                    }
+                    counters = generation.counters.computeIfAbsent(key, k -> new Counters());
+                }
+                counters.adders[action].increment();
+                generation.markFirstWrite();
+                return true;
+            } finally {
+                generation.writers.decrement();
+            }
+        }
+    }
+
+    /**
+     * 定时刷写
+     */
+    @Scheduled(initialDelayString = "${content-stats.write-behind.flush-interval-ms:1000}",
+               fixedDelayString = "${content-stats.write-behind.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * 把当前累加区的增量写入数据库
+     *
+     * @return 写入的内容行数
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Generation generation = current.getAndSet(new Generation());
+            generation.closed = true;
+            awaitWriters(generation);
+            if (generation.counters.isEmpty()) {
+                return 0;
+            }
+
+            long firstWriteAt = generation.firstWriteAt.get();
+            List<ContentStatsDelta> deltas = generation.drain();
+            long start = System.nanoTime();
+            int written = 0;
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                List<ContentStatsDelta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+                try {
+                    contentStatsRepository.batchUpsertIncrements(batch);
+                    written += batch.size();
+                } catch (Exception e) {
+                    failedFlushes.increment();
+                    logger.error("内容统计刷写失败，增量回填下一周期重试: rows={}, error={}",
+                                 batch.size(), e.getMessage(), e);
+                    batch.forEach(this::requeue);
+                }
+            }
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushedRows.increment(written);
+            if (firstWriteAt > 0) {
+                lastFlushLagMs.set(System.currentTimeMillis() - firstWriteAt);
+            }
+            logger.debug("内容统计刷写完成: rows={}, total={}", written, deltas.size());
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停机前刷写剩余增量
+     */
+    @Override
+    public void destroy() {
+        if (!enabled) {
+            return;
+        }
+        int written = flush();
+        int remaining = pendingKeys();
+        if (remaining > 0) {
+            // 失败回填的增量再尝试一次
+            written += flush();
+            remaining = pendingKeys();
+        }
+        logger.info("停机刷写内容统计: rows={}, remaining={}", written, remaining);
+    }
+
+    /**
+     * 尚未刷写的内容数
+     */
+    public int pendingKeys() {
+        return current.get().counters.size();
+    }
+
+    /**
+     * 最早一条未刷写增量距今的毫秒数，没有待刷写增量时为0
+     */
+    public long currentLagMs() {
+        long firstWriteAt = current.get().firstWriteAt.get();
+        return firstWriteAt == 0 ? 0 : System.currentTimeMillis() - firstWriteAt;
+    }
+
+    static int actionIndex(String actionType) {
+        if (actionType == null) {
+            return -1;
+        }
+        for (int i = 0; i < ACTIONS.length; i++) {
+            if (ACTIONS[i].equalsIgnoreCase(actionType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 回填写入失败的增量；回填不受max-pending-keys限制，避免已确认的计数丢失
+     */
+    private void requeue(ContentStatsDelta delta) {
+        long[] values = {delta.getViewCount(), delta.getLikeCount(), delta.getFavoriteCount(),
+                         delta.getCommentCount(), delta.getShareCount()};
+        StatsKey key = new StatsKey(delta.getContentId(), delta.getContentType());
+        while (true) {
+            Generation generation = current.get();
+            generation.writers.increment();
+            try {
+                if (generation.closed) {
+                    continue;
+                }
+                Counters counters = generation.counters.computeIfAbsent(key, k -> new Counters());
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != 0) {
+                        counters.adders[i].add(values[i]);
+                    }
+                }
+                generation.markFirstWrite();
+                return;
+            } finally {
+                generation.writers.decrement();
+            }
+        }
+    }
+
+    /**
+     * 等待仍在旧累加区上写入的线程退出；写入只是几次内存操作，通常自旋即可结束
+     */
+    private static void awaitWriters(Generation generation) {
+        while (generation.writers.sum() != 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 累加区：一个刷写周期内的全部增量
+     */
+    private static final class Generation {
+
+        private final Map<StatsKey, Counters> counters = new ConcurrentHashMap<>();
+
+        /**
+         * 正在该累加区上写入的线程数
+         */
+        private final LongAdder writers = new LongAdder();
+
+        /**
+         * 第一条增量写入时间（epoch毫秒），0表示尚无增量
+         */
+        private final AtomicLong firstWriteAt = new AtomicLong();
+
+        private volatile boolean closed;
+
+        void markFirstWrite() {
+            if (firstWriteAt.get() == 0) {
+                firstWriteAt.compareAndSet(0, System.currentTimeMillis());
+            }
+        }
+
+        List<ContentStatsDelta> drain() {
+            List<ContentStatsDelta> deltas = new ArrayList<>(counters.size());
+            for (Map.Entry<StatsKey, Counters> entry : counters.entrySet()) {
+                LongAdder[] adders = entry.getValue().adders;
+                deltas.add(new ContentStatsDelta(entry.getKey().contentId, entry.getKey().contentType,
+                        adders[0].sum(), adders[1].sum(), adders[2].sum(), adders[3].sum(), adders[4].sum()));
+            }
+            return deltas;
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder[] adders = new LongAdder[ACTIONS.length];
+
+        Counters() {
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+        }
+    }
+
+    private static final class StatsKey {
+
+        private final String contentId;
+
+        private final String contentType;
+
+        StatsKey(String contentId, String contentType) {
+            this.contentId = contentId;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatsKey)) {
+                return false;
+            }
+            StatsKey other = (StatsKey) o;
+            return contentId.equals(other.contentId) && contentType.equals(other.contentType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contentId, contentType);
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
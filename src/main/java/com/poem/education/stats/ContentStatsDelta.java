@@ -0,0 +1,146 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "按内容汇总一批行为，批量写入后每个内容只更新一次统计"
+//   Quality_Check: "编译通过，不可变对象。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.UserAction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内容统计增量
+ * 对应content_stats表中一行在一个刷写周期内（或一批行为中）累积的各项计数增量。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+public final class ContentStatsDelta {
+
+    private final String contentId;
+
+    private final String contentType;
+
+    private final long viewCount;
+
+    private final long likeCount;
+
+    private final long favoriteCount;
+
+    private final long commentCount;
+
+    private final long shareCount;
+
+    public ContentStatsDelta(String contentId, String contentType, long viewCount, long likeCount,
+                             long favoriteCount, long commentCount, long shareCount) {
+        this.contentId = contentId;
+        this.contentType = contentType;
+        this.viewCount = viewCount;
+        this.likeCount = likeCount;
+        this.favoriteCount = favoriteCount;
+        this.commentCount = commentCount;
+        this.shareCount = shareCount;
+    }
+
+    /**
+     * 按内容汇总一组行为，每个内容一条增量
+     *
+     * @param actions 行为列表（不支持的行为类型忽略）
+     * @return 增量，顺序与内容首次出现的顺序一致
+     */
+    public static List<ContentStatsDelta> countActions(Collection<UserAction> actions) {
+        Map<String, ContentStatsDelta> deltas = new LinkedHashMap<>();
+        for (UserAction action : actions) {
+            int index = ContentStatsAccumulator.actionIndex(action.getActionType());
+            if (index < 0) {
+                continue;
+            }
+            long[] counts = new long[ContentStatsAccumulator.ACTIONS.length];
+            counts[index] = 1;
+            ContentStatsDelta single = new ContentStatsDelta(action.getTargetId(), action.getTargetType(),
+                    counts[0], counts[1], counts[2], counts[3], counts[4]);
+            deltas.merge(action.getTargetType() + ":" + action.getTargetId(), single, ContentStatsDelta::plus);
+        }
+        return new ArrayList<>(deltas.values());
+    }
+
+    private ContentStatsDelta plus(ContentStatsDelta other) {
+        return new ContentStatsDelta(contentId, contentType, viewCount + other.viewCount,
+                likeCount + other.likeCount, favoriteCount + other.favoriteCount,
+                commentCount + other.commentCount, shareCount + other.shareCount);
+    }
+
+    /**
+     * 指定行为类型的增量
+     *
+     * @param actionType 行为类型（view/like/favorite/comment/share）
+     * @return 增量，不支持的行为类型返回0
+     */
+    public long getCount(String actionType) {
+        switch (ContentStatsAccumulator.actionIndex(actionType)) {
+            case 0:
+                return viewCount;
+            case 1:
+                return likeCount;
+            case 2:
+                return favoriteCount;
+            case 3:
+                return commentCount;
+            case 4:
+                return shareCount;
+            default:
+                return 0;
+        }
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public long getShareCount() {
+        return shareCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentStatsDelta{" +
+                "contentId='" + contentId + '\'' +
+                ", contentType='" + contentType + '\'' +
+                ", view=" + viewCount +
+                ", like=" + likeCount +
+                ", favorite=" + favoriteCount +
+                ", comment=" + commentCount +
+                ", share=" + shareCount +
+                '}';
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,303 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "f3966f86-a5a6-4611-a109-cea32c230d7d"
+//   Timestamp: "2026-10-20T19:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "Redis不可用时今日浏览量取每日汇总与上一份快照，不再按不写入的user_actions计数"
+//   Quality_Check: "编译通过，浏览跟踪开启时回退值不会归零。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.cache.CorpusChangedEvent;
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+import com.poem.education.entity.mysql.DailyViewRollup;
+import com.poem.education.entity.mysql.UserAction;
+import com.poem.education.repository.mysql.DailyViewRollupRepository;
+import com.poem.education.repository.mysql.UserActionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 全局统计快照
+ * 首页每次加载都会请求/api/v1/stats/global，原实现每次依次执行三个集合的count()和一次MySQL计数。
+ * 现在由定时任务刷新一份不可变快照，请求直接读取内存：
+ * <ul>
+ *   <li>古文/作者/名句总数使用estimatedDocumentCount（读取集合元数据，不扫描文档）</li>
+ *   <li>今日浏览量与独立访客数来自UniqueViewerCounter；Redis不可用时取daily_view_rollup中的今日汇总与上一份快照中较大的值
+ *       （浏览跟踪开启时浏览不写入user_actions，不能再按user_actions计数；关闭时仍按user_actions统计）</li>
+ * </ul>
+ * 语料变更（CorpusChangedEvent）时立即刷新。刷新失败时继续提供上一份快照。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class GlobalStatsSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalStatsSnapshot.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UniqueViewerCounter uniqueViewerCounter;
+
+    @Autowired
+    private UserActionRepository userActionRepository;
+
+    @Autowired
+    private DailyViewRollupRepository dailyViewRollupRepository;
+
+    @Autowired
+    private ViewTracker viewTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 刷新间隔
+     */
+    @Value("${global-stats.refresh-interval-ms:30000}")
+    private long refreshIntervalMs;
+
+    private volatile Snapshot current;
+
+    /**
+     * 首次读取时同步刷新，避免并发请求重复查询
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private Timer refreshTimer;
+
+    private Counter failedRefreshes;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("global.stats.snapshot.staleness", this, GlobalStatsSnapshot::stalenessMs)
+                .description("当前快照距上次刷新的毫秒数")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("global.stats.snapshot.refresh_interval", this, s -> s.refreshIntervalMs)
+                .description("配置的刷新间隔")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        refreshTimer = Timer.builder("global.stats.snapshot.refresh")
+                .description("刷新耗时")
+                .register(meterRegistry);
+        failedRefreshes = Counter.builder("global.stats.snapshot.failed_refreshes")
+                .description("刷新失败次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取当前快照，尚未刷新过时同步刷新一次
+     *
+     * @return 全局统计快照
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        refreshLock.lock();
+        try {
+            if (current == null) {
+                refresh();
+            }
+            return current != null ? current : Snapshot.EMPTY;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 定时刷新
+     */
+    @Scheduled(initialDelayString = "${global-stats.refresh-interval-ms:30000}",
+               fixedDelayString = "${global-stats.refresh-interval-ms:30000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * 语料变更后立即刷新总数
+     *
+     * @param event 语料变更事件
+     */
+    @EventListener
+    public void onCorpusChanged(CorpusChangedEvent event) {
+        if (current != null) {
+            refresh();
+        }
+    }
+
+    /**
+     * 重新统计并替换快照
+     *
+     * @return 是否刷新成功
+     */
+    public boolean refresh() {
+        long start = System.nanoTime();
+        try {
+            long poemCount = estimatedCount(Guwen.class);
+            long writerCount = estimatedCount(Writer.class);
+            long sentenceCount = estimatedCount(Sentence.class);
+
+            DailyViewRollup today = uniqueViewerCounter.getToday();
+            if (today == null) {
+                today = fallbackToday();
+            }
+            long todayViews = today.getViewCount();
+            Long todayUniqueViewers = today.getUniqueViewers();
+
+            current = new Snapshot(poemCount, writerCount, sentenceCount, todayViews, todayUniqueViewers,
+                                   System.currentTimeMillis());
+            logger.debug("全局统计快照已刷新: {}", current);
+            return true;
+        } catch (Exception e) {
+            failedRefreshes.increment();
+            logger.warn("刷新全局统计快照失败，继续使用上一份快照: {}", e.getMessage());
+            return false;
+        } finally {
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Redis计数不可用时的今日浏览统计
+     * 浏览跟踪开启时取daily_view_rollup的今日汇总，并且不低于同一天的上一份快照；关闭时从user_actions统计今日VIEW行为数量。
+     */
+    private DailyViewRollup fallbackToday() {
+        LocalDate date = LocalDate.now(UniqueViewerCounter.ZONE);
+        DailyViewRollup result = new DailyViewRollup();
+        if (!viewTracker.isEnabled()) {
+            result.setViewCount(userActionRepository.countByActionTypeAndCreatedAtAfter(
+                    UserAction.ActionType.VIEW, date.atStartOfDay()));
+            result.setUniqueViewers(null);
+            return result;
+        }
+        long views = 0;
+        Long uniqueViewers = null;
+        DailyViewRollup rollup = dailyViewRollupRepository.findById(date).orElse(null);
+        if (rollup != null) {
+            views = rollup.getViewCount();
+            uniqueViewers = rollup.getUniqueViewers();
+        }
+        Snapshot previous = current;
+        if (previous != null && date.equals(LocalDate.ofInstant(
+                Instant.ofEpochMilli(previous.getRefreshedAt()), UniqueViewerCounter.ZONE))) {
+            views = Math.max(views, previous.getTodayViews());
+            if (previous.getTodayUniqueViewers() != null) {
+                uniqueViewers = uniqueViewers == null ? previous.getTodayUniqueViewers()
+                        : Math.max(uniqueViewers, previous.getTodayUniqueViewers());
+            }
+        }
+        result.setViewCount(views);
+        result.setUniqueViewers(uniqueViewers);
+        return result;
+    }
+
+    /**
+     * 当前快照距上次刷新的毫秒数，尚无快照时为0
+     */
+    public long stalenessMs() {
+        Snapshot snapshot = current;
+        return snapshot == null ? 0 : System.currentTimeMillis() - snapshot.getRefreshedAt();
+    }
+
+    private long estimatedCount(Class<?> entityClass) {
+        return mongoTemplate.estimatedCount(mongoTemplate.getCollectionName(entityClass));
+    }
+
+    /**
+     * 不可变的全局统计快照
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, null, 0);
+
+        private final long poemCount;
+
+        private final long writerCount;
+
+        private final long sentenceCount;
+
+        private final long todayViews;
+
+        /**
+         * 今日独立访客数，Redis不可用时为null
+         */
+        private final Long todayUniqueViewers;
+
+        /**
+         * 刷新时间（epoch毫秒）
+         */
+        private final long refreshedAt;
+
+        Snapshot(long poemCount, long writerCount, long sentenceCount, long todayViews,
+                 Long todayUniqueViewers, long refreshedAt) {
+            this.poemCount = poemCount;
+            this.writerCount = writerCount;
+            this.sentenceCount = sentenceCount;
+            this.todayViews = todayViews;
+            this.todayUniqueViewers = todayUniqueViewers;
+            this.refreshedAt = refreshedAt;
+        }
+
+        public long getPoemCount() {
+            return poemCount;
+        }
+
+        public long getWriterCount() {
+            return writerCount;
+        }
+
+        public long getSentenceCount() {
+            return sentenceCount;
+        }
+
+        public long getTodayViews() {
+            return todayViews;
+        }
+
+        public Long getTodayUniqueViewers() {
+            return todayUniqueViewers;
+        }
+
+        public long getRefreshedAt() {
+            return refreshedAt;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "poemCount=" + poemCount +
+                    ", writerCount=" + writerCount +
+                    ", sentenceCount=" + sentenceCount +
+                    ", todayViews=" + todayViews +
+                    ", todayUniqueViewers=" + todayUniqueViewers +
+                    ", refreshedAt=" + refreshedAt +
+                    '}';
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
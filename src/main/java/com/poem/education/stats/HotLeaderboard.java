@@ -0,0 +1,311 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "b703ad9d-9e70-4a47-9786-639c8f8d5bda"
+//   Timestamp: "2026-10-20T09:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "支持按次数累加排行榜分数"
+//   Quality_Check: "编译通过，单次记录行为不变。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热门内容排行榜
+ * 每个内容类型、每个时间桶（日/周/月）对应一个Redis有序集合：hot:{type}:{period}:{bucket}。
+ * <p>
+ * 时间衰减采用前向衰减（forward decay）：一次行为计入 权重 * 2^((t - 桶起点) / 半衰期)，
+ * 越新的行为分值越高，已有分值无需随时间改写。读取时把当前桶与上一个桶按
+ * 2^(-桶长度 / 半衰期)折算到同一基准后合并（ZUNIONSTORE，结果短时缓存），
+ * 因此新桶刚开始时排行榜不会为空，旧桶的影响随时间平滑衰减。
+ * <p>
+ * 行为权重与ContentStats.calculateHotScore一致：浏览1、点赞3、收藏5、评论2。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class HotLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotLeaderboard.class);
+
+    static final String KEY_PREFIX = "hot:";
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${hot-leaderboard.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每个有序集合保留的最大成员数
+     */
+    @Value("${hot-leaderboard.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 合并结果缓存时间
+     */
+    @Value("${hot-leaderboard.merged-ttl-ms:30000}")
+    private long mergedTtlMs;
+
+    /**
+     * 排行榜时间桶
+     */
+    public enum Period {
+
+        DAILY("daily", Duration.ofHours(6)),
+        WEEKLY("weekly", Duration.ofDays(2)),
+        MONTHLY("monthly", Duration.ofDays(7));
+
+        private final String code;
+
+        /**
+         * 衰减半衰期
+         */
+        private final Duration halfLife;
+
+        Period(String code, Duration halfLife) {
+            this.code = code;
+            this.halfLife = halfLife;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * 解析周期参数，无法识别时按daily处理
+         *
+         * @param code daily/weekly/monthly
+         * @return 周期
+         */
+        public static Period of(String code) {
+            for (Period period : values()) {
+                if (period.code.equalsIgnoreCase(code)) {
+                    return period;
+                }
+            }
+            return DAILY;
+        }
+
+        /**
+         * 包含指定时间的桶起点
+         */
+        ZonedDateTime bucketStart(ZonedDateTime time) {
+            LocalDate date = time.toLocalDate();
+            switch (this) {
+                case WEEKLY:
+                    date = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                    break;
+                case MONTHLY:
+                    date = date.withDayOfMonth(1);
+                    break;
+                default:
+                    break;
+            }
+            return date.atStartOfDay(ZONE);
+        }
+
+        ZonedDateTime previousBucketStart(ZonedDateTime bucketStart) {
+            switch (this) {
+                case WEEKLY:
+                    return bucketStart.minusWeeks(1);
+                case MONTHLY:
+                    return bucketStart.minusMonths(1);
+                default:
+                    return bucketStart.minusDays(1);
+            }
+        }
+
+        String bucketId(ZonedDateTime bucketStart) {
+            return this == MONTHLY ? bucketStart.format(MONTH_FORMAT) : bucketStart.format(DAY_FORMAT);
+        }
+
+        /**
+         * 桶的保留时间：覆盖当前桶与作为上一个桶被读取的时间，再留一天余量
+         */
+        Duration retention() {
+            switch (this) {
+                case WEEKLY:
+                    return Duration.ofDays(15);
+                case MONTHLY:
+                    return Duration.ofDays(63);
+                default:
+                    return Duration.ofDays(3);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次行为，同时更新日/周/月三个排行榜
+     *
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @param actionType  行为类型
+     */
+    public void record(String contentId, String contentType, String actionType) {
+        record(contentId, contentType, actionType, 1);
+    }
+
+    /**
+     * 记录多次同类行为（批量写入时每个内容只更新一次）
+     *
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @param actionType  行为类型
+     * @param count       次数
+     */
+    public void record(String contentId, String contentType, String actionType, long count) {
+        double weight = weight(actionType) * count;
+        if (!enabled || weight <= 0) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Period period : Period.values()) {
+                ZonedDateTime bucketStart = period.bucketStart(now);
+                String key = bucketKey(contentType, period, bucketStart);
+                stringConnection.zIncrBy(key, decayedScore(weight, bucketStart, now, period.halfLife), contentId);
+                stringConnection.pExpire(key, period.retention().toMillis());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 读取热门内容ID
+     *
+     * @param contentType 内容类型
+     * @param period      周期（daily/weekly/monthly）
+     * @param limit       数量
+     * @return 按热度降序排列的内容ID，排行榜为空或Redis不可用时返回空列表
+     */
+    public List<String> topIds(String contentType, String period, int limit) {
+        if (!enabled || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Period resolved = Period.of(period);
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        ZonedDateTime bucketStart = resolved.bucketStart(now);
+        ZonedDateTime previousStart = resolved.previousBucketStart(bucketStart);
+        String currentKey = bucketKey(contentType, resolved, bucketStart);
+        String previousKey = bucketKey(contentType, resolved, previousStart);
+        String mergedKey = currentKey + ":merged";
+
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(mergedKey))) {
+                // 上一个桶的分值以其自身起点为基准，折算到当前桶基准
+                double previousWeight = Math.pow(2, -millisBetween(previousStart, bucketStart)
+                        / (double) resolved.halfLife.toMillis());
+                stringRedisTemplate.opsForZSet().unionAndStore(currentKey, Collections.singletonList(previousKey),
+                        mergedKey, RedisZSetCommands.Aggregate.SUM, RedisZSetCommands.Weights.of(1, previousWeight));
+                stringRedisTemplate.expire(mergedKey, mergedTtlMs, TimeUnit.MILLISECONDS);
+            }
+            Set<String> ids = stringRedisTemplate.opsForZSet().reverseRange(mergedKey, 0, limit - 1);
+            return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+        } catch (Exception e) {
+            logger.warn("读取热门排行榜失败: contentType={}, period={}, error={}", contentType, period, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 定时裁剪当前各桶，只保留分值最高的max-size个成员
+     */
+    @Scheduled(fixedDelayString = "${hot-leaderboard.trim-interval-ms:600000}",
+               initialDelayString = "${hot-leaderboard.trim-interval-ms:600000}")
+    public void trim() {
+        if (!enabled) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String contentType : Arrays.asList("guwen", "sentence", "writer", "creation")) {
+                    for (Period period : Period.values()) {
+                        String key = bucketKey(contentType, period, period.bucketStart(now));
+                        stringConnection.zRemRange(key, 0, -(long) maxSize - 1);
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("热门排行榜裁剪失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 行为权重，不计入热度的行为为0
+     */
+    static double weight(String actionType) {
+        if (actionType == null) {
+            return 0;
+        }
+        switch (actionType.toLowerCase()) {
+            case "view":
+                return 1;
+            case "like":
+                return 3;
+            case "favorite":
+                return 5;
+            case "comment":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 前向衰减分值：weight * 2^((now - bucketStart) / halfLife)
+     */
+    static double decayedScore(double weight, ZonedDateTime bucketStart, ZonedDateTime now, Duration halfLife) {
+        return weight * Math.pow(2, millisBetween(bucketStart, now) / (double) halfLife.toMillis());
+    }
+
+    static String bucketKey(String contentType, Period period, ZonedDateTime bucketStart) {
+        return KEY_PREFIX + contentType + ":" + period.code + ":" + period.bucketId(bucketStart);
+    }
+
+    private static long millisBetween(ZonedDateTime from, ZonedDateTime to) {
+        return Duration.between(Instant.from(from), Instant.from(to)).toMillis();
+    }
+}
+// {{END_MODIFICATIONS}}
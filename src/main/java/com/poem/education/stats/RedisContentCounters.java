@@ -0,0 +1,466 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "e49e9051-b70c-43e2-a9fc-d867678cf0af"
+//   Timestamp: "2026-10-20T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "总数哈希初始化在Lua内原子读取增量，并以对账锁与代次排除交错"
+//   Quality_Check: "编译通过，初始化不会重复计入或遗漏对账中增量。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis内容计数器
+ * <ul>
+ *   <li>stats:content:{type}:{id}：实时总数哈希，首次读取时以MySQL记录+未对账增量初始化，带TTL，过期后重新初始化以校正漂移</li>
+ *   <li>stats:content:delta:{type}:{id}：尚未写入MySQL的增量哈希</li>
+ *   <li>stats:content:dirty：有未对账增量的内容集合</li>
+ *   <li>stats:content:flushing:{type}:{id} / stats:content:inflight：对账中的增量，写库成功后删除，失败时下一周期重试</li>
+ * </ul>
+ * 行为计数在请求线程上只执行一次Lua脚本（HINCRBY），MySQL写入由定时对账任务批量完成。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class RedisContentCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisContentCounters.class);
+
+    static final String TOTALS_PREFIX = "stats:content:";
+
+    static final String DELTA_PREFIX = "stats:content:delta:";
+
+    static final String FLUSHING_PREFIX = "stats:content:flushing:";
+
+    static final String DIRTY_KEY = "stats:content:dirty";
+
+    static final String INFLIGHT_KEY = "stats:content:inflight";
+
+    static final String RECONCILE_LOCK_KEY = "stats:content:reconcile:lock";
+
+    /**
+     * 对账代次：每次对账在释放锁前递增，初始化总数哈希时据此判断期间是否发生过对账
+     */
+    static final String RECONCILE_EPOCH_KEY = "stats:content:reconcile:epoch";
+
+    /**
+     * 计数字段，与ContentStatsAccumulator.ACTIONS一致
+     */
+    static final String[] FIELDS = ContentStatsAccumulator.ACTIONS;
+
+    static final String UPDATED_AT_FIELD = "updatedAt";
+
+    /**
+     * 累加：总数哈希已初始化时同步累加，未初始化时只记录增量（初始化时会计入）
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+            "  redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "  redis.call('HSET', KEYS[1], 'updatedAt', ARGV[4])\n" +
+            "end\n" +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], ARGV[2])\n" +
+            "redis.call('SADD', KEYS[3], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 取出增量：把增量并入对账中哈希，同时从dirty移到inflight，返回对账中哈希
+     */
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SREM', KEYS[3], ARGV[1])\n" +
+            "redis.call('SADD', KEYS[4], ARGV[1])\n" +
+            "local values = redis.call('HGETALL', KEYS[1])\n" +
+            "for i = 1, #values, 2 do\n" +
+            "  redis.call('HINCRBY', KEYS[2], values[i], values[i + 1])\n" +
+            "end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "return redis.call('HGETALL', KEYS[2])", List.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end\n" +
+            "return 0", Long.class);
+
+    /**
+     * 初始化总数哈希：仅在不存在时写入，MySQL基数加上脚本内原子读取的delta与flushing增量
+     * KEYS依次为总数、delta、flushing、对账锁、对账代次；ARGV[1]为TTL毫秒，ARGV[2]为读取MySQL前的对账代次，其后为字段/值对。
+     * 对账进行中或读取MySQL后发生过对账时基数可能已包含（或尚未包含）对账中增量，此时不写入，返回-1。
+     */
+    private static final byte[] SEED_SCRIPT = (
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end\n" +
+            "if redis.call('EXISTS', KEYS[4]) == 1 then return -1 end\n" +
+            "if (redis.call('GET', KEYS[5]) or '0') ~= ARGV[2] then return -1 end\n" +
+            "for i = 3, #ARGV, 2 do\n" +
+            "  local value = ARGV[i + 1]\n" +
+            "  if ARGV[i] ~= 'updatedAt' then\n" +
+            "    value = tonumber(value) + tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0')\n" +
+            "        + tonumber(redis.call('HGET', KEYS[3], ARGV[i]) or '0')\n" +
+            "  end\n" +
+            "  redis.call('HSET', KEYS[1], ARGV[i], value)\n" +
+            "end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1").getBytes(StandardCharsets.UTF_8);
+
+    private static final int SEED_KEYS = 5;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ContentStatsRepository contentStatsRepository;
+
+    @Value("${content-stats.redis.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 总数哈希TTL，过期后从MySQL重新初始化
+     */
+    @Value("${content-stats.redis.totals-ttl-ms:3600000}")
+    private long totalsTtlMs;
+
+    /**
+     * 每个对账周期处理的内容数
+     */
+    @Value("${content-stats.redis.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Value("${content-stats.redis.reconcile-lock-ms:60000}")
+    private long reconcileLockMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 累加一次行为计数
+     *
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @param actionType  行为类型（view/like/favorite/comment/share）
+     * @param increment   增量，可为负数（如删除评论）
+     * @return 是否已记录；行为类型不支持时返回false，Redis异常时抛出
+     */
+    public boolean increment(String contentId, String contentType, String actionType, long increment) {
+        int action = ContentStatsAccumulator.actionIndex(actionType);
+        if (action < 0) {
+            return false;
+        }
+        String member = member(contentType, contentId);
+        stringRedisTemplate.execute(INCREMENT_SCRIPT,
+                Arrays.asList(TOTALS_PREFIX + member, DELTA_PREFIX + member, DIRTY_KEY),
+                FIELDS[action], String.valueOf(increment), member, String.valueOf(System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * 删除内容的实时总数与未对账增量（重置统计后调用），下次读取时从MySQL重新初始化
+     *
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     */
+    public void evict(String contentId, String contentType) {
+        String member = member(contentType, contentId);
+        stringRedisTemplate.delete(Arrays.asList(TOTALS_PREFIX + member, DELTA_PREFIX + member));
+        stringRedisTemplate.opsForSet().remove(DIRTY_KEY, member);
+    }
+
+    /**
+     * 批量读取内容计数
+     * 已初始化的内容通过一次流水线HMGET读取；未初始化的内容批量查询MySQL与未对账增量后写回Redis。
+     *
+     * @param contentType 内容类型
+     * @param contentIds  内容ID
+     * @return 内容ID -> 计数（未持久化的ContentStats对象），顺序与contentIds一致，不存在的内容计数为0
+     */
+    public Map<String, ContentStats> getCounters(String contentType, List<String> contentIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(contentIds));
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> fields = new ArrayList<>(Arrays.asList(FIELDS));
+        fields.add(UPDATED_AT_FIELD);
+        List<Object> totals = hmget(TOTALS_PREFIX, contentType, ids, fields);
+
+        Map<String, ContentStats> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            ContentStats stats = toStats(contentType, ids.get(i), asList(totals.get(i)));
+            if (stats == null) {
+                missing.add(ids.get(i));
+            }
+            result.put(ids.get(i), stats);
+        }
+        if (!missing.isEmpty()) {
+            seed(contentType, missing).forEach(result::put);
+        }
+        return result;
+    }
+
+    /**
+     * 定时对账：把Redis中的增量批量写入content_stats
+     * 通过Redis锁保证同一时刻只有一个节点执行。
+     */
+    @Scheduled(initialDelayString = "${content-stats.redis.reconcile-interval-ms:5000}",
+               fixedDelayString = "${content-stats.redis.reconcile-interval-ms:5000}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("内容计数对账失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行一次对账
+     *
+     * @return 写入MySQL的内容数，未获得锁时为0
+     */
+    public int reconcile() {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(RECONCILE_LOCK_KEY, token, reconcileLockMs, TimeUnit.MILLISECONDS);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        boolean taken = false;
+        try {
+            // 先处理上次写库失败（或进程中断）遗留的对账中增量，再取新增量
+            Set<String> members = new LinkedHashSet<>();
+            Set<String> inflight = stringRedisTemplate.opsForSet().members(INFLIGHT_KEY);
+            if (inflight != null) {
+                members.addAll(inflight);
+            }
+            if (members.size() < reconcileBatchSize) {
+                Set<String> dirty = stringRedisTemplate.opsForSet()
+                        .distinctRandomMembers(DIRTY_KEY, reconcileBatchSize - members.size());
+                if (dirty != null) {
+                    members.addAll(dirty);
+                }
+            }
+            if (members.isEmpty()) {
+                return 0;
+            }
+
+            taken = true;
+            List<ContentStatsDelta> deltas = new ArrayList<>(members.size());
+            for (String member : members) {
+                List<?> values = stringRedisTemplate.execute(TAKE_SCRIPT,
+                        Arrays.asList(DELTA_PREFIX + member, FLUSHING_PREFIX + member, DIRTY_KEY, INFLIGHT_KEY),
+                        member);
+                ContentStatsDelta delta = toDelta(member, values);
+                if (delta != null) {
+                    deltas.add(delta);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                contentStatsRepository.batchUpsertIncrements(deltas);
+            }
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String member : members) {
+                    stringConnection.del(FLUSHING_PREFIX + member);
+                    stringConnection.sRem(INFLIGHT_KEY, member);
+                }
+                return null;
+            });
+            logger.debug("内容计数对账完成: members={}, rows={}", members.size(), deltas.size());
+            return deltas.size();
+        } finally {
+            if (taken) {
+                stringRedisTemplate.opsForValue().increment(RECONCILE_EPOCH_KEY);
+            }
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(RECONCILE_LOCK_KEY), token);
+        }
+    }
+
+    /**
+     * 初始化缺失的总数哈希：MySQL记录 + 未对账增量（delta与flushing）
+     * 增量在SEED_SCRIPT内与写入原子读取，并以对账代次排除与对账交错的情况；未写入时本次返回值仍按非原子读取计算，下次读取重新初始化。
+     */
+    private Map<String, ContentStats> seed(String contentType, List<String> ids) {
+        String epoch = stringRedisTemplate.opsForValue().get(RECONCILE_EPOCH_KEY);
+        byte[] epochArg = bytes(epoch == null ? "0" : epoch);
+        Map<String, ContentStats> persisted = new HashMap<>();
+        for (ContentStats stats : contentStatsRepository.findByContentTypeAndContentIdIn(contentType, ids)) {
+            persisted.put(stats.getContentId(), stats);
+        }
+        List<String> fields = Arrays.asList(FIELDS);
+        List<Object> pending = hmget(DELTA_PREFIX, contentType, ids, fields);
+        List<Object> flushing = hmget(FLUSHING_PREFIX, contentType, ids, fields);
+
+        Map<String, ContentStats> seeded = new LinkedHashMap<>();
+        List<byte[][]> seedArgs = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String contentId = ids.get(i);
+            ContentStats base = persisted.get(contentId);
+            long[] baseCounts = base == null ? new long[FIELDS.length] : new long[]{
+                    nullToZero(base.getViewCount()), nullToZero(base.getLikeCount()),
+                    nullToZero(base.getFavoriteCount()), nullToZero(base.getCommentCount()),
+                    nullToZero(base.getShareCount())};
+            long[] counts = baseCounts.clone();
+            add(counts, asList(pending.get(i)));
+            add(counts, asList(flushing.get(i)));
+            LocalDateTime lastUpdated = base == null || base.getLastUpdated() == null
+                    ? LocalDateTime.now() : base.getLastUpdated();
+            seeded.put(contentId, newStats(contentType, contentId, counts, lastUpdated));
+
+            String member = member(contentType, contentId);
+            byte[][] keysAndArgs = new byte[SEED_KEYS + 2 + (FIELDS.length + 1) * 2][];
+            int n = 0;
+            keysAndArgs[n++] = bytes(TOTALS_PREFIX + member);
+            keysAndArgs[n++] = bytes(DELTA_PREFIX + member);
+            keysAndArgs[n++] = bytes(FLUSHING_PREFIX + member);
+            keysAndArgs[n++] = bytes(RECONCILE_LOCK_KEY);
+            keysAndArgs[n++] = bytes(RECONCILE_EPOCH_KEY);
+            keysAndArgs[n++] = bytes(String.valueOf(totalsTtlMs));
+            keysAndArgs[n++] = epochArg;
+            for (int f = 0; f < FIELDS.length; f++) {
+                keysAndArgs[n++] = bytes(FIELDS[f]);
+                keysAndArgs[n++] = bytes(String.valueOf(baseCounts[f]));
+            }
+            keysAndArgs[n++] = bytes(UPDATED_AT_FIELD);
+            keysAndArgs[n] = bytes(String.valueOf(lastUpdated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+            seedArgs.add(keysAndArgs);
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[][] keysAndArgs : seedArgs) {
+                connection.scriptingCommands().eval(SEED_SCRIPT, ReturnType.INTEGER, SEED_KEYS, keysAndArgs);
+            }
+            return null;
+        });
+        return seeded;
+    }
+
+    /**
+     * 流水线批量HMGET，一次往返读取多个内容的计数哈希
+     */
+    private List<Object> hmget(String prefix, String contentType, List<String> ids, List<String> fields) {
+        String[] fieldArray = fields.toArray(new String[0]);
+        return stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String contentId : ids) {
+                stringConnection.hMGet(prefix + member(contentType, contentId), fieldArray);
+            }
+            return null;
+        });
+    }
+
+    private static ContentStats toStats(String contentType, String contentId, List<?> values) {
+        if (values == null || values.stream().allMatch(value -> value == null)) {
+            return null;
+        }
+        long[] counts = new long[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            counts[i] = parseLong(values.get(i));
+        }
+        Object updatedAt = values.size() > FIELDS.length ? values.get(FIELDS.length) : null;
+        LocalDateTime lastUpdated = updatedAt == null ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(parseLong(updatedAt)), ZoneId.systemDefault());
+        return newStats(contentType, contentId, counts, lastUpdated);
+    }
+
+    /**
+     * HGETALL结果（字段/值交替）转为增量，全部为0时返回null
+     */
+    static ContentStatsDelta toDelta(String member, List<?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        long[] counts = new long[FIELDS.length];
+        for (int i = 0; i + 1 < values.size(); i += 2) {
+            int action = ContentStatsAccumulator.actionIndex(String.valueOf(values.get(i)));
+            if (action >= 0) {
+                counts[action] += parseLong(values.get(i + 1));
+            }
+        }
+        if (Arrays.stream(counts).allMatch(count -> count == 0)) {
+            return null;
+        }
+        int separator = member.indexOf(':');
+        return new ContentStatsDelta(member.substring(separator + 1), member.substring(0, separator),
+                counts[0], counts[1], counts[2], counts[3], counts[4]);
+    }
+
+    private static ContentStats newStats(String contentType, String contentId, long[] counts,
+                                         LocalDateTime lastUpdated) {
+        ContentStats stats = new ContentStats(contentId, contentType);
+        stats.setViewCount(counts[0]);
+        stats.setLikeCount(counts[1]);
+        stats.setFavoriteCount(counts[2]);
+        stats.setCommentCount(counts[3]);
+        stats.setShareCount(counts[4]);
+        stats.setLastUpdated(lastUpdated);
+        return stats;
+    }
+
+    private static void add(long[] counts, List<?> values) {
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < counts.length && i < values.size(); i++) {
+            counts[i] += parseLong(values.get(i));
+        }
+    }
+
+    private static List<?> asList(Object value) {
+        return value instanceof List ? (List<?>) value : null;
+    }
+
+    private static long parseLong(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    static String member(String contentType, String contentId) {
+        return contentType + ":" + contentId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,222 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "2ef1bbaa-4500-4226-a38f-b7bed34cfb67"
+//   Timestamp: "2026-10-20T21:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "内容独立读者键写入时续期TTL，长期无人阅读的键自动过期"
+//   Quality_Check: "编译通过，Redis中的HyperLogLog键数量有界。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.DailyViewRollup;
+import com.poem.education.repository.mysql.DailyViewRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 独立访客计数
+ * 基于Redis HyperLogLog（PFADD/PFCOUNT）估算独立访客数，每个键最多占用12KB，标准误差约0.81%：
+ * <ul>
+ *   <li>uv:day:{yyyyMMdd}：当日独立访客</li>
+ *   <li>uv:content:{type}:{id}：内容累计独立读者</li>
+ *   <li>pv:day:{yyyyMMdd}：当日浏览量（启用浏览跟踪时为去重窗口内只计一次的浏览次数）</li>
+ * </ul>
+ * 按天的键只保留retention-days天，定时任务把当日与前一日的数值汇总写入daily_view_rollup表。
+ * 内容键每次写入时把TTL续期为content-retention-days天，连续这么久无人阅读的内容键自动过期，之后从0重新累计。
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@Component
+public class UniqueViewerCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueViewerCounter.class);
+
+    static final String DAY_VIEWERS_PREFIX = "uv:day:";
+
+    static final String CONTENT_VIEWERS_PREFIX = "uv:content:";
+
+    static final String DAY_VIEWS_PREFIX = "pv:day:";
+
+    static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private DailyViewRollupRepository dailyViewRollupRepository;
+
+    @Value("${unique-viewers.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 按天的键保留天数
+     */
+    @Value("${unique-viewers.retention-days:3}")
+    private int retentionDays;
+
+    /**
+     * 内容键在最后一次写入后的保留天数
+     */
+    @Value("${unique-viewers.content-retention-days:90}")
+    private int contentRetentionDays;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次浏览
+     *
+     * @param userId      用户ID
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @param newRecord   是否计为一次浏览（去重窗口内或已有浏览记录时为false，不计入当日浏览量）
+     */
+    public void recordView(Long userId, String contentId, String contentType, boolean newRecord) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        String member = String.valueOf(userId);
+        String day = LocalDate.now(ZONE).format(DAY_FORMAT);
+        long ttlSeconds = Duration.ofDays(retentionDays).getSeconds();
+        long contentTtlSeconds = Duration.ofDays(contentRetentionDays).getSeconds();
+        String contentKey = contentViewersKey(contentType, contentId);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.pfAdd(DAY_VIEWERS_PREFIX + day, member);
+            stringConnection.expire(DAY_VIEWERS_PREFIX + day, ttlSeconds);
+            stringConnection.pfAdd(contentKey, member);
+            stringConnection.expire(contentKey, contentTtlSeconds);
+            if (newRecord) {
+                stringConnection.incr(DAY_VIEWS_PREFIX + day);
+                stringConnection.expire(DAY_VIEWS_PREFIX + day, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 获取当日浏览量与独立访客数
+     * Redis中的当日计数丢失（如重启）时，取已汇总到daily_view_rollup的值
+     *
+     * @return 当日汇总；未启用或Redis不可用时返回null，由调用方回退到数据库统计
+     */
+    public DailyViewRollup getToday() {
+        if (!enabled) {
+            return null;
+        }
+        LocalDate today = LocalDate.now(ZONE);
+        try {
+            DailyViewRollup summary = readFromRedis(today);
+            if (summary.getViewCount() == 0) {
+                dailyViewRollupRepository.findById(today).ifPresent(rollup -> {
+                    summary.setViewCount(Math.max(summary.getViewCount(), rollup.getViewCount()));
+                    summary.setUniqueViewers(Math.max(summary.getUniqueViewers(), rollup.getUniqueViewers()));
+                });
+            }
+            return summary;
+        } catch (Exception e) {
+            logger.warn("读取当日浏览统计失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 批量获取内容的独立读者数
+     *
+     * @param contentType 内容类型
+     * @param contentIds  内容ID列表
+     * @return 与contentIds顺序一致的独立读者数；未启用或Redis不可用时返回null
+     */
+    public List<Long> getUniqueViewers(String contentType, List<String> contentIds) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String contentId : contentIds) {
+                    stringConnection.pfCount(contentViewersKey(contentType, contentId));
+                }
+                return null;
+            });
+            List<Long> counts = new ArrayList<>(results.size());
+            for (Object result : results) {
+                counts.add(toLong(result));
+            }
+            return counts;
+        } catch (Exception e) {
+            logger.warn("读取独立读者数失败: contentType={}, error={}", contentType, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 定时把当日与前一日的数值汇总写入daily_view_rollup
+     * 前一日也重新汇总一次，覆盖零点前最后一个周期内的增量
+     */
+    @Scheduled(fixedDelayString = "${unique-viewers.rollup-interval-ms:300000}",
+               initialDelayString = "${unique-viewers.rollup-interval-ms:300000}")
+    public void rollup() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZONE);
+        for (LocalDate date : Arrays.asList(today.minusDays(1), today)) {
+            try {
+                DailyViewRollup summary = readFromRedis(date);
+                if (summary.getViewCount() > 0 || summary.getUniqueViewers() > 0) {
+                    dailyViewRollupRepository.upsertMax(date, summary.getViewCount(), summary.getUniqueViewers());
+                }
+            } catch (Exception e) {
+                logger.warn("每日浏览汇总失败: date={}, error={}", date, e.getMessage());
+            }
+        }
+    }
+
+    private DailyViewRollup readFromRedis(LocalDate date) {
+        String day = date.format(DAY_FORMAT);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.get(DAY_VIEWS_PREFIX + day);
+            stringConnection.pfCount(DAY_VIEWERS_PREFIX + day);
+            return null;
+        });
+        DailyViewRollup summary = new DailyViewRollup();
+        summary.setStatDate(date);
+        summary.setViewCount(toLong(results.get(0)));
+        summary.setUniqueViewers(toLong(results.get(1)));
+        return summary;
+    }
+
+    static String contentViewersKey(String contentType, String contentId) {
+        return CONTENT_VIEWERS_PREFIX + contentType + ":" + contentId;
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+}
+// {{END_MODIFICATIONS}}
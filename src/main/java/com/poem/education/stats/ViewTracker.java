@@ -0,0 +1,214 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "3d907ce3-0b33-44ab-a98c-157dd66fa6e5"
+//   Timestamp: "2026-10-20T11:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "浏览不落user_actions表：Redis TTL键去重，计数直接累加，原始事件按比例采样"
+//   Quality_Check: "编译通过，Redis不可用时按未去重计数，汇总写入失败时回填。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 浏览跟踪
+ * 浏览量远大于点赞、收藏，逐条写入user_actions会让该表及其索引随每次阅读增长。启用后浏览不再写入user_actions：
+ * <ul>
+ *   <li>去重：view:seen:{type}:{id}:{userId}以SET NX PX写入，去重窗口内同一用户重复浏览同一内容只计一次</li>
+ *   <li>计数：计入的浏览由调用方累加到内容统计与当日浏览量；按小时汇总的计数在内存中合并，定时写入行为汇总表</li>
+ *   <li>采样：按sample-rate把原始浏览事件写入view-events日志（只追加），供离线分析</li>
+ * </ul>
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@Component
+public class ViewTracker implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewTracker.class);
+
+    /**
+     * 采样的原始浏览事件，可在日志配置中单独输出到文件
+     */
+    private static final Logger viewEvents = LoggerFactory.getLogger("view-events");
+
+    static final String SEEN_PREFIX = "view:seen:";
+
+    private static final String VIEW = "view";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ActionRollups actionRollups;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${view-tracking.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 去重窗口
+     */
+    @Value("${view-tracking.dedup-window-ms:1800000}")
+    private long dedupWindowMs;
+
+    /**
+     * 原始浏览事件采样比例（0到1，0为不采样）
+     */
+    @Value("${view-tracking.sample-rate:0}")
+    private double sampleRate;
+
+    /**
+     * 按小时桶合并的待写入浏览数
+     */
+    private final Map<ActionRollups.RollupKey, Long> pending = new ConcurrentHashMap<>();
+
+    private Counter counted;
+
+    private Counter deduplicated;
+
+    private Counter sampled;
+
+    @PostConstruct
+    public void init() {
+        counted = Counter.builder("view_tracking.views")
+                .tag("result", "counted")
+                .description("计入的浏览数")
+                .register(meterRegistry);
+        deduplicated = Counter.builder("view_tracking.views")
+                .tag("result", "deduplicated")
+                .description("去重窗口内重复、不计入的浏览数")
+                .register(meterRegistry);
+        sampled = Counter.builder("view_tracking.sampled")
+                .description("写入view-events日志的浏览事件数")
+                .register(meterRegistry);
+        Gauge.builder("view_tracking.pending_buckets", pending, Map::size)
+                .description("等待写入行为汇总表的内容小时桶数")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 跟踪一次浏览
+     *
+     * @param userId      用户ID
+     * @param contentId   内容ID
+     * @param contentType 内容类型
+     * @return 是否计为一次浏览；去重窗口内的重复浏览返回false
+     */
+    public boolean track(Long userId, String contentId, String contentType) {
+        boolean isNew = firstInWindow(userId, contentId, contentType);
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            viewEvents.info("ts={} user={} type={} id={} counted={}",
+                    System.currentTimeMillis(), userId, contentType, contentId, isNew);
+            sampled.increment();
+        }
+        if (!isNew) {
+            deduplicated.increment();
+            return false;
+        }
+        counted.increment();
+        if (actionRollups.isEnabled()) {
+            LocalDateTime bucketStart = ActionRollups.Granularity.HOUR.bucketStart(LocalDateTime.now());
+            pending.merge(new ActionRollups.RollupKey(bucketStart, contentType, contentId, VIEW), 1L, Long::sum);
+        }
+        return true;
+    }
+
+    /**
+     * 定时把合并的浏览数写入行为汇总表
+     */
+    @Scheduled(initialDelayString = "${view-tracking.flush-interval-ms:60000}",
+               fixedDelayString = "${view-tracking.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("浏览汇总写入失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入合并的浏览数，失败时回填，下次重试
+     *
+     * @return 写入的内容小时桶数
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // 逐键remove：与merge对同一键原子互斥，刷写期间新到的浏览计入新条目，不会丢失
+        Map<ActionRollups.RollupKey, Long> batch = new HashMap<>();
+        for (ActionRollups.RollupKey key : pending.keySet()) {
+            Long count = pending.remove(key);
+            if (count != null) {
+                batch.put(key, count);
+            }
+        }
+        try {
+            actionRollups.add(batch);
+        } catch (RuntimeException e) {
+            batch.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("停机时浏览汇总写入失败: buckets={}, error={}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 是否为去重窗口内的首次浏览；Redis不可用时按首次浏览处理
+     */
+    private boolean firstInWindow(Long userId, String contentId, String contentType) {
+        if (userId == null) {
+            return true;
+        }
+        try {
+            Boolean first = stringRedisTemplate.opsForValue().setIfAbsent(
+                    seenKey(userId, contentId, contentType), "1", Duration.ofMillis(dedupWindowMs));
+            return !Boolean.FALSE.equals(first);
+        } catch (Exception e) {
+            logger.debug("浏览去重失败，按首次浏览计数: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    static String seenKey(Long userId, String contentId, String contentType) {
+        return SEEN_PREFIX + contentType + ":" + contentId + ":" + userId;
+    }
+}
+// {{END_MODIFICATIONS}}
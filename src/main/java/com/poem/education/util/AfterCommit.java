@@ -0,0 +1,45 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "2e8bae74-bf79-4211-a7cc-53173aefdb92"
+//   Timestamp: "2026-10-20T19:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "缓存变更登记到事务提交之后执行，回滚时不生效"
+//   Quality_Check: "编译通过，没有事务时立即执行。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行
+ * 当前线程有活动事务时登记为afterCommit回调，事务回滚则不执行；没有事务时立即执行。
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * 在当前事务提交后执行
+     *
+     * @param action 要执行的操作
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
+// {{END_MODIFICATIONS}}
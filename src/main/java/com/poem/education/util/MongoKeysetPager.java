@@ -0,0 +1,144 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "1c10030a-8254-40a0-823a-f2b21fc50343"
+//   Timestamp: "2026-10-17T16:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "keyset分页：以(排序键, _id)为边界条件代替skip，深分页代价恒定"
+//   Quality_Check: "编译通过，排序键为null的数据按MongoDB排序规则正确衔接。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.util;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * MongoDB keyset分页工具
+ * 按(sortField, _id)排序，下一页条件为“排序键越过上一页末尾，或排序键相同且_id越过”，
+ * 多取一条判断是否还有下一页，全程不执行skip和count。
+ * 注意：MongoDB中null排在所有值之前，降序时null数据位于末尾。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class MongoKeysetPager {
+
+    private static final String ID_FIELD = "id";
+
+    private MongoKeysetPager() {
+    }
+
+    /**
+     * 查询一页数据
+     *
+     * @param mongoTemplate MongoTemplate
+     * @param entityClass   实体类型
+     * @param filter        业务过滤条件，可为null
+     * @param sortField     排序字段（实体属性名），为"id"时仅按_id排序
+     * @param direction     排序方向，_id与排序字段同向
+     * @param cursor        上一页返回的游标，第一页为null或空串
+     * @param size          每页大小
+     * @param sortValueOf   从实体中读取排序键
+     * @param idOf          从实体中读取ID
+     * @param <T>           实体类型
+     * @return 当前页数据及下一页游标
+     */
+    public static <T> Slice<T> fetch(MongoTemplate mongoTemplate, Class<T> entityClass, Criteria filter,
+                                     String sortField, Sort.Direction direction, String cursor, int size,
+                                     Function<T, Object> sortValueOf, Function<T, String> idOf) {
+        boolean idOnly = ID_FIELD.equals(sortField);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        List<Criteria> conditions = new ArrayList<>(2);
+        if (filter != null) {
+            conditions.add(filter);
+        }
+        if (pageCursor != null) {
+            conditions.add(idOnly
+                    ? afterId(pageCursor.getId(), direction)
+                    : after(sortField, pageCursor.getSortValue(), pageCursor.getId(), direction));
+        }
+
+        Query query = new Query();
+        if (conditions.size() == 1) {
+            query.addCriteria(conditions.get(0));
+        } else if (conditions.size() > 1) {
+            query.addCriteria(new Criteria().andOperator(conditions.toArray(new Criteria[0])));
+        }
+        Sort sort = idOnly ? Sort.by(direction, ID_FIELD) : Sort.by(direction, sortField, ID_FIELD);
+        query.with(sort).limit(size + 1);
+
+        List<T> content = mongoTemplate.find(query, entityClass);
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            T last = content.get(size - 1);
+            nextCursor = PageCursor.encode(idOf.apply(last), idOnly ? null : sortValueOf.apply(last));
+        }
+        return new Slice<>(content, nextCursor);
+    }
+
+    private static Criteria afterId(String lastId, Sort.Direction direction) {
+        return direction.isAscending()
+                ? Criteria.where(ID_FIELD).gt(lastId)
+                : Criteria.where(ID_FIELD).lt(lastId);
+    }
+
+    private static Criteria after(String field, Object lastValue, String lastId, Sort.Direction direction) {
+        if (direction.isAscending()) {
+            if (lastValue == null) {
+                // null排在最前：先取剩余的null数据，再取全部非null数据
+                return new Criteria().orOperator(
+                        new Criteria().andOperator(Criteria.where(field).is(null), afterId(lastId, direction)),
+                        Criteria.where(field).ne(null));
+            }
+            return new Criteria().orOperator(
+                    Criteria.where(field).gt(lastValue),
+                    new Criteria().andOperator(Criteria.where(field).is(lastValue), afterId(lastId, direction)));
+        }
+
+        if (lastValue == null) {
+            // 降序时null排在最后：只剩下_id更小的null数据
+            return new Criteria().andOperator(Criteria.where(field).is(null), afterId(lastId, direction));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).lt(lastValue),
+                new Criteria().andOperator(Criteria.where(field).is(lastValue), afterId(lastId, direction)),
+                Criteria.where(field).is(null));
+    }
+
+    /**
+     * keyset分页结果
+     *
+     * @param <T> 实体类型
+     */
+    public static final class Slice<T> {
+
+        private final List<T> content;
+
+        private final String nextCursor;
+
+        private Slice(List<T> content, String nextCursor) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<T> getContent() {
+            return content;
+        }
+
+        /**
+         * 下一页游标，没有下一页时为null
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
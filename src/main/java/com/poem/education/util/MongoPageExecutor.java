@@ -0,0 +1,131 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "6806e871-6ba8-41c0-869d-7cd9186a530b"
+//   Timestamp: "2026-10-17T18:40:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "分页查询与count解耦：无总数模式不count，近似模式count结果短期缓存"
+//   Quality_Check: "编译通过，EXACT模式与Spring Data Page语义一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.util;
+
+import com.poem.education.dto.request.CountMode;
+import com.poem.education.dto.response.PageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MongoDB分页查询执行器
+ * 按CountMode决定总数的获取方式：
+ * EXACT执行count；NONE多查一条判断是否有下一页；
+ * APPROXIMATE多查一条，总数取自按“集合+过滤条件”缓存的count结果。
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@Component
+public class MongoPageExecutor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MongoPageExecutor.class);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * 近似总数缓存有效期（毫秒）
+     */
+    @Value("${pagination.count-cache.ttl-ms:60000}")
+    private long countCacheTtlMs;
+    
+    /**
+     * 近似总数缓存最大条目数
+     */
+    @Value("${pagination.count-cache.max-entries:10000}")
+    private int countCacheMaxEntries;
+    
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+    
+    /**
+     * 执行分页查询
+     * 
+     * @param query 查询条件（含排序，不含分页）
+     * @param entityClass 实体类型
+     * @param page 页码（从1开始）
+     * @param size 每页大小
+     * @param countMode 总数统计模式
+     * @param <T> 实体类型
+     * @return 实体分页结果
+     */
+    public <T> PageResult<T> find(Query query, Class<T> entityClass, int page, int size, CountMode countMode) {
+        long offset = (long) (page - 1) * size;
+        
+        if (countMode == CountMode.EXACT) {
+            long total = mongoTemplate.count(Query.of(query).limit(0).skip(0), entityClass);
+            List<T> content = offset >= total ? new ArrayList<>()
+                    : mongoTemplate.find(Query.of(query).skip(offset).limit(size), entityClass);
+            return PageResult.of(content, page, size, total);
+        }
+        
+        List<T> content = mongoTemplate.find(Query.of(query).skip(offset).limit(size + 1), entityClass);
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, size));
+        }
+        
+        if (countMode == CountMode.NONE) {
+            return PageResult.ofSlice(content, page, size, hasNext);
+        }
+        
+        // 缓存的总数可能已过时，至少不小于当前已确认存在的数据量
+        long known = offset + content.size() + (hasNext ? 1 : 0);
+        long total = Math.max(cachedCount(query, entityClass), known);
+        return PageResult.ofApproximate(content, page, size, total, hasNext);
+    }
+    
+    private long cachedCount(Query query, Class<?> entityClass) {
+        String key = mongoTemplate.getCollectionName(entityClass) + ":" + query.getQueryObject().toJson();
+        long now = System.currentTimeMillis();
+        
+        CachedCount cached = countCache.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        
+        long count = mongoTemplate.count(Query.of(query).limit(0).skip(0), entityClass);
+        if (countCache.size() >= countCacheMaxEntries) {
+            countCache.values().removeIf(entry -> entry.expiresAt <= now);
+            if (countCache.size() >= countCacheMaxEntries) {
+                logger.debug("近似总数缓存已满，清空: size={}", countCache.size());
+                countCache.clear();
+            }
+        }
+        countCache.put(key, new CachedCount(count, now + countCacheTtlMs));
+        return count;
+    }
+    
+    /**
+     * 缓存的count结果
+     */
+    private static final class CachedCount {
+        
+        private final long value;
+        
+        private final long expiresAt;
+        
+        private CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,109 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "1c10030a-8254-40a0-823a-f2b21fc50343"
+//   Timestamp: "2026-10-17T16:30:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "不透明游标：排序键+_id编码为base64url，客户端无需理解其结构"
+//   Quality_Check: "编译通过，编码解码往返一致，非法游标返回400。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.util;
+
+import com.poem.education.constant.ErrorCode;
+import com.poem.education.exception.BusinessException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 分页游标
+ * 记录上一页最后一条数据的排序键和ID，用于keyset(search-after)分页。
+ * 编码格式：base64url("id|类型|值")，类型 t=LocalDateTime、s=String、n=null。
+ *
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 上一页最后一条数据的ID
+     */
+    private final String id;
+
+    /**
+     * 上一页最后一条数据的排序键
+     */
+    private final Object sortValue;
+
+    private PageCursor(String id, Object sortValue) {
+        this.id = id;
+        this.sortValue = sortValue;
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param id        最后一条数据的ID
+     * @param sortValue 最后一条数据的排序键，支持LocalDateTime、String、null
+     * @return 游标字符串
+     */
+    public static String encode(String id, Object sortValue) {
+        String value;
+        if (sortValue == null) {
+            value = "n" + SEPARATOR;
+        } else if (sortValue instanceof LocalDateTime) {
+            value = "t" + SEPARATOR + sortValue;
+        } else if (sortValue instanceof String) {
+            value = "s" + SEPARATOR + sortValue;
+        } else {
+            throw new IllegalArgumentException("不支持的游标排序键类型: " + sortValue.getClass().getName());
+        }
+        String raw = id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标，cursor为空时返回null（表示第一页）
+     * @throws BusinessException 游标格式非法
+     */
+    public static PageCursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || parts[0].isEmpty()) {
+                throw new IllegalArgumentException("游标字段数量不正确");
+            }
+            switch (parts[1]) {
+                case "n":
+                    return new PageCursor(parts[0], null);
+                case "t":
+                    return new PageCursor(parts[0], LocalDateTime.parse(parts[2]));
+                case "s":
+                    return new PageCursor(parts[0], parts[2]);
+                default:
+                    throw new IllegalArgumentException("未知的排序键类型: " + parts[1]);
+            }
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,114 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "a9d595e2-f2fe-4f09-b8d0-7871d5db6687"
+//   Timestamp: "2026-10-18T19:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "同一键的并发加载合并为一次，其余调用方共享进行中的结果"
+//   Quality_Check: "编译通过，加载异常传递给所有等待方，完成后立即移除不缓存结果。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并（single-flight）
+ * 同一键同时只有一个加载在执行，并发到达的调用方等待并共享这次加载的结果；
+ * 加载完成后立即移除，不充当缓存，之后的调用会重新加载。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行加载，同一键已有加载在进行时等待其结果
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 在指定线程池中异步加载，同一键已有加载在进行时直接返回
+     *
+     * @param key      键
+     * @param loader   加载函数
+     * @param executor 线程池
+     * @return 是否提交了新的加载
+     */
+    public boolean executeAsync(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(loader.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    /**
+     * 进行中的加载数量
+     *
+     * @return 数量
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,47 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "3810039e-8301-46a3-b283-9c429a55a6a5"
+//   Timestamp: "2026-10-18T23:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "命中响应体字节缓存时直接写出预序列化字节"
+//   Quality_Check: "编译通过，仅成功响应写入缓存。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 条件GET
+ * 标注在只读语料接口上：ETag由语料版本号生成，请求携带的If-None-Match与之匹配时
+ * 由ConditionalGetInterceptor直接返回304，不进入Controller/Service，也不序列化响应体。
+ * 只适用于响应内容完全由语料数据决定的接口（热门、随机等接口不能使用）。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    /**
+     * ETag依据的语料名称，见CorpusVersionService.CORPUS_*
+     */
+    String corpus();
+
+    /**
+     * 缓存策略名称，Cache-Control取自配置http-cache.policies.{policy}
+     */
+    String policy();
+
+    /**
+     * 是否缓存序列化后的响应体字节（仅用于单条详情等响应较稳定的接口）
+     */
+    boolean cacheBody() default false;
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,196 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "3810039e-8301-46a3-b283-9c429a55a6a5"
+//   Timestamp: "2026-10-18T23:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "命中响应体字节缓存时直接写出预序列化字节"
+//   Quality_Check: "编译通过，仅成功响应写入缓存。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.web;
+
+import com.poem.education.cache.CorpusVersionService;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 条件GET拦截器
+ * 对标注了@ConditionalGet的接口：根据语料版本号生成强ETag，If-None-Match匹配时直接返回304；
+ * 否则把ETag和Cache-Control放入请求属性，由ConditionalGetResponseAdvice在响应成功时写入响应头。
+ * 语料版本号来自本地缓存/Redis，整个判断过程不访问MongoDB。
+ * 标注cacheBody = true的接口在ETag不匹配时再查响应体字节缓存，命中则直接写出缓存的字节并结束请求。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".ETAG";
+
+    static final String CACHE_CONTROL_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".CACHE_CONTROL";
+
+    static final String BODY_CACHE_KEY_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".BODY_CACHE_KEY";
+
+    private static final String DEFAULT_CACHE_CONTROL = "no-cache";
+
+    private final CorpusVersionService corpusVersionService;
+
+    private final Environment environment;
+
+    /**
+     * 响应格式版本，响应结构变化时修改以使客户端已缓存的ETag失效
+     */
+    private final String etagVersion;
+
+    /**
+     * 响应体字节缓存，可为null（不启用）
+     */
+    private final ResponseBodyCache responseBodyCache;
+
+    public ConditionalGetInterceptor(CorpusVersionService corpusVersionService, Environment environment,
+                                     String etagVersion, ResponseBodyCache responseBodyCache) {
+        this.corpusVersionService = corpusVersionService;
+        this.environment = environment;
+        this.etagVersion = etagVersion;
+        this.responseBodyCache = responseBodyCache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditionalGet = ((HandlerMethod) handler).getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        String etag = buildEtag(conditionalGet.corpus());
+        String cacheControl = environment.getProperty("http-cache.policies." + conditionalGet.policy(),
+                                                      DEFAULT_CACHE_CONTROL);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return false;
+        }
+        if (conditionalGet.cacheBody() && responseBodyCache != null && responseBodyCache.isEnabled()) {
+            String key = bodyCacheKey(etag, request);
+            ResponseBodyCache.CachedBody cached = responseBodyCache.get(key);
+            if (cached != null) {
+                writeCachedBody(request, response, cached, etag, cacheControl);
+                return false;
+            }
+            request.setAttribute(BODY_CACHE_KEY_ATTRIBUTE, key);
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(CACHE_CONTROL_ATTRIBUTE, cacheControl);
+        return true;
+    }
+
+    /**
+     * 响应体缓存键："{ETag}{URI}?{查询串}"
+     * 同一ETag下响应只由URL决定；gzip与原始版本保存在同一条目中，按Accept-Encoding选择
+     */
+    static String bodyCacheKey(String etag, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return etag + request.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    private void writeCachedBody(HttpServletRequest request, HttpServletResponse response,
+                                 ResponseBodyCache.CachedBody cached, String etag, String cacheControl)
+            throws IOException {
+        byte[] bytes = cached.getJson();
+        if (cached.getGzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            bytes = cached.getGzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(bytes.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(bytes);
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * Accept-Encoding是否接受gzip（q=0表示明确拒绝）
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            String coding = parts[0].trim();
+            if (!"gzip".equalsIgnoreCase(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("q=0(\\.0*)?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成强ETag："{语料}-{语料版本}-{响应格式版本}"
+     * 同一语料版本下接口响应只由URL决定，因此不同URL可以共用同一个ETag
+     *
+     * @param corpus 语料名称
+     * @return ETag（含双引号）
+     */
+    String buildEtag(String corpus) {
+        return "\"" + corpus + "-" + corpusVersionService.getVersion(corpus) + "-" + etagVersion + "\"";
+    }
+
+    /**
+     * If-None-Match是否匹配，按弱比较处理（忽略W/前缀），支持多个值和*
+     *
+     * @param ifNoneMatch 请求头
+     * @param etag        当前ETag
+     * @return 是否匹配
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value)) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
+// {{END_MODIFICATIONS}}
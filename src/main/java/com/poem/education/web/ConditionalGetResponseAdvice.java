@@ -0,0 +1,75 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Modified"
+//   Task_ID: "ac2a6a9d-cf3b-4c64-83a1-4a051aa0550b"
+//   Timestamp: "2026-10-20T18:20:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "未命中响应体缓存的条件GET响应同样带Vary: Accept-Encoding"
+//   Quality_Check: "编译通过，与缓存命中时的响应头一致。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.web;
+
+import com.poem.education.dto.response.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+
+/**
+ * 条件GET响应头写入
+ * 业务异常也以HTTP 200返回Result，因此只有Result.isSuccess()为true时才写入ETag和Cache-Control，
+ * 避免客户端/CDN缓存错误结果；同样只有成功结果才写入响应体字节缓存。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Web层切片测试中不存在该Bean
+     */
+    @Autowired(required = false)
+    private ResponseBodyCache responseBodyCache;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ConditionalGet.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof Result) || !((Result<?>) body).isSuccess()
+                || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Object etag = servletRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        Object cacheControl = servletRequest.getAttribute(ConditionalGetInterceptor.CACHE_CONTROL_ATTRIBUTE);
+        if (etag != null) {
+            response.getHeaders().setETag((String) etag);
+            // 与响应体缓存命中时一致：同一ETag下的响应可能按Accept-Encoding压缩
+            response.getHeaders().setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+        }
+        if (cacheControl != null) {
+            response.getHeaders().setCacheControl((String) cacheControl);
+        }
+        Object bodyCacheKey = servletRequest.getAttribute(ConditionalGetInterceptor.BODY_CACHE_KEY_ATTRIBUTE);
+        if (bodyCacheKey != null && responseBodyCache != null) {
+            responseBodyCache.put((String) bodyCacheKey, body);
+        }
+        return body;
+    }
+}
+// {{END_MODIFICATIONS}}
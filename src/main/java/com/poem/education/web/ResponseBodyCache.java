@@ -0,0 +1,144 @@
+// {{RIPER-5+SMART-6:
+//   Action: "Parallel-Added"
+//   Task_ID: "3810039e-8301-46a3-b283-9c429a55a6a5"
+//   Timestamp: "2026-10-18T23:00:00+08:00"
+//   Authoring_Subagent: "PM-快速模式"
+//   Principle_Applied: "缓存序列化完成的响应字节及其gzip版本，命中时跳过对象拷贝与JSON序列化"
+//   Quality_Check: "编译通过，按字节数限制内存占用。"
+// }}
+// {{START_MODIFICATIONS}}
+package com.poem.education.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 响应体字节缓存
+ * 保存@ConditionalGet(cacheBody = true)接口成功响应序列化后的JSON字节，
+ * 超过压缩阈值时同时保存gzip压缩版本，命中时按Accept-Encoding直接写入输出流。
+ * 键包含ETag（即语料版本号），语料变化后旧条目不再命中，随过期时间/容量淘汰，无需主动清除。
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseBodyCache.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${http-cache.body-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 缓存总字节数上限（JSON与gzip版本合计）
+     */
+    @Value("${http-cache.body-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${http-cache.body-cache.expire-after-access-ms:600000}")
+    private long expireAfterAccessMs;
+
+    /**
+     * JSON字节数达到该值时预先生成gzip版本
+     */
+    @Value("${http-cache.body-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<String, CachedBody> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedBody body) -> body.size())
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 查询缓存的响应体
+     *
+     * @param key 缓存键
+     * @return 响应体，未命中时为null
+     */
+    public CachedBody get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 序列化响应体并缓存，序列化失败时只记录日志，不影响本次响应
+     *
+     * @param key  缓存键
+     * @param body 响应对象
+     */
+    public void put(String key, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            cache.put(key, new CachedBody(json, gzip != null && gzip.length < json.length ? gzip : null));
+        } catch (JsonProcessingException e) {
+            logger.warn("响应体序列化失败，不缓存: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("gzip压缩失败", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 缓存的响应体
+     */
+    public static final class CachedBody {
+
+        private final byte[] json;
+
+        /**
+         * gzip压缩版本，响应较小或压缩无收益时为null
+         */
+        private final byte[] gzip;
+
+        CachedBody(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
+// {{END_MODIFICATIONS}}
@@ -0,0 +1,121 @@
+package com.poem.education.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import com.poem.education.dto.response.FacetValueDTO;
+import com.poem.education.dto.response.GuwenDTO;
+import com.poem.education.dto.response.PageResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * BinaryRedisSerializer测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+class BinaryRedisSerializerTest {
+    
+    private final BinaryRedisSerializer serializer = new BinaryRedisSerializer(1024);
+    
+    @Test
+    void testRoundTrip_CompressesLongText() {
+        GuwenDTO guwen = createGuwen();
+        
+        byte[] binary = serializer.serialize(guwen);
+        byte[] legacy = JSON.toJSONString(guwen, JSONWriter.Feature.WriteClassName).getBytes(StandardCharsets.UTF_8);
+        
+        assertThat(binary[0]).isEqualTo(BinaryRedisSerializer.MAGIC);
+        assertThat(binary[2] & BinaryRedisSerializer.FLAG_DEFLATE).isNotZero();
+        assertThat(binary.length).isLessThan(legacy.length / 2);
+        
+        Object restored = serializer.deserialize(binary);
+        assertThat(restored).isInstanceOf(GuwenDTO.class);
+        GuwenDTO dto = (GuwenDTO) restored;
+        assertThat(dto.getId()).isEqualTo(guwen.getId());
+        assertThat(dto.getShangxi()).isEqualTo(guwen.getShangxi());
+        assertThat(dto.getCreatedAt()).isEqualTo(guwen.getCreatedAt());
+    }
+    
+    @Test
+    void testRoundTrip_PageResultWithFacets() {
+        PageResult<String> ids = PageResult.of(Arrays.asList("a", "b"), 1, 20, 42L);
+        ids.setFacets(Collections.singletonMap("dynasty", Arrays.asList(new FacetValueDTO("唐", 30L))));
+        
+        byte[] bytes = serializer.serialize(ids);
+        assertThat(bytes[2] & BinaryRedisSerializer.FLAG_DEFLATE).isZero();
+        
+        @SuppressWarnings("unchecked")
+        PageResult<String> restored = (PageResult<String>) serializer.deserialize(bytes);
+        assertThat(restored.getList()).containsExactly("a", "b");
+        assertThat(restored.getTotal()).isEqualTo(42L);
+        assertThat(restored.getFacets().get("dynasty"))
+                .extracting(FacetValueDTO::getValue, FacetValueDTO::getCount)
+                .containsExactly(tuple("唐", 30L));
+    }
+    
+    @Test
+    void testDeserialize_LegacyJson() {
+        GuwenDTO guwen = createGuwen();
+        byte[] legacy = JSON.toJSONString(guwen, JSONWriter.Feature.WriteClassName).getBytes(StandardCharsets.UTF_8);
+        
+        Object restored = serializer.deserialize(legacy);
+        
+        assertThat(restored).isInstanceOf(GuwenDTO.class);
+        assertThat(((GuwenDTO) restored).getTitle()).isEqualTo("静夜思");
+    }
+    
+    @Test
+    void testDeserialize_RejectsTypeOutsideWhitelist() {
+        UntrustedValue value = new UntrustedValue();
+        value.setName("x");
+        byte[] binary = serializer.serialize(value);
+        byte[] legacy = JSON.toJSONString(value, JSONWriter.Feature.WriteClassName).getBytes(StandardCharsets.UTF_8);
+        
+        assertThatThrownBy(() -> serializer.deserialize(binary)).isInstanceOf(SerializationException.class);
+        assertThat(serializer.deserialize(legacy)).isNotInstanceOf(UntrustedValue.class);
+    }
+    
+    @Test
+    void testNullAndEmpty() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(null)).isNull();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+    
+    private GuwenDTO createGuwen() {
+        StringBuilder shangxi = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            shangxi.append("这首诗写的是在寂静的月夜思念家乡的感受。");
+        }
+        GuwenDTO guwen = new GuwenDTO();
+        guwen.setId("507f1f77bcf86cd799439011");
+        guwen.setTitle("静夜思");
+        guwen.setWriter("李白");
+        guwen.setDynasty("唐");
+        guwen.setContent("床前明月光，疑是地上霜。举头望明月，低头思故乡。");
+        guwen.setShangxi(shangxi.toString());
+        guwen.setCreatedAt(LocalDateTime.of(2026, 10, 18, 9, 30));
+        return guwen;
+    }
+    
+    public static class UntrustedValue {
+        
+        private String name;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
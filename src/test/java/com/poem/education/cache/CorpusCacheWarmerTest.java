@@ -0,0 +1,94 @@
+package com.poem.education.cache;
+
+import com.poem.education.constant.ErrorCode;
+import com.poem.education.entity.mysql.ContentStats;
+import com.poem.education.exception.BusinessException;
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import com.poem.education.service.GuwenService;
+import com.poem.education.service.SentenceService;
+import com.poem.education.service.WriterService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CorpusCacheWarmer测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+class CorpusCacheWarmerTest {
+    
+    @Mock
+    private ContentStatsRepository contentStatsRepository;
+    
+    @Mock
+    private GuwenService guwenService;
+    
+    @Mock
+    private SentenceService sentenceService;
+    
+    @Mock
+    private WriterService writerService;
+    
+    @Mock
+    private CacheManager cacheManager;
+    
+    @InjectMocks
+    private CorpusCacheWarmer corpusCacheWarmer;
+    
+    @Test
+    void testWarmUp_LoadsHotContentsByType() {
+        // Given
+        ReflectionTestUtils.setField(corpusCacheWarmer, "topN", 10);
+        when(contentStatsRepository.findTopHotContents(any(Pageable.class))).thenReturn(Arrays.asList(
+                new ContentStats("g1", "guwen"),
+                new ContentStats("s1", "sentence"),
+                new ContentStats("w1", "writer"),
+                new ContentStats("c1", "creation"),
+                new ContentStats("g2", "guwen")));
+        when(guwenService.getGuwenById(anyString()))
+                .thenReturn(null)
+                .thenThrow(new BusinessException(ErrorCode.NOT_FOUND, "古文不存在"));
+        
+        // When
+        int loaded = corpusCacheWarmer.warmUp();
+        
+        // Then - 不支持的类型与已删除的内容被跳过
+        assertThat(loaded).isEqualTo(3);
+        verify(guwenService).getGuwenById("g1");
+        verify(sentenceService).getSentenceById("s1");
+        verify(writerService).getWriterById("w1");
+    }
+    
+    @Test
+    void testOnCorpusChanged_ClearsMatchingDetailCache() {
+        // Given
+        Cache writerCache = mock(Cache.class);
+        Cache sentenceCache = mock(Cache.class);
+        when(cacheManager.getCache("writer")).thenReturn(writerCache);
+        when(cacheManager.getCache("sentence")).thenReturn(sentenceCache);
+        
+        // When
+        corpusCacheWarmer.onCorpusChanged(new CorpusChangedEvent(CorpusVersionService.CORPUS_WRITER, 2));
+        corpusCacheWarmer.onCorpusChanged(new CorpusChangedEvent(CorpusVersionService.CORPUS_SENTENCE, 3));
+        
+        // Then
+        verify(writerCache).clear();
+        verify(sentenceCache).clear();
+        verify(cacheManager, never()).getCache("guwen");
+    }
+}
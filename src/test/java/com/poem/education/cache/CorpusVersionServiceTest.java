@@ -0,0 +1,70 @@
+package com.poem.education.cache;
+
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CorpusVersionService测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class CorpusVersionServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @InjectMocks
+    private CorpusVersionService corpusVersionService;
+
+    @Test
+    void testEnsureIndexes_CreatesUpdatedAtIndexForEachCorpus() {
+        // Given
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOperations);
+
+        // When
+        corpusVersionService.ensureIndexes();
+
+        // Then
+        verify(mongoTemplate).indexOps(Guwen.class);
+        verify(mongoTemplate).indexOps(Writer.class);
+        verify(mongoTemplate).indexOps(Sentence.class);
+        ArgumentCaptor<Index> captor = ArgumentCaptor.forClass(Index.class);
+        verify(indexOperations, times(3)).ensureIndex(captor.capture());
+        assertThat(captor.getValue().getIndexKeys()).isEqualTo(new Document("updatedAt", -1));
+    }
+
+    @Test
+    void testEnsureIndexes_FailureDoesNotStopOtherCorpora() {
+        // Given
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOperations);
+        when(indexOperations.ensureIndex(any(Index.class)))
+                .thenThrow(new RuntimeException("not primary"))
+                .thenReturn("updatedAt_-1");
+
+        // When
+        corpusVersionService.ensureIndexes();
+
+        // Then
+        verify(indexOperations, times(3)).ensureIndex(any(Index.class));
+    }
+}
@@ -0,0 +1,76 @@
+package com.poem.education.cache;
+
+import com.poem.education.dto.request.GuwenSearchRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * GuwenSearchCache测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+class GuwenSearchCacheTest {
+    
+    @Mock
+    private CorpusVersionService corpusVersionService;
+    
+    @InjectMocks
+    private GuwenSearchCache guwenSearchCache;
+    
+    @Test
+    void testNormalize_EquivalentRequests() {
+        GuwenSearchRequest a = new GuwenSearchRequest("  Li Bai ", 1, 20);
+        a.setSearchType(null);
+        a.setSortBy("relevance");
+        a.setSortDir("DESC");
+        a.setFacetSize(50);
+        
+        GuwenSearchRequest b = new GuwenSearchRequest("li bai", 1, 20);
+        b.setSearchType("unknown");
+        b.setSortBy("createdAt");
+        b.setSortDir("desc");
+        b.setCountMode("EXACT");
+        
+        assertThat(GuwenSearchCache.normalize(a)).isEqualTo(GuwenSearchCache.normalize(b));
+    }
+    
+    @Test
+    void testNormalize_DistinctRequests() {
+        GuwenSearchRequest base = new GuwenSearchRequest("明月", 1, 20);
+        
+        GuwenSearchRequest otherPage = new GuwenSearchRequest("明月", 2, 20);
+        GuwenSearchRequest otherType = new GuwenSearchRequest("明月", 1, 20);
+        otherType.setSearchType("content");
+        GuwenSearchRequest withFacets = new GuwenSearchRequest("明月", 1, 20);
+        withFacets.setWithFacets(true);
+        GuwenSearchRequest escaped = new GuwenSearchRequest("\\S", 1, 20);
+        GuwenSearchRequest escapedUpper = new GuwenSearchRequest("\\s", 1, 20);
+        
+        String key = GuwenSearchCache.normalize(base);
+        assertThat(GuwenSearchCache.normalize(otherPage)).isNotEqualTo(key);
+        assertThat(GuwenSearchCache.normalize(otherType)).isNotEqualTo(key);
+        assertThat(GuwenSearchCache.normalize(withFacets)).isNotEqualTo(key);
+        assertThat(GuwenSearchCache.normalize(escaped)).isNotEqualTo(GuwenSearchCache.normalize(escapedUpper));
+    }
+    
+    @Test
+    void testBuildKey_IncludesCorpusVersion() {
+        GuwenSearchRequest request = new GuwenSearchRequest("明月", 1, 20);
+        when(corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN)).thenReturn(3L, 4L);
+        
+        String before = guwenSearchCache.buildKey(request);
+        String after = guwenSearchCache.buildKey(request);
+        
+        assertThat(before).startsWith("guwen:v3:");
+        assertThat(after).startsWith("guwen:v4:");
+        assertThat(before.substring("guwen:v3:".length())).isEqualTo(after.substring("guwen:v4:".length()));
+    }
+}
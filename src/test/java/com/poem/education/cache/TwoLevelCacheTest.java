@@ -0,0 +1,131 @@
+package com.poem.education.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TwoLevelCache测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+class TwoLevelCacheTest {
+    
+    private ConcurrentMapCache remoteCache;
+    private List<String> published;
+    private TwoLevelCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        remoteCache = new ConcurrentMapCache("guwen", false);
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("guwen", Caffeine.newBuilder().maximumSize(100).build(), remoteCache,
+                (name, key) -> published.add(name + ":" + key));
+    }
+    
+    @Test
+    void testGet_FillsLocalFromRemote() {
+        remoteCache.put("a", "静夜思");
+        
+        assertThat(cache.get("a").get()).isEqualTo("静夜思");
+        assertThat(cache.getLocalSize()).isEqualTo(1L);
+        
+        // 本地命中后不再读取Redis
+        remoteCache.evict("a");
+        assertThat(cache.get("a", String.class)).isEqualTo("静夜思");
+        assertThat(published).isEmpty();
+    }
+    
+    @Test
+    void testPutAndEvict_WriteBothLevelsAndPublish() {
+        cache.put("a", "静夜思");
+        assertThat(remoteCache.get("a").get()).isEqualTo("静夜思");
+        
+        cache.evict("a");
+        assertThat(remoteCache.get("a")).isNull();
+        assertThat(cache.get("a")).isNull();
+        
+        cache.clear();
+        assertThat(published).containsExactly("guwen:a", "guwen:a", "guwen:null");
+    }
+    
+    @Test
+    void testPutNull_EvictsBothLevels() {
+        cache.put("a", "静夜思");
+        
+        cache.put("a", null);
+        
+        assertThat(remoteCache.get("a")).isNull();
+        assertThat(cache.get("a")).isNull();
+        assertThat(published).containsExactly("guwen:a", "guwen:a");
+    }
+    
+    @Test
+    void testInvalidateLocal_KeepsRemote() {
+        cache.put("a", "静夜思");
+        remoteCache.put("a", "水调歌头");
+        
+        cache.invalidateLocal("a");
+        
+        assertThat(cache.get("a").get()).isEqualTo("水调歌头");
+    }
+    
+    @Test
+    void testGetWithLoader_RefreshesStaleEntryInBackground() throws Exception {
+        TwoLevelCache refreshing = new TwoLevelCache("guwen", Caffeine.newBuilder().maximumSize(100).build(),
+                remoteCache, (name, key) -> published.add(name + ":" + key), 1L, Runnable::run);
+        assertThat(refreshing.get("a", () -> "静夜思")).isEqualTo("静夜思");
+        Thread.sleep(5);
+        
+        // 超过刷新时间：本次仍返回旧值，同时重新加载并写回两级缓存
+        assertThat(refreshing.get("a", () -> "静夜思（修订）")).isEqualTo("静夜思");
+        assertThat(remoteCache.get("a").get()).isEqualTo("静夜思（修订）");
+        assertThat(refreshing.get("a", String.class)).isEqualTo("静夜思（修订）");
+        assertThat(published).isEmpty();
+    }
+    
+    @Test
+    void testGetWithLoader_WrapsLoaderFailure() {
+        assertThatThrownBy(() -> cache.get("a", () -> {
+            throw new IllegalStateException("查询失败");
+        })).isInstanceOf(Cache.ValueRetrievalException.class)
+           .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(remoteCache.get("a")).isNull();
+    }
+    
+    @Test
+    void testGetWithLoader_LoadsOnce() {
+        assertThat(cache.get("a", () -> "静夜思")).isEqualTo("静夜思");
+        assertThat(cache.get("a", () -> "水调歌头")).isEqualTo("静夜思");
+        assertThat(remoteCache.get("a").get()).isEqualTo("静夜思");
+    }
+    
+    @Test
+    void testGetWithLoader_RedisFailureFallsBackToLoader() {
+        Cache failingRemote = new ConcurrentMapCache("guwen", false) {
+            @Override
+            public ValueWrapper get(Object key) {
+                throw new IllegalStateException("redis down");
+            }
+            
+            @Override
+            public void put(Object key, Object value) {
+                throw new IllegalStateException("redis down");
+            }
+        };
+        TwoLevelCache failing = new TwoLevelCache("guwen", Caffeine.newBuilder().maximumSize(100).build(), failingRemote,
+                (name, key) -> published.add(name + ":" + key));
+        
+        assertThat(failing.get("a", () -> "静夜思")).isEqualTo("静夜思");
+        // 已写入本地缓存，第二次不再调用加载函数
+        assertThat(failing.get("a", () -> "水调歌头")).isEqualTo("静夜思");
+    }
+}
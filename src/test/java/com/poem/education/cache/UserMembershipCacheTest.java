@@ -0,0 +1,131 @@
+package com.poem.education.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserMembershipCache测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class UserMembershipCacheTest {
+
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+
+    private static final String SENTENCE_ID = "507f1f77bcf86cd799439012";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private UserMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserMembershipCache();
+        ReflectionTestUtils.setField(cache, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 1800000L);
+        ReflectionTestUtils.setField(cache, "maxMembers", 2);
+    }
+
+    /**
+     * 取出脚本调用的ARGV
+     */
+    private List<Object[]> scriptArgs() {
+        List<Object[]> result = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(stringRedisTemplate).getInvocations()) {
+            if (invocation.getMethod().getName().equals("execute")) {
+                Object[] arguments = invocation.getRawArguments();
+                result.add((Object[]) arguments[arguments.length - 1]);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testLookup_LoadedSetAnswersMembers() {
+        String liked = UserMembershipCache.actionMember("like", "guwen", GUWEN_ID);
+        String other = UserMembershipCache.actionMember("like", "sentence", SENTENCE_ID);
+        // pipeline结果依次为!loaded、!overflow和各成员
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(true, false, true, false));
+
+        UserMembershipCache.Lookup lookup = cache.lookup(1L, Arrays.asList(liked, other));
+
+        assertThat(lookup.isHit()).isTrue();
+        assertThat(lookup.getPresent()).containsExactly(liked);
+    }
+
+    @Test
+    void testLookup_NotLoadedNeedsLoad() {
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(false, false, false));
+
+        UserMembershipCache.Lookup lookup = cache.lookup(1L,
+                Collections.singletonList(UserMembershipCache.favoriteMember("guwen", GUWEN_ID)));
+
+        assertThat(lookup.isHit()).isFalse();
+        assertThat(lookup.needsLoad()).isTrue();
+    }
+
+    @Test
+    void testLookup_OverflowOrRedisFailureIsUncacheable() {
+        List<String> members = Collections.singletonList(UserMembershipCache.favoriteMember("guwen", GUWEN_ID));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(true, true, false))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        for (int i = 0; i < 2; i++) {
+            UserMembershipCache.Lookup lookup = cache.lookup(1L, members);
+            assertThat(lookup.isHit()).isFalse();
+            assertThat(lookup.needsLoad()).isFalse();
+        }
+    }
+
+    @Test
+    void testLoad_OverCapWritesOnlyOverflowSentinel() {
+        cache.load(1L, Arrays.asList("like:guwen:1", "like:guwen:2", "like:guwen:3"));
+
+        List<Object[]> calls = scriptArgs();
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactly("1800000", UserMembershipCache.LOADED, UserMembershipCache.OVERFLOW);
+    }
+
+    @Test
+    void testAdd_FailureEvictsSet() {
+        when(stringRedisTemplate.execute(any(), anyList(), any())).thenThrow(new IllegalStateException("timeout"));
+
+        cache.add(1L, Collections.singletonList("like:guwen:1"));
+
+        verify(stringRedisTemplate).delete(UserMembershipCache.key(1L));
+    }
+
+    @Test
+    void testDisabled_NoRedisAccess() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        assertThat(cache.lookup(1L, Collections.singletonList("like:guwen:1")).needsLoad()).isFalse();
+        cache.add(1L, Collections.singletonList("like:guwen:1"));
+        cache.evict(1L);
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+}
@@ -0,0 +1,61 @@
+package com.poem.education.dictionary;
+
+import com.poem.education.entity.mongodb.Guwen;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DictionaryService单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@ExtendWith(MockitoExtension.class)
+class DictionaryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private DictionaryService dictionaryService;
+
+    @Test
+    void testGet_LoadsOnceAndSorts() {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("dynasty"), eq(Guwen.class), eq(String.class)))
+                .thenReturn(Arrays.asList("宋", " ", null, "唐"));
+
+        DictionarySnapshot first = dictionaryService.get(DictionaryType.GUWEN_DYNASTY);
+        DictionarySnapshot second = dictionaryService.get(DictionaryType.GUWEN_DYNASTY);
+
+        assertThat(first.getValues()).containsExactly("唐", "宋");
+        assertThat(first.getVersion()).isEqualTo(1L);
+        assertThat(second).isSameAs(first);
+        verify(mongoTemplate, times(1)).findDistinct(any(Query.class), anyString(), eq(Guwen.class), eq(String.class));
+    }
+
+    @Test
+    void testRefresh_BumpsVersionOnlyWhenChanged() {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("writer"), eq(Guwen.class), eq(String.class)))
+                .thenReturn(Arrays.asList("李白"), Arrays.asList("李白"), Arrays.asList("李白", "杜甫"));
+
+        DictionarySnapshot initial = dictionaryService.get(DictionaryType.GUWEN_WRITER);
+        DictionarySnapshot unchanged = dictionaryService.refresh(DictionaryType.GUWEN_WRITER);
+        DictionarySnapshot changed = dictionaryService.refresh(DictionaryType.GUWEN_WRITER);
+
+        assertThat(unchanged).isSameAs(initial);
+        assertThat(changed.getVersion()).isEqualTo(2L);
+        assertThat(changed.getValues()).containsExactly("李白", "杜甫");
+        assertThat(changed.getEtag()).isNotEqualTo(initial.getEtag());
+    }
+}
@@ -0,0 +1,147 @@
+package com.poem.education.ingest;
+
+import com.poem.education.entity.mysql.UserAction;
+import com.poem.education.repository.mysql.UserActionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserActionIngestor测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class UserActionIngestorTest {
+
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserActionRepository userActionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserActionIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestor = new UserActionIngestor();
+        ReflectionTestUtils.setField(ingestor, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ingestor, "userActionRepository", userActionRepository);
+        ReflectionTestUtils.setField(ingestor, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(ingestor, "meterRegistry", meterRegistry);
+        // 不启动写入线程，直接调用writeBatch
+        ReflectionTestUtils.setField(ingestor, "enabled", false);
+        ReflectionTestUtils.setField(ingestor, "actionTypes", Collections.singleton("view"));
+        ReflectionTestUtils.setField(ingestor, "queueCapacity", 10);
+        ReflectionTestUtils.setField(ingestor, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(ingestor, "offerTimeoutMs", 0L);
+        ingestor.init();
+    }
+
+    private static UserAction view(long userId) {
+        UserAction action = new UserAction();
+        action.setUserId(userId);
+        action.setTargetId(GUWEN_ID);
+        action.setTargetType("guwen");
+        action.setActionType("view");
+        action.setCreatedAt(LocalDateTime.now());
+        return action;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteBatch_InsertsFreshRowsInOneStatement() throws Exception {
+        ingestor.writeBatch(Arrays.asList(view(1), view(2), view(1)));
+
+        // 同一批内的重复行为只写一次
+        ArgumentCaptor<List<UserAction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userActionRepository).insertIgnoreAll(inserted.capture());
+        assertThat(inserted.getValue()).hasSize(2);
+
+        ArgumentCaptor<UserActionsIngestedEvent> event = ArgumentCaptor.forClass(UserActionsIngestedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getInserted()).extracting(UserAction::getUserId).containsExactly(1L, 2L);
+        assertThat(event.getValue().getDuplicates()).hasSize(1);
+        assertThat(meterRegistry.get("user_action.ingest.inserted").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("user_action.ingest.batch_size").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void testWriteBatch_ExistingRowsReportedAsDuplicates() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(1L);
+            when(rs.getString(2)).thenReturn(GUWEN_ID);
+            when(rs.getString(3)).thenReturn("guwen");
+            when(rs.getString(4)).thenReturn("view");
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM user_actions"), any(RowCallbackHandler.class), any());
+
+        ingestor.writeBatch(Collections.singletonList(view(1)));
+
+        verify(userActionRepository).insertIgnoreAll(Collections.emptyList());
+        ArgumentCaptor<UserActionsIngestedEvent> event = ArgumentCaptor.forClass(UserActionsIngestedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getInserted()).isEmpty();
+        assertThat(event.getValue().getDuplicates()).hasSize(1);
+    }
+
+    @Test
+    void testWriteBatch_DropsAfterRetries() throws Exception {
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any());
+
+        ingestor.writeBatch(Arrays.asList(view(1), view(2)));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(meterRegistry.get("user_action.ingest.dropped").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testOffer_RejectedWhenNotRunning() {
+        assertThat(ingestor.accepts("view")).isFalse();
+        assertThat(ingestor.offer(view(1))).isFalse();
+        assertThat(ingestor.pending()).isZero();
+    }
+
+    @Test
+    void testInit_ViewOnlyWithViewTrackingDoesNotStartWriter() throws Exception {
+        ReflectionTestUtils.setField(ingestor, "enabled", true);
+        ReflectionTestUtils.setField(ingestor, "viewTrackingEnabled", true);
+        ingestor.init();
+
+        assertThat(ingestor.accepts("view")).isFalse();
+        assertThat(ReflectionTestUtils.getField(ingestor, "writer")).isNull();
+        ingestor.destroy();
+    }
+}
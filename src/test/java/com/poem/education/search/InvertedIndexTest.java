@@ -0,0 +1,97 @@
+package com.poem.education.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * InvertedIndex单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+class InvertedIndexTest {
+
+    private static final int TITLE = 0;
+    private static final int CONTENT = 1;
+
+    private InvertedIndex buildIndex() {
+        return InvertedIndex.builder(2)
+                .addField(0, TITLE, "静夜思")
+                .addField(0, CONTENT, "床前明月光，疑是地上霜。举头望明月，低头思故乡。")
+                .addField(1, TITLE, "春晓")
+                .addField(1, CONTENT, "春眠不觉晓，处处闻啼鸟。")
+                .addField(2, TITLE, "水调歌头·明月几时有")
+                .addField(2, CONTENT, "明月几时有？把酒问青天。")
+                .build();
+    }
+
+    @Test
+    void testQueryTokens_BigramAndUnigram() {
+        assertThat(CjkNgramTokenizer.queryTokens("明月光")).containsExactly("明月", "月光");
+        assertThat(CjkNgramTokenizer.queryTokens("月")).containsExactly("月");
+        assertThat(CjkNgramTokenizer.queryTokens("ＡＢＣ 李白")).containsExactly("abc", "李白");
+        assertThat(CjkNgramTokenizer.queryTokens("，。")).isEmpty();
+    }
+
+    @Test
+    void testPostingList_RoundTrip() {
+        int[] docIds = {0, 1, 127, 128, 16384, 2000000};
+        int[] tfs = {1, 2, 1, 300, 1, 5};
+        PostingList postingList = PostingList.encode(docIds, tfs, docIds.length);
+
+        assertThat(postingList.size()).isEqualTo(docIds.length);
+        assertThat(postingList.toArray()).containsExactly(docIds);
+        assertThat(postingList.termFrequencies()).containsExactly(tfs);
+        assertThat(PostingList.intersect(new int[]{1, 3, 5, 7}, new int[]{3, 4, 7})).containsExactly(3, 7);
+    }
+
+    @Test
+    void testMatch_AllTermsInSameField() {
+        InvertedIndex index = buildIndex();
+
+        assertThat(index.match(CjkNgramTokenizer.queryTokens("明月"), new int[]{TITLE, CONTENT}))
+                .containsExactly(0, 2);
+        assertThat(index.match(CjkNgramTokenizer.queryTokens("明月"), new int[]{TITLE}))
+                .containsExactly(2);
+        assertThat(index.match(CjkNgramTokenizer.queryTokens("春"), new int[]{TITLE, CONTENT}))
+                .containsExactly(1);
+        // 词项分布在不同字段时不视为命中
+        assertThat(index.match(Arrays.asList("静夜", "明月"), new int[]{TITLE, CONTENT})).isEmpty();
+        assertThat(index.match(CjkNgramTokenizer.queryTokens("不存在"), new int[]{TITLE, CONTENT})).isEmpty();
+    }
+
+    @Test
+    void testMatchPhrase_RequiresAdjacentTermsInOrder() {
+        InvertedIndex index = buildIndex();
+
+        // 词项“头望”“望明”“明月”“月光”都在正文中，但不相邻
+        assertThat(index.match(CjkNgramTokenizer.queryTokens("头望明月光"), new int[]{CONTENT})).containsExactly(0);
+        assertThat(index.matchPhrase("头望明月光", new int[]{CONTENT})).isEmpty();
+        assertThat(index.matchPhrase("床前明月光", new int[]{TITLE, CONTENT})).containsExactly(0);
+        assertThat(index.matchPhrase("明月", new int[]{TITLE, CONTENT})).containsExactly(0, 2);
+    }
+
+    @Test
+    void testScore_TitleWeightedHigher() {
+        InvertedIndex index = buildIndex();
+        int[] hits = index.match(CjkNgramTokenizer.queryTokens("明月"), new int[]{TITLE, CONTENT});
+        float[] scores = index.score(CjkNgramTokenizer.queryTokens("明月"), hits, new float[]{3.0f, 1.0f});
+
+        // 标题命中的文档2排在仅正文命中的文档0之前
+        assertThat(TopKCollector.topK(hits, scores, 10)).containsExactly(2, 0);
+        assertThat(TopKCollector.topK(hits, scores, 1)).containsExactly(2);
+    }
+
+    @Test
+    void testTopK_TieBrokenByDocId() {
+        int[] docs = {5, 1, 9, 3, 7};
+        float[] scores = {1.0f, 2.0f, 1.0f, 0.5f, 2.0f};
+
+        assertThat(TopKCollector.topK(docs, scores, 3)).containsExactly(1, 7, 5);
+        assertThat(TopKCollector.topK(docs, scores, 10)).containsExactly(1, 7, 5, 9, 3);
+        assertThat(TopKCollector.topK(docs, scores, 0)).isEmpty();
+    }
+}
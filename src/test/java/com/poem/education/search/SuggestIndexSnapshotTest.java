@@ -0,0 +1,52 @@
+package com.poem.education.search;
+
+import com.poem.education.dto.response.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SuggestIndexSnapshot单元测试
+ *
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+class SuggestIndexSnapshotTest {
+
+    @Test
+    void testSuggest_OrdersByWeightWithinPrefix() {
+        SuggestIndexSnapshot snapshot = SuggestIndexSnapshot.builder()
+                .add("guwen", "1", "静夜思", 10)
+                .add("guwen", "2", "静女", 50)
+                .add("sentence", "3", "静以修身，俭以养德", 30)
+                .add("writer", "4", "李白", 100)
+                .add("guwen", "5", "静夜思", 5)
+                .build();
+
+        List<SuggestionDTO> result = snapshot.suggest("静", 10);
+
+        assertThat(result).extracting(SuggestionDTO::getText)
+                .containsExactly("静女", "静以修身，俭以养德", "静夜思");
+        assertThat(result.get(2).getId()).isEqualTo("1");
+        assertThat(snapshot.suggest("静夜", 10)).hasSize(1);
+        assertThat(snapshot.suggest("杜", 10)).isEmpty();
+    }
+
+    @Test
+    void testSuggest_TopNFromLargeRange() {
+        SuggestIndexSnapshot.Builder builder = SuggestIndexSnapshot.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add("guwen", String.valueOf(i), "春" + i, i % 97);
+        }
+        builder.add("guwen", "x", "Spring", 1);
+        SuggestIndexSnapshot snapshot = builder.build();
+
+        List<SuggestionDTO> result = snapshot.suggest("春", 5);
+
+        assertThat(result).hasSize(5);
+        assertThat(result).extracting(SuggestionDTO::getText).containsExactly("春96", "春193", "春290", "春387", "春484");
+        assertThat(snapshot.suggest("SPR", 5)).extracting(SuggestionDTO::getText).containsExactly("Spring");
+    }
+}
@@ -0,0 +1,84 @@
+package com.poem.education.service;
+
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import com.poem.education.service.impl.ContentStatsServiceImpl;
+import com.poem.education.stats.ContentStatsAccumulator;
+import com.poem.education.stats.ContentStatsDelta;
+import com.poem.education.stats.HotLeaderboard;
+import com.poem.education.stats.RedisContentCounters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ContentStatsService单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class ContentStatsServiceTest {
+    
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+    
+    @Mock
+    private ContentStatsRepository contentStatsRepository;
+    
+    @Mock
+    private ContentStatsAccumulator contentStatsAccumulator;
+    
+    @Mock
+    private RedisContentCounters redisContentCounters;
+    
+    @Mock
+    private HotLeaderboard hotLeaderboard;
+    
+    @InjectMocks
+    private ContentStatsServiceImpl contentStatsService;
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApplyContentStatsDeltas_RedisFailsMidwayOnlyRemainingFieldsGoToDatabase() throws Exception {
+        // Given - view计入Redis后，like开始Redis不可用
+        when(redisContentCounters.isEnabled()).thenReturn(true);
+        when(redisContentCounters.increment(GUWEN_ID, "guwen", "view", 3L)).thenReturn(true);
+        when(redisContentCounters.increment(GUWEN_ID, "guwen", "like", 2L))
+                .thenThrow(new IllegalStateException("connection refused"));
+        ContentStatsDelta delta = new ContentStatsDelta(GUWEN_ID, "guwen", 3, 2, 1, 0, 0);
+        
+        // When
+        boolean result = contentStatsService.applyContentStatsDeltas(Collections.singletonList(delta)).get();
+        
+        // Then - 不再尝试favorite，view不重复写库
+        assertThat(result).isTrue();
+        verify(redisContentCounters, never()).increment(anyString(), anyString(), eq("favorite"), anyLong());
+        ArgumentCaptor<List<ContentStatsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contentStatsRepository).batchUpsertIncrements(captor.capture());
+        assertThat(captor.getValue()).hasSize(1);
+        ContentStatsDelta written = captor.getValue().get(0);
+        assertThat(written.getViewCount()).isZero();
+        assertThat(written.getLikeCount()).isEqualTo(2);
+        assertThat(written.getFavoriteCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void testApplyContentStatsDeltas_AllCountedInRedisSkipsDatabase() throws Exception {
+        when(redisContentCounters.isEnabled()).thenReturn(true);
+        when(redisContentCounters.increment(eq(GUWEN_ID), eq("guwen"), anyString(), anyLong())).thenReturn(true);
+        
+        contentStatsService.applyContentStatsDeltas(Collections.singletonList(
+                new ContentStatsDelta(GUWEN_ID, "guwen", 1, 1, 0, 0, 0))).get();
+        
+        verifyNoInteractions(contentStatsRepository);
+    }
+}
@@ -0,0 +1,109 @@
+package com.poem.education.service;
+
+import com.poem.education.cache.UserMembershipCache;
+import com.poem.education.dto.request.FavoriteRequest;
+import com.poem.education.dto.response.FavoriteDTO;
+import com.poem.education.entity.mysql.UserFavorite;
+import com.poem.education.repository.mysql.UserFavoriteRepository;
+import com.poem.education.service.impl.FavoriteServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FavoriteService单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class FavoriteServiceTest {
+    
+    @Mock
+    private UserFavoriteRepository userFavoriteRepository;
+    
+    @Mock
+    private UserMembershipCache userMembershipCache;
+    
+    @InjectMocks
+    private FavoriteServiceImpl favoriteService;
+    
+    private UserFavorite existingFavorite;
+    private FavoriteRequest favoriteRequest;
+    
+    @BeforeEach
+    void setUp() {
+        existingFavorite = new UserFavorite();
+        existingFavorite.setId(1L);
+        existingFavorite.setUserId(1L);
+        existingFavorite.setTargetId("507f1f77bcf86cd799439011");
+        existingFavorite.setTargetType("guwen");
+        existingFavorite.setFolderName("默认收藏夹");
+        existingFavorite.setCreatedAt(LocalDateTime.now());
+        
+        favoriteRequest = new FavoriteRequest();
+        favoriteRequest.setTargetId("507f1f77bcf86cd799439011");
+        favoriteRequest.setTargetType("guwen");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchAddFavorites_InsertsOnlyNewTargets() {
+        // Given
+        FavoriteRequest request2 = new FavoriteRequest();
+        request2.setTargetId("507f1f77bcf86cd799439012");
+        request2.setTargetType("sentence");
+        request2.setFolderName("名句");
+        UserFavorite savedFavorite2 = new UserFavorite();
+        savedFavorite2.setId(2L);
+        savedFavorite2.setUserId(1L);
+        savedFavorite2.setTargetId("507f1f77bcf86cd799439012");
+        savedFavorite2.setTargetType("sentence");
+        savedFavorite2.setFolderName("名句");
+        
+        when(userFavoriteRepository.findByUserIdAndTargetIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.singletonList(existingFavorite),
+                            Arrays.asList(existingFavorite, savedFavorite2));
+        
+        // When
+        List<FavoriteDTO> result = favoriteService.batchAddFavorites(1L,
+                Arrays.asList(favoriteRequest, request2, request2));
+        
+        // Then - 已收藏的目标不再写入，同一批内重复的只写一次
+        assertThat(result).extracting(FavoriteDTO::getId).containsExactly(1L, 2L, 2L);
+        ArgumentCaptor<List<UserFavorite>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userFavoriteRepository).insertIgnoreAll(inserted.capture());
+        assertThat(inserted.getValue()).hasSize(1);
+        assertThat(inserted.getValue().get(0).getFolderName()).isEqualTo("名句");
+        assertThat(inserted.getValue().get(0).getCreatedAt()).isNotNull();
+        verify(userFavoriteRepository, never()).save(any(UserFavorite.class));
+    }
+    
+    @Test
+    void testBatchAddFavorites_AllExisting_NoInsert() {
+        // Given
+        when(userFavoriteRepository.findByUserIdAndTargetIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.singletonList(existingFavorite));
+        
+        // When
+        List<FavoriteDTO> result = favoriteService.batchAddFavorites(1L, Collections.singletonList(favoriteRequest));
+        
+        // Then
+        assertThat(result).extracting(FavoriteDTO::getId).containsExactly(1L);
+        verify(userFavoriteRepository, never()).insertIgnoreAll(anyList());
+        verify(userFavoriteRepository, times(1)).findByUserIdAndTargetIdIn(eq(1L), anyCollection());
+    }
+}
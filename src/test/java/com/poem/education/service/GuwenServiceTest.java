@@ -1,12 +1,22 @@
 package com.poem.education.service;
 
+import com.poem.education.cache.GuwenSearchCache;
+import com.poem.education.dto.request.CountMode;
 import com.poem.education.dto.request.GuwenSearchRequest;
+import com.poem.education.dto.response.FacetValueDTO;
 import com.poem.education.dto.response.GuwenDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.entity.mongodb.Guwen;
 import com.poem.education.exception.BusinessException;
 import com.poem.education.repository.mongodb.GuwenRepository;
+import com.poem.education.search.GuwenIndexSnapshot;
+import com.poem.education.search.GuwenSearchField;
+import com.poem.education.search.GuwenSearchIndex;
+import com.poem.education.search.InvertedIndex;
 import com.poem.education.service.impl.GuwenServiceImpl;
+import com.poem.education.stats.HotLeaderboard;
+import com.poem.education.util.MongoPageExecutor;
+import com.poem.education.util.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +26,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -38,6 +50,21 @@ class GuwenServiceTest {
     @Mock
     private GuwenRepository guwenRepository;
     
+    @Mock
+    private GuwenSearchIndex guwenSearchIndex;
+    
+    @Mock
+    private MongoTemplate mongoTemplate;
+    
+    @Mock
+    private MongoPageExecutor mongoPageExecutor;
+    
+    @Mock
+    private GuwenSearchCache guwenSearchCache;
+    
+    @Mock
+    private HotLeaderboard hotLeaderboard;
+    
     @InjectMocks
     private GuwenServiceImpl guwenService;
     
@@ -141,6 +168,52 @@ class GuwenServiceTest {
         verify(guwenRepository).findByWriterAndDynasty(eq("李白"), eq("唐"), any(Pageable.class));
     }
     
+    @Test
+    void testGetGuwenList_WithoutCount() {
+        // Given
+        when(mongoPageExecutor.find(any(Query.class), eq(Guwen.class), eq(1), eq(20), eq(CountMode.NONE)))
+                .thenReturn(PageResult.ofSlice(guwenList, 1, 20, false));
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.getGuwenList(1, 20, "唐", "李白", null, CountMode.NONE);
+        
+        // Then
+        assertThat(result.getList()).hasSize(2);
+        assertThat(result.getTotal()).isNull();
+        assertThat(result.getHasNext()).isFalse();
+        verifyNoInteractions(guwenRepository);
+    }
+    
+    @Test
+    void testGetGuwenListWithCursor_HasNext() {
+        // Given - 多返回一条表示还有下一页
+        when(mongoTemplate.find(any(Query.class), eq(Guwen.class))).thenReturn(guwenList);
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.getGuwenListWithCursor("", 1, "唐", null, null);
+        
+        // Then
+        assertThat(result.getList()).hasSize(1);
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getTotal()).isNull();
+        assertThat(PageCursor.decode(result.getNextCursor()).getId()).isEqualTo(testGuwen.getId());
+    }
+    
+    @Test
+    void testGetGuwenListWithCursor_LastPage() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(Guwen.class))).thenReturn(guwenList);
+        String cursor = PageCursor.encode(testGuwen.getId(), null);
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.getGuwenListWithCursor(cursor, 20, null, null, null);
+        
+        // Then
+        assertThat(result.getList()).hasSize(2);
+        assertThat(result.getHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+    
     @Test
     void testGetGuwenById_Success() {
         // Given
@@ -216,6 +289,97 @@ class GuwenServiceTest {
         verify(guwenRepository).findByWriterRegexAndDynasty(eq("李白"), eq("唐"), any(Pageable.class));
     }
     
+    @Test
+    void testSearchGuwen_WithIndex() {
+        // Given
+        InvertedIndex.Builder builder = InvertedIndex.builder(GuwenSearchField.values().length);
+        for (int doc = 0; doc < guwenList.size(); doc++) {
+            builder.addField(doc, GuwenSearchField.TITLE.ordinal(), guwenList.get(doc).getTitle());
+            builder.addField(doc, GuwenSearchField.WRITER.ordinal(), guwenList.get(doc).getWriter());
+            builder.addField(doc, GuwenSearchField.CONTENT.ordinal(), guwenList.get(doc).getContent());
+        }
+        GuwenIndexSnapshot snapshot = new GuwenIndexSnapshot(builder.build(),
+                new String[]{testGuwen.getId(), "507f1f77bcf86cd799439012"},
+                new String[]{"静夜思", "春晓"},
+                new String[]{"李白", "孟浩然"},
+                new String[]{"唐", "唐"},
+                Arrays.asList(Arrays.asList("五言绝句"), Arrays.asList("五言绝句", "春天")),
+                new long[]{1L, 2L});
+        when(guwenSearchIndex.isReady()).thenReturn(true);
+        when(guwenSearchIndex.getSnapshot()).thenReturn(snapshot);
+        when(guwenRepository.findAllById(Arrays.asList(testGuwen.getId()))).thenReturn(Arrays.asList(testGuwen));
+        
+        GuwenSearchRequest request = new GuwenSearchRequest();
+        request.setKeyword("明月光");
+        request.setPage(1);
+        request.setSize(20);
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.searchGuwen(request);
+        
+        // Then
+        assertThat(result.getTotal()).isEqualTo(1L);
+        assertThat(result.getList()).hasSize(1);
+        assertThat(result.getList().get(0).getTitle()).isEqualTo("静夜思");
+        verify(guwenRepository, never()).findBySmartSearch(anyString(), any(Pageable.class));
+    }
+    
+    @Test
+    void testSearchGuwen_WithFacets() {
+        // Given
+        InvertedIndex.Builder builder = InvertedIndex.builder(GuwenSearchField.values().length);
+        builder.addField(0, GuwenSearchField.CONTENT.ordinal(), "床前明月光");
+        builder.addField(1, GuwenSearchField.CONTENT.ordinal(), "明月几时有");
+        builder.addField(2, GuwenSearchField.CONTENT.ordinal(), "明月松间照");
+        GuwenIndexSnapshot snapshot = new GuwenIndexSnapshot(builder.build(),
+                new String[]{testGuwen.getId(), "507f1f77bcf86cd799439012", "507f1f77bcf86cd799439013"},
+                new String[]{"静夜思", "水调歌头", "山居秋暝"},
+                new String[]{"李白", "苏轼", "王维"},
+                new String[]{"唐", "宋", "唐"},
+                Arrays.asList(Arrays.asList("五言绝句"), Arrays.asList("宋词"), Arrays.asList("五言律诗")),
+                new long[]{1L, 2L, 3L});
+        when(guwenSearchIndex.isReady()).thenReturn(true);
+        when(guwenSearchIndex.getSnapshot()).thenReturn(snapshot);
+        when(guwenRepository.findAllById(anyList())).thenReturn(Arrays.asList(testGuwen));
+        
+        GuwenSearchRequest request = new GuwenSearchRequest("明月", 1, 20);
+        request.setDynasty("唐");
+        request.setWithFacets(true);
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.searchGuwen(request);
+        
+        // Then - 结果按朝代筛选，朝代分面不受自身筛选影响
+        assertThat(result.getTotal()).isEqualTo(2L);
+        assertThat(result.getFacets().get("dynasty"))
+                .extracting(FacetValueDTO::getValue, FacetValueDTO::getCount)
+                .containsExactly(tuple("唐", 2L), tuple("宋", 1L));
+        assertThat(result.getFacets().get("writer"))
+                .extracting(FacetValueDTO::getValue)
+                .containsExactly("李白", "王维");
+        verifyNoInteractions(mongoTemplate);
+    }
+    
+    @Test
+    void testSearchGuwen_CacheHit() {
+        // Given
+        GuwenSearchRequest request = new GuwenSearchRequest("  静夜思 ", 1, 20);
+        request.setSearchType("exact");
+        PageResult<String> cached = PageResult.of(Arrays.asList("missing", testGuwen.getId()), 1, 20, 2L);
+        when(guwenSearchCache.get(request)).thenReturn(cached);
+        when(guwenRepository.findAllById(anyList())).thenReturn(Arrays.asList(testGuwen));
+        
+        // When
+        PageResult<GuwenDTO> result = guwenService.searchGuwen(request);
+        
+        // Then - 按缓存的ID回表，已删除的文档跳过，总数沿用缓存值
+        assertThat(request.getKeyword()).isEqualTo("静夜思");
+        assertThat(result.getTotal()).isEqualTo(2L);
+        assertThat(result.getList()).extracting(GuwenDTO::getId).containsExactly(testGuwen.getId());
+        verify(guwenRepository, never()).findByTextSearch(anyString(), any(Pageable.class));
+        verify(guwenSearchCache, never()).put(any(), any());
+    }
+    
     @Test
     void testGetHotGuwen_Success() {
         // Given
@@ -232,6 +396,22 @@ class GuwenServiceTest {
         verify(guwenRepository).findAll(any(Pageable.class));
     }
     
+    @Test
+    void testGetHotGuwen_FromLeaderboard() {
+        // Given - 排行榜顺序与findAllById返回顺序不同
+        Guwen second = guwenList.get(1);
+        when(hotLeaderboard.topIds("guwen", "weekly", 2))
+                .thenReturn(Arrays.asList(second.getId(), testGuwen.getId()));
+        when(guwenRepository.findAllById(anyList())).thenReturn(guwenList);
+        
+        // When
+        List<GuwenDTO> result = guwenService.getHotGuwen("weekly", 2);
+        
+        // Then - 按排行榜顺序返回，排行榜已满足数量时不再查询最新古文
+        assertThat(result).extracting(GuwenDTO::getId).containsExactly(second.getId(), testGuwen.getId());
+        verify(guwenRepository, never()).findAll(any(Pageable.class));
+    }
+    
     @Test
     void testGetRandomGuwen_Success() {
         // Given
@@ -0,0 +1,53 @@
+package com.poem.education.service;
+
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.search.SuggestIndex;
+import com.poem.education.service.impl.SuggestServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SuggestService单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class SuggestServiceTest {
+    
+    @Mock
+    private SuggestIndex suggestIndex;
+    
+    @Mock
+    private MongoTemplate mongoTemplate;
+    
+    @InjectMocks
+    private SuggestServiceImpl suggestService;
+    
+    @Test
+    void testSuggest_FallbackEscapesPrefixWithoutQuoting() {
+        when(suggestIndex.isReady()).thenReturn(false);
+        when(mongoTemplate.find(any(Query.class), eq(Guwen.class))).thenReturn(Collections.emptyList());
+        
+        suggestService.suggest(" 水调歌头·明月(几时)有? ", 5);
+        
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Guwen.class));
+        assertThat(String.valueOf(query.getValue().getQueryObject().get("title")))
+                .isEqualTo("^水调歌头·明月\\(几时\\)有\\?")
+                .doesNotContain("\\Q");
+        assertThat(query.getValue().getLimit()).isEqualTo(5);
+    }
+}
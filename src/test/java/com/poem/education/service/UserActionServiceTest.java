@@ -1,23 +1,39 @@
 package com.poem.education.service;
 
+import com.poem.education.cache.UserMembershipCache;
+import com.poem.education.dto.request.ActionStatusRequest;
 import com.poem.education.dto.request.UserActionRequest;
+import com.poem.education.dto.response.ActionStatusDTO;
 import com.poem.education.dto.response.PageResult;
 import com.poem.education.dto.response.UserActionDTO;
 import com.poem.education.entity.mysql.UserAction;
+import com.poem.education.entity.mysql.UserFavorite;
+import com.poem.education.ingest.UserActionIngestor;
+import com.poem.education.ingest.UserActionsIngestedEvent;
 import com.poem.education.repository.mysql.UserActionRepository;
+import com.poem.education.repository.mysql.UserFavoriteRepository;
 import com.poem.education.service.impl.UserActionServiceImpl;
+import com.poem.education.stats.ContentStatsDelta;
+import com.poem.education.stats.ActionRollups;
+import com.poem.education.stats.UniqueViewerCounter;
+import com.poem.education.stats.ViewTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -38,6 +54,30 @@ class UserActionServiceTest {
     @Mock
     private UserActionRepository userActionRepository;
     
+    @Mock
+    private ContentStatsService contentStatsService;
+    
+    @Mock
+    private UniqueViewerCounter uniqueViewerCounter;
+    
+    @Mock
+    private ActionRollups actionRollups;
+    
+    @Mock
+    private UserActionIngestor userActionIngestor;
+    
+    @Mock
+    private ViewTracker viewTracker;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private UserFavoriteRepository userFavoriteRepository;
+    
+    @Mock
+    private UserMembershipCache userMembershipCache;
+    
     @InjectMocks
     private UserActionServiceImpl userActionService;
     
@@ -81,6 +121,127 @@ class UserActionServiceTest {
         verify(userActionRepository).save(any(UserAction.class));
     }
     
+    @Test
+    void testRecordAction_View_RecordsUniqueViewer() {
+        // Given
+        actionRequest.setActionType("view");
+        when(userActionRepository.findByUserIdAndTargetIdAndTargetTypeAndActionType(
+                anyLong(), anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+        when(userActionRepository.save(any(UserAction.class))).thenReturn(testUserAction);
+        
+        // When
+        userActionService.recordAction(1L, actionRequest);
+        
+        // Then
+        verify(uniqueViewerCounter).recordView(1L, "507f1f77bcf86cd799439011", "guwen", true);
+    }
+    
+    @Test
+    void testRecordAction_RepeatedView_CountsViewerOnly() {
+        // Given
+        actionRequest.setActionType("view");
+        when(userActionRepository.findByUserIdAndTargetIdAndTargetTypeAndActionType(
+                anyLong(), anyString(), anyString(), anyString())).thenReturn(Optional.of(testUserAction));
+        
+        // When
+        userActionService.recordAction(1L, actionRequest);
+        
+        // Then - 已有浏览记录时不计入当日浏览量，只计入独立访客
+        verify(uniqueViewerCounter).recordView(1L, "507f1f77bcf86cd799439011", "guwen", false);
+        verify(userActionRepository, never()).save(any(UserAction.class));
+    }
+    
+    @Test
+    void testRecordAction_View_EnqueuedWithoutWaitingForDatabase() {
+        // Given
+        actionRequest.setActionType("view");
+        when(userActionIngestor.accepts("view")).thenReturn(true);
+        when(userActionIngestor.offer(any(UserAction.class))).thenReturn(true);
+        
+        // When
+        UserActionDTO result = userActionService.recordAction(1L, actionRequest);
+        
+        // Then - 入队即返回，由写入线程批量落库
+        assertThat(result.getId()).isNull();
+        assertThat(result.getActionType()).isEqualTo("view");
+        assertThat(result.getCreatedAt()).isNotNull();
+        verify(userActionRepository, never()).save(any(UserAction.class));
+        verify(uniqueViewerCounter, never()).recordView(anyLong(), anyString(), anyString(), anyBoolean());
+    }
+    
+    @Test
+    void testRecordAction_QueueFull_FallsBackToSyncWrite() {
+        // Given
+        actionRequest.setActionType("view");
+        when(userActionIngestor.accepts("view")).thenReturn(true);
+        when(userActionIngestor.offer(any(UserAction.class))).thenReturn(false);
+        when(userActionRepository.findByUserIdAndTargetIdAndTargetTypeAndActionType(
+                anyLong(), anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+        when(userActionRepository.save(any(UserAction.class))).thenReturn(testUserAction);
+        
+        // When
+        UserActionDTO result = userActionService.recordAction(1L, actionRequest);
+        
+        // Then
+        assertThat(result.getId()).isEqualTo(1L);
+        verify(userActionRepository).save(any(UserAction.class));
+    }
+    
+    @Test
+    void testRecordAction_TrackedView_NotPersisted() {
+        // Given
+        actionRequest.setActionType("view");
+        when(viewTracker.isEnabled()).thenReturn(true);
+        when(viewTracker.track(1L, "507f1f77bcf86cd799439011", "guwen")).thenReturn(true);
+        
+        // When
+        UserActionDTO result = userActionService.recordAction(1L, actionRequest);
+        
+        // Then - 浏览不写入user_actions，直接累加计数
+        assertThat(result.getId()).isNull();
+        verify(uniqueViewerCounter).recordView(1L, "507f1f77bcf86cd799439011", "guwen", true);
+        verify(contentStatsService).updateContentStats("507f1f77bcf86cd799439011", "guwen", "view");
+        verifyNoInteractions(userActionRepository, userActionIngestor);
+    }
+    
+    @Test
+    void testRecordAction_TrackedView_DeduplicatedNotCounted() {
+        // Given
+        actionRequest.setActionType("view");
+        when(viewTracker.isEnabled()).thenReturn(true);
+        when(viewTracker.track(1L, "507f1f77bcf86cd799439011", "guwen")).thenReturn(false);
+        
+        // When
+        userActionService.recordAction(1L, actionRequest);
+        
+        // Then - 去重窗口内的重复浏览只计入独立访客
+        verify(uniqueViewerCounter).recordView(1L, "507f1f77bcf86cd799439011", "guwen", false);
+        verifyNoInteractions(contentStatsService, userActionRepository);
+    }
+    
+    @Test
+    void testOnActionsIngested_RecordsViewers() {
+        // Given
+        UserAction inserted = new UserAction();
+        inserted.setUserId(1L);
+        inserted.setTargetId("507f1f77bcf86cd799439011");
+        inserted.setTargetType("guwen");
+        inserted.setActionType("view");
+        UserAction duplicate = new UserAction();
+        duplicate.setUserId(2L);
+        duplicate.setTargetId("507f1f77bcf86cd799439011");
+        duplicate.setTargetType("guwen");
+        duplicate.setActionType("view");
+        
+        // When
+        userActionService.onActionsIngested(new UserActionsIngestedEvent(
+                Collections.singletonList(inserted), Collections.singletonList(duplicate)));
+        
+        // Then
+        verify(uniqueViewerCounter).recordView(1L, "507f1f77bcf86cd799439011", "guwen", true);
+        verify(uniqueViewerCounter).recordView(2L, "507f1f77bcf86cd799439011", "guwen", false);
+    }
+    
     @Test
     void testRecordAction_ExistingAction_ReturnExisting() {
         // Given
@@ -113,6 +274,7 @@ class UserActionServiceTest {
         
         verify(userActionRepository).findByUserIdAndTargetIdAndTargetTypeAndActionType(
                 1L, "507f1f77bcf86cd799439011", "guwen", "like");
+        verify(actionRollups).retract(testUserAction);
         verify(userActionRepository).delete(testUserAction);
     }
     
@@ -273,6 +435,44 @@ class UserActionServiceTest {
                 eq("guwen"), eq(UserAction.ActionType.LIKE), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
     }
     
+    @Test
+    void testGetHotContentByLikes_FromDailyRollup() {
+        // Given
+        Object[] result1 = {"507f1f77bcf86cd799439011", 10L};
+        when(actionRollups.isEnabled()).thenReturn(true);
+        when(actionRollups.topTargets(eq(ActionRollups.Granularity.DAY), eq("guwen"), eq(UserAction.ActionType.LIKE),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(10)))
+                .thenReturn(Collections.singletonList(result1));
+        
+        // When
+        List<Object> hotContent = userActionService.getHotContentByLikes("guwen", 10);
+        
+        // Then - 汇总启用时不再聚合原始行为表
+        assertThat(hotContent).hasSize(1);
+        verify(userActionRepository, never()).findHotContentsByAction(
+                anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetActionTrend_FillsEmptyBuckets() {
+        // Given
+        LocalDate start = LocalDate.of(2026, 10, 17);
+        LocalDate end = LocalDate.of(2026, 10, 19);
+        when(actionRollups.series(ActionRollups.Granularity.DAY, "guwen", "like", null,
+                start.atStartOfDay(), end.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonMap(LocalDate.of(2026, 10, 18).atStartOfDay(), 4L));
+        
+        // When
+        Map<String, Object> trend = userActionService.getActionTrend("guwen", "like", null, "day", start, end);
+        
+        // Then
+        List<Map<String, Object>> points = (List<Map<String, Object>>) trend.get("points");
+        assertThat(points).extracting(point -> point.get("count")).containsExactly(0L, 4L, 0L);
+        assertThat(trend.get("total")).isEqualTo(4L);
+        assertThat(trend.get("granularity")).isEqualTo("day");
+    }
+    
     @Test
     void testGetRecentActions_Success() {
         // Given
@@ -291,27 +491,73 @@ class UserActionServiceTest {
     }
     
     @Test
+    @SuppressWarnings("unchecked")
     void testBatchRecordActions_Success() {
         // Given
         UserActionRequest request2 = new UserActionRequest();
         request2.setTargetId("507f1f77bcf86cd799439012");
         request2.setTargetType("guwen");
         request2.setActionType("favorite");
+        UserAction savedAction2 = new UserAction();
+        savedAction2.setId(2L);
+        savedAction2.setUserId(1L);
+        savedAction2.setTargetId("507f1f77bcf86cd799439012");
+        savedAction2.setTargetType("guwen");
+        savedAction2.setActionType("favorite");
         
-        List<UserActionRequest> requests = Arrays.asList(actionRequest, request2);
+        List<UserActionRequest> requests = Arrays.asList(actionRequest, request2, actionRequest);
         
-        when(userActionRepository.findByUserIdAndTargetIdAndTargetTypeAndActionType(
-                anyLong(), anyString(), anyString(), anyString())).thenReturn(Optional.empty());
-        when(userActionRepository.save(any(UserAction.class))).thenReturn(testUserAction);
+        when(userActionRepository.findByUserIdAndTargetIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.emptyList(), Arrays.asList(testUserAction, savedAction2));
+        when(userActionRepository.insertIgnoreEach(anyList())).thenReturn(new int[]{1, 1});
         
         // When
         List<UserActionDTO> result = userActionService.batchRecordActions(1L, requests);
         
+        // Then - 一次查询、一次批量INSERT、每个内容一次统计更新，重新查询一次取回ID
+        assertThat(result).extracting(UserActionDTO::getId).containsExactly(1L, 2L, 1L);
+        
+        ArgumentCaptor<List<UserAction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userActionRepository).insertIgnoreEach(inserted.capture());
+        assertThat(inserted.getValue()).extracting(UserAction::getActionType).containsExactly("like", "favorite");
+        verify(userActionRepository, times(2)).findByUserIdAndTargetIdIn(eq(1L), anyCollection());
+        verify(userActionRepository, never()).save(any(UserAction.class));
+        
+        ArgumentCaptor<List<ContentStatsDelta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(contentStatsService).applyContentStatsDeltas(deltas.capture());
+        assertThat(deltas.getValue()).hasSize(2);
+        verify(contentStatsService, never()).updateContentStats(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    void testBatchRecordActions_AllExisting_NoInsert() {
+        // Given
+        when(userActionRepository.findByUserIdAndTargetIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.singletonList(testUserAction));
+        
+        // When
+        List<UserActionDTO> result = userActionService.batchRecordActions(1L, Collections.singletonList(actionRequest));
+        
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(2);
+        assertThat(result).extracting(UserActionDTO::getId).containsExactly(1L);
+        verify(userActionRepository, never()).insertIgnoreEach(anyList());
+        verifyNoInteractions(contentStatsService);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchRecordActions_ConcurrentInsertNotCounted() {
+        // Given - 另一个请求在查询之后先写入了同一行为
+        when(userActionRepository.findByUserIdAndTargetIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.emptyList(), Collections.singletonList(testUserAction));
+        when(userActionRepository.insertIgnoreEach(anyList())).thenReturn(new int[]{0});
+        
+        // When
+        List<UserActionDTO> result = userActionService.batchRecordActions(1L, Collections.singletonList(actionRequest));
         
-        verify(userActionRepository, times(2)).save(any(UserAction.class));
+        // Then
+        assertThat(result).extracting(UserActionDTO::getId).containsExactly(1L);
+        verifyNoInteractions(contentStatsService);
     }
     
     @Test
@@ -373,4 +619,70 @@ class UserActionServiceTest {
         
         verify(userActionRepository).deleteByUserId(1L);
     }
+    
+    @Test
+    void testGetActionStatus_CacheHit_NoDatabaseQuery() {
+        // Given
+        String targetId = "507f1f77bcf86cd799439011";
+        when(userMembershipCache.lookup(eq(1L), anyList())).thenReturn(UserMembershipCache.Lookup.hit(new HashSet<>(
+                Arrays.asList(UserMembershipCache.actionMember("like", "guwen", targetId),
+                        UserMembershipCache.favoriteMember("guwen", targetId)))));
+        
+        // When
+        List<ActionStatusDTO> result = userActionService.getActionStatus(1L, Arrays.asList(
+                new ActionStatusRequest.Target(targetId, "guwen"),
+                new ActionStatusRequest.Target("507f1f77bcf86cd799439012", "guwen")));
+        
+        // Then
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getLiked()).isTrue();
+        assertThat(result.get(0).getFavorited()).isTrue();
+        assertThat(result.get(0).getActionTypes()).containsExactly("like");
+        assertThat(result.get(1).getLiked()).isFalse();
+        assertThat(result.get(1).getActionTypes()).isEmpty();
+        verifyNoInteractions(userActionRepository, userFavoriteRepository);
+    }
+    
+    @Test
+    void testGetActionStatus_CacheMiss_LoadsMembershipOnce() {
+        // Given
+        String targetId = "507f1f77bcf86cd799439011";
+        when(userMembershipCache.lookup(eq(1L), anyList())).thenReturn(UserMembershipCache.Lookup.MISS);
+        when(userMembershipCache.getMaxMembers()).thenReturn(5000);
+        when(userActionRepository.findMembershipByUserId(eq(1L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new Object[]{"guwen", targetId, "share"}));
+        when(userFavoriteRepository.findMembershipByUserId(eq(1L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        
+        // When
+        List<ActionStatusDTO> result = userActionService.getActionStatus(1L,
+                Collections.singletonList(new ActionStatusRequest.Target(targetId, "guwen")));
+        
+        // Then
+        assertThat(result.get(0).getLiked()).isFalse();
+        assertThat(result.get(0).getFavorited()).isFalse();
+        assertThat(result.get(0).getActionTypes()).containsExactly("share");
+        verify(userMembershipCache).load(eq(1L), argThat(members -> members.size() == 1));
+        verify(userActionRepository, never()).findByUserIdAndTargetIdIn(anyLong(), any());
+    }
+    
+    @Test
+    void testGetActionStatus_Uncacheable_FallsBackToInQuery() {
+        // Given
+        String targetId = "507f1f77bcf86cd799439011";
+        when(userMembershipCache.lookup(eq(1L), anyList())).thenReturn(UserMembershipCache.Lookup.UNCACHEABLE);
+        when(userActionRepository.findByUserIdAndTargetIdIn(eq(1L), any())).thenReturn(Collections.emptyList());
+        UserFavorite favorite = new UserFavorite();
+        favorite.setTargetId(targetId);
+        favorite.setTargetType("guwen");
+        when(userFavoriteRepository.findByUserIdAndTargetIdIn(eq(1L), any())).thenReturn(Collections.singletonList(favorite));
+        
+        // When
+        List<ActionStatusDTO> result = userActionService.getActionStatus(1L,
+                Collections.singletonList(new ActionStatusRequest.Target(targetId, "guwen")));
+        
+        // Then
+        assertThat(result.get(0).getFavorited()).isTrue();
+        verify(userMembershipCache, never()).load(anyLong(), any());
+    }
 }
@@ -0,0 +1,189 @@
+package com.poem.education.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ActionPartitions测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class ActionPartitionsTest {
+
+    private static final String HOURLY = "action_rollup_hourly";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 20, 16, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDir;
+
+    private ActionPartitions partitions;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        partitions = new ActionPartitions();
+        ReflectionTestUtils.setField(partitions, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(partitions, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(partitions, "enabled", true);
+        ReflectionTestUtils.setField(partitions, "monthsAhead", 2);
+        ReflectionTestUtils.setField(partitions, "hourlyRetentionDays", 35);
+        ReflectionTestUtils.setField(partitions, "rollupEnabled", true);
+        ReflectionTestUtils.setField(partitions, "archiveEnabled", false);
+        ReflectionTestUtils.setField(partitions, "archiveDir", archiveDir.toString());
+        ReflectionTestUtils.setField(partitions, "viewRetentionMonths", 0);
+        ReflectionTestUtils.setField(partitions, "deleteBatchSize", 2);
+        partitions.init();
+    }
+
+    private static ActionPartitions.Partition partition(String name, LocalDateTime upperBound) {
+        return new ActionPartitions.Partition(name, upperBound);
+    }
+
+    @Test
+    void testParseBound() {
+        assertThat(ActionPartitions.parseBound("'2026-11-01 00:00:00'")).isEqualTo(LocalDateTime.of(2026, 11, 1, 0, 0));
+        assertThat(ActionPartitions.parseBound("'2026-11-01'")).isEqualTo(LocalDateTime.of(2026, 11, 1, 0, 0));
+        assertThat(ActionPartitions.parseBound("MAXVALUE")).isNull();
+    }
+
+    @Test
+    void testAddFuturePartitions_SplitsFuturePartitionUpToMonthsAhead() {
+        List<ActionPartitions.Partition> existing = Arrays.asList(
+                partition("p202610", LocalDateTime.of(2026, 11, 1, 0, 0)),
+                partition(ActionPartitions.FUTURE_PARTITION, null));
+
+        partitions.addFuturePartitions(HOURLY, existing, NOW);
+
+        verify(jdbcTemplate).execute("ALTER TABLE action_rollup_hourly REORGANIZE PARTITION p_future INTO ("
+                + "PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'), "
+                + "PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'), "
+                + "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+        assertThat(meterRegistry.get("action_partitions.created").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testAddFuturePartitions_AlreadyAheadDoesNothing() {
+        List<ActionPartitions.Partition> existing = Arrays.asList(
+                partition("p202612", LocalDateTime.of(2027, 1, 1, 0, 0)),
+                partition(ActionPartitions.FUTURE_PARTITION, null));
+
+        partitions.addFuturePartitions(HOURLY, existing, NOW);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testDropExpired_DropsOnlyWholeMonthsBeforeCutoff() throws Exception {
+        List<ActionPartitions.Partition> existing = Arrays.asList(
+                partition("p202608", LocalDateTime.of(2026, 9, 1, 0, 0)),
+                partition("p202609", LocalDateTime.of(2026, 10, 1, 0, 0)),
+                partition("p202610", LocalDateTime.of(2026, 11, 1, 0, 0)),
+                partition(ActionPartitions.FUTURE_PARTITION, null));
+
+        // 保留35天，截止时间为2026-09-15，9月分区仍有未过期的数据
+        partitions.dropExpired(HOURLY, existing, NOW.minusDays(35));
+
+        verify(jdbcTemplate).execute("ALTER TABLE action_rollup_hourly DROP PARTITION p202608");
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIsPartitioned_UnsupportedDatabaseIsUnpartitioned() {
+        when(jdbcTemplate.query(contains("information_schema.PARTITIONS"), any(RowMapper.class), eq(HOURLY)))
+                .thenThrow(new BadSqlGrammarException("partitions", "SELECT", new SQLException("not found")));
+
+        assertThat(partitions.isPartitioned(HOURLY)).isFalse();
+    }
+
+    @Test
+    void testPurgeViews_DeletesOldestExpiredMonthBelowWatermark() throws Exception {
+        ReflectionTestUtils.setField(partitions, "viewRetentionMonths", 6);
+        when(jdbcTemplate.queryForList(contains("action_rollup_watermark"), eq(Long.class), eq(ActionRollups.WATERMARK_NAME)))
+                .thenReturn(Collections.singletonList(500L));
+        when(jdbcTemplate.queryForList(contains("ORDER BY created_at LIMIT 1"), eq(Timestamp.class), eq("view"),
+                eq(Timestamp.valueOf(LocalDateTime.of(2026, 4, 1, 0, 0)))))
+                .thenReturn(Collections.singletonList(Timestamp.valueOf(LocalDateTime.of(2026, 2, 14, 8, 30))));
+        when(jdbcTemplate.update(startsWith("DELETE FROM user_actions"), eq("view"), any(), any(), eq(500L)))
+                .thenReturn(2, 1);
+
+        partitions.purgeViews(NOW);
+
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM user_actions"), eq("view"),
+                eq(Timestamp.valueOf(LocalDateTime.of(2026, 2, 1, 0, 0))),
+                eq(Timestamp.valueOf(LocalDateTime.of(2026, 3, 1, 0, 0))), eq(500L));
+        assertThat(meterRegistry.get("action_partitions.deleted_views").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExport_WritesGzipCsvAndKeepsExistingArchives() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(rs.getMetaData()).thenReturn(meta);
+        when(meta.getColumnCount()).thenReturn(2);
+        when(meta.getColumnLabel(1)).thenReturn("target_id");
+        when(meta.getColumnLabel(2)).thenReturn("notes");
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn("507f1f77bcf86cd799439011", "507f1f77bcf86cd799439012");
+        when(rs.getString(2)).thenReturn("a,\"b\"", (String) null);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> ((ResultSetExtractor<Long>) invocation.getArgument(1)).extractData(rs));
+
+        Path existing = partitions.archiveFile(HOURLY, "p202608");
+        Files.createDirectories(existing.getParent());
+        Files.write(existing, new byte[0]);
+        Path file = partitions.archiveFile(HOURLY, "p202608");
+        long rows = partitions.export(file, "SELECT * FROM action_rollup_hourly PARTITION (p202608)");
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(file.getFileName().toString()).isEqualTo("p202608-1.csv.gz");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            assertThat(reader.lines().collect(Collectors.toList())).containsExactly(
+                    "target_id,notes",
+                    "507f1f77bcf86cd799439011,\"a,\"\"b\"\"\"",
+                    "507f1f77bcf86cd799439012,\\N");
+        }
+        assertThat(meterRegistry.get("action_partitions.archived_rows").counter().count()).isEqualTo(2);
+    }
+}
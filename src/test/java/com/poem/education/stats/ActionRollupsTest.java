@@ -0,0 +1,185 @@
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.UserAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ActionRollups测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class ActionRollupsTest {
+
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+
+    private static final String SENTENCE_ID = "507f1f77bcf86cd799439012";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActionRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        rollups = new ActionRollups();
+        ReflectionTestUtils.setField(rollups, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(rollups, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(rollups, "enabled", true);
+        ReflectionTestUtils.setField(rollups, "batchSize", 100);
+        ReflectionTestUtils.setField(rollups, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(rollups, "safetyLagMs", 60000L);
+        rollups.init();
+    }
+
+    private static ActionRollups.ActionRow row(long id, String targetId, String action, LocalDateTime createdAt) {
+        return new ActionRollups.ActionRow(id, "guwen", targetId, action, createdAt);
+    }
+
+    /**
+     * 取出以指定前缀开头的update调用的参数
+     */
+    private List<Object[]> updates(String sqlPrefix) {
+        List<Object[]> result = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(jdbcTemplate).getInvocations()) {
+            Object[] arguments = invocation.getRawArguments();
+            if (invocation.getMethod().getName().equals("update") && arguments[0] instanceof String
+                    && ((String) arguments[0]).startsWith(sqlPrefix)) {
+                result.add((Object[]) arguments[1]);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testAggregate_GroupsByBucketTargetAndAction() {
+        LocalDateTime base = LocalDateTime.of(2026, 10, 19, 10, 5);
+        List<ActionRollups.ActionRow> rows = Arrays.asList(
+                row(1, GUWEN_ID, "like", base),
+                row(2, GUWEN_ID, "like", base.plusMinutes(30)),
+                row(3, GUWEN_ID, "like", base.plusHours(1)),
+                row(4, SENTENCE_ID, "view", base));
+
+        Map<ActionRollups.RollupKey, Long> hourly = ActionRollups.aggregate(rows, ActionRollups.Granularity.HOUR, 1);
+        Map<ActionRollups.RollupKey, Long> daily = ActionRollups.aggregate(rows, ActionRollups.Granularity.DAY, 1);
+
+        assertThat(hourly).hasSize(3);
+        assertThat(hourly.get(new ActionRollups.RollupKey(base.withMinute(0), "guwen", GUWEN_ID, "like")))
+                .isEqualTo(2L);
+        assertThat(daily).hasSize(2);
+        assertThat(daily.get(new ActionRollups.RollupKey(base.toLocalDate().atStartOfDay(), "guwen", GUWEN_ID, "like")))
+                .isEqualTo(3L);
+    }
+
+    @Test
+    void testSettledPrefix_StopsAtFirstRecentRow() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 10, 19, 10, 0);
+        List<ActionRollups.ActionRow> rows = Arrays.asList(
+                row(1, GUWEN_ID, "like", cutoff.minusMinutes(5)),
+                row(2, GUWEN_ID, "like", cutoff.plusSeconds(1)),
+                row(3, GUWEN_ID, "like", cutoff.minusMinutes(1)));
+
+        // 第3行虽早于截止时间，但排在未稳定的第2行之后，不能越过
+        assertThat(ActionRollups.settledPrefix(rows, cutoff)).hasSize(1);
+    }
+
+    @Test
+    void testGranularity_Of() {
+        assertThat(ActionRollups.Granularity.of("HOUR")).isEqualTo(ActionRollups.Granularity.HOUR);
+        assertThat(ActionRollups.Granularity.of("day")).isEqualTo(ActionRollups.Granularity.DAY);
+        assertThat(ActionRollups.Granularity.of("week")).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFold_UpsertsBothGranularitiesAndAdvancesWatermark() {
+        LocalDateTime old = LocalDateTime.now().minusHours(2);
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), eq(ActionRollups.WATERMARK_NAME)))
+                .thenReturn(Collections.singletonList(10L));
+        when(jdbcTemplate.query(contains("FROM user_actions"), any(RowMapper.class), eq(10L), eq(100)))
+                .thenReturn(Arrays.asList(row(11, GUWEN_ID, "like", old), row(12, SENTENCE_ID, "view", old)));
+
+        int folded = rollups.fold();
+
+        assertThat(folded).isEqualTo(2);
+        assertThat(updates("INSERT INTO action_rollup_hourly")).hasSize(1);
+        assertThat(updates("INSERT INTO action_rollup_daily")).hasSize(1);
+        List<Object[]> watermark = updates("UPDATE action_rollup_watermark");
+        assertThat(watermark).hasSize(1);
+        assertThat(watermark.get(0)).containsExactly(12L, ActionRollups.WATERMARK_NAME);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testAdd_UpsertsHourlyAndDailyCounts() {
+        LocalDateTime hour = LocalDateTime.of(2026, 10, 20, 9, 0);
+        Map<ActionRollups.RollupKey, Long> counts = new HashMap<>();
+        counts.put(new ActionRollups.RollupKey(hour, "guwen", GUWEN_ID, "view"), 3L);
+        counts.put(new ActionRollups.RollupKey(hour.plusHours(1), "guwen", GUWEN_ID, "view"), 2L);
+
+        rollups.add(counts);
+
+        assertThat(updates("INSERT INTO action_rollup_hourly")).hasSize(1);
+        List<Object[]> daily = updates("INSERT INTO action_rollup_daily");
+        assertThat(daily).hasSize(1);
+        // 同一天的两个小时桶合并为一行
+        assertThat(daily.get(0)).hasSize(5);
+        assertThat(daily.get(0)[4]).isEqualTo(5L);
+    }
+
+    @Test
+    void testRetract_SkipsActionsNotYetFolded() {
+        UserAction action = new UserAction();
+        action.setId(20L);
+        action.setCreatedAt(LocalDateTime.now());
+        when(jdbcTemplate.queryForList(contains("LOCK IN SHARE MODE"), eq(Long.class), eq(ActionRollups.WATERMARK_NAME)))
+                .thenReturn(Collections.singletonList(10L));
+
+        rollups.retract(action);
+
+        assertThat(updates("")).isEmpty();
+    }
+
+    @Test
+    void testRetract_DecrementsFoldedAction() {
+        UserAction action = new UserAction();
+        action.setId(5L);
+        action.setTargetType("guwen");
+        action.setTargetId(GUWEN_ID);
+        action.setActionType("like");
+        action.setCreatedAt(LocalDateTime.of(2026, 10, 19, 10, 5));
+        when(jdbcTemplate.queryForList(contains("LOCK IN SHARE MODE"), eq(Long.class), eq(ActionRollups.WATERMARK_NAME)))
+                .thenReturn(Collections.singletonList(10L));
+
+        rollups.retract(action);
+
+        List<Object[]> upserts = updates("INSERT INTO action_rollup_");
+        assertThat(upserts).hasSize(2);
+        assertThat(upserts).allSatisfy(values -> assertThat(values[4]).isEqualTo(-1L));
+    }
+}
@@ -0,0 +1,145 @@
+package com.poem.education.stats;
+
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ContentStatsAccumulator测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class ContentStatsAccumulatorTest {
+    
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+    
+    private static final String SENTENCE_ID = "507f1f77bcf86cd799439012";
+    
+    @Mock
+    private ContentStatsRepository contentStatsRepository;
+    
+    private ContentStatsAccumulator accumulator;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accumulator = new ContentStatsAccumulator();
+        ReflectionTestUtils.setField(accumulator, "contentStatsRepository", contentStatsRepository);
+        ReflectionTestUtils.setField(accumulator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(accumulator, "enabled", true);
+        ReflectionTestUtils.setField(accumulator, "maxPendingKeys", 100);
+        ReflectionTestUtils.setField(accumulator, "batchSize", 500);
+        accumulator.init();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_MergesIncrementsIntoOneBatch() {
+        accumulator.add(GUWEN_ID, "guwen", "view");
+        accumulator.add(GUWEN_ID, "guwen", "VIEW");
+        accumulator.add(GUWEN_ID, "guwen", "like");
+        accumulator.add(SENTENCE_ID, "sentence", "share");
+        
+        int written = accumulator.flush();
+        
+        ArgumentCaptor<List<ContentStatsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contentStatsRepository, times(1)).batchUpsertIncrements(captor.capture());
+        assertThat(written).isEqualTo(2);
+        assertThat(captor.getValue()).hasSize(2);
+        ContentStatsDelta guwen = captor.getValue().stream()
+                .filter(delta -> GUWEN_ID.equals(delta.getContentId())).findFirst().orElseThrow();
+        assertThat(guwen.getViewCount()).isEqualTo(2);
+        assertThat(guwen.getLikeCount()).isEqualTo(1);
+        assertThat(guwen.getShareCount()).isZero();
+        assertThat(accumulator.pendingKeys()).isZero();
+        assertThat(meterRegistry.get("content.stats.write_behind.flushed_rows").counter().count()).isEqualTo(2.0);
+    }
+    
+    @Test
+    void testFlush_NothingPending() {
+        assertThat(accumulator.flush()).isZero();
+        verifyNoInteractions(contentStatsRepository);
+    }
+    
+    @Test
+    void testAdd_RejectsUnknownActionAndOverflow() {
+        ReflectionTestUtils.setField(accumulator, "maxPendingKeys", 1);
+        
+        assertThat(accumulator.add(GUWEN_ID, "guwen", "unknown")).isFalse();
+        assertThat(accumulator.add(GUWEN_ID, "guwen", "view")).isTrue();
+        assertThat(accumulator.add(GUWEN_ID, "guwen", "like")).isTrue();
+        assertThat(accumulator.add(SENTENCE_ID, "sentence", "view")).isFalse();
+        assertThat(meterRegistry.get("content.stats.write_behind.overflow").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_FailedBatchIsRetriedNextCycle() {
+        when(contentStatsRepository.batchUpsertIncrements(anyList()))
+                .thenThrow(new RuntimeException("deadlock"))
+                .thenReturn(1);
+        accumulator.add(GUWEN_ID, "guwen", "favorite");
+        
+        assertThat(accumulator.flush()).isZero();
+        assertThat(accumulator.pendingKeys()).isEqualTo(1);
+        assertThat(accumulator.flush()).isEqualTo(1);
+        
+        ArgumentCaptor<List<ContentStatsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contentStatsRepository, times(2)).batchUpsertIncrements(captor.capture());
+        assertThat(captor.getAllValues().get(1).get(0).getFavoriteCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void testConcurrentAddAndFlush_NoIncrementLost() throws Exception {
+        AtomicLong persistedViews = new AtomicLong();
+        when(contentStatsRepository.batchUpsertIncrements(anyList())).thenAnswer(invocation -> {
+            List<ContentStatsDelta> deltas = invocation.getArgument(0);
+            deltas.forEach(delta -> persistedViews.addAndGet(delta.getViewCount()));
+            return deltas.size();
+        });
+        int threads = 8;
+        int perThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String contentId = String.format("507f1f77bcf86cd7994390%02d", t % 3);
+            tasks.add(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    accumulator.add(contentId, "guwen", "view");
+                }
+                done.countDown();
+            });
+        }
+        tasks.forEach(executor::execute);
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            accumulator.flush();
+        }
+        accumulator.flush();
+        executor.shutdown();
+        
+        assertThat(persistedViews.get()).isEqualTo((long) threads * perThread);
+    }
+}
@@ -0,0 +1,177 @@
+package com.poem.education.stats;
+
+import com.poem.education.cache.CorpusChangedEvent;
+import com.poem.education.entity.mongodb.Guwen;
+import com.poem.education.entity.mongodb.Sentence;
+import com.poem.education.entity.mongodb.Writer;
+import com.poem.education.entity.mysql.DailyViewRollup;
+import com.poem.education.repository.mysql.DailyViewRollupRepository;
+import com.poem.education.repository.mysql.UserActionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * GlobalStatsSnapshot测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class GlobalStatsSnapshotTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UniqueViewerCounter uniqueViewerCounter;
+
+    @Mock
+    private UserActionRepository userActionRepository;
+
+    @Mock
+    private DailyViewRollupRepository dailyViewRollupRepository;
+
+    @Mock
+    private ViewTracker viewTracker;
+
+    private GlobalStatsSnapshot snapshot;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshot = new GlobalStatsSnapshot();
+        ReflectionTestUtils.setField(snapshot, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(snapshot, "uniqueViewerCounter", uniqueViewerCounter);
+        ReflectionTestUtils.setField(snapshot, "userActionRepository", userActionRepository);
+        ReflectionTestUtils.setField(snapshot, "dailyViewRollupRepository", dailyViewRollupRepository);
+        ReflectionTestUtils.setField(snapshot, "viewTracker", viewTracker);
+        ReflectionTestUtils.setField(snapshot, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(snapshot, "refreshIntervalMs", 30000L);
+        snapshot.init();
+    }
+
+    private void stubCounts(long guwen, long writer, long sentence) {
+        when(mongoTemplate.getCollectionName(Guwen.class)).thenReturn("guwen");
+        when(mongoTemplate.getCollectionName(Writer.class)).thenReturn("writer");
+        when(mongoTemplate.getCollectionName(Sentence.class)).thenReturn("sentences");
+        when(mongoTemplate.estimatedCount("guwen")).thenReturn(guwen);
+        when(mongoTemplate.estimatedCount("writer")).thenReturn(writer);
+        when(mongoTemplate.estimatedCount("sentences")).thenReturn(sentence);
+    }
+
+    private DailyViewRollup today(long views, long uniqueViewers) {
+        DailyViewRollup rollup = new DailyViewRollup();
+        rollup.setViewCount(views);
+        rollup.setUniqueViewers(uniqueViewers);
+        return rollup;
+    }
+
+    @Test
+    void testGet_RefreshesOnceThenServesFromMemory() {
+        stubCounts(100, 20, 300);
+        when(uniqueViewerCounter.getToday()).thenReturn(today(12, 5));
+
+        GlobalStatsSnapshot.Snapshot first = snapshot.get();
+        GlobalStatsSnapshot.Snapshot second = snapshot.get();
+
+        assertThat(first.getPoemCount()).isEqualTo(100);
+        assertThat(first.getWriterCount()).isEqualTo(20);
+        assertThat(first.getSentenceCount()).isEqualTo(300);
+        assertThat(first.getTodayViews()).isEqualTo(12);
+        assertThat(first.getTodayUniqueViewers()).isEqualTo(5);
+        assertThat(second).isSameAs(first);
+        verify(mongoTemplate, times(1)).estimatedCount("guwen");
+        verify(mongoTemplate, never()).count(any(), anyString());
+    }
+
+    @Test
+    void testRefresh_RedisUnavailableFallsBackToDatabaseCount() {
+        stubCounts(1, 1, 1);
+        when(uniqueViewerCounter.getToday()).thenReturn(null);
+        when(viewTracker.isEnabled()).thenReturn(false);
+        when(userActionRepository.countByActionTypeAndCreatedAtAfter(eq("view"), any(LocalDateTime.class)))
+                .thenReturn(42L);
+
+        assertThat(snapshot.refresh()).isTrue();
+
+        assertThat(snapshot.get().getTodayViews()).isEqualTo(42);
+        assertThat(snapshot.get().getTodayUniqueViewers()).isNull();
+    }
+
+    @Test
+    void testRefresh_RedisUnavailableWithViewTrackingUsesRollupAndLastSnapshot() {
+        stubCounts(1, 1, 1);
+        when(uniqueViewerCounter.getToday()).thenReturn(today(30, 8), null, null);
+        when(viewTracker.isEnabled()).thenReturn(true);
+        when(dailyViewRollupRepository.findById(any(LocalDate.class)))
+                .thenReturn(Optional.of(today(50, 6)), Optional.empty());
+
+        snapshot.refresh();
+        assertThat(snapshot.refresh()).isTrue();
+        // 汇总表较大的浏览量与上一份快照较大的独立访客数
+        assertThat(snapshot.get().getTodayViews()).isEqualTo(50);
+        assertThat(snapshot.get().getTodayUniqueViewers()).isEqualTo(8);
+
+        assertThat(snapshot.refresh()).isTrue();
+        assertThat(snapshot.get().getTodayViews()).isEqualTo(50);
+        verify(userActionRepository, never()).countByActionTypeAndCreatedAtAfter(anyString(), any());
+    }
+
+    @Test
+    void testRefresh_FailureKeepsPreviousSnapshot() {
+        stubCounts(100, 20, 300);
+        when(uniqueViewerCounter.getToday()).thenReturn(today(1, 1));
+        snapshot.refresh();
+        GlobalStatsSnapshot.Snapshot previous = snapshot.get();
+
+        when(mongoTemplate.estimatedCount("guwen")).thenThrow(new IllegalStateException("mongo down"));
+
+        assertThat(snapshot.refresh()).isFalse();
+        assertThat(snapshot.get()).isSameAs(previous);
+        assertThat(meterRegistry.get("global.stats.snapshot.failed_refreshes").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_FirstRefreshFailsReturnsEmpty() {
+        when(mongoTemplate.getCollectionName(Guwen.class)).thenThrow(new IllegalStateException("mongo down"));
+
+        GlobalStatsSnapshot.Snapshot result = snapshot.get();
+
+        assertThat(result.getPoemCount()).isZero();
+        assertThat(result.getRefreshedAt()).isZero();
+    }
+
+    @Test
+    void testOnCorpusChanged_RefreshesExistingSnapshot() {
+        stubCounts(100, 20, 300);
+        when(uniqueViewerCounter.getToday()).thenReturn(today(1, 1));
+        snapshot.get();
+
+        when(mongoTemplate.estimatedCount("guwen")).thenReturn(101L);
+        snapshot.onCorpusChanged(new CorpusChangedEvent("guwen", 2));
+
+        assertThat(snapshot.get().getPoemCount()).isEqualTo(101);
+    }
+
+    @Test
+    void testMetrics_ExposeStalenessAndInterval() {
+        assertThat(meterRegistry.get("global.stats.snapshot.staleness").gauge().value()).isZero();
+        assertThat(meterRegistry.get("global.stats.snapshot.refresh_interval").gauge().value()).isEqualTo(30000);
+    }
+}
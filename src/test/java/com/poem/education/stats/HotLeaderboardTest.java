@@ -0,0 +1,125 @@
+package com.poem.education.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * HotLeaderboard测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class HotLeaderboardTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private HotLeaderboard hotLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        hotLeaderboard = new HotLeaderboard();
+        ReflectionTestUtils.setField(hotLeaderboard, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(hotLeaderboard, "enabled", true);
+        ReflectionTestUtils.setField(hotLeaderboard, "maxSize", 10000);
+        ReflectionTestUtils.setField(hotLeaderboard, "mergedTtlMs", 30000L);
+    }
+
+    @Test
+    void testWeight_MatchesHotScore() {
+        assertThat(HotLeaderboard.weight("view")).isEqualTo(1);
+        assertThat(HotLeaderboard.weight("LIKE")).isEqualTo(3);
+        assertThat(HotLeaderboard.weight("favorite")).isEqualTo(5);
+        assertThat(HotLeaderboard.weight("comment")).isEqualTo(2);
+        assertThat(HotLeaderboard.weight("share")).isZero();
+        assertThat(HotLeaderboard.weight(null)).isZero();
+    }
+
+    @Test
+    void testPeriodOf_UnknownFallsBackToDaily() {
+        assertThat(HotLeaderboard.Period.of("weekly")).isEqualTo(HotLeaderboard.Period.WEEKLY);
+        assertThat(HotLeaderboard.Period.of("MONTHLY")).isEqualTo(HotLeaderboard.Period.MONTHLY);
+        assertThat(HotLeaderboard.Period.of("yearly")).isEqualTo(HotLeaderboard.Period.DAILY);
+        assertThat(HotLeaderboard.Period.of(null)).isEqualTo(HotLeaderboard.Period.DAILY);
+    }
+
+    @Test
+    void testBucketKey_PerPeriod() {
+        // 2026-10-21是周三
+        ZonedDateTime time = ZonedDateTime.of(2026, 10, 21, 15, 30, 0, 0, ZONE);
+
+        assertThat(HotLeaderboard.bucketKey("guwen", HotLeaderboard.Period.DAILY,
+                HotLeaderboard.Period.DAILY.bucketStart(time))).isEqualTo("hot:guwen:daily:20261021");
+        assertThat(HotLeaderboard.bucketKey("guwen", HotLeaderboard.Period.WEEKLY,
+                HotLeaderboard.Period.WEEKLY.bucketStart(time))).isEqualTo("hot:guwen:weekly:20261019");
+        assertThat(HotLeaderboard.bucketKey("guwen", HotLeaderboard.Period.MONTHLY,
+                HotLeaderboard.Period.MONTHLY.bucketStart(time))).isEqualTo("hot:guwen:monthly:202610");
+    }
+
+    @Test
+    void testDecayedScore_DoublesEveryHalfLife() {
+        ZonedDateTime bucketStart = ZonedDateTime.of(2026, 10, 21, 0, 0, 0, 0, ZONE);
+        Duration halfLife = Duration.ofHours(6);
+
+        assertThat(HotLeaderboard.decayedScore(3, bucketStart, bucketStart, halfLife)).isEqualTo(3.0);
+        assertThat(HotLeaderboard.decayedScore(3, bucketStart, bucketStart.plusHours(6), halfLife))
+                .isCloseTo(6.0, within(1e-9));
+        assertThat(HotLeaderboard.decayedScore(3, bucketStart, bucketStart.plusHours(12), halfLife))
+                .isCloseTo(12.0, within(1e-9));
+    }
+
+    @Test
+    void testTopIds_MergesCurrentAndPreviousBucket() {
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(stringRedisTemplate.hasKey(anyString())).thenReturn(false);
+        when(zSetOperations.reverseRange(endsWith(":merged"), eq(0L), eq(2L)))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("b", "a", "c")));
+
+        List<String> ids = hotLeaderboard.topIds("guwen", "weekly", 3);
+
+        assertThat(ids).containsExactly("b", "a", "c");
+        verify(zSetOperations).unionAndStore(startsWith("hot:guwen:weekly:"), anyCollection(),
+                endsWith(":merged"), eq(RedisZSetCommands.Aggregate.SUM), any(RedisZSetCommands.Weights.class));
+    }
+
+    @Test
+    void testTopIds_RedisFailureReturnsEmpty() {
+        when(stringRedisTemplate.hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(hotLeaderboard.topIds("guwen", "daily", 10)).isEmpty();
+    }
+
+    @Test
+    void testDisabled_SkipsRedis() {
+        ReflectionTestUtils.setField(hotLeaderboard, "enabled", false);
+
+        hotLeaderboard.record("a", "guwen", "like");
+
+        assertThat(hotLeaderboard.topIds("guwen", "daily", 10)).isEmpty();
+        verifyNoInteractions(stringRedisTemplate);
+    }
+}
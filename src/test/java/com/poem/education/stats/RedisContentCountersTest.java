@@ -0,0 +1,140 @@
+package com.poem.education.stats;
+
+import com.poem.education.repository.mysql.ContentStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RedisContentCounters测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisContentCountersTest {
+    
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+    
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Mock
+    private ContentStatsRepository contentStatsRepository;
+    
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    
+    @Mock
+    private SetOperations<String, String> setOperations;
+    
+    private RedisContentCounters counters;
+    
+    @BeforeEach
+    void setUp() {
+        counters = new RedisContentCounters();
+        ReflectionTestUtils.setField(counters, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(counters, "contentStatsRepository", contentStatsRepository);
+        ReflectionTestUtils.setField(counters, "enabled", true);
+        ReflectionTestUtils.setField(counters, "reconcileBatchSize", 500);
+        ReflectionTestUtils.setField(counters, "reconcileLockMs", 60000L);
+    }
+    
+    @Test
+    void testToDelta() {
+        ContentStatsDelta delta = RedisContentCounters.toDelta("guwen:" + GUWEN_ID,
+                Arrays.asList("view", "3", "comment", "-1", "unknown", "9"));
+        
+        assertThat(delta.getContentType()).isEqualTo("guwen");
+        assertThat(delta.getContentId()).isEqualTo(GUWEN_ID);
+        assertThat(delta.getViewCount()).isEqualTo(3);
+        assertThat(delta.getCommentCount()).isEqualTo(-1);
+        assertThat(delta.getLikeCount()).isZero();
+        assertThat(RedisContentCounters.toDelta("guwen:" + GUWEN_ID, Arrays.asList("view", "0"))).isNull();
+        assertThat(RedisContentCounters.toDelta("guwen:" + GUWEN_ID, Collections.emptyList())).isNull();
+    }
+    
+    @Test
+    void testIncrement_UnknownActionIsRejected() {
+        assertThat(counters.increment(GUWEN_ID, "guwen", "unknown", 1L)).isFalse();
+        verifyNoInteractions(stringRedisTemplate);
+    }
+    
+    @Test
+    void testReconcile_SkipsWhenLockHeldElsewhere() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(RedisContentCounters.RECONCILE_LOCK_KEY), anyString(),
+                eq(60000L), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+        
+        assertThat(counters.reconcile()).isZero();
+        verifyNoInteractions(contentStatsRepository);
+        verify(valueOperations, never()).increment(anyString());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconcile_FoldsDeltasIntoOneBatch() {
+        String member = "guwen:" + GUWEN_ID;
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(RedisContentCounters.RECONCILE_LOCK_KEY), anyString(),
+                eq(60000L), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(RedisContentCounters.INFLIGHT_KEY)).thenReturn(Collections.emptySet());
+        when(setOperations.distinctRandomMembers(RedisContentCounters.DIRTY_KEY, 500))
+                .thenReturn(new LinkedHashSet<>(Collections.singletonList(member)));
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenReturn(Arrays.asList("view", "5", "like", "2"))
+                .thenReturn(1L);
+        
+        int rows = counters.reconcile();
+        
+        ArgumentCaptor<List<ContentStatsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contentStatsRepository).batchUpsertIncrements(captor.capture());
+        assertThat(rows).isEqualTo(1);
+        assertThat(captor.getValue()).hasSize(1);
+        assertThat(captor.getValue().get(0).getViewCount()).isEqualTo(5);
+        assertThat(captor.getValue().get(0).getLikeCount()).isEqualTo(2);
+        verify(stringRedisTemplate).executePipelined(any(RedisCallback.class));
+        verify(valueOperations).increment(RedisContentCounters.RECONCILE_EPOCH_KEY);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconcile_KeepsInflightWhenUpsertFails() {
+        String member = "guwen:" + GUWEN_ID;
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(RedisContentCounters.RECONCILE_LOCK_KEY), anyString(),
+                eq(60000L), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(RedisContentCounters.INFLIGHT_KEY))
+                .thenReturn(new LinkedHashSet<>(Collections.singletonList(member)));
+        when(setOperations.distinctRandomMembers(RedisContentCounters.DIRTY_KEY, 499))
+                .thenReturn(Collections.emptySet());
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenReturn(Arrays.asList("view", "1"))
+                .thenReturn(1L);
+        when(contentStatsRepository.batchUpsertIncrements(anyList())).thenThrow(new RuntimeException("db down"));
+        
+        assertThatThrownBy(() -> counters.reconcile()).isInstanceOf(RuntimeException.class);
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+}
@@ -0,0 +1,147 @@
+package com.poem.education.stats;
+
+import com.poem.education.entity.mysql.DailyViewRollup;
+import com.poem.education.repository.mysql.DailyViewRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UniqueViewerCounter测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-19
+ */
+@ExtendWith(MockitoExtension.class)
+class UniqueViewerCounterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private DailyViewRollupRepository dailyViewRollupRepository;
+
+    private UniqueViewerCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UniqueViewerCounter();
+        ReflectionTestUtils.setField(counter, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(counter, "dailyViewRollupRepository", dailyViewRollupRepository);
+        ReflectionTestUtils.setField(counter, "enabled", true);
+        ReflectionTestUtils.setField(counter, "retentionDays", 3);
+        ReflectionTestUtils.setField(counter, "contentRetentionDays", 90);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordView_RenewsContentKeyTtl() {
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+                    return Collections.emptyList();
+                });
+
+        counter.recordView(1L, "507f1f77bcf86cd799439011", "guwen", false);
+
+        String key = UniqueViewerCounter.contentViewersKey("guwen", "507f1f77bcf86cd799439011");
+        verify(connection).pfAdd(key, "1");
+        verify(connection).expire(key, 90L * 24 * 3600);
+        verify(connection, never()).incr(anyString());
+    }
+
+    @Test
+    void testGetToday_FromRedis() {
+        // pipeline结果依次为GET pv:day与PFCOUNT uv:day
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList("12", 5L));
+
+        DailyViewRollup today = counter.getToday();
+
+        assertThat(today.getViewCount()).isEqualTo(12);
+        assertThat(today.getUniqueViewers()).isEqualTo(5);
+        verifyNoInteractions(dailyViewRollupRepository);
+    }
+
+    @Test
+    void testGetToday_RedisLostFallsBackToRollup() {
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(null, 0L));
+        DailyViewRollup rollup = new DailyViewRollup();
+        rollup.setViewCount(30L);
+        rollup.setUniqueViewers(20L);
+        when(dailyViewRollupRepository.findById(LocalDate.now(ZONE))).thenReturn(Optional.of(rollup));
+
+        DailyViewRollup today = counter.getToday();
+
+        assertThat(today.getViewCount()).isEqualTo(30);
+        assertThat(today.getUniqueViewers()).isEqualTo(20);
+    }
+
+    @Test
+    void testGetToday_RedisFailureReturnsNull() {
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(counter.getToday()).isNull();
+    }
+
+    @Test
+    void testGetUniqueViewers_OrderMatchesIds() {
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(3L, 0L));
+
+        List<Long> counts = counter.getUniqueViewers("guwen",
+                Arrays.asList("507f1f77bcf86cd799439011", "507f1f77bcf86cd799439012"));
+
+        assertThat(counts).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void testRollup_WritesOnlyDaysWithData() {
+        LocalDate today = LocalDate.now(ZONE);
+        // 先读前一日（无数据），再读当日
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(null, 0L))
+                .thenReturn(Arrays.asList("7", 3L));
+
+        counter.rollup();
+
+        verify(dailyViewRollupRepository).upsertMax(today, 7L, 3L);
+        verify(dailyViewRollupRepository, never()).upsertMax(eq(today.minusDays(1)), anyLong(), anyLong());
+    }
+
+    @Test
+    void testDisabled_SkipsRedis() {
+        ReflectionTestUtils.setField(counter, "enabled", false);
+
+        counter.recordView(1L, "507f1f77bcf86cd799439011", "guwen", true);
+
+        assertThat(counter.getToday()).isNull();
+        assertThat(counter.getUniqueViewers("guwen", Arrays.asList("507f1f77bcf86cd799439011"))).isNull();
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void testContentViewersKey() {
+        assertThat(UniqueViewerCounter.contentViewersKey("guwen", "507f1f77bcf86cd799439011"))
+                .isEqualTo("uv:content:guwen:507f1f77bcf86cd799439011");
+    }
+}
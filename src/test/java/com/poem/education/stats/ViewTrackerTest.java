@@ -0,0 +1,114 @@
+package com.poem.education.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ViewTracker测试类
+ *
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+@ExtendWith(MockitoExtension.class)
+class ViewTrackerTest {
+
+    private static final String GUWEN_ID = "507f1f77bcf86cd799439011";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ActionRollups actionRollups;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ViewTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ViewTracker();
+        ReflectionTestUtils.setField(tracker, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(tracker, "actionRollups", actionRollups);
+        ReflectionTestUtils.setField(tracker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tracker, "enabled", true);
+        ReflectionTestUtils.setField(tracker, "dedupWindowMs", 1800000L);
+        tracker.init();
+    }
+
+    private double views(String result) {
+        return meterRegistry.get("view_tracking.views").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testTrack_RepeatedViewInWindowNotCounted() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(ViewTracker.seenKey(1L, GUWEN_ID, "guwen")), eq("1"),
+                eq(Duration.ofMinutes(30)))).thenReturn(true, false);
+        when(actionRollups.isEnabled()).thenReturn(true);
+
+        assertThat(tracker.track(1L, GUWEN_ID, "guwen")).isTrue();
+        assertThat(tracker.track(1L, GUWEN_ID, "guwen")).isFalse();
+
+        assertThat(views("counted")).isEqualTo(1);
+        assertThat(views("deduplicated")).isEqualTo(1);
+    }
+
+    @Test
+    void testTrack_RedisDownCountsView() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(tracker.track(1L, GUWEN_ID, "guwen")).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_MergesViewsPerHourBucket() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(actionRollups.isEnabled()).thenReturn(true);
+        tracker.track(1L, GUWEN_ID, "guwen");
+        tracker.track(2L, GUWEN_ID, "guwen");
+
+        assertThat(tracker.flush()).isEqualTo(1);
+
+        ArgumentCaptor<Map<ActionRollups.RollupKey, Long>> counts = ArgumentCaptor.forClass(Map.class);
+        verify(actionRollups).add(counts.capture());
+        assertThat(counts.getValue().values()).containsExactly(2L);
+        assertThat(tracker.flush()).isZero();
+    }
+
+    @Test
+    void testFlush_FailureKeepsCountsForRetry() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(actionRollups.isEnabled()).thenReturn(true);
+        tracker.track(1L, GUWEN_ID, "guwen");
+        doThrow(new IllegalStateException("db down")).doNothing().when(actionRollups).add(anyMap());
+
+        assertThatThrownBy(() -> tracker.flush()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.flush()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.poem.education.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * AfterCommit测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-20
+ */
+class AfterCommitTest {
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void testRun_WithoutTransactionRunsImmediately() {
+        AtomicInteger runs = new AtomicInteger();
+        
+        AfterCommit.run(runs::incrementAndGet);
+        
+        assertThat(runs.get()).isEqualTo(1);
+    }
+    
+    @Test
+    void testRun_InTransactionWaitsForCommit() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        
+        AfterCommit.run(runs::incrementAndGet);
+        assertThat(runs.get()).isZero();
+        
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertThat(runs.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.poem.education.util;
+
+import com.poem.education.dto.request.CountMode;
+import com.poem.education.dto.response.PageResult;
+import com.poem.education.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MongoPageExecutor单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+@ExtendWith(MockitoExtension.class)
+class MongoPageExecutorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MongoPageExecutor mongoPageExecutor;
+
+    private final Query query = new Query(Criteria.where("dynasty").is("唐"));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mongoPageExecutor, "countCacheTtlMs", 60000L);
+        ReflectionTestUtils.setField(mongoPageExecutor, "countCacheMaxEntries", 100);
+    }
+
+    @Test
+    void testFind_NoneMode_SkipsCount() {
+        when(mongoTemplate.find(any(Query.class), eq(String.class))).thenReturn(Arrays.asList("a", "b", "c"));
+
+        PageResult<String> result = mongoPageExecutor.find(query, String.class, 1, 2, CountMode.NONE);
+
+        assertThat(result.getList()).containsExactly("a", "b");
+        assertThat(result.getHasNext()).isTrue();
+        assertThat(result.getTotal()).isNull();
+        verify(mongoTemplate, never()).count(any(Query.class), any(Class.class));
+    }
+
+    @Test
+    void testFind_ApproximateMode_CachesCount() {
+        when(mongoTemplate.getCollectionName(String.class)).thenReturn("strings");
+        when(mongoTemplate.find(any(Query.class), eq(String.class))).thenReturn(Arrays.asList("a", "b"));
+        when(mongoTemplate.count(any(Query.class), eq(String.class))).thenReturn(42L);
+
+        PageResult<String> first = mongoPageExecutor.find(query, String.class, 1, 2, CountMode.APPROXIMATE);
+        PageResult<String> second = mongoPageExecutor.find(query, String.class, 2, 2, CountMode.APPROXIMATE);
+
+        assertThat(first.getTotal()).isEqualTo(42L);
+        assertThat(first.isTotalApproximate()).isTrue();
+        assertThat(second.getTotal()).isEqualTo(42L);
+        assertThat(second.getHasNext()).isFalse();
+        verify(mongoTemplate, times(1)).count(any(Query.class), eq(String.class));
+    }
+
+    @Test
+    void testFind_ApproximateMode_TotalNotBelowKnownRows() {
+        when(mongoTemplate.getCollectionName(String.class)).thenReturn("strings");
+        when(mongoTemplate.find(any(Query.class), eq(String.class))).thenReturn(Arrays.asList("a", "b", "c"));
+        when(mongoTemplate.count(any(Query.class), eq(String.class))).thenReturn(3L);
+
+        PageResult<String> result = mongoPageExecutor.find(query, String.class, 3, 2, CountMode.APPROXIMATE);
+
+        // 第3页且还有下一页，至少存在7条数据
+        assertThat(result.getTotal()).isEqualTo(7L);
+        assertThat(result.getHasNext()).isTrue();
+    }
+
+    @Test
+    void testCountMode_Parse() {
+        assertThat(CountMode.of(null)).isEqualTo(CountMode.EXACT);
+        assertThat(CountMode.of("Approximate")).isEqualTo(CountMode.APPROXIMATE);
+        assertThatThrownBy(() -> CountMode.of("fast")).isInstanceOf(BusinessException.class);
+    }
+}
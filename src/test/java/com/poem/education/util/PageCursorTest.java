@@ -0,0 +1,43 @@
+package com.poem.education.util;
+
+import com.poem.education.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PageCursor单元测试
+ * 
+ * @author poem-education-team
+ * @since 2026-10-17
+ */
+class PageCursorTest {
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 8, 7, 11, 50, 0, 123_000_000);
+        PageCursor dateCursor = PageCursor.decode(PageCursor.encode("507f1f77bcf86cd799439011", createdAt));
+        assertThat(dateCursor.getId()).isEqualTo("507f1f77bcf86cd799439011");
+        assertThat(dateCursor.getSortValue()).isEqualTo(createdAt);
+
+        PageCursor stringCursor = PageCursor.decode(PageCursor.encode("507f1f77bcf86cd799439012", "静夜思|李白"));
+        assertThat(stringCursor.getSortValue()).isEqualTo("静夜思|李白");
+
+        PageCursor nullCursor = PageCursor.decode(PageCursor.encode("507f1f77bcf86cd799439013", null));
+        assertThat(nullCursor.getSortValue()).isNull();
+    }
+
+    @Test
+    void testDecode_EmptyMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("")).isNull();
+    }
+
+    @Test
+    void testDecode_InvalidCursor() {
+        assertThatThrownBy(() -> PageCursor.decode("not-a-cursor"))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.poem.education.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SingleFlight测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+class SingleFlightTest {
+    
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    
+    @Test
+    void testExecute_CoalescesConcurrentLoads() throws Exception {
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("g1", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "静夜思";
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("g1", () -> {
+                    loads.incrementAndGet();
+                    return "重复加载";
+                })));
+            }
+            // 等待其余线程进入等待状态后再放行第一次加载
+            Thread.sleep(100);
+            release.countDown();
+            
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("静夜思");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(singleFlight.inFlightCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testExecute_PropagatesFailureAndAllowsRetry() {
+        assertThatThrownBy(() -> singleFlight.execute("g1", () -> {
+            throw new IllegalStateException("查询失败");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(singleFlight.execute("g1", () -> "静夜思")).isEqualTo("静夜思");
+    }
+    
+    @Test
+    void testExecuteAsync_SkipsWhenInFlight() {
+        List<Runnable> queued = new ArrayList<>();
+        
+        assertThat(singleFlight.executeAsync("g1", () -> "a", queued::add)).isTrue();
+        assertThat(singleFlight.executeAsync("g1", () -> "b", queued::add)).isFalse();
+        
+        queued.get(0).run();
+        assertThat(singleFlight.inFlightCount()).isZero();
+        assertThat(singleFlight.executeAsync("g1", () -> "c", queued::add)).isTrue();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
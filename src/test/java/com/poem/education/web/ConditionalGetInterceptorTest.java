@@ -0,0 +1,156 @@
+package com.poem.education.web;
+
+import com.poem.education.cache.CorpusVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConditionalGetInterceptor测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetInterceptorTest {
+    
+    @Mock
+    private CorpusVersionService corpusVersionService;
+    
+    @Mock
+    private Environment environment;
+    
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+    
+    private ConditionalGetInterceptor interceptor;
+    
+    private HandlerMethod detailHandler;
+    
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        interceptor = new ConditionalGetInterceptor(corpusVersionService, environment, "1", responseBodyCache);
+        detailHandler = new HandlerMethod(new SampleController(), SampleController.class.getMethod("detail"));
+    }
+    
+    @Test
+    void testPreHandle_NotModified() throws Exception {
+        when(corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN)).thenReturn(7L);
+        when(environment.getProperty(eq("http-cache.policies.corpus-detail"), anyString())).thenReturn("max-age=300");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/guwen/1");
+        request.addHeader("If-None-Match", "\"guwen-6-1\", W/\"guwen-7-1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        boolean proceed = interceptor.preHandle(request, response, detailHandler);
+        
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"guwen-7-1\"");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=300");
+    }
+    
+    @Test
+    void testPreHandle_ChangedCorpusProceeds() throws Exception {
+        when(corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN)).thenReturn(8L);
+        when(environment.getProperty(eq("http-cache.policies.corpus-detail"), anyString())).thenReturn("max-age=300");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/guwen/1");
+        request.addHeader("If-None-Match", "\"guwen-7-1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        boolean proceed = interceptor.preHandle(request, response, detailHandler);
+        
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(request.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE)).isEqualTo("\"guwen-8-1\"");
+        assertThat(request.getAttribute(ConditionalGetInterceptor.BODY_CACHE_KEY_ATTRIBUTE)).isNull();
+    }
+    
+    @Test
+    void testPreHandle_BodyCacheHitWritesGzipBytes() throws Exception {
+        HandlerMethod cachedHandler = new HandlerMethod(new SampleController(), SampleController.class.getMethod("cached"));
+        byte[] json = "{\"code\":200}".getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = ResponseBodyCache.gzip(json);
+        when(corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN)).thenReturn(8L);
+        when(environment.getProperty(eq("http-cache.policies.corpus-detail"), anyString())).thenReturn("max-age=300");
+        when(responseBodyCache.isEnabled()).thenReturn(true);
+        when(responseBodyCache.get("\"guwen-8-1\"/api/v1/guwen/1")).thenReturn(new ResponseBodyCache.CachedBody(json, gzip));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/guwen/1");
+        request.addHeader("Accept-Encoding", "br;q=1.0, gzip;q=0.8");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        boolean proceed = interceptor.preHandle(request, response, cachedHandler);
+        
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"guwen-8-1\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(gzip);
+    }
+    
+    @Test
+    void testPreHandle_BodyCacheMissRecordsKey() throws Exception {
+        HandlerMethod cachedHandler = new HandlerMethod(new SampleController(), SampleController.class.getMethod("cached"));
+        when(corpusVersionService.getVersion(CorpusVersionService.CORPUS_GUWEN)).thenReturn(8L);
+        when(environment.getProperty(eq("http-cache.policies.corpus-detail"), anyString())).thenReturn("max-age=300");
+        when(responseBodyCache.isEnabled()).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/guwen/1");
+        request.setQueryString("lang=zh");
+        
+        boolean proceed = interceptor.preHandle(request, new MockHttpServletResponse(), cachedHandler);
+        
+        assertThat(proceed).isTrue();
+        assertThat(request.getAttribute(ConditionalGetInterceptor.BODY_CACHE_KEY_ATTRIBUTE))
+                .isEqualTo("\"guwen-8-1\"/api/v1/guwen/1?lang=zh");
+    }
+    
+    @Test
+    void testAcceptsGzip() {
+        assertThat(ConditionalGetInterceptor.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ConditionalGetInterceptor.acceptsGzip("*")).isTrue();
+        assertThat(ConditionalGetInterceptor.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ConditionalGetInterceptor.acceptsGzip("identity")).isFalse();
+        assertThat(ConditionalGetInterceptor.acceptsGzip(null)).isFalse();
+    }
+    
+    @Test
+    void testPreHandle_IgnoresUnannotatedAndNonGet() throws Exception {
+        HandlerMethod plainHandler = new HandlerMethod(new SampleController(), SampleController.class.getMethod("plain"));
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/v1/guwen/1");
+        post.addHeader("If-None-Match", "*");
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/guwen/random");
+        get.addHeader("If-None-Match", "*");
+        
+        assertThat(interceptor.preHandle(post, new MockHttpServletResponse(), detailHandler)).isTrue();
+        assertThat(interceptor.preHandle(get, new MockHttpServletResponse(), plainHandler)).isTrue();
+        verifyNoInteractions(corpusVersionService);
+    }
+    
+    static class SampleController {
+        
+        @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-detail")
+        public String detail() {
+            return "detail";
+        }
+        
+        @ConditionalGet(corpus = CorpusVersionService.CORPUS_GUWEN, policy = "corpus-detail", cacheBody = true)
+        public String cached() {
+            return "cached";
+        }
+        
+        public String plain() {
+            return "plain";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.poem.education.web;
+
+import com.poem.education.dto.response.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ResponseBodyCache测试类
+ * 
+ * @author poem-education-team
+ * @since 2026-10-18
+ */
+class ResponseBodyCacheTest {
+    
+    private ResponseBodyCache responseBodyCache;
+    
+    @BeforeEach
+    void setUp() {
+        responseBodyCache = new ResponseBodyCache();
+        ReflectionTestUtils.setField(responseBodyCache, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(responseBodyCache, "maxBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(responseBodyCache, "expireAfterAccessMs", 60000L);
+        ReflectionTestUtils.setField(responseBodyCache, "gzipMinBytes", 256);
+        responseBodyCache.init();
+    }
+    
+    @Test
+    void testPut_SmallBodyHasNoGzip() {
+        responseBodyCache.put("k1", Result.success("静夜思"));
+        
+        ResponseBodyCache.CachedBody cached = responseBodyCache.get("k1");
+        
+        assertThat(cached).isNotNull();
+        assertThat(new String(cached.getJson(), StandardCharsets.UTF_8)).contains("静夜思");
+        assertThat(cached.getGzip()).isNull();
+    }
+    
+    @Test
+    void testPut_LargeBodyIsPreCompressed() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("床前明月光，疑是地上霜。");
+        }
+        responseBodyCache.put("k2", Result.success(content.toString()));
+        
+        ResponseBodyCache.CachedBody cached = responseBodyCache.get("k2");
+        
+        assertThat(cached.getGzip()).isNotNull();
+        assertThat(cached.getGzip().length).isLessThan(cached.getJson().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(cached.getGzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(cached.getJson());
+        }
+    }
+    
+    @Test
+    void testGet_Miss() {
+        assertThat(responseBodyCache.get("missing")).isNull();
+    }
+}